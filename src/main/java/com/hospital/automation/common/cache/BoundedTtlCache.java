@@ -0,0 +1,105 @@
+package com.hospital.automation.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Küçük, thread-safe LRU + TTL cache.
+ * - maxSize dolunca en az kullanılan kayıt atılır
+ * - her kaydın kendi son geçerlilik anı vardır (expiresAtMillis)
+ * maxSize <= 0 ise cache kapalıdır: put hiçbir şey saklamaz, get hep null döner.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    public BoundedTtlCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        // accessOrder=true => LRU sırası
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedTtlCache.this.maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public synchronized V get(K key) {
+        if (!isEnabled()) return null;
+
+        Entry<V> e = map.get(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (e.expiresAtMillis() <= clock.getAsLong()) {
+            map.remove(key);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return e.value();
+    }
+
+    public void put(K key, V value) {
+        put(key, value, clock.getAsLong() + ttlMillis);
+    }
+
+    /**
+     * expiresAtMillis varsayılan TTL'den daha erkense onu kullanır
+     * (ör. JWT exp anı cache TTL'inden önce geliyorsa).
+     */
+    public synchronized void put(K key, V value, long expiresAtMillis) {
+        if (!isEnabled()) return;
+
+        long cap = clock.getAsLong() + ttlMillis;
+        map.put(key, new Entry<>(value, Math.min(cap, expiresAtMillis)));
+    }
+
+    public synchronized void invalidate(K key) {
+        map.remove(key);
+    }
+
+    // anahtarı koşula uyan tüm kayıtları atar (O(n); toplu geçersiz kılma için)
+    public synchronized void invalidateIf(Predicate<? super K> test) {
+        map.keySet().removeIf(test);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {}
+}
@@ -2,9 +2,11 @@ package com.hospital.automation.common.exception;
 
 import com.hospital.automation.common.dto.ErrorResponse;
 import com.hospital.automation.common.dto.ValidationErrorResponse;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -37,6 +39,23 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.CONFLICT, ex.getMessage(), req);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest req) {
+        return buildError(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), req);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex, HttpServletRequest req) {
+        return buildError(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), req);
+    }
+
+    // @Version çakışması: kayıt okunduktan sonra başka bir istek tarafından değiştirildi
+    @ExceptionHandler({OptimisticLockException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(RuntimeException ex, HttpServletRequest req) {
+        log.debug("Optimistic lock conflict on {}", req.getRequestURI(), ex);
+        return buildError(HttpStatus.CONFLICT, "Resource was modified concurrently; reload and retry", req);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
         Map<String, String> errors = new LinkedHashMap<>();
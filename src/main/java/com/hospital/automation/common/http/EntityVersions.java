@@ -0,0 +1,44 @@
+package com.hospital.automation.common.http;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.PreconditionFailedException;
+
+import java.util.Objects;
+
+/**
+ * @Version alanı <-> HTTP ETag / If-Match dönüşümü.
+ *
+ * ETag = "<version>" (URL kaynağı zaten belirler). If-Match yoksa ya da "*" ise kontrol yapılmaz;
+ * eşzamanlı yazımlar yine de JPA optimistic lock ile 409 alır.
+ */
+public final class EntityVersions {
+
+    private EntityVersions() {}
+
+    public static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // "3", W/"3" ya da 3 kabul edilir; null => koşulsuz
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) return null;
+
+        String v = ifMatch.trim();
+        if (v.equals("*")) return null;
+        if (v.startsWith("W/")) v = v.substring(2);
+        if (v.length() >= 2 && v.startsWith("\"") && v.endsWith("\"")) v = v.substring(1, v.length() - 1);
+
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    public static void check(Long expected, Long actual, String entityName) {
+        if (expected != null && !Objects.equals(expected, actual)) {
+            throw new PreconditionFailedException(
+                    entityName + " was modified (current version " + actual + ", If-Match " + expected + ")");
+        }
+    }
+}
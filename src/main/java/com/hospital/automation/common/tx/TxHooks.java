@@ -0,0 +1,48 @@
+package com.hospital.automation.common.tx;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Bellek içi index / cache / yayın güncellemelerini çağıranın transaction'ının sonucuna bağlar.
+ * Transaction yoksa (ya da senkronizasyon kapalıysa) aksiyon hemen çalışır.
+ */
+public final class TxHooks {
+
+    private TxHooks() {
+    }
+
+    /**
+     * Commit sonrası çalıştırır; rollback olursa hiç çalışmaz.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Transaction bitince (commit ya da rollback) sonucu (committed) ile çalıştırır.
+     */
+    public static void onCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+}
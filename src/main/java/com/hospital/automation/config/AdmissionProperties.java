@@ -0,0 +1,20 @@
+package com.hospital.automation.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.admissions")
+public class AdmissionProperties {
+
+    // oda doluluk sayaçlarını DB ile karşılaştıran iş (başka node / uygulama dışı yazımların sapmasını düzeltir)
+    private boolean occupancyReconcileEnabled = true;
+
+    // sayım (census) ısı haritası: istek başına en fazla saat sütunu
+    private int censusHeatmapMaxHours = 24 * 31;
+
+    // otomatik yatak ataması: istek başına en fazla yatış
+    private int bedAssignmentMaxBatch = 500;
+}
@@ -0,0 +1,9 @@
+package com.hospital.automation.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AppointmentProperties.class)
+public class AppointmentConfig {
+}
@@ -0,0 +1,63 @@
+package com.hospital.automation.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.appointments")
+public class AppointmentProperties {
+
+    // false => çakışma kontrolü her seferinde DB sorgusu (eski davranış)
+    private boolean overlapIndexEnabled = true;
+
+    // doktor başına booking kilidi: stripe sayısı (2'nin kuvveti) ve bekleme süresi
+    private int lockStripes = 256;
+    private long lockTimeoutMillis = 5000;
+
+    // PostgreSQL: SCHEDULED randevular için doktor başına EXCLUDE constraint (çok node'lu kurulumda son savunma)
+    private boolean exclusionConstraint = true;
+
+    // müsaitlik araması: boş aralıklar bu çalışma saatlerine kırpılır (start == end => 24 saat)
+    private LocalTime workdayStart = LocalTime.of(8, 0);
+    private LocalTime workdayEnd = LocalTime.of(18, 0);
+
+    // toplu oluşturma / CSV import: transaction başına satır, JSON isteğinde en fazla satır, raporlanan hata sayısı
+    private int bulkChunkSize = 500;
+    private int bulkMaxRows = 10000;
+    private int bulkMaxReportedErrors = 1000;
+
+    // tekrarlayan seri: en fazla tekrar sayısı
+    private int seriesMaxOccurrences = 366;
+
+    // süresi geçmiş SCHEDULED randevuları kapatan iş (COMPLETED / NO_SHOW): end_time + grace geçtiyse, batch başına satır
+    private boolean sweeperEnabled = true;
+    private String sweeperCron = "0 */10 * * * *"; // AppointmentSweeper @Scheduled ile okur
+    private int sweeperGraceMinutes = 60;
+    private int sweeperBatchSize = 500;
+
+    // bekleme listesi: iptal sonrası doldurma ayrı worker thread'de (false => commit eden thread'de, ayrı transaction)
+    private boolean waitlistAsync = true;
+
+    // doktor ajandası cache'i: (doktor, gün) kaydı sayısı ve TTL (başka node'daki yazımlar en geç TTL sonra görünür)
+    private int scheduleCacheMaxDays = 20000;
+    private long scheduleCacheTtlSeconds = 600;
+
+    // ICS feed'leri: şimdiden bu kadar gün öncesinden itibaren; version damgası en geç bu süre sonra yenilenir
+    // (başka node'daki yazımlar bu node'un sayacını artırmaz)
+    private int calendarFeedPastDays = 90;
+    private long calendarFeedMaxStaleSeconds = 300;
+    // var olduğu doğrulanmış feed sahipleri (doktor / hasta) cache'i: koşullu GET sahibi DB'ye sormadan 404'ü eler
+    private int calendarFeedKnownOwners = 50000;
+
+    // canlı değişiklik akışı (SSE): abone başına kuyruk (dolunca abone atılır), heartbeat ve bağlantı süresi
+    private int streamBufferSize = 256;
+    private long streamHeartbeatSeconds = 20;
+    private long streamTimeoutMinutes = 30;
+    // açık bağlantı sınırı (node başına toplam / kullanıcı başına); aşan abonelik 429 alır
+    private int streamMaxSubscribers = 500;
+    private int streamMaxSubscribersPerUser = 5;
+}
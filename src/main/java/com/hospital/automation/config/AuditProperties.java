@@ -0,0 +1,49 @@
+package com.hospital.automation.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    // false => eski davranış: her log çağıranın transaction'ı içinde tek INSERT
+    private boolean async = true;
+
+    // ring buffer kapasitesi; doluysa çağıran offerTimeoutMillis kadar bekler, sonra diske yazar
+    private int queueCapacity = 10000;
+    private long offerTimeoutMillis = 50;
+
+    // group commit eşikleri: batchSize dolunca veya ilk event'ten flushIntervalMillis sonra yazılır
+    private int batchSize = 200;
+    private long flushIntervalMillis = 200;
+
+    // DB'ye yazılamayan / kuyruğa sığmayan event'ler buraya NDJSON olarak düşer, sonra tekrar denenir
+    private String spillDir = "./data/audit-spill";
+    private long spillReplayIntervalMillis = 30000;
+
+    // PostgreSQL: lower(username) / lower(details) üzerine pg_trgm GIN index (q= araması için)
+    private boolean trigramIndex = true;
+
+    private Partitioning partitioning = new Partitioning();
+
+    @Getter
+    @Setter
+    public static class Partitioning {
+        // sadece PostgreSQL'de etkili; diğer DB'lerde (H2) yok sayılır
+        private boolean enabled = true;
+
+        // şimdiki aydan sonra önceden açılacak aylık partition sayısı
+        private int premakeMonths = 2;
+
+        // bu kadar aydan eski partition'lar detach edilip arşive (gzip NDJSON) taşınır; 0 => retention kapalı
+        private int retentionMonths = 12;
+
+        private String archiveDir = "./data/audit-archive";
+
+        // bakım işi (partition aç + retention); AuditPartitionManager @Scheduled ile okur
+        private String cron = "0 15 2 * * *";
+    }
+}
@@ -0,0 +1,10 @@
+package com.hospital.automation.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled bakım işleri (audit partition/retention vb.)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
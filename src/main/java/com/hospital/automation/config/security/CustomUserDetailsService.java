@@ -3,7 +3,6 @@ package com.hospital.automation.config.security;
 import com.hospital.automation.domain.entity.User;
 import com.hospital.automation.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -20,7 +19,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     @Transactional(readOnly = true)
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public UserPrincipal loadUserByUsername(String username) throws UsernameNotFoundException {
 
         // roles LAZY bile olsa, burada transaction varken okuyup Set'e kopyalıyoruz
         User user = userRepository.findByUsername(username)
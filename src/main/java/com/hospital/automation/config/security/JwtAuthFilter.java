@@ -5,6 +5,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,7 +21,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
-
+    private final JwtProperties props;
+    private final PrincipalCache principalCache;
+    private final ObjectProvider<TokenRevocationChecker> revocationChecker;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -48,19 +51,42 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (token != null && tokenProvider.validate(token)
-                && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            String username = tokenProvider.getUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // tek parse: imza + exp kontrolü ve claim'ler birlikte gelir
+            JwtClaims claims = tokenProvider.verify(token).orElse(null);
+            UserDetails userDetails = (claims != null) ? resolvePrincipal(token, claims) : null;
 
-            UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken auth =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(auth);
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolvePrincipal(String token, JwtClaims claims) {
+        UserPrincipal principal = (props.isStateless() && claims.hasUserId()) ? claims.toPrincipal() : null;
+
+        // stateless kapalıysa veya token'da uid yoksa: DB (cache üzerinden)
+        if (principal == null) {
+            String username = claims.username();
+            principal = principalCache.get(username);
+            if (principal == null) {
+                principal = userDetailsService.loadUserByUsername(username);
+                principalCache.put(principal);
+            }
+        }
+
+        TokenRevocationChecker checker = revocationChecker.getIfAvailable();
+        if (checker != null && checker.isRevoked(token, principal)) {
+            principalCache.evict(principal.getUsername());
+            return null;
+        }
+        return principal;
+    }
 }
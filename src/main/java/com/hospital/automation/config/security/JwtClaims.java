@@ -0,0 +1,27 @@
+package com.hospital.automation.config.security;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * İmzası doğrulanmış token'ın tipli hali (JwtTokenProvider.verify çıktısı).
+ * userId, uid claim'i olmayan eski token'larda null'dır.
+ */
+public record JwtClaims(
+        Long userId,
+        String username,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public boolean hasUserId() {
+        return userId != null;
+    }
+
+    // password hash token'da yok; stateless principal sadece yetkilendirme için kullanılır
+    public UserPrincipal toPrincipal() {
+        return new UserPrincipal(userId, username, null, new HashSet<>(roles));
+    }
+}
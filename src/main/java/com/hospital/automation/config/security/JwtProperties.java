@@ -10,4 +10,15 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class JwtProperties {
     private String secret;
     private long expirationMinutes;
+
+    // true: principal token claim'lerinden (uid, sub, roles) kurulur, istek başına DB'ye gidilmez
+    private boolean stateless = true;
+
+    // DB'den yüklenen principal'lar için (stateless=false veya uid claim'i olmayan eski token'lar)
+    private int principalCacheSize = 1000; // 0 => kapalı
+    private long principalCacheTtlSeconds = 60;
+
+    // doğrulanmış claim'ler (token SHA-256 özeti -> JwtClaims); kayıt token'ın exp anını asla aşmaz
+    private int claimsCacheSize = 10000; // 0 => kapalı
+    private long claimsCacheTtlSeconds = 300;
 }
@@ -1,21 +1,34 @@
 package com.hospital.automation.config.security;
 
+import com.hospital.automation.common.cache.BoundedTtlCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+
     private final JwtProperties props;
     private final SecretKey key;
+    private final JwtParser parser;
+    private final BoundedTtlCache<String, JwtClaims> claimsCache;
 
     public JwtTokenProvider(JwtProperties props) {
         this.props = props;
@@ -25,48 +38,111 @@ public class JwtTokenProvider {
             throw new IllegalStateException("JWT secret must be at least 32 characters.");
         }
         this.key = Keys.hmacShaKeyFor(bytes);
+
+        // JwtParser immutable + thread-safe: her çağrıda yeniden kurmaya gerek yok
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.claimsCache = new BoundedTtlCache<>(
+                props.getClaimsCacheSize(),
+                props.getClaimsCacheTtlSeconds() * 1000
+        );
     }
 
     public String generateToken(String username, List<String> roles) {
+        return generateToken(null, username, roles);
+    }
+
+    // uid claim'i olan token'larla JwtAuthFilter her istekte DB'ye gitmeden principal kurabilir
+    public String generateToken(Long userId, String username, List<String> roles) {
         Instant now = Instant.now();
         Instant exp = now.plusSeconds(props.getExpirationMinutes() * 60);
 
         return Jwts.builder()
                 .subject(username)
-                .claim("roles", roles)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLES, roles)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(exp))
                 .signWith(key)
                 .compact();
     }
 
-    public boolean validate(String token) {
+    /**
+     * Token'ı TEK seferde parse + imza doğrulaması yapıp tipli claim'leri döner.
+     * Aynı token tekrar gelirse (digest cache'i) imza kontrolü atlanır; cache kaydı token'ın exp anından
+     * sonra asla kullanılmaz. Geçersiz/expired token => Optional.empty().
+     */
+    public Optional<JwtClaims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String digest = digest(token);
+        JwtClaims cached = claimsCache.get(digest);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        JwtClaims claims;
         try {
-            parseClaims(token);
-            return true;
+            claims = toJwtClaims(parser.parseSignedClaims(token).getPayload());
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
+        }
+
+        if (claims.expiresAt() != null) {
+            claimsCache.put(digest, claims, claims.expiresAt().toEpochMilli());
         }
+        return Optional.of(claims);
+    }
+
+    public boolean validate(String token) {
+        return verify(token).isPresent();
     }
 
     public String getUsername(String token) {
-        return parseClaims(token).getSubject();
+        return verifyOrThrow(token).username();
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> getRoles(String token) {
-        Object roles = parseClaims(token).get("roles");
-        if (roles instanceof List<?> list) {
-            return (List<String>) list;
+        return verifyOrThrow(token).roles();
+    }
+
+    public CacheStats getClaimsCacheStats() {
+        return new CacheStats(claimsCache.hits(), claimsCache.misses(), claimsCache.size());
+    }
+
+    public record CacheStats(long hits, long misses, int size) {}
+
+    private JwtClaims verifyOrThrow(String token) {
+        return verify(token).orElseThrow(() -> new JwtException("Invalid JWT token"));
+    }
+
+    private JwtClaims toJwtClaims(Claims claims) {
+        Long userId = (claims.get(CLAIM_USER_ID) instanceof Number n) ? n.longValue() : null;
+
+        List<String> roles = new ArrayList<>();
+        if (claims.get(CLAIM_ROLES) instanceof List<?> list) {
+            for (Object r : list) {
+                if (r != null) roles.add(r.toString());
+            }
         }
-        return List.of();
+
+        return new JwtClaims(
+                userId,
+                claims.getSubject(),
+                List.copyOf(roles),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // cache anahtarı token'ın kendisi değil SHA-256 özeti (bellekte ham token tutmamak için)
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
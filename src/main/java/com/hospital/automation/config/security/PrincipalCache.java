@@ -0,0 +1,37 @@
+package com.hospital.automation.config.security;
+
+import com.hospital.automation.common.cache.BoundedTtlCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * DB'den yüklenen UserPrincipal'lar için sınırlı (LRU + TTL) cache.
+ * Rol değişikliği / kullanıcı silme gibi durumlarda evict(username) çağrılmalı.
+ */
+@Component
+public class PrincipalCache {
+
+    private final BoundedTtlCache<String, UserPrincipal> cache;
+
+    public PrincipalCache(JwtProperties props) {
+        this.cache = new BoundedTtlCache<>(
+                props.getPrincipalCacheSize(),
+                props.getPrincipalCacheTtlSeconds() * 1000
+        );
+    }
+
+    public UserPrincipal get(String username) {
+        return cache.get(username);
+    }
+
+    public void put(UserPrincipal principal) {
+        cache.put(principal.getUsername(), principal);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
@@ -1,5 +1,6 @@
 package com.hospital.automation.config.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -37,6 +38,9 @@ public class SecurityConfig {
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
 
+                        // SSE / async: istek ilk dispatch'te yetkilendirildi; tamamlanma dispatch'i tekrar kontrol edilmez
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public
                         .requestMatchers("/health", "/error").permitAll()
 
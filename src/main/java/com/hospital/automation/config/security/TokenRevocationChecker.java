@@ -0,0 +1,12 @@
+package com.hospital.automation.config.security;
+
+/**
+ * Stateless modda token imzası geçerli olsa bile iptal edilmiş olabilir
+ * (logout, şifre değişikliği, kullanıcı pasif vb.).
+ * Böyle bir kontrol gerekiyorsa bu interface'i implemente eden bir bean tanımlamak yeterli;
+ * bean yoksa JwtAuthFilter revocation kontrolü yapmaz.
+ */
+@FunctionalInterface
+public interface TokenRevocationChecker {
+    boolean isRevoked(String token, UserPrincipal principal);
+}
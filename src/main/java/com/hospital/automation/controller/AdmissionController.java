@@ -1,12 +1,19 @@
 package com.hospital.automation.controller;
 
+import com.hospital.automation.common.http.EntityVersions;
 import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
 import com.hospital.automation.domain.dto.request.AdmissionDischargeRequest;
+import com.hospital.automation.domain.dto.request.AdmissionTransferRequest;
+import com.hospital.automation.domain.dto.request.BedAssignmentRequest;
 import com.hospital.automation.domain.dto.response.AdmissionResponse;
+import com.hospital.automation.domain.dto.response.AdmissionTransferResponse;
+import com.hospital.automation.domain.dto.response.BedAssignmentResponse;
 import com.hospital.automation.service.AdmissionService;
+import com.hospital.automation.service.BedAssignmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +26,7 @@ import java.util.List;
 public class AdmissionController {
 
     private final AdmissionService admissionService;
+    private final BedAssignmentService bedAssignmentService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -26,19 +34,44 @@ public class AdmissionController {
         return admissionService.create(request);
     }
 
+    // Toplu yatış: odalar otomatik atanır (RoomType, kat tercihi, doktorun bölümü); yerleşemeyenler sebebiyle döner
+    @PostMapping("/assign-beds")
+    public BedAssignmentResponse assignBeds(@Valid @RequestBody BedAssignmentRequest request) {
+        return bedAssignmentService.assign(request);
+    }
+
     @GetMapping
     public List<AdmissionResponse> getAll() {
         return admissionService.getAll();
     }
 
     @GetMapping("/{id}")
-    public AdmissionResponse getById(@PathVariable Long id) {
-        return admissionService.getById(id);
+    public ResponseEntity<AdmissionResponse> getById(@PathVariable Long id) {
+        AdmissionResponse body = admissionService.getById(id);
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
     }
 
+    // If-Match verilirse okunan version ile eşleşmeli (yoksa 412)
     @PutMapping("/{id}/discharge")
-    public AdmissionResponse discharge(@PathVariable Long id, @Valid @RequestBody AdmissionDischargeRequest request) {
-        return admissionService.discharge(id, request);
+    public ResponseEntity<AdmissionResponse> discharge(@PathVariable Long id,
+                                                       @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                       @Valid @RequestBody AdmissionDischargeRequest request) {
+        AdmissionResponse body = admissionService.discharge(id, request, EntityVersions.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
+    }
+
+    // eski yatak bırakılır, yenisi alınır (tek transaction); If-Match discharge ile aynı kural
+    @PostMapping("/{id}/transfer")
+    public ResponseEntity<AdmissionResponse> transfer(@PathVariable Long id,
+                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                      @Valid @RequestBody AdmissionTransferRequest request) {
+        AdmissionResponse body = admissionService.transfer(id, request, EntityVersions.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
+    }
+
+    @GetMapping("/{id}/transfers")
+    public List<AdmissionTransferResponse> getTransfers(@PathVariable Long id) {
+        return admissionService.getTransfers(id);
     }
 
     @DeleteMapping("/{id}")
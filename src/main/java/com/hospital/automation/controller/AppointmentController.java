@@ -1,15 +1,31 @@
 package com.hospital.automation.controller;
 
+import com.hospital.automation.common.http.EntityVersions;
 import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.request.AppointmentFilter;
 import com.hospital.automation.domain.dto.request.AppointmentUpdateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse;
 import com.hospital.automation.domain.dto.response.AppointmentResponse;
+import com.hospital.automation.domain.dto.response.CursorPageResponse;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.service.AppointmentBulkService;
 import com.hospital.automation.service.AppointmentService;
+import com.hospital.automation.service.appointment.AppointmentChangeHub;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,6 +35,8 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentBulkService bulkService;
+    private final AppointmentChangeHub changeHub;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -26,19 +44,101 @@ public class AppointmentController {
         return appointmentService.create(request);
     }
 
+    // Toplu oluşturma: satır bazında sonuç (hatalı satırlar diğerlerini engellemez)
+    @PostMapping("/bulk")
+    public AppointmentBulkResponse bulkCreate(@RequestBody List<AppointmentCreateRequest> requests) {
+        return bulkService.bulkCreate(requests);
+    }
+
+    // CSV import (Content-Type: text/csv): gövde stream olarak okunur, dosya belleğe alınmaz
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public AppointmentBulkResponse importCsv(HttpServletRequest request) throws IOException {
+        return bulkService.importCsv(request.getInputStream());
+    }
+
+    // Canlı değişiklikler (SSE): /api/appointments/stream?departmentId=&doctorId= (boş => hepsi)
+    // event adları: CREATED | UPDATED | CANCELLED | DELETED, evicted gelirse liste yeniden çekilmeli
+    // bağlantı sınırı aşılırsa 429 (toplam / kullanıcı başına)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long departmentId,
+                             @RequestParam(required = false) Long doctorId,
+                             Authentication authentication) {
+        return changeHub.subscribe(authentication.getName(), departmentId, doctorId);
+    }
+
+    // Hepsini getir (tek sorgu, sınırsız): mevcut istemciler için liste olarak kalır; büyük veri için /search
     @GetMapping
     public List<AppointmentResponse> getAll() {
         return appointmentService.getAll();
     }
 
+    // Filtre + sayfalama + sıralama: /search?doctorId=&patientId=&departmentId=&status=&from=&to=&page=0&size=20&sort=startTime,asc
+    @GetMapping("/search")
+    public Page<AppointmentResponse> search(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String status,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "startTime,asc") String sort
+    ) {
+        AppointmentFilter filter = new AppointmentFilter(
+                doctorId, patientId, departmentId, AppointmentStatus.parse(status), from, to);
+        return appointmentService.search(filter, page, size, sort);
+    }
+
+    // Keyset: /api/appointments/search?paging=keyset&size=100  ->  sonraki sayfa için &cursor=<nextCursor>
+    @GetMapping(value = "/search", params = "paging=keyset")
+    public CursorPageResponse<AppointmentResponse> searchKeyset(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String status,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+
+            // asc | desc  (startTime, id)
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        AppointmentFilter filter = new AppointmentFilter(
+                doctorId, patientId, departmentId, AppointmentStatus.parse(status), from, to);
+        boolean desc = "desc".equalsIgnoreCase(direction);
+        return appointmentService.searchKeyset(filter, cursor, size, desc, includeTotal);
+    }
+
     @GetMapping("/{id}")
-    public AppointmentResponse getById(@PathVariable Long id) {
-        return appointmentService.getById(id);
+    public ResponseEntity<AppointmentResponse> getById(@PathVariable Long id) {
+        AppointmentResponse body = appointmentService.getById(id);
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
     }
 
+    // If-Match verilirse okunan version ile eşleşmeli (yoksa 412)
     @PutMapping("/{id}")
-    public AppointmentResponse update(@PathVariable Long id, @Valid @RequestBody AppointmentUpdateRequest request) {
-        return appointmentService.update(id, request);
+    public ResponseEntity<AppointmentResponse> update(@PathVariable Long id,
+                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                      @Valid @RequestBody AppointmentUpdateRequest request) {
+        AppointmentResponse body = appointmentService.update(id, request, EntityVersions.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,53 @@
+package com.hospital.automation.controller;
+
+import com.hospital.automation.domain.dto.request.AppointmentSeriesCreateRequest;
+import com.hospital.automation.domain.dto.request.AppointmentSeriesUpdateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentSeriesResponse;
+import com.hospital.automation.service.AppointmentSeriesService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/appointment-series")
+@PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST')")
+public class AppointmentSeriesController {
+
+    private final AppointmentSeriesService seriesService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public AppointmentSeriesResponse create(@Valid @RequestBody AppointmentSeriesCreateRequest request) {
+        return seriesService.create(request);
+    }
+
+    @GetMapping("/{id}")
+    public AppointmentSeriesResponse getById(@PathVariable Long id) {
+        return seriesService.getById(id);
+    }
+
+    // from'dan (varsayılan: şimdi) sonraki SCHEDULED tekrarları toplu düzenle
+    @PutMapping("/{id}/future")
+    public AppointmentSeriesResponse updateFuture(@PathVariable Long id,
+                                                  @Valid @RequestBody AppointmentSeriesUpdateRequest request) {
+        return seriesService.updateFuture(id, request);
+    }
+
+    // from'dan (varsayılan: şimdi) sonraki SCHEDULED tekrarları iptal et
+    @PostMapping("/{id}/cancel")
+    public AppointmentSeriesResponse cancelFuture(
+            @PathVariable Long id,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from
+    ) {
+        return seriesService.cancelFuture(id, from);
+    }
+}
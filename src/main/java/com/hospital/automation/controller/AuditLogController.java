@@ -1,16 +1,26 @@
 package com.hospital.automation.controller;
 
+import com.hospital.automation.domain.dto.request.AuditLogFilter;
+import com.hospital.automation.domain.dto.response.AuditActivityStatsResponse;
 import com.hospital.automation.domain.dto.response.AuditLogResponse;
-import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.domain.dto.response.CursorPageResponse;
+import com.hospital.automation.domain.enums.ExportFormat;
+import com.hospital.automation.domain.enums.StatsGranularity;
+import com.hospital.automation.domain.enums.StatsGroupBy;
 import com.hospital.automation.service.AuditLogService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,10 +30,56 @@ public class AuditLogController {
 
     private final AuditLogService auditLogService;
 
-    // Eski: hepsini getir (istersen tut)
+    // Eski: hepsini getir. Artık tabloyu belleğe almadan JSON array olarak stream eder (çıktı şekli aynı)
     @GetMapping("/all")
-    public List<AuditLog> getAll() {
-        return auditLogService.getAll();
+    public void getAll(HttpServletResponse response) throws IOException {
+        writeExport(new AuditLogFilter(null, null, null, null, null, null), ExportFormat.JSON, false, response);
+    }
+
+    // Stream export: /api/audit-logs/export?format=ndjson|csv|json&gzip=true + search ile aynı filtreler
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityName,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @RequestParam(required = false) String q,
+
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response
+    ) throws IOException {
+        AuditLogFilter filter = new AuditLogFilter(username, action, entityName, from, to, q);
+        writeExport(filter, ExportFormat.parse(format), gzip, response);
+    }
+
+    // Aktivite istatistikleri: /api/audit-logs/stats?from=..&to=..&granularity=hour|day&groupBy=none|action|entity|user
+    @GetMapping("/stats")
+    public AuditActivityStatsResponse stats(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(defaultValue = "none") String groupBy,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityName,
+            @RequestParam(required = false) String username
+    ) {
+        return auditLogService.stats(from, to, StatsGranularity.parse(granularity), StatsGroupBy.parse(groupBy),
+                action, entityName, username);
     }
 
     // Yeni: filtre + sayfalama + sıralama
@@ -41,12 +97,66 @@ public class AuditLogController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             LocalDateTime to,
 
+            // username + details içinde geçen metin (Postgres'te trigram index)
+            @RequestParam(required = false) String q,
+
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
 
             // ör: createdAt,desc
             @RequestParam(defaultValue = "createdAt,desc") String sort
     ) {
-        return auditLogService.search(username, action, entityName, from, to, page, size, sort);
+        return auditLogService.search(username, action, entityName, from, to, q, page, size, sort);
+    }
+
+    // Keyset: /api/audit-logs?paging=keyset&size=100  ->  sonraki sayfa için &cursor=<nextCursor>
+    @GetMapping(params = "paging=keyset")
+    public CursorPageResponse<AuditLogResponse> searchKeyset(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityName,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @RequestParam(required = false) String q,
+
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+
+            // asc | desc  (createdAt, id)
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        AuditLogFilter filter = new AuditLogFilter(username, action, entityName, from, to, q);
+        boolean desc = !"asc".equalsIgnoreCase(direction);
+        return auditLogService.searchKeyset(filter, cursor, size, desc, includeTotal);
+    }
+
+    private void writeExport(AuditLogFilter filter, ExportFormat format, boolean gzip,
+                             HttpServletResponse response) throws IOException {
+        String fileName = "audit-logs." + format.extension() + (gzip ? ".gz" : "");
+
+        response.setContentType(format.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream gz = new GZIPOutputStream(out, 8192)) {
+                auditLogService.export(filter, format, gz);
+            }
+        } else {
+            auditLogService.export(filter, format, out);
+            out.flush();
+        }
     }
 }
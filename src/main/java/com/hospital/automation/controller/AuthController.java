@@ -1,5 +1,6 @@
 package com.hospital.automation.controller;
 
+import com.hospital.automation.config.security.JwtTokenProvider;
 import com.hospital.automation.config.security.UserPrincipal;
 import com.hospital.automation.domain.dto.request.LoginRequest;
 import com.hospital.automation.domain.dto.request.RegisterRequest;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 public class AuthController {
 
     private final AuthService authService;
+    private final JwtTokenProvider tokenProvider;
 
     @PostMapping("/register")
     public AuthResponse register(@Valid @RequestBody RegisterRequest request) {
@@ -51,4 +53,11 @@ public class AuthController {
                 roles
         );
     }
+
+    // Doğrulanmış token cache'i: hit/miss sayaçları
+    @GetMapping("/token-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public JwtTokenProvider.CacheStats tokenCacheStats() {
+        return tokenProvider.getClaimsCacheStats();
+    }
 }
@@ -0,0 +1,60 @@
+package com.hospital.automation.controller;
+
+import com.hospital.automation.domain.enums.CalendarOwner;
+import com.hospital.automation.service.CalendarFeedService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Takvim istemcileri için ICS feed'leri. İstemciler birkaç dakikada bir sorar:
+ * Sahip (doktor / hasta) bir kez DB'de doğrulanır ve hatırlanır (yoksa 404); sonraki poll'lar
+ * If-None-Match version damgasıyla eşleşirse 304 döner, DB'ye hiç gidilmez.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CalendarFeedController {
+
+    private final CalendarFeedService calendarFeedService;
+
+    @GetMapping("/api/doctors/{id}/calendar.ics")
+    @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST','DOCTOR')")
+    public void doctorFeed(@PathVariable Long id, WebRequest request, HttpServletResponse response) throws IOException {
+        writeFeed(CalendarOwner.DOCTOR, id, "doctor-" + id + ".ics", request, response);
+    }
+
+    @GetMapping("/api/patients/{id}/calendar.ics")
+    @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST')")
+    public void patientFeed(@PathVariable Long id, WebRequest request, HttpServletResponse response) throws IOException {
+        writeFeed(CalendarOwner.PATIENT, id, "patient-" + id + ".ics", request, response);
+    }
+
+    private void writeFeed(CalendarOwner owner, Long id, String fileName,
+                           WebRequest request, HttpServletResponse response) throws IOException {
+        // sahip yoksa 404 (var olmayan id için 304/412 dönmesin); bilinen sahip için bellek okuması
+        calendarFeedService.requireOwner(owner, id);
+
+        // 304: ETag header'ı yazılır, gövde yazılmaz
+        if (request.checkNotModified(calendarFeedService.version(owner, id))) return;
+
+        String name = calendarFeedService.calendarName(owner, id);
+
+        response.setContentType("text/calendar");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, private");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"");
+
+        OutputStream out = response.getOutputStream();
+        calendarFeedService.writeFeed(owner, id, name, out);
+        out.flush();
+    }
+}
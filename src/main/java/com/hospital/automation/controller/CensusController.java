@@ -0,0 +1,53 @@
+package com.hospital.automation.controller;
+
+import com.hospital.automation.domain.dto.response.CensusHeatmapResponse;
+import com.hospital.automation.domain.dto.response.CensusPointResponse;
+import com.hospital.automation.domain.dto.response.CensusRangeResponse;
+import com.hospital.automation.domain.enums.CensusGroupBy;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.service.CensusService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/census")
+@PreAuthorize("hasRole('ADMIN')")
+public class CensusController {
+
+    private final CensusService censusService;
+
+    // ör. ?at=2026-03-03T02:00&type=ICU (at yoksa şimdi)
+    @GetMapping
+    public CensusPointResponse pointInTime(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(required = false) CensusGroupBy groupBy,
+            @RequestParam(required = false) RoomType type
+    ) {
+        return censusService.pointInTime(at, groupBy, type);
+    }
+
+    @GetMapping("/range")
+    public CensusRangeResponse range(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) CensusGroupBy groupBy,
+            @RequestParam(required = false) RoomType type
+    ) {
+        return censusService.range(from, to, groupBy, type);
+    }
+
+    @GetMapping("/heatmap")
+    public CensusHeatmapResponse heatmap(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) CensusGroupBy groupBy,
+            @RequestParam(required = false) RoomType type
+    ) {
+        return censusService.heatmap(from, to, groupBy, type);
+    }
+}
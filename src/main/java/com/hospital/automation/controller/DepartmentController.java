@@ -1,14 +1,18 @@
 package com.hospital.automation.controller;
 
 import com.hospital.automation.domain.dto.request.DepartmentCreateRequest;
+import com.hospital.automation.domain.dto.response.DepartmentAvailabilityResponse;
 import com.hospital.automation.domain.dto.response.DepartmentResponse;
+import com.hospital.automation.service.AppointmentAvailabilityService;
 import com.hospital.automation.service.DepartmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,6 +22,7 @@ import java.util.List;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final AppointmentAvailabilityService availabilityService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -35,6 +40,25 @@ public class DepartmentController {
         return departmentService.getById(id);
     }
 
+    // Departmandaki tüm doktorların boş aralıkları (resepsiyon da kullanır)
+    @GetMapping("/{id}/availability")
+    @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST')")
+    public DepartmentAvailabilityResponse availability(
+            @PathVariable Long id,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @RequestParam(defaultValue = "30") int duration
+    ) {
+        return availabilityService.departmentAvailability(id, from, to, duration);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
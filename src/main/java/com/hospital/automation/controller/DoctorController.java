@@ -1,13 +1,24 @@
 package com.hospital.automation.controller;
 
 import com.hospital.automation.domain.dto.request.DoctorCreateRequest;
+import com.hospital.automation.domain.dto.response.DoctorAvailabilityResponse;
 import com.hospital.automation.domain.dto.response.DoctorResponse;
+import com.hospital.automation.domain.dto.response.DoctorScheduleResponse;
+import com.hospital.automation.domain.enums.ScheduleView;
+import com.hospital.automation.service.AppointmentAvailabilityService;
+import com.hospital.automation.service.DoctorScheduleService;
 import com.hospital.automation.service.DoctorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,6 +27,8 @@ import java.util.List;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final AppointmentAvailabilityService availabilityService;
+    private final DoctorScheduleService scheduleService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -33,6 +46,47 @@ public class DoctorController {
         return doctorService.getById(id);
     }
 
+    // Boş aralıklar: /api/doctors/{id}/availability?from=..&to=..&duration=30 (dakika; varsayılan şimdiden 7 gün)
+    // personel ekranları içindir (departman / oda müsaitliği gibi); PATIENT rolü göremez
+    @GetMapping("/{id}/availability")
+    @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST','DOCTOR')")
+    public DoctorAvailabilityResponse availability(
+            @PathVariable Long id,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+
+            @RequestParam(defaultValue = "30") int duration
+    ) {
+        return availabilityService.doctorAvailability(id, from, to, duration);
+    }
+
+    // Ajanda: /api/doctors/{id}/schedule?date=2026-03-02&view=day|week (varsayılan: bugün, day)
+    // ETag = içerik version'ı; If-None-Match eşleşirse 304 (gövde yazılmaz)
+    // hasta adları içerir: sadece personel (self-register PATIENT göremez)
+    @GetMapping("/{id}/schedule")
+    @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST','DOCTOR')")
+    public ResponseEntity<DoctorScheduleResponse> schedule(
+            @PathVariable Long id,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate date,
+
+            @RequestParam(required = false) String view
+    ) {
+        DoctorScheduleResponse schedule = scheduleService.getSchedule(id, date, ScheduleView.parse(view));
+        return ResponseEntity.ok()
+                .eTag(schedule.version())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(schedule);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
@@ -1,5 +1,6 @@
 package com.hospital.automation.controller;
 
+import com.hospital.automation.common.http.EntityVersions;
 import com.hospital.automation.domain.dto.request.PatientCreateRequest;
 import com.hospital.automation.domain.dto.request.PatientUpdateRequest;
 import com.hospital.automation.domain.dto.response.PatientResponse;
@@ -7,6 +8,7 @@ import com.hospital.automation.service.PatientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,13 +34,18 @@ public class PatientController {
     }
 
     @GetMapping("/{id}")
-    public PatientResponse getById(@PathVariable Long id) {
-        return patientService.getById(id);
+    public ResponseEntity<PatientResponse> getById(@PathVariable Long id) {
+        PatientResponse body = patientService.getById(id);
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
     }
 
+    // If-Match verilirse okunan version ile eşleşmeli (yoksa 412)
     @PutMapping("/{id}")
-    public PatientResponse update(@PathVariable Long id, @Valid @RequestBody PatientUpdateRequest request) {
-        return patientService.update(id, request);
+    public ResponseEntity<PatientResponse> update(@PathVariable Long id,
+                                                  @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                  @Valid @RequestBody PatientUpdateRequest request) {
+        PatientResponse body = patientService.update(id, request, EntityVersions.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -1,15 +1,20 @@
 package com.hospital.automation.controller;
 
 import com.hospital.automation.domain.dto.request.RoomCreateRequest;
+import com.hospital.automation.domain.dto.response.RoomAvailabilityResponse;
 import com.hospital.automation.domain.dto.response.RoomResponse;
+import com.hospital.automation.domain.enums.RoomType;
 import com.hospital.automation.service.RoomService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
@@ -30,6 +35,18 @@ public class RoomController {
         return roomService.getAll();
     }
 
+    // yatak yönetimi: ör. ?type=ICU&floor=3 (şimdi) ya da ?type=PRIVATE&at=2027-01-02T08:00
+    @GetMapping("/availability")
+    @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST')")
+    public RoomAvailabilityResponse availability(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(name = "type", required = false) Set<RoomType> types,
+            @RequestParam(name = "floor", required = false) Set<Integer> floors,
+            @RequestParam(defaultValue = "1") int minFreeBeds
+    ) {
+        return roomService.availability(at, types, floors, minFreeBeds);
+    }
+
     @GetMapping("/{id}")
     public RoomResponse getById(@PathVariable Long id) {
         return roomService.getById(id);
@@ -1,11 +1,13 @@
 package com.hospital.automation.controller;
 
+import com.hospital.automation.common.http.EntityVersions;
 import com.hospital.automation.domain.dto.request.VisitCreateRequest;
 import com.hospital.automation.domain.dto.response.VisitResponse;
 import com.hospital.automation.service.VisitService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,8 +33,9 @@ public class VisitController {
     }
 
     @GetMapping("/{id}")
-    public VisitResponse getById(@PathVariable Long id) {
-        return visitService.getById(id);
+    public ResponseEntity<VisitResponse> getById(@PathVariable Long id) {
+        VisitResponse body = visitService.getById(id);
+        return ResponseEntity.ok().eTag(EntityVersions.etag(body.version())).body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,59 @@
+package com.hospital.automation.controller;
+
+import com.hospital.automation.domain.dto.request.WaitlistCreateRequest;
+import com.hospital.automation.domain.dto.response.WaitlistEntryResponse;
+import com.hospital.automation.domain.enums.WaitlistStatus;
+import com.hospital.automation.service.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/waitlist")
+@PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST')")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public WaitlistEntryResponse join(@Valid @RequestBody WaitlistCreateRequest request) {
+        return waitlistService.join(request);
+    }
+
+    @GetMapping
+    public List<WaitlistEntryResponse> search(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) String status
+    ) {
+        return waitlistService.search(doctorId, departmentId, patientId, WaitlistStatus.parse(status));
+    }
+
+    @GetMapping("/{id}")
+    public WaitlistEntryResponse getById(@PathVariable Long id) {
+        return waitlistService.getById(id);
+    }
+
+    @PostMapping("/{id}/accept")
+    public WaitlistEntryResponse accept(@PathVariable Long id) {
+        return waitlistService.accept(id);
+    }
+
+    @PostMapping("/{id}/decline")
+    public WaitlistEntryResponse decline(@PathVariable Long id) {
+        return waitlistService.decline(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void remove(@PathVariable Long id) {
+        waitlistService.remove(id);
+    }
+}
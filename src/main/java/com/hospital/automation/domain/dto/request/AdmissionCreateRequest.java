@@ -9,5 +9,6 @@ public record AdmissionCreateRequest(
         @NotNull Long roomId,
         Long attendingDoctorId,     // opsiyonel
         @NotNull LocalDateTime admittedAt,
-        String note
+        String note,
+        LocalDateTime plannedDischargeAt    // opsiyonel: yatak müsaitlik aramasında bu andan sonra boş sayılır
 ) {}
@@ -0,0 +1,12 @@
+package com.hospital.automation.domain.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+public record AdmissionTransferRequest(
+        @NotNull Long toRoomId,
+        @NotNull LocalDateTime transferredAt,
+        @Size(max = 500) String note
+) {}
@@ -0,0 +1,15 @@
+package com.hospital.automation.domain.dto.request;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+// GET /api/appointments filtreleri (tümü opsiyonel); from/to startTime'a uygulanır
+public record AppointmentFilter(
+        Long doctorId,
+        Long patientId,
+        Long departmentId,
+        AppointmentStatus status,
+        LocalDateTime from,
+        LocalDateTime to
+) {}
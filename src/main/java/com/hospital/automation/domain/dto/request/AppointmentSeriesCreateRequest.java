@@ -0,0 +1,23 @@
+package com.hospital.automation.domain.dto.request;
+
+import com.hospital.automation.domain.enums.RecurrenceFrequency;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+public record AppointmentSeriesCreateRequest(
+        @NotNull Long patientId,
+        @NotNull Long doctorId,
+        Long departmentId,                  // opsiyonel: null ise doktorun departmanı kullanılır
+        @NotNull LocalDateTime startTime,   // ilk tekrar
+        @NotNull @Min(5) @Max(1440) Integer durationMinutes,
+        @NotNull RecurrenceFrequency frequency,
+        @Min(1) Integer interval,           // varsayılan 1
+        @Min(1) Integer count,              // count ve/veya until zorunlu
+        LocalDateTime until,
+        @Size(max = 500) String note,
+        boolean skipConflicts               // true => çakışan tekrarlar atlanır, false => hiçbiri oluşturulmaz
+) {}
@@ -0,0 +1,15 @@
+package com.hospital.automation.domain.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+// Serinin from'dan (varsayılan: şimdi) sonraki SCHEDULED tekrarlarına uygulanır; alanlardan en az biri dolu olmalı
+public record AppointmentSeriesUpdateRequest(
+        LocalDateTime from,
+        @Min(-10080) @Max(10080) Integer shiftMinutes,  // tüm tekrarları kaydır (en fazla ± 1 hafta)
+        @Min(5) @Max(1440) Integer durationMinutes,
+        @Size(max = 500) String note
+) {}
@@ -0,0 +1,13 @@
+package com.hospital.automation.domain.dto.request;
+
+import java.time.LocalDateTime;
+
+// /api/audit-logs filtreleri (tümü opsiyonel)
+public record AuditLogFilter(
+        String username,
+        String action,
+        String entityName,
+        LocalDateTime from,
+        LocalDateTime to,
+        String q    // username veya details içinde geçen metin
+) {}
@@ -0,0 +1,16 @@
+package com.hospital.automation.domain.dto.request;
+
+import com.hospital.automation.domain.enums.RoomType;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public record BedAssignmentItemRequest(
+        @NotNull Long patientId,
+        @NotNull RoomType roomType,
+        Integer preferredFloor,     // opsiyonel: yoksa en yakın kat
+        Long attendingDoctorId,     // opsiyonel: bölüme ayrılmış odalar doktorun bölümüne göre açılır
+        @NotNull LocalDateTime admittedAt,
+        LocalDateTime plannedDischargeAt,
+        String note
+) {}
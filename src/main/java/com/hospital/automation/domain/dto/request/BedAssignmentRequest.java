@@ -0,0 +1,11 @@
+package com.hospital.automation.domain.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BedAssignmentRequest(
+        @NotEmpty List<@Valid BedAssignmentItemRequest> admissions,
+        boolean allOrNothing        // true => biri bile yerleşemezse hiçbiri yatırılmaz (409)
+) {}
@@ -8,5 +8,6 @@ public record RoomCreateRequest(
         @NotBlank String roomNumber,
         Integer floor,
         @NotNull RoomType roomType,
-        Integer capacity
+        Integer capacity,
+        Long departmentId   // opsiyonel: bölüme ayrılmış oda
 ) {}
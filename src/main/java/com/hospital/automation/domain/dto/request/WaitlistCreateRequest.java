@@ -0,0 +1,20 @@
+package com.hospital.automation.domain.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+public record WaitlistCreateRequest(
+        @NotNull Long patientId,
+        Long doctorId,                          // doctorId ya da departmentId (biri)
+        Long departmentId,
+        @NotNull LocalDateTime windowStart,     // tercih edilen pencere
+        @NotNull LocalDateTime windowEnd,
+        @NotNull @Min(5) @Max(1440) Integer durationMinutes,
+        @Min(0) @Max(100) Integer priority,     // varsayılan 0; büyük olan önce
+        boolean autoBook,                       // true => boşalan slot doğrudan randevu olur, false => teklif
+        @Size(max = 500) String note
+) {}
@@ -11,6 +11,8 @@ public record AdmissionResponse(
         DoctorSummaryResponse attendingDoctor,
         LocalDateTime admittedAt,
         LocalDateTime dischargedAt,
+        LocalDateTime plannedDischargeAt,
         AdmissionStatus status,
-        String note
+        String note,
+        Long version
 ) {}
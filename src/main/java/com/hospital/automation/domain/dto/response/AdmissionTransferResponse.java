@@ -0,0 +1,12 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.time.LocalDateTime;
+
+public record AdmissionTransferResponse(
+        Long id,
+        Long admissionId,
+        RoomResponse fromRoom,
+        RoomResponse toRoom,
+        LocalDateTime transferredAt,
+        String note
+) {}
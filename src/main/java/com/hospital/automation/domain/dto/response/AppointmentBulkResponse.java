@@ -0,0 +1,13 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.util.List;
+
+public record AppointmentBulkResponse(
+        int received,
+        int created,
+        int failed,
+        List<RowError> errors     // en fazla app.appointments.bulk-max-reported-errors kadar
+) {
+    // row: JSON'da dizideki sıra, CSV'de başlıktan sonraki veri satırı (ikisi de 1'den başlar)
+    public record RowError(int row, String message) {}
+}
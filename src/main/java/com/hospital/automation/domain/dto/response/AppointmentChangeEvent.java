@@ -0,0 +1,19 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.AppointmentChangeType;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public record AppointmentChangeEvent(
+        long sequence,
+        AppointmentChangeType type,
+        Long appointmentId,
+        Long doctorId,
+        Long departmentId,
+        Long patientId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        AppointmentStatus status,
+        LocalDateTime occurredAt
+) {}
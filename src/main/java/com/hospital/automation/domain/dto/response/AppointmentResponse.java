@@ -12,5 +12,6 @@ public record AppointmentResponse(
         LocalDateTime startTime,
         LocalDateTime endTime,
         AppointmentStatus status,
-        String note
+        String note,
+        Long version
 ) {}
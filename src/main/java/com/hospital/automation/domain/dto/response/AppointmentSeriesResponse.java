@@ -0,0 +1,22 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AppointmentSeriesResponse(
+        Long id,
+        PatientSummaryResponse patient,
+        DoctorSummaryResponse doctor,
+        DepartmentResponse department,
+        String rrule,                       // ör: FREQ=WEEKLY;INTERVAL=1;COUNT=10
+        LocalDateTime startTime,
+        int durationMinutes,
+        String note,
+        List<Occurrence> occurrences,
+        List<LocalDateTime> skipped,        // sadece create + skipConflicts: çakıştığı için oluşturulmayan tekrarlar
+        Integer affected                    // sadece toplu düzenleme/iptal: etkilenen tekrar sayısı
+) {
+    public record Occurrence(Long id, LocalDateTime startTime, LocalDateTime endTime, AppointmentStatus status) {}
+}
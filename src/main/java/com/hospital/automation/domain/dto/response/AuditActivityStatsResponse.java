@@ -0,0 +1,18 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AuditActivityStatsResponse(
+        String granularity,
+        String groupBy,
+        LocalDateTime from,
+        LocalDateTime to,
+        long total,
+        List<Series> series
+) {
+    // points seyrektir: sadece event olan bucket'lar döner
+    public record Series(String key, long total, List<Point> points) {}
+
+    public record Point(LocalDateTime bucket, long count) {}
+}
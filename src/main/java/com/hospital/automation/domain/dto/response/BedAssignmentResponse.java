@@ -0,0 +1,16 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.util.List;
+
+public record BedAssignmentResponse(
+        int requested,
+        int assigned,
+        List<Assignment> assignments,
+        List<Unassigned> unassigned
+) {
+    // row: istekteki sıra (1'den başlar)
+    public record Assignment(int row, Long patientId, Long admissionId, Long roomId, String roomNumber,
+                             Integer floor, boolean preferredFloor) {}
+
+    public record Unassigned(int row, Long patientId, String reason) {}
+}
@@ -0,0 +1,4 @@
+package com.hospital.automation.domain.dto.response;
+
+// key: RoomType adı ya da oda numarası (groupBy'a göre)
+public record CensusCount(String key, int occupied) {}
@@ -0,0 +1,15 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.CensusGroupBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record CensusHeatmapResponse(
+        LocalDateTime from,
+        LocalDateTime to,
+        CensusGroupBy groupBy,
+        List<LocalDateTime> hours,
+        CensusHeatmapRow total,
+        List<CensusHeatmapRow> rows
+) {}
@@ -0,0 +1,6 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.util.List;
+
+// saat başına ortalama ve en yüksek doluluk (hours listesi ile aynı sırada)
+public record CensusHeatmapRow(String key, List<Double> average, List<Integer> peak) {}
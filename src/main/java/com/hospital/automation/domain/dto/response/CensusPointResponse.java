@@ -0,0 +1,13 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.CensusGroupBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record CensusPointResponse(
+        LocalDateTime at,
+        CensusGroupBy groupBy,
+        int total,
+        List<CensusCount> rows
+) {}
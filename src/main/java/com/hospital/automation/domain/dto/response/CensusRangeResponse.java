@@ -0,0 +1,14 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.CensusGroupBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record CensusRangeResponse(
+        LocalDateTime from,
+        LocalDateTime to,
+        CensusGroupBy groupBy,
+        CensusRangeRow total,
+        List<CensusRangeRow> rows
+) {}
@@ -0,0 +1,4 @@
+package com.hospital.automation.domain.dto.response;
+
+// aralıktaki en yüksek ve ortalama doluluk; patientHours = doluluk integrali (hasta-saat)
+public record CensusRangeRow(String key, int peak, double averageOccupancy, double patientHours) {}
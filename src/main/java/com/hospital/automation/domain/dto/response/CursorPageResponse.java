@@ -0,0 +1,11 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor,     // hasNext=false ise null
+        Long totalElements     // sadece includeTotal=true istenirse dolu (COUNT pahalı)
+) {}
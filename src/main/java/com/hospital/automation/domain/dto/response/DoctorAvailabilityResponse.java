@@ -0,0 +1,12 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DoctorAvailabilityResponse(
+        DoctorSummaryResponse doctor,
+        LocalDateTime from,
+        LocalDateTime to,
+        int durationMinutes,
+        List<FreeSlotResponse> freeSlots
+) {}
@@ -0,0 +1,15 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.ScheduleView;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DoctorScheduleResponse(
+        Long doctorId,
+        ScheduleView view,
+        LocalDate from,
+        LocalDate to,           // dahil
+        String version,         // içerik özeti; ETag olarak da döner
+        List<ScheduleDayResponse> days
+) {}
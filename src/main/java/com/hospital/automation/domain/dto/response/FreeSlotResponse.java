@@ -0,0 +1,9 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.time.LocalDateTime;
+
+// Boş aralık [start, end): bu aralıkta başlayıp end'e kadar biten her randevu alınabilir
+public record FreeSlotResponse(
+        LocalDateTime start,
+        LocalDateTime end
+) {}
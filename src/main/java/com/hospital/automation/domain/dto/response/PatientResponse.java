@@ -9,5 +9,6 @@ public record PatientResponse(
         LocalDate birthDate,
         String nationalId,
         String phone,
-        String address
+        String address,
+        Long version
 ) {}
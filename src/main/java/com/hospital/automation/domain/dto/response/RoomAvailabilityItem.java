@@ -0,0 +1,13 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.RoomType;
+
+public record RoomAvailabilityItem(
+        Long roomId,
+        String roomNumber,
+        Integer floor,
+        RoomType roomType,
+        int capacity,
+        int occupied,
+        int freeBeds
+) {}
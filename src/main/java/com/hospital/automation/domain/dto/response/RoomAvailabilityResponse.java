@@ -0,0 +1,10 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record RoomAvailabilityResponse(
+        LocalDateTime at,
+        int totalFreeBeds,
+        List<RoomAvailabilityItem> rooms
+) {}
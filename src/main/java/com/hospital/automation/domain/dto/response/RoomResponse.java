@@ -7,5 +7,6 @@ public record RoomResponse(
         String roomNumber,
         Integer floor,
         RoomType roomType,
-        Integer capacity
+        Integer capacity,
+        Long departmentId
 ) {}
@@ -0,0 +1,9 @@
+package com.hospital.automation.domain.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record ScheduleDayResponse(
+        LocalDate date,
+        List<ScheduleItemResponse> appointments
+) {}
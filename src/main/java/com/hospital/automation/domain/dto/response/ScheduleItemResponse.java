@@ -0,0 +1,14 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public record ScheduleItemResponse(
+        Long id,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        AppointmentStatus status,
+        Long patientId,
+        String patientName
+) {}
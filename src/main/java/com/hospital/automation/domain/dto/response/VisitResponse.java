@@ -12,5 +12,6 @@ public record VisitResponse(
         String complaint,
         String diagnosis,
         List<MedicalRecordResponse> medicalRecords,
-        List<PrescriptionResponse> prescriptions
+        List<PrescriptionResponse> prescriptions,
+        Long version
 ) {}
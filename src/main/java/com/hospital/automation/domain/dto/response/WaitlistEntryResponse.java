@@ -0,0 +1,24 @@
+package com.hospital.automation.domain.dto.response;
+
+import com.hospital.automation.domain.enums.WaitlistStatus;
+
+import java.time.LocalDateTime;
+
+public record WaitlistEntryResponse(
+        Long id,
+        PatientSummaryResponse patient,
+        DoctorSummaryResponse doctor,
+        DepartmentResponse department,
+        LocalDateTime windowStart,
+        LocalDateTime windowEnd,
+        int durationMinutes,
+        int priority,
+        boolean autoBook,
+        WaitlistStatus status,
+        LocalDateTime createdAt,
+        DoctorSummaryResponse offeredDoctor,
+        LocalDateTime offeredStart,
+        LocalDateTime offeredEnd,
+        Long appointmentId,
+        String note
+) {}
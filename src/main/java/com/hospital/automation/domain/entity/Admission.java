@@ -3,6 +3,7 @@ package com.hospital.automation.domain.entity;
 import com.hospital.automation.domain.enums.AdmissionStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -39,10 +40,19 @@ public class Admission {
 
     private LocalDateTime dischargedAt;
 
+    // planlanan taburcu (opsiyonel): yatak müsaitliği gelecek zaman sorgularında bunu kullanır
+    private LocalDateTime plannedDischargeAt;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private AdmissionStatus status;
 
     @Column(length = 500)
     private String note;
+
+    // optimistic locking: her UPDATE'te artar; ETag / If-Match değeri
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
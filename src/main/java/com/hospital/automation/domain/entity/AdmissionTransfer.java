@@ -0,0 +1,43 @@
+package com.hospital.automation.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// yatış içi oda değişikliği (yatış sürekliliği korunur; kayıt sadece eklenir)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "admission_transfers",
+        indexes = @Index(name = "idx_admission_transfers_admission", columnList = "admission_id, transferred_at"))
+@ToString(exclude = {"admission", "fromRoom", "toRoom"})
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class AdmissionTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "admission_id")
+    private Admission admission;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "from_room_id")
+    private Room fromRoom;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "to_room_id")
+    private Room toRoom;
+
+    @Column(name = "transferred_at", nullable = false)
+    private LocalDateTime transferredAt;
+
+    @Column(length = 500)
+    private String note;
+}
@@ -3,6 +3,7 @@ package com.hospital.automation.domain.entity;
 import com.hospital.automation.domain.enums.AppointmentStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -12,8 +13,32 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "appointments")
-@ToString(exclude = {"patient", "doctor", "department"})
+@Table(
+        name = "appointments",
+        indexes = {
+                // Her index'in sorgusu yazılı; aynı baş sütunlu ikinci bir index eklemeden önce bunlardan biri
+                // kullanılabiliyor mu bakın (her index booking INSERT/UPDATE'ine yazım maliyeti ekler).
+                //
+                // doctor_id = ? AND status = ? AND end_time > ? [AND start_time < ?]:
+                //   çakışma kontrolü (existsOverlapping*), overlap index yüklemesi (prefix),
+                //   müsaitlik (findBusySlots) ve toplu çakışma kontrolü (findSlotsByDoctorAndStatusInRange)
+                @Index(name = "idx_appointments_doctor_status_end", columnList = "doctor_id, status, end_time"),
+                // status = ? AND end_time < cutoff, (end_time, id) keyset: sweeper (findPastDue / findPastDueAfter)
+                @Index(name = "idx_appointments_status_end_id", columnList = "status, end_time, id"),
+                // doctor_id = ? AND start_time in [from, to) ORDER BY start_time, id (status filtresiz):
+                //   ajanda (findScheduleItems), doktor ICS feed'i, /search?doctorId=, existsByDoctor_Id
+                @Index(name = "idx_appointments_doctor_start", columnList = "doctor_id, start_time, id"),
+                // patient_id = ? ...: hasta ICS feed'i, /search?patientId=, findDoctorIdsByPatientId, existsByPatient_Id
+                @Index(name = "idx_appointments_patient_start", columnList = "patient_id, start_time, id"),
+                // department_id = ? ...: /search?departmentId=, existsByDepartment_Id
+                @Index(name = "idx_appointments_department_start", columnList = "department_id, start_time, id"),
+                // sahip filtresiz /search (startTime, id) sıralama / keyset
+                @Index(name = "idx_appointments_start_id", columnList = "start_time, id"),
+                // series_id = ? AND start_time >= ?: seri düzenleme / iptal
+                @Index(name = "idx_appointments_series_start", columnList = "series_id, start_time")
+        }
+)
+@ToString(exclude = {"patient", "doctor", "department", "series"})
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Appointment {
 
@@ -45,4 +70,15 @@ public class Appointment {
 
     @Column(length = 500)
     private String note;
+
+    // optimistic locking: her UPDATE'te artar; ETag / If-Match değeri
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // tekrarlayan serinin parçasıysa (tekil randevularda null)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "series_id")
+    private AppointmentSeries series;
 }
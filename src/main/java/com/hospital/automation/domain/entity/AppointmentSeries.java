@@ -0,0 +1,62 @@
+package com.hospital.automation.domain.entity;
+
+import com.hospital.automation.domain.enums.RecurrenceFrequency;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tekrarlayan randevu serisi (RRULE benzeri: FREQ / INTERVAL / COUNT / UNTIL).
+ * Tekrarlar ayrı Appointment satırlarıdır (series_id ile bağlı); kural burada saklanır.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "appointment_series")
+@ToString(exclude = {"patient", "doctor", "department"})
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class AppointmentSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id")
+    private Patient patient;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id")
+    private Department department;
+
+    // ilk tekrarın başlangıcı (DTSTART)
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private int durationMinutes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "repeat_interval", nullable = false)
+    private int interval;
+
+    // COUNT ve/veya UNTIL (ikisi birden varsa hangisi önce dolarsa)
+    private Integer occurrenceCount;
+
+    private LocalDateTime untilTime;
+
+    @Column(length = 500)
+    private String note;
+}
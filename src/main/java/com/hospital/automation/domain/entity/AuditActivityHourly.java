@@ -0,0 +1,46 @@
+package com.hospital.automation.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saatlik audit aktivite sayacı: (saat, action, entityName, username) başına event sayısı.
+ * AuditLogWriter audit satırları commit edildikten sonra artırır; /api/audit-logs/stats buradan okur.
+ */
+@Entity
+@Table(
+        name = "audit_activity_hourly",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_audit_activity_hourly_key",
+                columnNames = {"bucket_start", "action", "entity_name", "username"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditActivityHourly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // saat başı (dakika/saniye sıfır)
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, length = 30)
+    private String action;
+
+    @Column(nullable = false, length = 80)
+    private String entityName;
+
+    @Column(nullable = false, length = 80)
+    private String username;
+
+    @Column(nullable = false)
+    private long eventCount;
+}
@@ -6,7 +6,16 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(
+        name = "audit_logs",
+        indexes = {
+                // keyset sayfalama: ORDER BY created_at, id + seek
+                @Index(name = "idx_audit_logs_created_id", columnList = "created_at, id"),
+                // filtre + keyset: eşitlik kolonu önde, sıralama kolonları arkada
+                @Index(name = "idx_audit_logs_entity_created_id", columnList = "entity_name, created_at, id"),
+                @Index(name = "idx_audit_logs_action_created_id", columnList = "action, created_at, id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,26 @@
+package com.hospital.automation.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Diskteki bir spill dosyasından DB'ye yazılmış event sayısı.
+ * AuditLogWriter her replay batch'iyle aynı transaction'da günceller: yarıda kesilen replay
+ * kaldığı yerden devam eder, aynı event iki kez yazılmaz.
+ */
+@Entity
+@Table(name = "audit_spill_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditSpillCheckpoint {
+
+    @Id
+    @Column(length = 200)
+    private String fileName;
+
+    @Column(nullable = false)
+    private long replayedEvents;
+}
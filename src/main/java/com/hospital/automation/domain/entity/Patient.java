@@ -2,6 +2,7 @@ package com.hospital.automation.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -40,6 +41,12 @@ public class Patient {
     @Column(length = 200)
     private String address;
 
+    // optimistic locking: her UPDATE'te artar; ETag / If-Match değeri
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Hasta user’a bağlanabilir (portal vs.)
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", unique = true)
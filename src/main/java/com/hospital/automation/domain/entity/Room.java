@@ -14,7 +14,7 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "rooms")
-@ToString(exclude = "admissions")
+@ToString(exclude = {"department", "admissions"})
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Room {
 
@@ -34,6 +34,11 @@ public class Room {
 
     private Integer capacity;
 
+    // opsiyonel: bölüme ayrılmış oda => otomatik yatak atamasında sadece o bölümün doktorlarının hastaları
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id")
+    private Department department;
+
     @Builder.Default
     @OneToMany(mappedBy = "room", fetch = FetchType.LAZY)
     private List<Admission> admissions = new ArrayList<>();
@@ -2,6 +2,7 @@ package com.hospital.automation.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -45,6 +46,12 @@ public class Visit {
     @Column(length = 1000)
     private String diagnosis; // tanı
 
+    // optimistic locking: her UPDATE'te artar; ETag / If-Match değeri
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Builder.Default
     @OneToMany(mappedBy = "visit", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<MedicalRecord> medicalRecords = new ArrayList<>();
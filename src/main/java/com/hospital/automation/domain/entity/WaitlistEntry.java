@@ -0,0 +1,88 @@
+package com.hospital.automation.domain.entity;
+
+import com.hospital.automation.domain.enums.WaitlistStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * İptal bekleme listesi kaydı: hasta belirli bir doktor ya da departman için, tercih ettiği
+ * [windowStart, windowEnd) penceresinde durationMinutes'lık bir slot bekler.
+ * Boşalan slot autoBook ise doğrudan randevuya çevrilir, değilse teklif edilir (offered*).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "waitlist_entries",
+        indexes = {
+                @Index(name = "idx_waitlist_status_priority", columnList = "status, priority, id"),
+                @Index(name = "idx_waitlist_doctor_status", columnList = "doctor_id, status"),
+                @Index(name = "idx_waitlist_department_status", columnList = "department_id, status")
+        }
+)
+@ToString(exclude = {"patient", "doctor", "department", "offeredDoctor", "appointment"})
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id")
+    private Patient patient;
+
+    // doctor ya da department (biri dolu): departman kaydı departmandaki her doktorun slotuna uyar
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id")
+    private Department department;
+
+    @Column(nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(nullable = false)
+    private int durationMinutes;
+
+    // büyük olan önce; eşitse önce gelen (id)
+    @Column(nullable = false)
+    private int priority;
+
+    @Column(nullable = false)
+    private boolean autoBook;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WaitlistStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "offered_doctor_id")
+    private Doctor offeredDoctor;
+
+    private LocalDateTime offeredStart;
+
+    private LocalDateTime offeredEnd;
+
+    // BOOKED ise oluşturulan randevu
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "appointment_id")
+    private Appointment appointment;
+
+    @Column(length = 500)
+    private String note;
+}
@@ -0,0 +1,9 @@
+package com.hospital.automation.domain.enums;
+
+// SSE event adı (event: CREATED ...)
+public enum AppointmentChangeType {
+    CREATED,
+    UPDATED,
+    CANCELLED,
+    DELETED
+}
@@ -1,7 +1,22 @@
 package com.hospital.automation.domain.enums;
 
+import com.hospital.automation.common.exception.BadRequestException;
+
+import java.util.Locale;
+
 public enum AppointmentStatus {
     SCHEDULED,
     CANCELLED,
-    COMPLETED
+    COMPLETED,
+    NO_SHOW;      // süresi geçti, randevuya bağlı vizit yok (AppointmentSweeper)
+
+    // query parametresi için: geçersiz değer => 400
+    public static AppointmentStatus parse(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return AppointmentStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported status: " + value);
+        }
+    }
 }
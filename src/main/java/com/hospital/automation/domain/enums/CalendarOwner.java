@@ -0,0 +1,7 @@
+package com.hospital.automation.domain.enums;
+
+// ICS feed'inin sahibi: doktorun ya da hastanın randevuları
+public enum CalendarOwner {
+    DOCTOR,
+    PATIENT
+}
@@ -0,0 +1,6 @@
+package com.hospital.automation.domain.enums;
+
+public enum CensusGroupBy {
+    ROOM_TYPE,
+    ROOM
+}
@@ -0,0 +1,35 @@
+package com.hospital.automation.domain.enums;
+
+import com.hospital.automation.common.exception.BadRequestException;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv"),
+    JSON("application/json", "json"); // tek JSON array (eski /all çıktısı ile aynı şekil)
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat parse(String value) {
+        try {
+            return ExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported export format: " + value);
+        }
+    }
+}
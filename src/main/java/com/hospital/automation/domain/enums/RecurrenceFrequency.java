@@ -0,0 +1,20 @@
+package com.hospital.automation.domain.enums;
+
+import java.time.LocalDateTime;
+
+// Randevu serisi tekrar sıklığı (RRULE FREQ karşılığı)
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    // n. tekrar her zaman ilk randevudan hesaplanır (ay sonu kırpması birikmesin: 31 Ocak -> 28 Şubat -> 31 Mart)
+    public LocalDateTime occurrence(LocalDateTime first, long n, int interval) {
+        long steps = n * interval;
+        return switch (this) {
+            case DAILY -> first.plusDays(steps);
+            case WEEKLY -> first.plusWeeks(steps);
+            case MONTHLY -> first.plusMonths(steps);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.hospital.automation.domain.enums;
+
+import com.hospital.automation.common.exception.BadRequestException;
+
+import java.util.Locale;
+
+public enum ScheduleView {
+    DAY,
+    WEEK;   // ISO hafta: Pazartesi - Pazar
+
+    // query parametresi için: null => DAY, geçersiz değer => 400
+    public static ScheduleView parse(String value) {
+        if (value == null || value.isBlank()) return DAY;
+        try {
+            return ScheduleView.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported view: " + value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.hospital.automation.domain.enums;
+
+import com.hospital.automation.common.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+public enum StatsGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    StatsGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime truncate(LocalDateTime t) {
+        return t.truncatedTo(unit);
+    }
+
+    public static StatsGranularity parse(String value) {
+        try {
+            return StatsGranularity.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported granularity: " + value);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.hospital.automation.domain.enums;
+
+import com.hospital.automation.common.exception.BadRequestException;
+
+import java.util.Locale;
+
+// /api/audit-logs/stats seri anahtarı; NONE => tek seri (toplam)
+public enum StatsGroupBy {
+    NONE(null),
+    ACTION("action"),
+    ENTITY("entityName"),
+    USER("username");
+
+    private final String attribute;
+
+    StatsGroupBy(String attribute) {
+        this.attribute = attribute;
+    }
+
+    // AuditActivityHourly alanı
+    public String attribute() {
+        return attribute;
+    }
+
+    public static StatsGroupBy parse(String value) {
+        try {
+            return StatsGroupBy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported groupBy: " + value);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.hospital.automation.domain.enums;
+
+import com.hospital.automation.common.exception.BadRequestException;
+
+import java.util.Locale;
+
+public enum WaitlistStatus {
+    WAITING,    // eşleşme bekliyor (bellek içi index'te)
+    OFFERED,    // boşalan slot teklif edildi; accept/decline bekleniyor
+    BOOKED,     // randevu oluşturuldu
+    REMOVED;
+
+    // query parametresi için: geçersiz değer => 400
+    public static WaitlistStatus parse(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return WaitlistStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Unsupported status: " + value);
+        }
+    }
+}
@@ -2,18 +2,43 @@ package com.hospital.automation.repository;
 
 import com.hospital.automation.domain.entity.Admission;
 import com.hospital.automation.domain.enums.AdmissionStatus;
+import com.hospital.automation.repository.projection.AdmissionStay;
+import com.hospital.automation.repository.projection.OccupancyInterval;
+import com.hospital.automation.repository.projection.RoomOccupancy;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface AdmissionRepository extends JpaRepository<Admission, Long> {
 
+    // oda başına aktif yatış: doluluk sayaçlarının tohumlanması ve uzlaştırılması için tek GROUP BY
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.RoomOccupancy(a.room.id, COUNT(a))
+           FROM Admission a
+           WHERE a.status = :status
+           GROUP BY a.room.id
+           """)
+    List<RoomOccupancy> countByRoomAndStatus(@Param("status") AdmissionStatus status);
+
+    // yatağı hâlâ tutan yatışlar: aktif olanlar + taburcu zamanı ileri tarihli olanlar
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.AdmissionStay(
+                  a.id, a.room.id, a.status, a.dischargedAt, a.plannedDischargeAt)
+           FROM Admission a
+           WHERE a.status = :active
+              OR a.dischargedAt > :now
+           """)
+    List<AdmissionStay> findStaysHoldingBeds(@Param("active") AdmissionStatus active,
+                                             @Param("now") LocalDateTime now);
+
+    // sayım zaman çizelgeleri: tüm yatışların aralıkları (tek sorgu, entity yüklemeden)
     @Query("""
-           SELECT COUNT(a)
+           SELECT new com.hospital.automation.repository.projection.OccupancyInterval(
+                  a.id, a.room.id, a.admittedAt, a.dischargedAt)
            FROM Admission a
-           WHERE a.room.id = :roomId
-             AND a.status = :status
            """)
-    long countByRoomIdAndStatus(@Param("roomId") Long roomId,
-                                @Param("status") AdmissionStatus status);
+    List<OccupancyInterval> findOccupancyIntervals();
 }
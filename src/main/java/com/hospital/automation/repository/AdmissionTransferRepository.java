@@ -0,0 +1,38 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.entity.AdmissionTransfer;
+import com.hospital.automation.repository.projection.TransferStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AdmissionTransferRepository extends JpaRepository<AdmissionTransfer, Long> {
+
+    @Query("""
+           SELECT t FROM AdmissionTransfer t
+           JOIN FETCH t.fromRoom
+           JOIN FETCH t.toRoom
+           WHERE t.admission.id = :admissionId
+           ORDER BY t.transferredAt, t.id
+           """)
+    List<AdmissionTransfer> findHistory(@Param("admissionId") Long admissionId);
+
+    Optional<AdmissionTransfer> findFirstByAdmissionIdOrderByTransferredAtDescIdDesc(Long admissionId);
+
+    // sayım çizelgeleri: yatış başına zaman sırasında oda değişiklikleri
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.TransferStep(
+                  t.admission.id, t.fromRoom.id, t.toRoom.id, t.transferredAt)
+           FROM AdmissionTransfer t
+           ORDER BY t.admission.id, t.transferredAt, t.id
+           """)
+    List<TransferStep> findAllSteps();
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AdmissionTransfer t WHERE t.admission.id = :admissionId")
+    int deleteByAdmissionId(@Param("admissionId") Long admissionId);
+}
@@ -2,19 +2,41 @@ package com.hospital.automation.repository;
 
 import com.hospital.automation.domain.entity.Appointment;
 import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.projection.AppointmentOccurrence;
+import com.hospital.automation.repository.projection.AppointmentSlot;
+import com.hospital.automation.repository.projection.DoctorBusySlot;
+import com.hospital.automation.repository.projection.PastDueAppointment;
+import com.hospital.automation.repository.projection.ScheduleItem;
+import com.hospital.automation.repository.projection.SweptAppointment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment>,
+        AppointmentRepositoryCustom {
+
+    // Liste ekranları response'ta patient/doctor/department kullanır: tek sorguda gelsin (N+1 yok)
+    @Override
+    @EntityGraph(attributePaths = {"patient", "doctor", "department"})
+    List<Appointment> findAll();
 
     // ✅ FK kontrolü için (silme öncesi)
     boolean existsByDoctor_Id(Long doctorId);
     boolean existsByPatient_Id(Long patientId);
     boolean existsByDepartment_Id(Long departmentId);
 
+    // Hastanın randevusu olan doktorlar (hasta adı değişince ajanda cache'i atılır)
+    @Query("SELECT DISTINCT a.doctor.id FROM Appointment a WHERE a.patient.id = :patientId")
+    List<Long> findDoctorIdsByPatientId(@Param("patientId") Long patientId);
+
     // Çakışma: mevcut.start < yeniEnd AND mevcut.end > yeniStart
     @Query("""
            SELECT COUNT(a) > 0
@@ -47,4 +69,184 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime
     );
+
+    // Doktorun belirli durumdaki tüm randevu aralıkları (çakışma index'ini doldurmak için)
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.AppointmentSlot(a.id, a.startTime, a.endTime)
+           FROM Appointment a
+           WHERE a.doctor.id = :doctorId
+             AND a.status = :status
+           """)
+    List<AppointmentSlot> findSlotsByDoctorAndStatus(
+            @Param("doctorId") Long doctorId,
+            @Param("status") AppointmentStatus status
+    );
+
+    // Müsaitlik: doktorların [from, to) ile kesişen randevuları tek range scan'de, doktor + start sırasında
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.DoctorBusySlot(a.doctor.id, a.startTime, a.endTime)
+           FROM Appointment a
+           WHERE a.doctor.id IN :doctorIds
+             AND a.status = :status
+             AND a.endTime > :from
+             AND a.startTime < :to
+           ORDER BY a.doctor.id, a.startTime
+           """)
+    List<DoctorBusySlot> findBusySlots(
+            @Param("doctorIds") Collection<Long> doctorIds,
+            @Param("status") AppointmentStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    // Doktorun [from, to) ile kesişen randevu aralıkları (id'li; toplu çakışma kontrolü için tek range scan)
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.AppointmentSlot(a.id, a.startTime, a.endTime)
+           FROM Appointment a
+           WHERE a.doctor.id = :doctorId
+             AND a.status = :status
+             AND a.endTime > :from
+             AND a.startTime < :to
+           """)
+    List<AppointmentSlot> findSlotsByDoctorAndStatusInRange(
+            @Param("doctorId") Long doctorId,
+            @Param("status") AppointmentStatus status,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.AppointmentOccurrence(a.id, a.startTime, a.endTime, a.status)
+           FROM Appointment a
+           WHERE a.series.id = :seriesId
+           ORDER BY a.startTime, a.id
+           """)
+    List<AppointmentOccurrence> findOccurrencesBySeriesId(@Param("seriesId") Long seriesId);
+
+    // Serinin from'dan sonraki belirli durumdaki tekrarları
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.AppointmentSlot(a.id, a.startTime, a.endTime)
+           FROM Appointment a
+           WHERE a.series.id = :seriesId
+             AND a.status = :status
+             AND a.startTime >= :from
+           ORDER BY a.startTime
+           """)
+    List<AppointmentSlot> findSeriesSlotsFrom(
+            @Param("seriesId") Long seriesId,
+            @Param("status") AppointmentStatus status,
+            @Param("from") LocalDateTime from
+    );
+
+    // Serinin gelecekteki tekrarlarının durumunu tek UPDATE ile değiştirir (ör. SCHEDULED -> CANCELLED)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+           UPDATE Appointment a
+           SET a.status = :newStatus, a.version = a.version + 1
+           WHERE a.series.id = :seriesId
+             AND a.status = :status
+             AND a.startTime >= :from
+           """)
+    int updateSeriesStatusFrom(
+            @Param("seriesId") Long seriesId,
+            @Param("status") AppointmentStatus status,
+            @Param("newStatus") AppointmentStatus newStatus,
+            @Param("from") LocalDateTime from
+    );
+
+    // Sweeper dilimi sonrası: gerçekten kapanan satırlar (feed damgaları + SSE event'leri için)
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.SweptAppointment(
+                  a.id, d.id, COALESCE(ad.id, dd.id), a.patient.id, a.startTime, a.endTime, a.status)
+           FROM Appointment a
+           JOIN a.doctor d
+           LEFT JOIN a.department ad
+           LEFT JOIN d.department dd
+           WHERE a.id IN :ids
+             AND a.status IN :statuses
+           """)
+    List<SweptAppointment> findSwept(
+            @Param("ids") Collection<Long> ids,
+            @Param("statuses") Collection<AppointmentStatus> statuses
+    );
+
+    // Süresi geçmiş randevular (end_time, id) keyset sırasında: ilk batch
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.PastDueAppointment(a.id, a.doctor.id, a.startTime, a.endTime)
+           FROM Appointment a
+           WHERE a.status = :status
+             AND a.endTime < :cutoff
+           ORDER BY a.endTime, a.id
+           """)
+    List<PastDueAppointment> findPastDue(
+            @Param("status") AppointmentStatus status,
+            @Param("cutoff") LocalDateTime cutoff,
+            Pageable pageable
+    );
+
+    // Sonraki batch'ler: son görülen (endTime, id)'den sonrası
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.PastDueAppointment(a.id, a.doctor.id, a.startTime, a.endTime)
+           FROM Appointment a
+           WHERE a.status = :status
+             AND a.endTime < :cutoff
+             AND (a.endTime > :afterEnd OR (a.endTime = :afterEnd AND a.id > :afterId))
+           ORDER BY a.endTime, a.id
+           """)
+    List<PastDueAppointment> findPastDueAfter(
+            @Param("status") AppointmentStatus status,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("afterEnd") LocalDateTime afterEnd,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // Koşullu UPDATE'ler: satır arada başka biri (kullanıcı / diğer node) tarafından değiştirildiyse dokunulmaz
+    @Modifying(clearAutomatically = true)
+    @Query("""
+           UPDATE Appointment a
+           SET a.status = :newStatus, a.version = a.version + 1
+           WHERE a.id IN :ids
+             AND a.status = :status
+             AND a.endTime < :cutoff
+             AND EXISTS (SELECT v.id FROM Visit v WHERE v.appointment = a)
+           """)
+    int updateStatusOfVisited(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") AppointmentStatus status,
+            @Param("newStatus") AppointmentStatus newStatus,
+            @Param("cutoff") LocalDateTime cutoff
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+           UPDATE Appointment a
+           SET a.status = :newStatus, a.version = a.version + 1
+           WHERE a.id IN :ids
+             AND a.status = :status
+             AND a.endTime < :cutoff
+           """)
+    int updateStatusOfPastDue(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") AppointmentStatus status,
+            @Param("newStatus") AppointmentStatus newStatus,
+            @Param("cutoff") LocalDateTime cutoff
+    );
+
+    // Doktor ajandası: [from, to) içinde başlayan tüm randevular (durum fark etmeksizin), başlangıç sırasında
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.ScheduleItem(
+                  a.id, a.startTime, a.endTime, a.status, p.id, p.firstName, p.lastName)
+           FROM Appointment a
+           JOIN a.patient p
+           WHERE a.doctor.id = :doctorId
+             AND a.startTime >= :from
+             AND a.startTime < :to
+           ORDER BY a.startTime, a.id
+           """)
+    List<ScheduleItem> findScheduleItems(
+            @Param("doctorId") Long doctorId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
 }
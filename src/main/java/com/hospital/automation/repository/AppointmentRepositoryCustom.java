@@ -0,0 +1,16 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Serinin from'dan sonraki status durumundaki tekrarlarını tek UPDATE ile yeniden planlar:
+     * start += shiftMinutes; durationMinutes verilirse end = yeni start + durationMinutes, yoksa end += shiftMinutes.
+     * note null değilse tüm tekrarlara yazılır. Güncellenen satır sayısını döner.
+     */
+    int rescheduleSeriesFrom(Long seriesId, AppointmentStatus status, LocalDateTime from,
+                             int shiftMinutes, Integer durationMinutes, String note);
+}
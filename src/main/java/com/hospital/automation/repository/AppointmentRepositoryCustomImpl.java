@@ -0,0 +1,46 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+
+class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int rescheduleSeriesFrom(Long seriesId, AppointmentStatus status, LocalDateTime from,
+                                    int shiftMinutes, Integer durationMinutes, String note) {
+        // HQL süre aritmetiği (x + (n) minute): H2 ve PostgreSQL'de dialect'e uygun SQL'e çevrilir
+        StringBuilder hql = new StringBuilder("UPDATE Appointment a SET a.startTime = a.startTime + (:shift) minute");
+        if (durationMinutes != null) {
+            // SET ifadeleri eski değerleri görür: yeni end = eski start + shift + süre
+            hql.append(", a.endTime = a.startTime + (:endOffset) minute");
+        } else {
+            hql.append(", a.endTime = a.endTime + (:shift) minute");
+        }
+        if (note != null) {
+            hql.append(", a.note = :note");
+        }
+        // toplu UPDATE @Version'ı kendiliğinden artırmaz; eski ETag ile yapılan PUT reddedilsin
+        hql.append(", a.version = a.version + 1");
+        hql.append(" WHERE a.series.id = :seriesId AND a.status = :status AND a.startTime >= :from");
+
+        em.flush();
+        Query q = em.createQuery(hql.toString())
+                .setParameter("shift", shiftMinutes)
+                .setParameter("seriesId", seriesId)
+                .setParameter("status", status)
+                .setParameter("from", from);
+        if (durationMinutes != null) q.setParameter("endOffset", shiftMinutes + durationMinutes);
+        if (note != null) q.setParameter("note", note);
+
+        int updated = q.executeUpdate();
+        em.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,17 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.entity.AppointmentSeries;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, Long> {
+
+    // response patient/doctor/department kullanır: tek sorguda gelsin
+    @EntityGraph(attributePaths = {"patient", "doctor", "department"})
+    @Query("SELECT s FROM AppointmentSeries s WHERE s.id = :id")
+    Optional<AppointmentSeries> findWithRelationsById(@Param("id") Long id);
+}
@@ -0,0 +1,14 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.entity.AuditActivityHourly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface AuditActivityHourlyRepository extends JpaRepository<AuditActivityHourly, Long>,
+        AuditActivityHourlyRepositoryCustom {
+
+    @Query("select min(a.bucketStart) from AuditActivityHourly a")
+    LocalDateTime findEarliestBucket();
+}
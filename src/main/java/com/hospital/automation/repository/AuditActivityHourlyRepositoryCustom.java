@@ -0,0 +1,19 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.enums.StatsGroupBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditActivityHourlyRepositoryCustom {
+
+    /**
+     * [from, to) aralığında saatlik toplamlar; groupBy NONE değilse seri anahtarına göre de gruplanır.
+     * username: içerir (büyük/küçük harf duyarsız), action/entityName: eşit; null => filtre yok.
+     */
+    List<BucketCount> sumByHour(LocalDateTime from, LocalDateTime to,
+                                String action, String entityName, String username,
+                                StatsGroupBy groupBy);
+
+    record BucketCount(LocalDateTime bucket, String key, long count) {}
+}
@@ -0,0 +1,59 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.entity.AuditActivityHourly;
+import com.hospital.automation.domain.enums.StatsGroupBy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class AuditActivityHourlyRepositoryCustomImpl implements AuditActivityHourlyRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BucketCount> sumByHour(LocalDateTime from, LocalDateTime to,
+                                       String action, String entityName, String username,
+                                       StatsGroupBy groupBy) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<AuditActivityHourly> root = query.from(AuditActivityHourly.class);
+
+        Path<LocalDateTime> bucket = root.get("bucketStart");
+        Expression<Long> sum = cb.sum(root.<Long>get("eventCount"));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.greaterThanOrEqualTo(bucket, from));
+        where.add(cb.lessThan(bucket, to));
+        if (action != null && !action.isBlank()) {
+            where.add(cb.equal(root.get("action"), action));
+        }
+        if (entityName != null && !entityName.isBlank()) {
+            where.add(cb.equal(root.get("entityName"), entityName));
+        }
+        if (username != null && !username.isBlank()) {
+            where.add(cb.like(cb.lower(root.get("username")), "%" + username.toLowerCase() + "%"));
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        if (groupBy.attribute() == null) {
+            query.multiselect(bucket, sum).groupBy(bucket);
+        } else {
+            Path<String> key = root.get(groupBy.attribute());
+            query.multiselect(bucket, sum, key).groupBy(bucket, key);
+        }
+        query.orderBy(cb.asc(bucket));
+
+        return em.createQuery(query).getResultList().stream()
+                .map(t -> new BucketCount(
+                        t.get(0, LocalDateTime.class),
+                        t.getElements().size() > 2 ? t.get(2, String.class) : null,
+                        t.get(1, Long.class)))
+                .toList();
+    }
+}
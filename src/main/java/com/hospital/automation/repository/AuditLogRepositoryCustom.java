@@ -0,0 +1,13 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.entity.AuditLog;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AuditLogRepositoryCustom {
+
+    // sayfa sınırına oturmayan offset/limit dilimi (DB + arşiv birleştirmesi için)
+    List<AuditLog> findSlice(Specification<AuditLog> spec, Sort sort, long offset, int limit);
+}
@@ -1,8 +1,23 @@
 package com.hospital.automation.repository;
 
 import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.repository.projection.DoctorDepartmentRef;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     boolean existsByDepartment_Id(Long departmentId);
+    List<Doctor> findByDepartment_IdOrderByIdAsc(Long departmentId);
+
+    // Toplu işlemler: var olan doktorlar + varsayılan departmanları (tek sorgu)
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.DoctorDepartmentRef(d.id, dep.id)
+           FROM Doctor d LEFT JOIN d.department dep
+           WHERE d.id IN :ids
+           """)
+    List<DoctorDepartmentRef> findDepartmentRefs(@Param("ids") Collection<Long> ids);
 }
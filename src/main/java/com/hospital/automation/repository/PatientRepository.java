@@ -2,9 +2,17 @@ package com.hospital.automation.repository;
 
 import com.hospital.automation.domain.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByNationalId(String nationalId);
+
+    // Toplu işlemler: verilen id'lerden var olanlar (tek sorgu, entity yüklemeden)
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,10 +1,21 @@
 package com.hospital.automation.repository;
 
 import com.hospital.automation.domain.entity.Room;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
     Optional<Room> findByRoomNumber(String roomNumber);
+
+    boolean existsByDepartment_Id(Long departmentId);
+
+    // SELECT ... FOR UPDATE: birden fazla oda kilitlenecekse çağıran id sırasıyla kilitler (deadlock yok)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id = :id")
+    Optional<Room> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,30 @@
+package com.hospital.automation.repository;
+
+import com.hospital.automation.domain.entity.WaitlistEntry;
+import com.hospital.automation.domain.enums.WaitlistStatus;
+import com.hospital.automation.repository.projection.WaitlistCandidate;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long>, JpaSpecificationExecutor<WaitlistEntry> {
+
+    @EntityGraph(attributePaths = {"patient", "doctor", "department", "offeredDoctor", "appointment"})
+    Optional<WaitlistEntry> findWithRelationsById(Long id);
+
+    // Index'i tek sorguyla doldurmak için
+    @Query("""
+           SELECT new com.hospital.automation.repository.projection.WaitlistCandidate(
+                  e.id, d.id, dp.id, e.windowStart, e.windowEnd, e.durationMinutes, e.priority)
+           FROM WaitlistEntry e
+           LEFT JOIN e.doctor d
+           LEFT JOIN e.department dp
+           WHERE e.status = :status
+           """)
+    List<WaitlistCandidate> findCandidatesByStatus(@Param("status") WaitlistStatus status);
+}
@@ -0,0 +1,14 @@
+package com.hospital.automation.repository.projection;
+
+import com.hospital.automation.domain.enums.AdmissionStatus;
+
+import java.time.LocalDateTime;
+
+// Yatağı tutan (ya da gelecekte bırakacak) yatış: müsaitlik index'i için
+public record AdmissionStay(
+        Long admissionId,
+        Long roomId,
+        AdmissionStatus status,
+        LocalDateTime dischargedAt,
+        LocalDateTime plannedDischargeAt
+) {}
@@ -0,0 +1,8 @@
+package com.hospital.automation.repository.projection;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+// Serinin bir tekrarı (entity yüklemeden)
+public record AppointmentOccurrence(Long id, LocalDateTime startTime, LocalDateTime endTime, AppointmentStatus status) {}
@@ -0,0 +1,6 @@
+package com.hospital.automation.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Randevunun sadece zaman aralığı (entity/ilişki yüklemeden)
+public record AppointmentSlot(Long id, LocalDateTime startTime, LocalDateTime endTime) {}
@@ -0,0 +1,19 @@
+package com.hospital.automation.repository.projection;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+// ICS feed satırı: randevu + isimler tek join'le (entity / lazy ilişki yüklenmez)
+public record CalendarEvent(
+        Long id,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        AppointmentStatus status,
+        String note,
+        String patientFirstName,
+        String patientLastName,
+        String doctorFirstName,
+        String doctorLastName,
+        String departmentName
+) {}
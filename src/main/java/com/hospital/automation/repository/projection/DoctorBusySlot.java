@@ -0,0 +1,6 @@
+package com.hospital.automation.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Doktorun dolu zaman aralığı (müsaitlik hesabı için; entity yüklemeden)
+public record DoctorBusySlot(Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {}
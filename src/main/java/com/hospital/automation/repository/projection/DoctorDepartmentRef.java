@@ -0,0 +1,4 @@
+package com.hospital.automation.repository.projection;
+
+// Doktor id'si + departmanı (departman atanmamışsa null)
+public record DoctorDepartmentRef(Long doctorId, Long departmentId) {}
@@ -0,0 +1,7 @@
+package com.hospital.automation.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Bir yatışın [start, end) aralığı (end null => devam ediyor): sayım (census) için.
+// roomId yatışın son odası; transfer olduysa önceki odalar TransferStep'lerden çıkar
+public record OccupancyInterval(Long admissionId, Long roomId, LocalDateTime start, LocalDateTime end) {}
@@ -0,0 +1,6 @@
+package com.hospital.automation.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Süresi geçmiş SCHEDULED randevu (sweeper keyset'i için endTime ile)
+public record PastDueAppointment(Long id, Long doctorId, LocalDateTime startTime, LocalDateTime endTime) {}
@@ -0,0 +1,4 @@
+package com.hospital.automation.repository.projection;
+
+// Oda başına aktif (ADMITTED) yatış sayısı
+public record RoomOccupancy(Long roomId, long occupied) {}
@@ -0,0 +1,16 @@
+package com.hospital.automation.repository.projection;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+// Doktor ajandasındaki randevu özeti (entity yüklemeden; hasta adı join ile)
+public record ScheduleItem(
+        Long id,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        AppointmentStatus status,
+        Long patientId,
+        String patientFirstName,
+        String patientLastName
+) {}
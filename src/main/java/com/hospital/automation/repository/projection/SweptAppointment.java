@@ -0,0 +1,9 @@
+package com.hospital.automation.repository.projection;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+// Sweeper'ın kapattığı randevu (feed / SSE bildirimi için; departman: randevunun ya da doktorun)
+public record SweptAppointment(Long id, Long doctorId, Long departmentId, Long patientId,
+                               LocalDateTime startTime, LocalDateTime endTime, AppointmentStatus status) {}
@@ -0,0 +1,6 @@
+package com.hospital.automation.repository.projection;
+
+import java.time.LocalDateTime;
+
+// bir yatışın oda değişikliği: sayım çizelgelerinde yatış aralığını oda parçalarına böler
+public record TransferStep(Long admissionId, Long fromRoomId, Long toRoomId, LocalDateTime transferredAt) {}
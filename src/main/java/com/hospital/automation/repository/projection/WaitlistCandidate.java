@@ -0,0 +1,14 @@
+package com.hospital.automation.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Bekleme listesi index'inin tuttuğu alanlar (doctorId ya da departmentId dolu)
+public record WaitlistCandidate(
+        Long id,
+        Long doctorId,
+        Long departmentId,
+        LocalDateTime windowStart,
+        LocalDateTime windowEnd,
+        int durationMinutes,
+        int priority
+) {}
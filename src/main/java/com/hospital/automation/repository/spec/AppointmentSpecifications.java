@@ -0,0 +1,82 @@
+package com.hospital.automation.repository.spec;
+
+import com.hospital.automation.domain.entity.Appointment;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {}
+
+    // doctor.id / patient.id / department.id FK kolonuna gider, join üretmez
+    public static Specification<Appointment> doctorIdEquals(Long doctorId) {
+        return (root, query, cb) ->
+                (doctorId == null) ? cb.conjunction() : cb.equal(root.get("doctor").get("id"), doctorId);
+    }
+
+    public static Specification<Appointment> patientIdEquals(Long patientId) {
+        return (root, query, cb) ->
+                (patientId == null) ? cb.conjunction() : cb.equal(root.get("patient").get("id"), patientId);
+    }
+
+    public static Specification<Appointment> departmentIdEquals(Long departmentId) {
+        return (root, query, cb) ->
+                (departmentId == null) ? cb.conjunction() : cb.equal(root.get("department").get("id"), departmentId);
+    }
+
+    public static Specification<Appointment> statusEquals(AppointmentStatus status) {
+        return (root, query, cb) ->
+                (status == null) ? cb.conjunction() : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Appointment> startTimeGte(LocalDateTime from) {
+        return (root, query, cb) ->
+                (from == null) ? cb.conjunction() : cb.greaterThanOrEqualTo(root.get("startTime"), from);
+    }
+
+    public static Specification<Appointment> startTimeLte(LocalDateTime to) {
+        return (root, query, cb) ->
+                (to == null) ? cb.conjunction() : cb.lessThanOrEqualTo(root.get("startTime"), to);
+    }
+
+    /**
+     * toResponse'un kullandığı patient/doctor/department aynı sorguda gelir (N+1 yok).
+     * Hepsi ManyToOne olduğundan satır çoğalmaz, LIMIT/OFFSET DB'de kalır.
+     * Page için çalışan COUNT sorgusunda (sonuç tipi Long) fetch eklenmez.
+     */
+    public static Specification<Appointment> fetchRelations() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("patient");
+                root.fetch("doctor");
+                root.fetch("department", JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+
+    /**
+     * Keyset (seek): (startTime, id) çiftine göre cursor'dan sonraki satırlar.
+     * desc: startTime < c OR (startTime = c AND id < id) — asc için tersi.
+     */
+    public static Specification<Appointment> seekAfter(LocalDateTime startTime, Long id, boolean desc) {
+        return (root, query, cb) -> {
+            if (startTime == null || id == null) {
+                return cb.conjunction();
+            }
+            if (desc) {
+                return cb.or(
+                        cb.lessThan(root.get("startTime"), startTime),
+                        cb.and(cb.equal(root.get("startTime"), startTime), cb.lessThan(root.get("id"), id))
+                );
+            }
+            return cb.or(
+                    cb.greaterThan(root.get("startTime"), startTime),
+                    cb.and(cb.equal(root.get("startTime"), startTime), cb.greaterThan(root.get("id"), id))
+            );
+        };
+    }
+}
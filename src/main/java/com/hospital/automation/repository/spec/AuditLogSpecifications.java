@@ -30,6 +30,28 @@ public final class AuditLogSpecifications {
                         : cb.equal(root.get("entityName"), entityName);
     }
 
+    /**
+     * q: username VEYA details içinde geçen metin (büyük/küçük harf duyarsız).
+     * Postgres'te lower(username) / lower(details) üzerindeki pg_trgm GIN index'leri bu LIKE'ları karşılar;
+     * q içindeki % ve _ literal aranır.
+     */
+    public static Specification<AuditLog> textContains(String q) {
+        return (root, query, cb) -> {
+            if (q == null || q.isBlank()) {
+                return cb.conjunction();
+            }
+            String pattern = "%" + escapeLike(q.trim().toLowerCase()) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("username")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("details")), pattern, '\\')
+            );
+        };
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     public static Specification<AuditLog> createdAtGte(LocalDateTime from) {
         return (root, query, cb) ->
                 (from == null)
@@ -43,4 +65,27 @@ public final class AuditLogSpecifications {
                         ? cb.conjunction()
                         : cb.lessThanOrEqualTo(root.get("createdAt"), to);
     }
+
+    /**
+     * Keyset (seek): (createdAt, id) çiftine göre cursor'dan sonraki satırlar.
+     * desc: createdAt < c OR (createdAt = c AND id < id)  — asc için tersi.
+     * (created_at, id) composite index'i ile OFFSET olmadan doğrudan index'e seek eder.
+     */
+    public static Specification<AuditLog> seekAfter(LocalDateTime createdAt, Long id, boolean desc) {
+        return (root, query, cb) -> {
+            if (createdAt == null || id == null) {
+                return cb.conjunction();
+            }
+            if (desc) {
+                return cb.or(
+                        cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id))
+                );
+            }
+            return cb.or(
+                    cb.greaterThan(root.get("createdAt"), createdAt),
+                    cb.and(cb.equal(root.get("createdAt"), createdAt), cb.greaterThan(root.get("id"), id))
+            );
+        };
+    }
 }
@@ -0,0 +1,45 @@
+package com.hospital.automation.repository.spec;
+
+import com.hospital.automation.domain.entity.WaitlistEntry;
+import com.hospital.automation.domain.enums.WaitlistStatus;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class WaitlistSpecifications {
+
+    private WaitlistSpecifications() {}
+
+    public static Specification<WaitlistEntry> doctorIdEquals(Long doctorId) {
+        return (root, query, cb) ->
+                (doctorId == null) ? cb.conjunction() : cb.equal(root.get("doctor").get("id"), doctorId);
+    }
+
+    public static Specification<WaitlistEntry> departmentIdEquals(Long departmentId) {
+        return (root, query, cb) ->
+                (departmentId == null) ? cb.conjunction() : cb.equal(root.get("department").get("id"), departmentId);
+    }
+
+    public static Specification<WaitlistEntry> patientIdEquals(Long patientId) {
+        return (root, query, cb) ->
+                (patientId == null) ? cb.conjunction() : cb.equal(root.get("patient").get("id"), patientId);
+    }
+
+    public static Specification<WaitlistEntry> statusEquals(WaitlistStatus status) {
+        return (root, query, cb) ->
+                (status == null) ? cb.conjunction() : cb.equal(root.get("status"), status);
+    }
+
+    // toResponse'un kullandığı ilişkiler tek sorguda
+    public static Specification<WaitlistEntry> fetchRelations() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("patient");
+                root.fetch("doctor", JoinType.LEFT);
+                root.fetch("department", JoinType.LEFT);
+                root.fetch("offeredDoctor", JoinType.LEFT);
+                root.fetch("appointment", JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+}
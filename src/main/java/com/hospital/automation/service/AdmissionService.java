@@ -2,7 +2,9 @@ package com.hospital.automation.service;
 
 import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
 import com.hospital.automation.domain.dto.request.AdmissionDischargeRequest;
+import com.hospital.automation.domain.dto.request.AdmissionTransferRequest;
 import com.hospital.automation.domain.dto.response.AdmissionResponse;
+import com.hospital.automation.domain.dto.response.AdmissionTransferResponse;
 
 import java.util.List;
 
@@ -10,6 +12,10 @@ public interface AdmissionService {
     AdmissionResponse create(AdmissionCreateRequest request);
     List<AdmissionResponse> getAll();
     AdmissionResponse getById(Long id);
-    AdmissionResponse discharge(Long id, AdmissionDischargeRequest request);
+    // expectedVersion: If-Match (null => koşulsuz)
+    AdmissionResponse discharge(Long id, AdmissionDischargeRequest request, Long expectedVersion);
+    // eski yatağı bırakıp yenisini tek transaction'da alır; expectedVersion: If-Match
+    AdmissionResponse transfer(Long id, AdmissionTransferRequest request, Long expectedVersion);
+    List<AdmissionTransferResponse> getTransfers(Long id);
     void delete(Long id);
 }
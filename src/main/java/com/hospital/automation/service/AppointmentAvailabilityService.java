@@ -0,0 +1,11 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.dto.response.DepartmentAvailabilityResponse;
+import com.hospital.automation.domain.dto.response.DoctorAvailabilityResponse;
+
+import java.time.LocalDateTime;
+
+public interface AppointmentAvailabilityService {
+    DoctorAvailabilityResponse doctorAvailability(Long doctorId, LocalDateTime from, LocalDateTime to, int durationMinutes);
+    DepartmentAvailabilityResponse departmentAvailability(Long departmentId, LocalDateTime from, LocalDateTime to, int durationMinutes);
+}
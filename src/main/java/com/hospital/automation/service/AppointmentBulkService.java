@@ -0,0 +1,17 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface AppointmentBulkService {
+
+    // satır bazında hata raporu: hatalı satırlar diğerlerinin eklenmesini engellemez
+    AppointmentBulkResponse bulkCreate(List<AppointmentCreateRequest> requests);
+
+    // CSV'yi satır satır okur ve parça parça (chunk) ekler; dosya belleğe alınmaz
+    AppointmentBulkResponse importCsv(InputStream csv) throws IOException;
+}
@@ -0,0 +1,14 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.dto.request.AppointmentSeriesCreateRequest;
+import com.hospital.automation.domain.dto.request.AppointmentSeriesUpdateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentSeriesResponse;
+
+import java.time.LocalDateTime;
+
+public interface AppointmentSeriesService {
+    AppointmentSeriesResponse create(AppointmentSeriesCreateRequest request);
+    AppointmentSeriesResponse getById(Long id);
+    AppointmentSeriesResponse updateFuture(Long id, AppointmentSeriesUpdateRequest request);
+    AppointmentSeriesResponse cancelFuture(Long id, LocalDateTime from);
+}
@@ -1,15 +1,37 @@
 package com.hospital.automation.service;
 
 import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.request.AppointmentFilter;
 import com.hospital.automation.domain.dto.request.AppointmentUpdateRequest;
 import com.hospital.automation.domain.dto.response.AppointmentResponse;
+import com.hospital.automation.domain.dto.response.CursorPageResponse;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
 
 public interface AppointmentService {
     AppointmentResponse create(AppointmentCreateRequest request);
+    // UI formu: başlangıç durumu seçilebilir (SCHEDULED değilse çakışma kontrolü yapılmaz)
+    AppointmentResponse create(AppointmentCreateRequest request, AppointmentStatus status);
     List<AppointmentResponse> getAll();
+
+    // filtre + sayfalama; sayfa başına sabit sayıda sorgu (fetch join + COUNT)
+    Page<AppointmentResponse> search(AppointmentFilter filter, int page, int size, String sort);
+
+    // keyset (seek) sayfalama: (startTime, id) üzerinden, OFFSET ve zorunlu COUNT yok
+    CursorPageResponse<AppointmentResponse> searchKeyset(
+            AppointmentFilter filter,
+            String cursor,
+            int size,
+            boolean desc,
+            boolean includeTotal
+    );
+
     AppointmentResponse getById(Long id);
-    AppointmentResponse update(Long id, AppointmentUpdateRequest request);
+    // expectedVersion: If-Match (null => koşulsuz)
+    AppointmentResponse update(Long id, AppointmentUpdateRequest request, Long expectedVersion);
+    // UI tam düzenleme: hasta / doktor / departman da değişebilir (update ile aynı kilit, index ve cache kuralları)
+    AppointmentResponse edit(Long id, AppointmentCreateRequest request, AppointmentStatus status);
     void delete(Long id);
 }
@@ -1,16 +1,25 @@
 package com.hospital.automation.service;
 
+import com.hospital.automation.domain.dto.request.AuditLogFilter;
+import com.hospital.automation.domain.dto.response.AuditActivityStatsResponse;
 import com.hospital.automation.domain.dto.response.AuditLogResponse;
+import com.hospital.automation.domain.dto.response.CursorPageResponse;
 import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.domain.enums.ExportFormat;
+import com.hospital.automation.domain.enums.StatsGranularity;
+import com.hospital.automation.domain.enums.StatsGroupBy;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AuditLogService {
     void log(String action, String entityName, Long entityId, String details);
 
-    // eski
+    // eski: tüm tabloyu belleğe alır; yerine export(...) kullanın
+    @Deprecated
     List<AuditLog> getAll();
 
     // yeni
@@ -20,8 +29,32 @@ public interface AuditLogService {
             String entityName,
             LocalDateTime from,
             LocalDateTime to,
+            String q,
             int page,
             int size,
             String sort
     );
+
+    // saatlik sayaçlardan (audit_activity_hourly) zaman serisi; audit_logs taranmaz
+    AuditActivityStatsResponse stats(
+            LocalDateTime from,
+            LocalDateTime to,
+            StatsGranularity granularity,
+            StatsGroupBy groupBy,
+            String action,
+            String entityName,
+            String username
+    );
+
+    // keyset (seek) sayfalama: (createdAt, id) üzerinden, OFFSET ve zorunlu COUNT yok
+    CursorPageResponse<AuditLogResponse> searchKeyset(
+            AuditLogFilter filter,
+            String cursor,
+            int size,
+            boolean desc,
+            boolean includeTotal
+    );
+
+    // filtreye uyan satırları sabit bellekle doğrudan out'a yazar; yazılan satır sayısını döner
+    long export(AuditLogFilter filter, ExportFormat format, OutputStream out) throws IOException;
 }
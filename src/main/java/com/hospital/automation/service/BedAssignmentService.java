@@ -0,0 +1,9 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.dto.request.BedAssignmentRequest;
+import com.hospital.automation.domain.dto.response.BedAssignmentResponse;
+
+public interface BedAssignmentService {
+    // yerleşenler tek transaction'da yatırılır; yerleşemeyenler sebebiyle döner
+    BedAssignmentResponse assign(BedAssignmentRequest request);
+}
@@ -0,0 +1,20 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.enums.CalendarOwner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CalendarFeedService {
+
+    // feed'in güncel version damgası (ETag); DB'ye gitmez
+    String version(CalendarOwner owner, Long ownerId);
+
+    // sahip yoksa NotFoundException; daha önce doğrulanmış sahipler için DB'ye gitmez
+    void requireOwner(CalendarOwner owner, Long ownerId);
+
+    // sahibin görünen adı; yoksa NotFoundException (stream açılmadan önce çağrılır)
+    String calendarName(CalendarOwner owner, Long ownerId);
+
+    long writeFeed(CalendarOwner owner, Long ownerId, String calendarName, OutputStream out) throws IOException;
+}
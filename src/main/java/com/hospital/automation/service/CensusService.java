@@ -0,0 +1,21 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.dto.response.CensusHeatmapResponse;
+import com.hospital.automation.domain.dto.response.CensusPointResponse;
+import com.hospital.automation.domain.dto.response.CensusRangeResponse;
+import com.hospital.automation.domain.enums.CensusGroupBy;
+import com.hospital.automation.domain.enums.RoomType;
+
+import java.time.LocalDateTime;
+
+public interface CensusService {
+
+    // at anında yatan hasta sayısı (type null => tüm tipler)
+    CensusPointResponse pointInTime(LocalDateTime at, CensusGroupBy groupBy, RoomType type);
+
+    // [from, to) en yüksek / ortalama doluluk ve hasta-saat
+    CensusRangeResponse range(LocalDateTime from, LocalDateTime to, CensusGroupBy groupBy, RoomType type);
+
+    // saatlik ısı haritası: from aşağı, to yukarı tam saate yuvarlanır
+    CensusHeatmapResponse heatmap(LocalDateTime from, LocalDateTime to, CensusGroupBy groupBy, RoomType type);
+}
@@ -0,0 +1,10 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.dto.response.DoctorScheduleResponse;
+import com.hospital.automation.domain.enums.ScheduleView;
+
+import java.time.LocalDate;
+
+public interface DoctorScheduleService {
+    DoctorScheduleResponse getSchedule(Long doctorId, LocalDate date, ScheduleView view);
+}
@@ -10,6 +10,7 @@ public interface PatientService {
     PatientResponse create(PatientCreateRequest request);
     List<PatientResponse> getAll();
     PatientResponse getById(Long id);
-    PatientResponse update(Long id, PatientUpdateRequest request);
+    // expectedVersion: If-Match (null => koşulsuz)
+    PatientResponse update(Long id, PatientUpdateRequest request, Long expectedVersion);
     void delete(Long id);
 }
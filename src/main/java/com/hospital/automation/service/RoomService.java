@@ -1,13 +1,20 @@
 package com.hospital.automation.service;
 
 import com.hospital.automation.domain.dto.request.RoomCreateRequest;
+import com.hospital.automation.domain.dto.response.RoomAvailabilityResponse;
 import com.hospital.automation.domain.dto.response.RoomResponse;
+import com.hospital.automation.domain.enums.RoomType;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 public interface RoomService {
     RoomResponse create(RoomCreateRequest request);
     List<RoomResponse> getAll();
     RoomResponse getById(Long id);
     void delete(Long id);
+
+    // at anında (null => şimdi) en az minFreeBeds boş yatağı olan odalar; types / floors boş => filtre yok
+    RoomAvailabilityResponse availability(LocalDateTime at, Set<RoomType> types, Set<Integer> floors, int minFreeBeds);
 }
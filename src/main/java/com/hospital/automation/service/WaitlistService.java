@@ -0,0 +1,23 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.domain.dto.request.WaitlistCreateRequest;
+import com.hospital.automation.domain.dto.response.WaitlistEntryResponse;
+import com.hospital.automation.domain.enums.WaitlistStatus;
+
+import java.util.List;
+
+public interface WaitlistService {
+    WaitlistEntryResponse join(WaitlistCreateRequest request);
+
+    WaitlistEntryResponse getById(Long id);
+
+    List<WaitlistEntryResponse> search(Long doctorId, Long departmentId, Long patientId, WaitlistStatus status);
+
+    // teklif edilen slotu randevuya çevirir
+    WaitlistEntryResponse accept(Long id);
+
+    // teklifi reddeder; kayıt tekrar beklemeye döner
+    WaitlistEntryResponse decline(Long id);
+
+    void remove(Long id);
+}
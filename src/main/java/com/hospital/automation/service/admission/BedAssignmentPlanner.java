@@ -0,0 +1,94 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.domain.enums.RoomType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Toplu yatış için yatak ataması: bellekteki boş yatak snapshot'ı üzerinde tek geçiş (DB'ye dokunmaz).
+ *
+ * Kurallar:
+ * - RoomType zorunlu eşleşme; bölüme ayrılmış oda sadece o bölümün doktorunun hastasını alır,
+ *   bölümsüz oda herkese açık
+ * - Tercih sırası: kendi bölümünün odası > tercih edilen kat (ya da en yakın kat) > en az boş yatağı kalan oda
+ *   (best-fit: büyük boş odalar sonraki gruplar için korunur) > oda id
+ * - İstek sırası önceliktir (triyaj sırası): önceki satır tercih ettiği katı önce alır
+ */
+public final class BedAssignmentPlanner {
+
+    private BedAssignmentPlanner() {}
+
+    /**
+     * rooms: yönetilen odalar ve anlık boş yatakları; demands: istek sırasında (index = satır).
+     * Dönen liste demands ile aynı sırada; yerleşemeyen talep için null.
+     */
+    public static List<Placement> plan(List<RoomBeds> rooms, List<Demand> demands) {
+        Map<RoomType, List<Slot>> byType = new EnumMap<>(RoomType.class);
+        for (RoomBeds r : rooms) {
+            if (r.freeBeds() <= 0 || r.roomType() == null) continue;
+            byType.computeIfAbsent(r.roomType(), k -> new ArrayList<>()).add(new Slot(r));
+        }
+
+        Placement[] out = new Placement[demands.size()];
+        for (int i = 0; i < out.length; i++) {
+            Demand d = demands.get(i);
+            Slot best = null;
+            for (Slot s : byType.getOrDefault(d.roomType(), List.of())) {
+                if (s.free > 0 && s.accepts(d) && (best == null || better(s, best, d))) best = s;
+            }
+            if (best == null) continue;
+
+            best.free--;
+            out[i] = new Placement(best.room,
+                    d.preferredFloor() != null && d.preferredFloor().equals(best.room.floor()));
+        }
+        return Arrays.asList(out);
+    }
+
+    private static boolean better(Slot a, Slot b, Demand d) {
+        boolean ownA = a.room.departmentId() != null;
+        boolean ownB = b.room.departmentId() != null;
+        if (ownA != ownB) return ownA;
+
+        int distA = floorDistance(a.room.floor(), d.preferredFloor());
+        int distB = floorDistance(b.room.floor(), d.preferredFloor());
+        if (distA != distB) return distA < distB;
+
+        if (a.free != b.free) return a.free < b.free;
+        return a.room.roomId() < b.room.roomId();
+    }
+
+    // tercih yoksa kat fark etmez; katı tanımsız oda en sona
+    private static int floorDistance(Integer floor, Integer preferred) {
+        if (preferred == null) return 0;
+        if (floor == null) return Integer.MAX_VALUE;
+        return Math.abs(floor - preferred);
+    }
+
+    public record RoomBeds(Long roomId, String roomNumber, Integer floor, RoomType roomType, Long departmentId,
+                           Integer capacity, int freeBeds) {}
+
+    // departmentId: yatıran doktorun bölümü (doktor yoksa ya da bölümsüzse null => sadece genel odalar)
+    public record Demand(RoomType roomType, Integer preferredFloor, Long departmentId) {}
+
+    public record Placement(RoomBeds room, boolean preferredFloor) {}
+
+    private static final class Slot {
+        private final RoomBeds room;
+        private int free;
+
+        private Slot(RoomBeds room) {
+            this.room = room;
+            this.free = room.freeBeds();
+        }
+
+        private boolean accepts(Demand d) {
+            return room.departmentId() == null || Objects.equals(room.departmentId(), d.departmentId());
+        }
+    }
+}
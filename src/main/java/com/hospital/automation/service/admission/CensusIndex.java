@@ -0,0 +1,276 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.domain.dto.response.CensusCount;
+import com.hospital.automation.domain.dto.response.CensusHeatmapResponse;
+import com.hospital.automation.domain.dto.response.CensusHeatmapRow;
+import com.hospital.automation.domain.dto.response.CensusPointResponse;
+import com.hospital.automation.domain.dto.response.CensusRangeResponse;
+import com.hospital.automation.domain.dto.response.CensusRangeRow;
+import com.hospital.automation.domain.entity.Room;
+import com.hospital.automation.domain.enums.CensusGroupBy;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.AdmissionTransferRepository;
+import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.repository.projection.OccupancyInterval;
+import com.hospital.automation.repository.projection.TransferStep;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Yatış aralıklarından oda, RoomType ve hastane geneli için doluluk zaman çizelgeleri (OccupancyTimeline).
+ *
+ * - "Salı 02:00'de ICU'da kaç hasta vardı" => ikili arama, satır taraması yok
+ * - Aralık sorguları (en yüksek / ortalama / hasta-saat) ve saatlik ısı haritası hücre başına O(log n)
+ * - Transfer edilen yatış, transfer anlarında oda parçalarına bölünür (her oda kendi parçasını sayar)
+ * - Yatış / oda değişikliği commit sonrası çizelgeleri geçersiz kılar; bir sonraki sorguda tek sorguyla yeniden kurulur
+ *   (yazımlar okumalardan çok seyrek; kurulum O(n log n))
+ */
+@Slf4j
+@Component
+public class CensusIndex {
+
+    private static final long HOUR = 3600;
+
+    private final RoomRepository roomRepository;
+    private final AdmissionRepository admissionRepository;
+    private final AdmissionTransferRepository transferRepository;
+    private final TransactionTemplate loadTx;
+
+    private volatile Snapshot snapshot;
+    // commit sayacı: yükleme sırasında commit olduysa eski snapshot kurulmaz
+    private long version;
+
+    public CensusIndex(RoomRepository roomRepository,
+                       AdmissionRepository admissionRepository,
+                       AdmissionTransferRepository transferRepository,
+                       PlatformTransactionManager txManager) {
+        this.roomRepository = roomRepository;
+        this.admissionRepository = admissionRepository;
+        this.transferRepository = transferRepository;
+        this.loadTx = new TransactionTemplate(txManager);
+        this.loadTx.setReadOnly(true);
+    }
+
+    // at anındaki doluluk; type null => tüm tipler. total: filtredeki odaların toplamı
+    public CensusPointResponse pointInTime(LocalDateTime at, CensusGroupBy groupBy, RoomType type) {
+        Snapshot s = snapshot();
+        long t = epoch(at);
+        return new CensusPointResponse(at, groupBy, totalOf(s, type).at(t),
+                map(s, groupBy, type, (key, tl) -> new CensusCount(key, tl.at(t))));
+    }
+
+    public CensusRangeResponse range(LocalDateTime from, LocalDateTime to, CensusGroupBy groupBy, RoomType type) {
+        Snapshot s = snapshot();
+        long a = epoch(from);
+        long b = epoch(to);
+        return new CensusRangeResponse(from, to, groupBy,
+                rangeRow(totalKey(type), totalOf(s, type), a, b),
+                map(s, groupBy, type, (key, tl) -> rangeRow(key, tl, a, b)));
+    }
+
+    // from saat başına hizalı; her sütun [h, h + 1 saat)
+    public CensusHeatmapResponse heatmap(LocalDateTime from, int hours, CensusGroupBy groupBy, RoomType type) {
+        Snapshot s = snapshot();
+        long start = epoch(from);
+
+        List<LocalDateTime> columns = new ArrayList<>(hours);
+        for (int h = 0; h < hours; h++) columns.add(from.plusHours(h));
+
+        return new CensusHeatmapResponse(from, from.plusHours(hours), groupBy, columns,
+                heatmapRow(totalKey(type), totalOf(s, type), start, hours),
+                map(s, groupBy, type, (key, tl) -> heatmapRow(key, tl, start, hours)));
+    }
+
+    // yatış ya da oda değişti: commit sonrası bir sonraki sorguda yeniden kurulur
+    public void invalidate() {
+        TxHooks.afterCommit(() -> {
+            synchronized (this) {
+                snapshot = null;
+                version++;
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+
+    private static CensusRangeRow rangeRow(String key, OccupancyTimeline tl, long from, long to) {
+        long area = tl.integral(from, to);
+        double hours = (to - from) / (double) HOUR;
+        return new CensusRangeRow(key, tl.peak(from, to),
+                hours <= 0 ? 0 : round2(area / (double) HOUR / hours), round2(area / (double) HOUR));
+    }
+
+    private static CensusHeatmapRow heatmapRow(String key, OccupancyTimeline tl, long start, int hours) {
+        List<Double> average = new ArrayList<>(hours);
+        List<Integer> peak = new ArrayList<>(hours);
+        for (int h = 0; h < hours; h++) {
+            long a = start + h * HOUR;
+            average.add(round2(tl.integral(a, a + HOUR) / (double) HOUR));
+            peak.add(tl.peak(a, a + HOUR));
+        }
+        return new CensusHeatmapRow(key, average, peak);
+    }
+
+    private static <T> List<T> map(Snapshot s, CensusGroupBy groupBy, RoomType type,
+                                   BiFunction<String, OccupancyTimeline, T> fn) {
+        List<T> out = new ArrayList<>();
+        if (groupBy == CensusGroupBy.ROOM) {
+            for (RoomKey room : s.rooms()) {
+                if (type != null && room.roomType() != type) continue;
+                out.add(fn.apply(room.roomNumber(), s.byRoom().getOrDefault(room.id(), OccupancyTimeline.EMPTY)));
+            }
+        } else {
+            for (RoomType t : RoomType.values()) {
+                if (type != null && t != type) continue;
+                out.add(fn.apply(t.name(), s.byType().get(t)));
+            }
+        }
+        return out;
+    }
+
+    private static OccupancyTimeline totalOf(Snapshot s, RoomType type) {
+        return (type == null) ? s.all() : s.byType().get(type);
+    }
+
+    private static String totalKey(RoomType type) {
+        return (type == null) ? "ALL" : type.name();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+
+        long seen;
+        synchronized (this) {
+            if (snapshot != null) return snapshot;
+            seen = version;
+        }
+
+        Snapshot fresh = loadTx.execute(status ->
+                build(roomRepository.findAll(), admissionRepository.findOccupancyIntervals(),
+                        transferRepository.findAllSteps()));
+
+        synchronized (this) {
+            if (snapshot == null && version == seen) {
+                snapshot = fresh;
+                log.debug("Census index built: {} room(s), {} change point(s)", fresh.rooms().size(), fresh.all().changePoints());
+            }
+        }
+        return fresh;
+    }
+
+    // steps: yatış ve zaman sırasında (findAllSteps)
+    static Snapshot build(List<Room> roomList, List<OccupancyInterval> intervals, List<TransferStep> steps) {
+        Map<Long, RoomKey> rooms = new HashMap<>();
+        for (Room r : roomList) {
+            rooms.put(r.getId(), new RoomKey(r.getId(), r.getRoomNumber(), r.getRoomType()));
+        }
+
+        Map<Long, List<TransferStep>> stepsByAdmission = new HashMap<>();
+        for (TransferStep step : steps) {
+            stepsByAdmission.computeIfAbsent(step.admissionId(), k -> new ArrayList<>()).add(step);
+        }
+
+        Map<Long, Intervals> perRoom = new HashMap<>();
+        Map<RoomType, Intervals> perType = new EnumMap<>(RoomType.class);
+        Intervals all = new Intervals();
+
+        for (OccupancyInterval iv : intervals) {
+            if (iv.start() == null) continue;
+
+            long start = epoch(iv.start());
+            long end = (iv.end() == null) ? Long.MAX_VALUE : epoch(iv.end());
+
+            List<TransferStep> moves = stepsByAdmission.get(iv.admissionId());
+            if (moves == null) {
+                addSegment(rooms.get(iv.roomId()), start, end, perRoom, perType, all);
+                continue;
+            }
+
+            // [giriş, 1. transfer) ilk odada, [transfer i, transfer i+1) i. hedef odada, son parça taburcuya kadar
+            Long roomId = moves.get(0).fromRoomId();
+            long segmentStart = start;
+            for (TransferStep move : moves) {
+                long at = Math.min(Math.max(epoch(move.transferredAt()), segmentStart), end);
+                addSegment(rooms.get(roomId), segmentStart, at, perRoom, perType, all);
+                roomId = move.toRoomId();
+                segmentStart = at;
+            }
+            addSegment(rooms.get(roomId), segmentStart, end, perRoom, perType, all);
+        }
+
+        Map<Long, OccupancyTimeline> byRoom = new HashMap<>();
+        perRoom.forEach((id, iv) -> byRoom.put(id, iv.toTimeline()));
+        Map<RoomType, OccupancyTimeline> byType = new EnumMap<>(RoomType.class);
+        for (RoomType t : RoomType.values()) {
+            Intervals iv = perType.get(t);
+            byType.put(t, (iv == null) ? OccupancyTimeline.EMPTY : iv.toTimeline());
+        }
+
+        List<RoomKey> sorted = rooms.values().stream()
+                .sorted(Comparator.comparing(RoomKey::roomNumber, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return new Snapshot(sorted, byRoom, byType, all.toTimeline());
+    }
+
+    private static void addSegment(RoomKey room, long start, long end, Map<Long, Intervals> perRoom,
+                                   Map<RoomType, Intervals> perType, Intervals all) {
+        if (room == null || end <= start) return; // aynı anda giriş-çıkış: doluluğa katkısı yok
+
+        perRoom.computeIfAbsent(room.id(), k -> new Intervals()).add(start, end);
+        perType.computeIfAbsent(room.roomType(), k -> new Intervals()).add(start, end);
+        all.add(start, end);
+    }
+
+    // yerel saat (saat dilimsiz) tutarlı olarak UTC saniyesine çevrilir
+    private static long epoch(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+
+    record RoomKey(Long id, String roomNumber, RoomType roomType) {}
+
+    record Snapshot(List<RoomKey> rooms,
+                    Map<Long, OccupancyTimeline> byRoom,
+                    Map<RoomType, OccupancyTimeline> byType,
+                    OccupancyTimeline all) {}
+
+    // çizelge kurulumu için büyüyen [start, end) dizileri
+    private static final class Intervals {
+        private long[] starts = new long[8];
+        private long[] ends = new long[8];
+        private int size;
+
+        void add(long start, long end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        OccupancyTimeline toTimeline() {
+            return OccupancyTimeline.of(starts, ends, size);
+        }
+    }
+}
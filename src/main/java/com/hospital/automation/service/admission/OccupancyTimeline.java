@@ -0,0 +1,119 @@
+package com.hospital.automation.service.admission;
+
+import java.util.Arrays;
+
+/**
+ * Yatış aralıklarından kurulan değişmez doluluk zaman çizelgesi (zamanlar epoch saniyesi).
+ *
+ * Delta kodlu: her değişim noktası (times[i]) ve o noktadan bir sonrakine kadarki doluluk (levels[i]).
+ * - at(t): ikili arama => O(log n)
+ * - integral(from, to): önek alan dizisi (hasta-saniye) => O(log n)
+ * - peak(from, to): sparse table ile aralık maksimumu => O(log n) arama + O(1)
+ */
+final class OccupancyTimeline {
+
+    static final OccupancyTimeline EMPTY = new OccupancyTimeline(new long[0], new int[0]);
+
+    private final long[] times;
+    private final int[] levels;
+    private final long[] area;      // area[i] = [times[0], times[i]) doluluk integrali
+    private final int[][] maxTable; // maxTable[k][i] = max(levels[i .. i + 2^k))
+
+    private OccupancyTimeline(long[] times, int[] levels) {
+        this.times = times;
+        this.levels = levels;
+
+        this.area = new long[times.length];
+        for (int i = 1; i < times.length; i++) {
+            area[i] = area[i - 1] + (long) levels[i - 1] * (times[i] - times[i - 1]);
+        }
+
+        int n = levels.length;
+        int k = (n <= 1) ? 1 : 32 - Integer.numberOfLeadingZeros(n);
+        this.maxTable = new int[k][];
+        this.maxTable[0] = levels;
+        for (int j = 1; j < k; j++) {
+            int half = 1 << (j - 1);
+            int[] prev = maxTable[j - 1];
+            int[] row = new int[n - (1 << j) + 1];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = Math.max(prev[i], prev[i + half]);
+            }
+            maxTable[j] = row;
+        }
+    }
+
+    /**
+     * [start, end) aralıklarından kurar; end == Long.MAX_VALUE => hâlâ devam ediyor.
+     */
+    static OccupancyTimeline of(long[] starts, long[] ends, int count) {
+        if (count == 0) return EMPTY;
+
+        // +1 ve -1 olayları tek dizide: (zaman << 1) | (çıkış ? 0 : 1) => aynı anda önce çıkışlar
+        long[] events = new long[count * 2];
+        int e = 0;
+        for (int i = 0; i < count; i++) {
+            events[e++] = (starts[i] << 1) | 1;
+            if (ends[i] != Long.MAX_VALUE) events[e++] = ends[i] << 1;
+        }
+        Arrays.sort(events, 0, e);
+
+        long[] times = new long[e];
+        int[] levels = new int[e];
+        int n = 0;
+        int level = 0;
+        for (int i = 0; i < e; i++) {
+            long t = events[i] >> 1;
+            level += ((events[i] & 1) == 1) ? 1 : -1;
+            if (n > 0 && times[n - 1] == t) {
+                levels[n - 1] = level;
+            } else {
+                times[n] = t;
+                levels[n] = level;
+                n++;
+            }
+        }
+        return new OccupancyTimeline(Arrays.copyOf(times, n), Arrays.copyOf(levels, n));
+    }
+
+    int at(long t) {
+        int i = floorIndex(t);
+        return (i < 0) ? 0 : levels[i];
+    }
+
+    // [from, to) boyunca doluluk integrali (hasta-saniye)
+    long integral(long from, long to) {
+        return (to <= from) ? 0 : cumulative(to) - cumulative(from);
+    }
+
+    // [from, to) içindeki en yüksek doluluk
+    int peak(long from, long to) {
+        if (to <= from) return 0;
+
+        int i = floorIndex(from);
+        int j = floorIndex(to - 1);
+        int best = (i < 0) ? 0 : levels[i];
+        if (j > i) best = Math.max(best, rangeMax(i + 1, j));
+        return best;
+    }
+
+    int changePoints() {
+        return times.length;
+    }
+
+    private long cumulative(long t) {
+        int i = floorIndex(t);
+        return (i < 0) ? 0 : area[i] + (long) levels[i] * (t - times[i]);
+    }
+
+    // times[i] <= t olan en büyük i (yoksa -1)
+    private int floorIndex(long t) {
+        int pos = Arrays.binarySearch(times, t);
+        return (pos >= 0) ? pos : -pos - 2;
+    }
+
+    private int rangeMax(int lo, int hi) {
+        int k = 31 - Integer.numberOfLeadingZeros(hi - lo + 1);
+        return Math.max(maxTable[k][lo], maxTable[k][hi - (1 << k) + 1]);
+    }
+}
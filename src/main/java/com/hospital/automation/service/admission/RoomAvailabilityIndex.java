@@ -0,0 +1,266 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.domain.dto.response.RoomAvailabilityItem;
+import com.hospital.automation.domain.entity.Admission;
+import com.hospital.automation.domain.entity.Room;
+import com.hospital.automation.domain.enums.AdmissionStatus;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.repository.projection.AdmissionStay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Oda kapasitesi x yatağı tutan yatışlar: "şu an / yarın kaç boş yatak var" sorusunu sorgusuz cevaplar.
+ *
+ * - Oda listesi değişmez bir snapshot: id sırasında diziler + RoomType ve kat başına BitSet'ler.
+ *   Filtre = bitset AND/OR, sonra sadece aday odaların yatışları sayılır
+ * - Oda başına yatışlar (aktif + ileri tarihli taburcu) commit sonrası güncellenir; oda ekleme/silme snapshot'ı atar
+ * - Bir yatış kaydedildiği andan itibaren yatağı tutar (kapasite kontrolü de böyle sayar); t anında boş sayılması için
+ *   taburcu zamanı (ya da aktif yatışta planlanan taburcu) t'den önce olmalı. Planlanan taburcusu geçmiş ama hâlâ
+ *   aktif yatış gecikmiştir: gerçek taburcuya kadar dolu sayılır
+ * - Kapasitesi tanımsız odalar yatak yönetimine dahil değildir (sonuçta yer almaz)
+ */
+@Slf4j
+@Component
+public class RoomAvailabilityIndex {
+
+    private final RoomRepository roomRepository;
+    private final AdmissionRepository admissionRepository;
+    private final TransactionTemplate loadTx;
+    private final Clock clock;
+
+    private volatile Snapshot snapshot;
+    // commit sayacı: yükleme sırasında commit olduysa eski snapshot kurulmaz (AppointmentOverlapIndex ile aynı kural)
+    private long version;
+
+    @Autowired
+    public RoomAvailabilityIndex(RoomRepository roomRepository,
+                                 AdmissionRepository admissionRepository,
+                                 PlatformTransactionManager txManager) {
+        this(roomRepository, admissionRepository, txManager, Clock.systemDefaultZone());
+    }
+
+    RoomAvailabilityIndex(RoomRepository roomRepository,
+                          AdmissionRepository admissionRepository,
+                          PlatformTransactionManager txManager,
+                          Clock clock) {
+        this.roomRepository = roomRepository;
+        this.admissionRepository = admissionRepository;
+        this.clock = clock;
+        // oda listesi ve yatışlar aynı transaction'da okunur (tutarlı çift)
+        this.loadTx = new TransactionTemplate(txManager);
+        this.loadTx.setReadOnly(true);
+    }
+
+    /**
+     * at anında en az minFreeBeds boş yatağı olan odalar (oda id sırasında).
+     * types / floors boş => filtre yok; at geçmişte ya da null => şimdi.
+     */
+    public List<RoomAvailabilityItem> find(LocalDateTime at, Collection<RoomType> types, Collection<Integer> floors,
+                                           int minFreeBeds) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime t = (at == null || at.isBefore(now)) ? now : at;
+        Snapshot s = snapshot();
+
+        BitSet candidates = (BitSet) s.managed().clone();
+        if (types != null && !types.isEmpty()) {
+            BitSet any = new BitSet(s.rooms().length);
+            for (RoomType type : types) any.or(s.byType().get(type));
+            candidates.and(any);
+        }
+        if (floors != null && !floors.isEmpty()) {
+            BitSet any = new BitSet(s.rooms().length);
+            for (Integer floor : floors) {
+                BitSet bits = s.byFloor().get(floor);
+                if (bits != null) any.or(bits);
+            }
+            candidates.and(any);
+        }
+
+        List<RoomAvailabilityItem> out = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            RoomInfo room = s.rooms()[i];
+            Stays stays = s.stays().get(room.id());
+            int occupied = (stays == null) ? 0 : stays.occupiedAt(t, now);
+            int free = Math.max(0, room.capacity() - occupied);
+            if (free >= minFreeBeds) {
+                out.add(new RoomAvailabilityItem(room.id(), room.roomNumber(), room.floor(), room.roomType(),
+                        room.capacity(), occupied, free));
+            }
+        }
+        return out;
+    }
+
+    // yatış kaydedildi / taburcu edildi: commit sonrası odanın yatış listesine yansır
+    public void onAdmissionSaved(Admission a) {
+        Long roomId = a.getRoom().getId();
+        Long id = a.getId();
+        Stay stay = stayOf(a.getStatus(), a.getDischargedAt(), a.getPlannedDischargeAt());
+        TxHooks.afterCommit(() -> mutate(s -> s.staysOf(roomId).put(id, stay)));
+    }
+
+    // oda transferi: eski odadan çıkış ve yeni odaya giriş tek adımda (arada boş yatak görünmez)
+    public void onAdmissionMoved(Long fromRoomId, Admission a) {
+        Long toRoomId = a.getRoom().getId();
+        Long id = a.getId();
+        Stay stay = stayOf(a.getStatus(), a.getDischargedAt(), a.getPlannedDischargeAt());
+        TxHooks.afterCommit(() -> mutate(s -> {
+            s.staysOf(fromRoomId).remove(id);
+            s.staysOf(toRoomId).put(id, stay);
+        }));
+    }
+
+    public void onAdmissionDeleted(Long roomId, Long admissionId) {
+        TxHooks.afterCommit(() -> mutate(s -> s.staysOf(roomId).remove(admissionId)));
+    }
+
+    // oda eklendi / silindi: bir sonraki sorguda yeniden yüklenir
+    public void onRoomsChanged() {
+        TxHooks.afterCommit(() -> {
+            synchronized (this) {
+                snapshot = null;
+                version++;
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+
+        long seen;
+        synchronized (this) {
+            if (snapshot != null) return snapshot;
+            seen = version;
+        }
+
+        Snapshot fresh = loadTx.execute(status -> build(
+                roomRepository.findAll(),
+                admissionRepository.findStaysHoldingBeds(AdmissionStatus.ADMITTED, LocalDateTime.now(clock))));
+
+        synchronized (this) {
+            if (snapshot == null && version == seen) {
+                snapshot = fresh;
+                log.debug("Room availability index loaded: {} room(s)", fresh.rooms().length);
+            }
+        }
+        // arada commit olduysa bu sorgu yine taze yüklenen veriyle cevaplanır; kurulmaz
+        return fresh;
+    }
+
+    private void mutate(Consumer<Snapshot> change) {
+        synchronized (this) {
+            Snapshot s = snapshot;
+            if (s != null) change.accept(s);
+            version++;
+        }
+    }
+
+    static Snapshot build(List<Room> roomList, List<AdmissionStay> stayList) {
+        RoomInfo[] rooms = roomList.stream()
+                .sorted(Comparator.comparing(Room::getId))
+                .map(r -> new RoomInfo(r.getId(), r.getRoomNumber(), r.getFloor(), r.getRoomType(),
+                        r.getCapacity() == null ? -1 : r.getCapacity()))
+                .toArray(RoomInfo[]::new);
+
+        BitSet managed = new BitSet(rooms.length);
+        Map<RoomType, BitSet> byType = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) byType.put(type, new BitSet(rooms.length));
+        Map<Integer, BitSet> byFloor = new HashMap<>();
+
+        for (int i = 0; i < rooms.length; i++) {
+            RoomInfo r = rooms[i];
+            if (r.capacity() >= 0) managed.set(i);
+            if (r.roomType() != null) byType.get(r.roomType()).set(i);
+            if (r.floor() != null) byFloor.computeIfAbsent(r.floor(), k -> new BitSet(rooms.length)).set(i);
+        }
+
+        Map<Long, Stays> stays = new ConcurrentHashMap<>();
+        for (AdmissionStay row : stayList) {
+            stays.computeIfAbsent(row.roomId(), k -> new Stays())
+                    .put(row.admissionId(), stayOf(row.status(), row.dischargedAt(), row.plannedDischargeAt()));
+        }
+        return new Snapshot(rooms, managed, byType, Map.copyOf(byFloor), stays);
+    }
+
+    private static Stay stayOf(AdmissionStatus status, LocalDateTime dischargedAt, LocalDateTime plannedDischargeAt) {
+        return (status == AdmissionStatus.ADMITTED)
+                ? new Stay(plannedDischargeAt, true)
+                : new Stay(dischargedAt, false);
+    }
+
+    record RoomInfo(Long id, String roomNumber, Integer floor, RoomType roomType, int capacity) {}
+
+    record Snapshot(RoomInfo[] rooms,
+                    BitSet managed,
+                    Map<RoomType, BitSet> byType,
+                    Map<Integer, BitSet> byFloor,
+                    Map<Long, Stays> stays) {
+
+        Stays staysOf(Long roomId) {
+            return stays.computeIfAbsent(roomId, k -> new Stays());
+        }
+    }
+
+    /**
+     * end: yatağın boşalacağı an (null => belirsiz). planned: aktif yatışın planlanan taburcusu
+     * (geçmişte kaldıysa hasta hâlâ yatıyordur => dolu).
+     */
+    record Stay(LocalDateTime end, boolean planned) {
+
+        boolean holdsBedAt(LocalDateTime t, LocalDateTime now) {
+            if (end == null || end.isAfter(t)) return true;
+            return planned && !end.isAfter(now);
+        }
+    }
+
+    // tek odanın yatışları (admissionId -> stay); oda başına birkaç kayıt
+    static final class Stays {
+
+        private final Map<Long, Stay> byId = new HashMap<>();
+
+        synchronized void put(Long admissionId, Stay stay) {
+            byId.put(admissionId, stay);
+        }
+
+        synchronized void remove(Long admissionId) {
+            byId.remove(admissionId);
+        }
+
+        synchronized int occupiedAt(LocalDateTime t, LocalDateTime now) {
+            int n = 0;
+            var it = byId.values().iterator();
+            while (it.hasNext()) {
+                Stay s = it.next();
+                // taburcusu geçmişte kalmış kayıt artık hiçbir sorguda yatak tutmaz
+                if (!s.planned() && s.end() != null && !s.end().isAfter(now)) {
+                    it.remove();
+                    continue;
+                }
+                if (s.holdsBedAt(t, now)) n++;
+            }
+            return n;
+        }
+    }
+}
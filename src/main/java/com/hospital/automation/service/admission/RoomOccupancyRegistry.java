@@ -0,0 +1,165 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.config.AdmissionProperties;
+import com.hospital.automation.domain.enums.AdmissionStatus;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.projection.RoomOccupancy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Oda başına aktif yatış sayacı (kapasite kontrolü sorgusuz ve yarışsız).
+ *
+ * - İlk kullanımda (ya da uygulama açılışında) tek GROUP BY sorgusuyla tohumlanır
+ * - tryAdmit: kilitsiz compare-and-increment; kapasite doluysa false. Yer transaction açıkken ayrılır,
+ *   rollback olursa geri verilir => aynı anda gelen iki yatış son yatağı ikisi birden alamaz
+ * - onReleased (taburcu / silme): sayaç commit sonrası düşer (rollback'te yatak dolu kalır)
+ * - reconcile: sayaçları periyodik olarak DB ile karşılaştırır (başka node ya da uygulama dışı yazımlar).
+ *   Sonucu beklemede değişiklik olmayan ve sorgu süresince dokunulmayan odalara uygular => canlı sayaç bozulmaz
+ *
+ * Sayaçlar node başınadır; çok node'lu kurulumda node'lar arası sapmayı reconcile sınırlar.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomOccupancyRegistry {
+
+    private final AdmissionRepository admissionRepository;
+    private final AdmissionProperties props;
+
+    private final Map<Long, AtomicReference<Count>> rooms = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    /**
+     * Odaya bir yatış ayırır; capacity null => sınırsız. Çağıranın transaction'ı commit edilmezse yer geri verilir.
+     */
+    public boolean tryAdmit(Long roomId, Integer capacity) {
+        AtomicReference<Count> ref = counterOf(roomId);
+        while (true) {
+            Count cur = ref.get();
+            if (capacity != null && cur.occupied() >= capacity) return false;
+            if (ref.compareAndSet(cur, new Count(cur.occupied() + 1, cur.pending() + 1))) break;
+        }
+
+        TxHooks.onCompletion(committed -> ref.updateAndGet(c -> committed
+                ? new Count(c.occupied(), c.pending() - 1)
+                : new Count(c.occupied() - 1, c.pending() - 1)));
+        return true;
+    }
+
+    /**
+     * Aktif bir yatış taburcu edildi / silindi: commit sonrası yatak boşalır.
+     */
+    public void onReleased(Long roomId) {
+        AtomicReference<Count> ref = counterOf(roomId);
+        ref.updateAndGet(c -> new Count(c.occupied(), c.pending() + 1));
+
+        TxHooks.onCompletion(committed -> ref.updateAndGet(c -> committed
+                ? new Count(Math.max(0, c.occupied() - 1), c.pending() - 1)
+                : new Count(c.occupied(), c.pending() - 1)));
+    }
+
+    // odadaki aktif yatış (commit bekleyen ayırmalar dahil)
+    public int occupied(Long roomId) {
+        return counterOf(roomId).get().occupied();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        ensureSeeded();
+    }
+
+    @Scheduled(cron = "${app.admissions.occupancy-reconcile-cron:0 */5 * * * *}")
+    public void scheduledReconcile() {
+        if (!props.isOccupancyReconcileEnabled()) return;
+
+        try {
+            int fixed = reconcile();
+            if (fixed > 0) {
+                log.warn("Room occupancy reconcile corrected {} room counter(s)", fixed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Room occupancy reconcile failed", e);
+        }
+    }
+
+    /**
+     * Sayaçları DB'deki ADMITTED sayısına eşitler; düzeltilen oda sayısını döner.
+     */
+    public int reconcile() {
+        ensureSeeded();
+
+        // sorgudan önce her odanın anlık değeri: sorgu sürerken değişen oda bu turda atlanır
+        Map<Long, Count> before = new HashMap<>();
+        rooms.forEach((id, ref) -> before.put(id, ref.get()));
+        Map<Long, Long> actual = loadCounts();
+
+        Set<Long> ids = new HashSet<>(before.keySet());
+        ids.addAll(actual.keySet());
+
+        int fixed = 0;
+        for (Long id : ids) {
+            int expected = actual.getOrDefault(id, 0L).intValue();
+            Count seen = before.get(id);
+
+            if (seen == null) {
+                // tohumlamadan sonra başka yerden dolan oda
+                if (rooms.putIfAbsent(id, new AtomicReference<>(new Count(expected, 0))) == null && expected > 0) fixed++;
+                continue;
+            }
+            if (seen.pending() != 0 || seen.occupied() == expected) continue;
+
+            // kimlik karşılaştırması: arada herhangi bir değişiklik olduysa CAS başarısız olur
+            if (rooms.get(id).compareAndSet(seen, new Count(expected, 0))) {
+                log.debug("Room {} occupancy corrected {} -> {}", id, seen.occupied(), expected);
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+
+    // -------------------------------------------------------------------------
+
+    private AtomicReference<Count> counterOf(Long roomId) {
+        ensureSeeded();
+        return rooms.computeIfAbsent(roomId, k -> new AtomicReference<>(Count.EMPTY));
+    }
+
+    private void ensureSeeded() {
+        if (seeded) return;
+        synchronized (this) {
+            if (seeded) return;
+            loadCounts().forEach((id, n) -> rooms.put(id, new AtomicReference<>(new Count(n.intValue(), 0))));
+            seeded = true;
+            log.info("Room occupancy registry seeded with {} occupied room(s)", rooms.size());
+        }
+    }
+
+    private Map<Long, Long> loadCounts() {
+        Map<Long, Long> out = new HashMap<>();
+        for (RoomOccupancy row : admissionRepository.countByRoomAndStatus(AdmissionStatus.ADMITTED)) {
+            out.put(row.roomId(), row.occupied());
+        }
+        return out;
+    }
+
+    /**
+     * occupied: ayrılmış yataklar (commit bekleyenler dahil), pending: sonucu henüz belli olmayan değişiklik sayısı.
+     * Her değişiklik yeni bir nesne üretir; reconcile'ın CAS'ı kimliğe bakar (ABA yok).
+     */
+    record Count(int occupied, int pending) {
+        static final Count EMPTY = new Count(0, 0);
+    }
+}
@@ -0,0 +1,200 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse.RowError;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.repository.projection.AppointmentSlot;
+import com.hospital.automation.repository.projection.DoctorBusySlot;
+import com.hospital.automation.repository.projection.DoctorDepartmentRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bir grup randevuyu tek seferde ekler (çağıranın transaction'ında).
+ *
+ * - Hasta / doktor / departman varlığı satır başına findById yerine id kümeleriyle üç sorguda kontrol edilir
+ * - Batch'teki doktorlar kilitlenir (DoctorBookingLocks), sonra batch'in zaman penceresindeki SCHEDULED
+ *   randevuları tek range sorgusuyla doktor başına bellek içi aralık kümesine yüklenir
+ * - Çakışma bellekte kontrol edilir; kabul edilen satır kümeye eklendiği için batch içi çakışmalar da yakalanır
+ * - Kabul edilen satırlar tek JDBC batch INSERT ile yazılır; hatalı satırlar diğerlerini engellemez
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentBatchInserter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO appointments (patient_id, doctor_id, department_id, start_time, end_time, status, note, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private static final int NOTE_MAX_LENGTH = 500;
+
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final DepartmentRepository departmentRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorBookingLocks bookingLocks;
+    private final AppointmentOverlapIndex overlapIndex;
+    private final DoctorScheduleCache scheduleCache;
+    private final CalendarFeedVersions feedVersions;
+    private final JdbcTemplate jdbcTemplate;
+
+    public Result insert(List<Row> rows) {
+        List<RowError> errors = new ArrayList<>();
+
+        List<Row> valid = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            String problem = validate(r.request());
+            if (problem != null) errors.add(new RowError(r.row(), problem));
+            else valid.add(r);
+        }
+
+        List<Pending> resolved = resolve(valid, errors);
+        if (resolved.isEmpty()) {
+            return new Result(List.of(), sorted(errors));
+        }
+
+        Set<Long> doctorIds = resolved.stream()
+                .map(p -> p.row().request().doctorId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        bookingLocks.lockForTransaction(doctorIds);
+
+        List<Pending> accepted = acceptNonOverlapping(resolved, doctorIds, errors);
+        if (!accepted.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, accepted, accepted.size(), (ps, p) -> {
+                AppointmentCreateRequest req = p.row().request();
+                ps.setLong(1, req.patientId());
+                ps.setLong(2, req.doctorId());
+                if (p.departmentId() != null) ps.setLong(3, p.departmentId());
+                else ps.setNull(3, Types.BIGINT);
+                ps.setTimestamp(4, Timestamp.valueOf(req.startTime()));
+                ps.setTimestamp(5, Timestamp.valueOf(req.endTime()));
+                ps.setString(6, AppointmentStatus.SCHEDULED.name());
+                if (req.note() != null) ps.setString(7, req.note());
+                else ps.setNull(7, Types.VARCHAR);
+            });
+            // satırlar JPA dışından yazıldı: index'leri commit sonrası yeniden yüklensin
+            accepted.stream().map(p -> p.row().request().doctorId()).distinct().forEach(overlapIndex::invalidate);
+            accepted.stream()
+                    .collect(Collectors.groupingBy(p -> p.row().request().doctorId(),
+                            Collectors.mapping(p -> p.row().request().startTime().toLocalDate(), Collectors.toSet())))
+                    .forEach(scheduleCache::evictDays);
+            feedVersions.onAppointmentsChanged(doctorIds,
+                    accepted.stream().map(p -> p.row().request().patientId()).collect(Collectors.toSet()));
+        }
+
+        return new Result(accepted.stream().map(Pending::row).toList(), sorted(errors));
+    }
+
+    // patient/doctor/department varlığı: satır başına değil, id kümesi başına bir sorgu
+    private List<Pending> resolve(List<Row> rows, List<RowError> errors) {
+        if (rows.isEmpty()) return List.of();
+
+        Set<Long> patientIds = new HashSet<>();
+        Set<Long> doctorIds = new HashSet<>();
+        Set<Long> departmentIds = new HashSet<>();
+        for (Row r : rows) {
+            patientIds.add(r.request().patientId());
+            doctorIds.add(r.request().doctorId());
+            if (r.request().departmentId() != null) departmentIds.add(r.request().departmentId());
+        }
+
+        Set<Long> patients = new HashSet<>(patientRepository.findExistingIds(patientIds));
+        Map<Long, DoctorDepartmentRef> doctors = doctorRepository.findDepartmentRefs(doctorIds).stream()
+                .collect(Collectors.toMap(DoctorDepartmentRef::doctorId, Function.identity()));
+        Set<Long> departments = departmentIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(departmentRepository.findExistingIds(departmentIds));
+
+        List<Pending> out = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            AppointmentCreateRequest req = r.request();
+            DoctorDepartmentRef doctor = doctors.get(req.doctorId());
+
+            if (!patients.contains(req.patientId())) {
+                errors.add(new RowError(r.row(), "Patient not found: " + req.patientId()));
+            } else if (doctor == null) {
+                errors.add(new RowError(r.row(), "Doctor not found: " + req.doctorId()));
+            } else if (req.departmentId() != null && !departments.contains(req.departmentId())) {
+                errors.add(new RowError(r.row(), "Department not found: " + req.departmentId()));
+            } else {
+                // departman verilmemişse doktorun departmanı (tekil create ile aynı kural)
+                Long departmentId = (req.departmentId() != null) ? req.departmentId() : doctor.departmentId();
+                out.add(new Pending(r, departmentId));
+            }
+        }
+        return out;
+    }
+
+    private List<Pending> acceptNonOverlapping(List<Pending> rows, Set<Long> doctorIds, List<RowError> errors) {
+        LocalDateTime from = rows.stream().map(p -> p.row().request().startTime()).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = rows.stream().map(p -> p.row().request().endTime()).max(Comparator.naturalOrder()).orElseThrow();
+
+        // kümedeki aralıklar id ile ayırt edilir; DB satırlarının id'si gerekmediği için sentetik (negatif) id
+        long[] syntheticId = {0};
+        Map<Long, AppointmentOverlapIndex.DoctorSlots> slots = new HashMap<>();
+        for (DoctorBusySlot b : appointmentRepository.findBusySlots(doctorIds, AppointmentStatus.SCHEDULED, from, to)) {
+            slots.computeIfAbsent(b.doctorId(), k -> new AppointmentOverlapIndex.DoctorSlots())
+                    .add(new AppointmentSlot(--syntheticId[0], b.startTime(), b.endTime()));
+        }
+
+        List<Pending> accepted = new ArrayList<>(rows.size());
+        for (Pending p : rows) {
+            AppointmentCreateRequest req = p.row().request();
+            AppointmentOverlapIndex.DoctorSlots doctorSlots =
+                    slots.computeIfAbsent(req.doctorId(), k -> new AppointmentOverlapIndex.DoctorSlots());
+
+            if (doctorSlots.overlaps(null, req.startTime(), req.endTime())) {
+                errors.add(new RowError(p.row().row(), "Doctor has another appointment in this time range"));
+            } else {
+                doctorSlots.add(new AppointmentSlot(--syntheticId[0], req.startTime(), req.endTime()));
+                accepted.add(p);
+            }
+        }
+        return accepted;
+    }
+
+    private static String validate(AppointmentCreateRequest req) {
+        if (req == null) return "Row is empty";
+        if (req.patientId() == null) return "patientId is required";
+        if (req.doctorId() == null) return "doctorId is required";
+        if (req.startTime() == null) return "startTime is required";
+        if (req.endTime() == null) return "endTime is required";
+        if (!req.endTime().isAfter(req.startTime())) return "endTime must be after startTime";
+        if (req.note() != null && req.note().length() > NOTE_MAX_LENGTH) {
+            return "note must be at most " + NOTE_MAX_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static List<RowError> sorted(List<RowError> errors) {
+        errors.sort(Comparator.comparingInt(RowError::row));
+        return errors;
+    }
+
+    // row: istemcinin gördüğü satır numarası (hata raporu için)
+    public record Row(int row, AppointmentCreateRequest request) {}
+
+    public record Result(List<Row> inserted, List<RowError> errors) {}
+
+    private record Pending(Row row, Long departmentId) {}
+}
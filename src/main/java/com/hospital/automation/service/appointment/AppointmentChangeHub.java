@@ -0,0 +1,234 @@
+package com.hospital.automation.service.appointment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.automation.common.exception.TooManyRequestsException;
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.response.AppointmentChangeEvent;
+import com.hospital.automation.domain.entity.Appointment;
+import com.hospital.automation.domain.enums.AppointmentChangeType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Randevu değişikliklerini SSE abonelerine dağıtan hub (ön büro ekranları /api/appointments'ı poll etmek yerine).
+ *
+ * - publish(): event yazan transaction'da oluşturulur, commit sonrası (afterCommit) dağıtılır; rollback yayınlanmaz
+ * - JSON event başına bir kere üretilir; aboneler (departmentId / doctorId) filtresine göre seçilir
+ * - Her abonenin sınırlı kuyruğu (streamBufferSize) ve kendi virtual thread'i var: yavaş istemci sadece kendi
+ *   kuyruğunu doldurur. Kuyruğu dolan abone atılır (evicted event'i + bağlantı kapanır; EventSource yeniden bağlanır)
+ * - Boşta bağlantılar ucuz: bekleyen virtual thread platform thread tutmaz; heartbeat ile kopuk bağlantılar ayıklanır
+ * - Açık bağlantı sayısı node başına (streamMaxSubscribers) ve kullanıcı başına (streamMaxSubscribersPerUser)
+ *   sınırlı; aşan abonelik TooManyRequestsException (429) alır, sayaç abone kapanınca düşer
+ *
+ * Set-based yazımlardan sadece sweeper event üretir (publishAll, dilim başına); bulk ve seri üretmez, ekranlar
+ * evicted/yeniden bağlanma sonrası olduğu gibi listeyi yeniden çekebilir. Hub node'a özgüdür (sadece bu node'daki
+ * commit'ler yayınlanır).
+ */
+@Slf4j
+@Component
+public class AppointmentChangeHub {
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int maxPerUser;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> perUser = new HashMap<>(); // admissionLock altında
+    private final Object admissionLock = new Object();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("appointment-sse-", 0).factory());
+
+    public AppointmentChangeHub(ObjectMapper objectMapper, AppointmentProperties props) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, props.getStreamBufferSize());
+        this.heartbeatMillis = Math.max(1, props.getStreamHeartbeatSeconds()) * 1000L;
+        this.timeoutMillis = props.getStreamTimeoutMinutes() * 60_000L;
+        this.maxSubscribers = Math.max(1, props.getStreamMaxSubscribers());
+        this.maxPerUser = Math.max(1, props.getStreamMaxSubscribersPerUser());
+    }
+
+    /**
+     * departmentId / doctorId null => o alanda filtre yok. Sınır doluysa TooManyRequestsException.
+     */
+    public SseEmitter subscribe(String username, Long departmentId, Long doctorId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribe(username, departmentId, doctorId, emitter);
+        return emitter;
+    }
+
+    Subscriber subscribe(String username, Long departmentId, Long doctorId, SseEmitter emitter) {
+        Subscriber s = new Subscriber(username, departmentId, doctorId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        admit(s);
+        emitter.onCompletion(() -> remove(s));
+        emitter.onTimeout(() -> remove(s));
+        emitter.onError(e -> remove(s));
+        senders.execute(() -> pump(s));
+        return s;
+    }
+
+    /**
+     * Randevunun şu anki hali; yazan transaction commit edilirse yayınlanır.
+     */
+    public void publish(AppointmentChangeType type, Appointment a) {
+        Long departmentId = (a.getDepartment() != null) ? a.getDepartment().getId()
+                : (a.getDoctor().getDepartment() != null) ? a.getDoctor().getDepartment().getId() : null;
+
+        AppointmentChangeEvent event = new AppointmentChangeEvent(
+                0, type, a.getId(), a.getDoctor().getId(), departmentId, a.getPatient().getId(),
+                a.getStartTime(), a.getEndTime(), a.getStatus(), LocalDateTime.now());
+
+        TxHooks.afterCommit(() -> fanOut(event));
+    }
+
+    /**
+     * Entity yüklemeden üretilmiş event'ler (set-based yazımlar); yazan transaction commit edilirse yayınlanır.
+     */
+    public void publishAll(Collection<AppointmentChangeEvent> events) {
+        if (events.isEmpty()) return;
+        List<AppointmentChangeEvent> copy = List.copyOf(events);
+        TxHooks.afterCommit(() -> copy.forEach(this::fanOut));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(this::remove);
+        senders.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+
+    void fanOut(AppointmentChangeEvent event) {
+        if (subscribers.isEmpty()) return;
+
+        long seq = sequence.incrementAndGet();
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new AppointmentChangeEvent(seq, event.type(), event.appointmentId(),
+                    event.doctorId(), event.departmentId(), event.patientId(), event.startTime(), event.endTime(),
+                    event.status(), event.occurredAt()));
+        } catch (JsonProcessingException e) {
+            log.warn("Appointment change event could not be serialized: {}", event, e);
+            return;
+        }
+
+        Outgoing out = new Outgoing(seq, event.type().name(), json);
+        for (Subscriber s : subscribers) {
+            if (!s.matches(event)) continue;
+            if (!s.queue.offer(out)) {
+                // kuyruk dolu: commit eden thread beklemez, abone atılır
+                log.info("Evicting slow appointment stream subscriber (buffer {} full)", bufferSize);
+                s.evicted = true;
+                remove(s);
+            }
+        }
+    }
+
+    // abonenin virtual thread'i: emitter'a sadece buradan yazılır
+    private void pump(Subscriber s) {
+        try {
+            s.emitter.send(SseEmitter.event().comment("connected"));
+            while (!s.closed) {
+                Outgoing out = s.queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (s.closed) break;
+                if (out == null) {
+                    s.emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    s.emitter.send(SseEmitter.event()
+                            .id(Long.toString(out.sequence()))
+                            .name(out.name())
+                            .data(out.json(), MediaType.APPLICATION_JSON));
+                }
+            }
+            if (s.evicted) {
+                s.emitter.send(SseEmitter.event().name("evicted").data("slow consumer"));
+            }
+            s.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // istemci koptu ya da emitter zaten tamamlandı
+            log.debug("Appointment stream subscriber closed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            remove(s);
+        }
+    }
+
+    private void admit(Subscriber s) {
+        synchronized (admissionLock) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new TooManyRequestsException("Too many open appointment streams; retry later");
+            }
+            int open = perUser.getOrDefault(s.username, 0);
+            if (open >= maxPerUser) {
+                throw new TooManyRequestsException(
+                        "Too many open appointment streams for this user (max " + maxPerUser + ")");
+            }
+            perUser.put(s.username, open + 1);
+            subscribers.add(s);
+        }
+    }
+
+    // birden çok kez çağrılabilir (completion / timeout / pump); sayaç bir kez düşer
+    private void remove(Subscriber s) {
+        s.closed = true;
+        synchronized (admissionLock) {
+            if (subscribers.remove(s)) {
+                perUser.computeIfPresent(s.username, (u, n) -> n > 1 ? n - 1 : null);
+            }
+        }
+    }
+
+    record Outgoing(long sequence, String name, String json) {}
+
+    static final class Subscriber {
+
+        final String username;
+        final Long departmentId;
+        final Long doctorId;
+        final SseEmitter emitter;
+        final BlockingQueue<Outgoing> queue;
+        volatile boolean closed;
+        volatile boolean evicted;
+
+        Subscriber(String username, Long departmentId, Long doctorId, SseEmitter emitter, BlockingQueue<Outgoing> queue) {
+            this.username = username;
+            this.departmentId = departmentId;
+            this.doctorId = doctorId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        boolean matches(AppointmentChangeEvent e) {
+            return (departmentId == null || departmentId.equals(e.departmentId()))
+                    && (doctorId == null || doctorId.equals(e.doctorId()));
+        }
+    }
+}
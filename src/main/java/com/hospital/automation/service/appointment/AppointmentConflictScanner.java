@@ -0,0 +1,55 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.projection.AppointmentSlot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bir doktor için çok sayıda aday aralığı tek seferde kontrol eder (seri oluşturma / toplu düzenleme).
+ * Adayların kapsadığı pencere tek range sorgusuyla yüklenir, kontrol bellekte yapılır;
+ * kabul edilen aday kümeye eklendiği için adayların kendi aralarındaki çakışmalar da yakalanır.
+ * Çağıran doktorun booking kilidini tutmalıdır.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentConflictScanner {
+
+    private final AppointmentRepository appointmentRepository;
+
+    /**
+     * Çakışan adayların (candidates içindeki) sıra numaraları. excludeIds: yeniden planlanan kendi satırları.
+     */
+    public List<Integer> findConflicts(Long doctorId, Collection<Long> excludeIds, List<AppointmentSlot> candidates) {
+        if (candidates.isEmpty()) return List.of();
+
+        LocalDateTime from = candidates.stream().map(AppointmentSlot::startTime).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = candidates.stream().map(AppointmentSlot::endTime).max(Comparator.naturalOrder()).orElseThrow();
+
+        AppointmentOverlapIndex.DoctorSlots slots = new AppointmentOverlapIndex.DoctorSlots();
+        for (AppointmentSlot s : appointmentRepository.findSlotsByDoctorAndStatusInRange(
+                doctorId, AppointmentStatus.SCHEDULED, from, to)) {
+            if (!excludeIds.contains(s.id())) slots.add(s);
+        }
+
+        // adaylar henüz DB'de yok: kümede DB id'leriyle karışmayan negatif id alırlar
+        long syntheticId = 0;
+        List<Integer> conflicts = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            AppointmentSlot c = candidates.get(i);
+            if (slots.overlaps(null, c.startTime(), c.endTime())) {
+                conflicts.add(i);
+            } else {
+                slots.add(new AppointmentSlot(--syntheticId, c.startTime(), c.endTime()));
+            }
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,114 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Randevu import CSV'si: ilk satır başlık, kolon sırası serbest (büyük/küçük harf duyarsız).
+ *
+ *   patientId,doctorId,departmentId,startTime,endTime,note
+ *
+ * departmentId ve note opsiyonel; zamanlar ISO-8601 (2026-01-03T10:00:00).
+ * Alanlar çift tırnakla sarılabilir ("" => "); tırnak içinde satır sonu desteklenmez.
+ */
+public final class AppointmentCsvFormat {
+
+    private static final List<String> REQUIRED = List.of("patientid", "doctorid", "starttime", "endtime");
+
+    private final Map<String, Integer> columns;
+
+    private AppointmentCsvFormat(Map<String, Integer> columns) {
+        this.columns = columns;
+    }
+
+    public static AppointmentCsvFormat fromHeader(String header) {
+        if (header == null || header.isBlank()) {
+            throw new BadRequestException("CSV header is missing");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = split(stripBom(header));
+        for (int i = 0; i < names.size(); i++) {
+            columns.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> missing = REQUIRED.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("CSV header is missing column(s): " + missing);
+        }
+        return new AppointmentCsvFormat(columns);
+    }
+
+    /**
+     * Hatalı değerde IllegalArgumentException (DateTimeParseException / NumberFormatException dahil).
+     */
+    public AppointmentCreateRequest parse(String line) {
+        List<String> values = split(line);
+        return new AppointmentCreateRequest(
+                toLong(value(values, "patientid")),
+                toLong(value(values, "doctorid")),
+                toLong(value(values, "departmentid")),
+                toDateTime(value(values, "starttime")),
+                toDateTime(value(values, "endtime")),
+                value(values, "note")
+        );
+    }
+
+    static List<String> split(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        out.add(cur.toString());
+        return out;
+    }
+
+    private String value(List<String> values, String column) {
+        Integer idx = columns.get(column);
+        if (idx == null || idx >= values.size()) return null;
+        String v = values.get(idx).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static Long toLong(String v) {
+        return (v == null) ? null : Long.valueOf(v);
+    }
+
+    private static LocalDateTime toDateTime(String v) {
+        return (v == null) ? null : LocalDateTime.parse(v);
+    }
+
+    private static String stripBom(String s) {
+        return (!s.isEmpty() && s.charAt(0) == '\uFEFF') ? s.substring(1) : s;
+    }
+}
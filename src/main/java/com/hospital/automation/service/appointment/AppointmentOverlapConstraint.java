@@ -0,0 +1,79 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.config.AppointmentProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * PostgreSQL'de aynı doktorun SCHEDULED randevularının çakışmasını DB seviyesinde engeller:
+ *
+ *   EXCLUDE USING gist (doctor_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status = 'SCHEDULED' ...)
+ *
+ * DoctorBookingLocks tek JVM içinde yarışı çözer; bu constraint birden fazla node ya da uygulama dışı
+ * yazımlar için son savunmadır. İhlal (SQLSTATE 23P01) servis tarafında ConflictException'a çevrilir.
+ * Mevcut veride çakışma varsa constraint eklenemez; uyarı loglanır ve uygulama kilitle devam eder.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentOverlapConstraint {
+
+    public static final String NAME = "ex_appointments_doctor_no_overlap";
+
+    // tsrange varsayılanı [start, end): mevcut.start < yeniEnd AND mevcut.end > yeniStart ile aynı kural
+    private static final String DDL = "ALTER TABLE appointments ADD CONSTRAINT " + NAME
+            + " EXCLUDE USING gist (doctor_id WITH =, tsrange(start_time, end_time) WITH &&)"
+            + " WHERE (status = 'SCHEDULED' AND end_time IS NOT NULL)";
+
+    private final AppointmentProperties props;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void install() {
+        if (!props.isExclusionConstraint()) return;
+
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                if (!"PostgreSQL".equals(con.getMetaData().getDatabaseProductName())) return null;
+
+                try (PreparedStatement ps = con.prepareStatement("SELECT 1 FROM pg_constraint WHERE conname = ?")) {
+                    ps.setString(1, NAME);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) return null;
+                    }
+                }
+
+                try (Statement st = con.createStatement()) {
+                    // doctor_id (bigint) için = operatörünü gist'e btree_gist getirir
+                    st.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+                    st.execute(DDL);
+                }
+                log.info("Installed appointment exclusion constraint {}", NAME);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Appointment exclusion constraint could not be installed (existing overlaps?): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Exception zincirinde bu constraint'in ihlali var mı? (mesajdaki constraint adı veya SQLSTATE 23P01)
+     */
+    public static boolean isViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && "23P01".equals(sql.getSQLState())) return true;
+            if (t.getMessage() != null && t.getMessage().contains(NAME)) return true;
+        }
+        return false;
+    }
+}
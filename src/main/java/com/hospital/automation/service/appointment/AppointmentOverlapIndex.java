@@ -0,0 +1,196 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.entity.Appointment;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.projection.AppointmentSlot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Doktor başına SCHEDULED randevuların bellek içi aralık index'i (çakışma kontrolü için).
+ *
+ * - Lazy: bir doktor ilk sorulduğunda tek sorguyla (findSlotsByDoctorAndStatus) yüklenir
+ * - create/update/delete commit edildikten sonra (afterCommit) güncellenir; rollback index'e dokunmaz
+ * - Sorgu: aralıklar start'a göre sıralı; en uzun randevu süresi (maxDuration) bilindiği için
+ *   [start - maxDuration, end) penceresindeki birkaç aday taranır => O(log n + k)
+ * - Index "çakışma yok" derse sonuç kesindir, DB'ye gidilmez; "çakışma var" derse DB sorgusuyla teyit edilir
+ *   (stale index yanlış red üretmez). Index yüklenemezse doğrudan DB sorgusu kullanılır.
+ * - Bu yüzden doğruluk, randevu yazımlarının hepsinin AppointmentService'ten geçmesine (booking kilidi +
+ *   afterCommit güncellemesi) ve PostgreSQL'de EXCLUDE constraint'ine dayanır; repository'ye doğrudan
+ *   yazan kod index'i bayatlatır
+ */
+@Slf4j
+@Component
+public class AppointmentOverlapIndex {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentProperties props;
+    private final TransactionTemplate loadTx;
+
+    private final Map<Long, DoctorSlots> loaded = new ConcurrentHashMap<>();
+    // doktor başına commit sayacı: yükleme sırasında commit olduysa eski snapshot kurulmaz
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public AppointmentOverlapIndex(AppointmentRepository appointmentRepository,
+                                   AppointmentProperties props,
+                                   PlatformTransactionManager txManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.props = props;
+        // yükleme çağıranın transaction'ına katılır (yoksa read-only açar). Ayrı transaction ikinci bir
+        // bağlantı ister: booking kilidini tutan thread havuz dolu iken onu beklerse havuz kilitlenir.
+        // Çağıranın commit edilmemiş yazımı sızmaz: hasOverlap o doktora yazmadan önce çağrılır.
+        this.loadTx = new TransactionTemplate(txManager);
+        this.loadTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.loadTx.setReadOnly(true);
+    }
+
+    /**
+     * [start, end) aralığı doktorun başka bir SCHEDULED randevusu ile çakışıyor mu?
+     * excludeId: update'te randevunun kendisi (null => yok).
+     */
+    public boolean hasOverlap(Long doctorId, Long excludeId, LocalDateTime start, LocalDateTime end) {
+        if (props.isOverlapIndexEnabled()) {
+            DoctorSlots slots = slotsOf(doctorId);
+            if (slots != null && !slots.overlaps(excludeId, start, end)) {
+                return false;
+            }
+        }
+        return queryDb(doctorId, excludeId, start, end);
+    }
+
+    /**
+     * Randevu kaydedildi/güncellendi: commit sonrası index'e yansır (SCHEDULED değilse çıkarılır).
+     */
+    public void onSaved(Appointment a) {
+        if (!props.isOverlapIndexEnabled()) return;
+
+        Long doctorId = a.getDoctor().getId();
+        Long id = a.getId();
+        AppointmentSlot slot = (a.getStatus() == AppointmentStatus.SCHEDULED && a.getEndTime() != null)
+                ? new AppointmentSlot(id, a.getStartTime(), a.getEndTime())
+                : null;
+
+        TxHooks.afterCommit(() -> mutate(doctorId, s -> {
+            s.remove(id);
+            if (slot != null) s.add(slot);
+        }));
+    }
+
+    public void onDeleted(Long doctorId, Long appointmentId) {
+        if (!props.isOverlapIndexEnabled()) return;
+        TxHooks.afterCommit(() -> mutate(doctorId, s -> s.remove(appointmentId)));
+    }
+
+    // Toplu değişikliklerden (set-based UPDATE vb.) sonra doktorun index'ini at; bir sonraki sorguda yeniden yüklenir
+    public void invalidate(Long doctorId) {
+        TxHooks.afterCommit(() -> versions.compute(doctorId, (k, v) -> {
+            loaded.remove(k);
+            return (v == null) ? 1L : v + 1;
+        }));
+    }
+
+    // -------------------------------------------------------------------------
+
+    private DoctorSlots slotsOf(Long doctorId) {
+        DoctorSlots slots = loaded.get(doctorId);
+        if (slots != null) return slots;
+
+        try {
+            long version = versions.getOrDefault(doctorId, 0L);
+            DoctorSlots fresh = new DoctorSlots();
+            loadTx.execute(status -> appointmentRepository.findSlotsByDoctorAndStatus(doctorId, AppointmentStatus.SCHEDULED))
+                    .stream()
+                    .filter(s -> s.endTime() != null)
+                    .forEach(fresh::add);
+
+            // versions.compute mutate() ile aynı anahtar üzerinde atomik: arada commit olduysa kurma
+            versions.compute(doctorId, (k, v) -> {
+                if ((v == null ? 0L : v) == version) loaded.putIfAbsent(k, fresh);
+                return v;
+            });
+            return loaded.get(doctorId);
+        } catch (RuntimeException e) {
+            log.warn("Overlap index could not be loaded for doctor {}, falling back to DB", doctorId, e);
+            return null;
+        }
+    }
+
+    private void mutate(Long doctorId, Consumer<DoctorSlots> change) {
+        versions.compute(doctorId, (k, v) -> {
+            DoctorSlots slots = loaded.get(k);
+            if (slots != null) change.accept(slots);
+            return (v == null) ? 1L : v + 1;
+        });
+    }
+
+    private boolean queryDb(Long doctorId, Long excludeId, LocalDateTime start, LocalDateTime end) {
+        if (excludeId == null) {
+            return appointmentRepository.existsOverlappingAppointment(
+                    doctorId, AppointmentStatus.SCHEDULED, start, end);
+        }
+        return appointmentRepository.existsOverlappingAppointmentExcludingId(
+                doctorId, excludeId, AppointmentStatus.SCHEDULED, start, end);
+    }
+
+    /**
+     * Tek doktorun aralıkları. start'a (eşitse id'ye) göre sıralı küme + id -> slot.
+     * Veride çakışan eski kayıtlar olsa bile doğru sonuç verir (maxDuration penceresi).
+     */
+    static final class DoctorSlots {
+
+        private static final Comparator<AppointmentSlot> ORDER =
+                Comparator.comparing(AppointmentSlot::startTime).thenComparing(AppointmentSlot::id);
+
+        private final NavigableSet<AppointmentSlot> byStart = new TreeSet<>(ORDER);
+        private final Map<Long, AppointmentSlot> byId = new HashMap<>();
+        // sadece büyür; silmede küçültmemek pencereyi genişletir ama sonucu bozmaz
+        private Duration maxDuration = Duration.ZERO;
+
+        synchronized void add(AppointmentSlot slot) {
+            remove(slot.id());
+            byStart.add(slot);
+            byId.put(slot.id(), slot);
+
+            Duration d = Duration.between(slot.startTime(), slot.endTime());
+            if (d.compareTo(maxDuration) > 0) maxDuration = d;
+        }
+
+        synchronized void remove(Long id) {
+            AppointmentSlot old = byId.remove(id);
+            if (old != null) byStart.remove(old);
+        }
+
+        // mevcut.start < end AND mevcut.end > start  (DB sorgusu ile aynı kural)
+        synchronized boolean overlaps(Long excludeId, LocalDateTime start, LocalDateTime end) {
+            AppointmentSlot from = new AppointmentSlot(Long.MIN_VALUE, start.minus(maxDuration), null);
+            AppointmentSlot to = new AppointmentSlot(Long.MIN_VALUE, end, null);
+
+            for (AppointmentSlot s : byStart.subSet(from, true, to, false)) {
+                if (s.endTime().isAfter(start) && !s.id().equals(excludeId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+    }
+}
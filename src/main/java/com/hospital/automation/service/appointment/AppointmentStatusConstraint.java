@@ -0,0 +1,66 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate enum (STRING) kolonları için PostgreSQL'de "status IN (...)" check constraint'i üretir;
+ * ddl-auto=update mevcut tablodaki constraint'i güncellemez. Enum'a yeni değer (ör. NO_SHOW) eklenince
+ * eski constraint yeni değeri reddeder: eksik değer varsa constraint güncel enum ile yeniden yazılır.
+ * PostgreSQL dışındaki veritabanlarında (H2, create-drop) hiçbir şey yapmaz.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AppointmentStatusConstraint {
+
+    static final String NAME = "appointments_status_check";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void install() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                if (!"PostgreSQL".equals(con.getMetaData().getDatabaseProductName())) return null;
+
+                String def;
+                try (Statement st = con.createStatement();
+                     ResultSet rs = st.executeQuery("SELECT pg_get_constraintdef(oid) FROM pg_constraint"
+                             + " WHERE conrelid = to_regclass('appointments') AND conname = '" + NAME + "'")) {
+                    if (!rs.next()) return null;
+                    def = rs.getString(1);
+                }
+                if (Arrays.stream(AppointmentStatus.values()).allMatch(v -> def.contains("'" + v.name() + "'"))) {
+                    return null;
+                }
+
+                try (Statement st = con.createStatement()) {
+                    st.execute("ALTER TABLE appointments DROP CONSTRAINT " + NAME + ", ADD CONSTRAINT " + NAME
+                            + " CHECK (status IN (" + allowedValues() + "))");
+                }
+                log.info("Updated {} for statuses {}", NAME, allowedValues());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Appointment status check constraint could not be updated: {}", e.getMessage());
+        }
+    }
+
+    static String allowedValues() {
+        return Arrays.stream(AppointmentStatus.values())
+                .map(v -> "'" + v.name() + "'")
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,196 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.response.AppointmentChangeEvent;
+import com.hospital.automation.domain.enums.AppointmentChangeType;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.projection.PastDueAppointment;
+import com.hospital.automation.repository.projection.SweptAppointment;
+import com.hospital.automation.service.AuditLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * endTime'ı (grace süresi kadar önce) geçmiş SCHEDULED randevuları kapatır:
+ * randevuya bağlı vizit varsa COMPLETED, yoksa NO_SHOW.
+ *
+ * - (end_time, id) keyset ile batchSize'lık dilimler; dilim başına kısa bir transaction,
+ *   iki koşullu set-based UPDATE ve tek özet audit kaydı (satır başına audit yok)
+ * - UPDATE'ler status = SCHEDULED AND end_time < cutoff koşulunu tekrar kontrol eder: arada kullanıcı ya da
+ *   başka bir node satırı değiştirdiyse dokunulmaz, sayaçlar sadece gerçekten değişen satırları sayar
+ * - PostgreSQL'de dilim transaction'ı advisory xact lock alır; başka node süpürüyorsa bu çalışma bırakılır
+ * - SCHEDULED'dan çıkan satırlar overlap index'ten düşsün diye etkilenen doktorlar commit sonrası geçersiz kılınır
+ *   (ajanda cache'inde sadece etkilenen günler)
+ * - Gerçekten kapanan satırlar PK ile bir kez okunur: doktor / hasta ICS feed damgaları artar ve SSE abonelerine
+ *   UPDATED event'i gider (ikisi de commit sonrası; rollback olan dilim yayınlanmaz)
+ */
+@Slf4j
+@Component
+public class AppointmentSweeper {
+
+    private static final long ADVISORY_LOCK_KEY = 0x4150_5054_5357_4550L; // "APPTSWEP"
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentOverlapIndex overlapIndex;
+    private final DoctorScheduleCache scheduleCache;
+    private final CalendarFeedVersions feedVersions;
+    private final AppointmentChangeHub changeHub;
+    private final AuditLogService auditLogService;
+    private final AppointmentProperties props;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTx;
+
+    private volatile Boolean postgres;
+
+    public AppointmentSweeper(AppointmentRepository appointmentRepository,
+                              AppointmentOverlapIndex overlapIndex,
+                              DoctorScheduleCache scheduleCache,
+                              CalendarFeedVersions feedVersions,
+                              AppointmentChangeHub changeHub,
+                              AuditLogService auditLogService,
+                              AppointmentProperties props,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager txManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.overlapIndex = overlapIndex;
+        this.scheduleCache = scheduleCache;
+        this.feedVersions = feedVersions;
+        this.changeHub = changeHub;
+        this.auditLogService = auditLogService;
+        this.props = props;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTx = new TransactionTemplate(txManager);
+    }
+
+    @Scheduled(cron = "${app.appointments.sweeper-cron:0 */10 * * * *}")
+    public void scheduledSweep() {
+        if (!props.isSweeperEnabled()) return;
+
+        try {
+            SweepResult result = sweep(LocalDateTime.now().minusMinutes(props.getSweeperGraceMinutes()));
+            if (result.completed() + result.noShow() > 0) {
+                log.info("Appointment sweep closed {} completed / {} no-show appointment(s) in {} batch(es)",
+                        result.completed(), result.noShow(), result.batches());
+            }
+        } catch (RuntimeException e) {
+            // bir sonraki tetiklemede kaldığı yerden devam eder (işlenen dilimler commit edildi)
+            log.error("Appointment sweep failed", e);
+        }
+    }
+
+    /**
+     * cutoff'tan önce bitmiş SCHEDULED randevuları kapatır.
+     */
+    public SweepResult sweep(LocalDateTime cutoff) {
+        int batchSize = Math.max(1, props.getSweeperBatchSize());
+        PastDueAppointment last = null;
+        int completed = 0;
+        int noShow = 0;
+        int batches = 0;
+
+        while (true) {
+            PastDueAppointment after = last;
+            Batch batch = batchTx.execute(status -> runBatch(cutoff, after, batchSize));
+            if (batch == null) break; // başka bir node süpürüyor
+
+            completed += batch.completed();
+            noShow += batch.noShow();
+            if (batch.rows() > 0) batches++;
+            if (batch.rows() < batchSize) break;
+            last = batch.last();
+        }
+        return new SweepResult(completed, noShow, batches);
+    }
+
+    private Batch runBatch(LocalDateTime cutoff, PastDueAppointment after, int batchSize) {
+        if (isPostgres() && !Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY))) {
+            log.debug("Appointment sweep is running on another node, skipping");
+            return null;
+        }
+
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<PastDueAppointment> rows = (after == null)
+                ? appointmentRepository.findPastDue(AppointmentStatus.SCHEDULED, cutoff, page)
+                : appointmentRepository.findPastDueAfter(AppointmentStatus.SCHEDULED, cutoff, after.endTime(), after.id(), page);
+        if (rows.isEmpty()) return new Batch(0, 0, 0, null);
+
+        List<Long> ids = rows.stream().map(PastDueAppointment::id).toList();
+        // önce vizitli olanlar; kalan SCHEDULED satırlar NO_SHOW
+        int completed = appointmentRepository.updateStatusOfVisited(
+                ids, AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED, cutoff);
+        int noShow = appointmentRepository.updateStatusOfPastDue(
+                ids, AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW, cutoff);
+
+        Map<Long, Set<LocalDate>> daysByDoctor = new LinkedHashMap<>();
+        rows.forEach(r -> daysByDoctor.computeIfAbsent(r.doctorId(), k -> new HashSet<>()).add(r.startTime().toLocalDate()));
+        Set<Long> doctorIds = daysByDoctor.keySet();
+        doctorIds.forEach(overlapIndex::invalidate);
+        daysByDoctor.forEach(scheduleCache::evictDays);
+
+        PastDueAppointment last = rows.get(rows.size() - 1);
+        if (completed + noShow > 0) {
+            publishSwept(ids);
+            auditLogService.log(
+                    "SWEEP",
+                    "Appointment",
+                    null,
+                    "Past-due appointments closed (completed=" + completed + ", noShow=" + noShow
+                            + ", cutoff=" + cutoff + ", upToEndTime=" + last.endTime()
+                            + ", doctors=" + doctorIds.size() + ")"
+            );
+        }
+        return new Batch(rows.size(), completed, noShow, last);
+    }
+
+    // arada başkasının değiştirdiği satırlar (ör. CANCELLED) bu dilimin bildirimi değildir
+    private void publishSwept(List<Long> ids) {
+        List<SweptAppointment> swept = appointmentRepository.findSwept(
+                ids, List.of(AppointmentStatus.COMPLETED, AppointmentStatus.NO_SHOW));
+        if (swept.isEmpty()) return;
+
+        Set<Long> doctorIds = new HashSet<>();
+        Set<Long> patientIds = new HashSet<>();
+        List<AppointmentChangeEvent> events = new ArrayList<>(swept.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (SweptAppointment s : swept) {
+            doctorIds.add(s.doctorId());
+            patientIds.add(s.patientId());
+            events.add(new AppointmentChangeEvent(0, AppointmentChangeType.UPDATED, s.id(), s.doctorId(),
+                    s.departmentId(), s.patientId(), s.startTime(), s.endTime(), s.status(), now));
+        }
+
+        feedVersions.onAppointmentsChanged(doctorIds, patientIds);
+        changeHub.publishAll(events);
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            pg = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()));
+            postgres = pg;
+        }
+        return pg;
+    }
+
+    public record SweepResult(int completed, int noShow, int batches) {}
+
+    record Batch(int rows, int completed, int noShow, PastDueAppointment last) {}
+}
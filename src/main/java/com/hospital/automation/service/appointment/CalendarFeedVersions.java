@@ -0,0 +1,96 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.cache.BoundedTtlCache;
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.enums.CalendarOwner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * ICS feed'lerinin version damgaları (ETag). Koşullu GET'in çoğu sadece bir map okuması + string karşılaştırması.
+ *
+ * - Randevu yazımları ilgili doktor ve hasta feed'ini commit sonrası (afterCommit) bir artırır; rollback dokunmaz
+ * - İsim değişiklikleri (hasta/doktor) tüm feed'leri etkiler: global generation artar
+ * - Damga node'a özgüdür (başlangıç zamanı + sayaçlar); başka bir node'un yazımı bu node'un sayacını artırmaz.
+ *   Bu yüzden damgaya zaman dilimi (calendarFeedMaxStaleSeconds) da girer: en kötü ihtimalle feed o kadar eski kalır
+ * - Var olduğu doğrulanmış sahipler (known) aynı süre kadar hatırlanır; silme bu node'da anında, başka node'da
+ *   en geç o süre sonra görünür
+ */
+@Component
+public class CalendarFeedVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<FeedKey, Long> counters = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final BoundedTtlCache<FeedKey, Boolean> known;
+    private final long maxStaleMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public CalendarFeedVersions(AppointmentProperties props) {
+        this(props, System::currentTimeMillis);
+    }
+
+    CalendarFeedVersions(AppointmentProperties props, LongSupplier clock) {
+        this.maxStaleMillis = Math.max(1, props.getCalendarFeedMaxStaleSeconds()) * 1000L;
+        this.clock = clock;
+        this.known = new BoundedTtlCache<>(props.getCalendarFeedKnownOwners(), maxStaleMillis, clock);
+    }
+
+    public String current(CalendarOwner owner, Long id) {
+        long counter = counters.getOrDefault(new FeedKey(owner, id), 0L);
+        long bucket = clock.getAsLong() / maxStaleMillis;
+        return epoch + "-" + generation.get() + "-" + counter + "-" + bucket;
+    }
+
+    // randevu eklendi / değişti / silindi: doktorun ve hastanın feed'i
+    public void onAppointmentChanged(Long doctorId, Long patientId) {
+        TxHooks.afterCommit(() -> {
+            if (doctorId != null) bump(new FeedKey(CalendarOwner.DOCTOR, doctorId));
+            if (patientId != null) bump(new FeedKey(CalendarOwner.PATIENT, patientId));
+        });
+    }
+
+    // toplu yazımlar (bulk insert): tek afterCommit
+    public void onAppointmentsChanged(Collection<Long> doctorIds, Collection<Long> patientIds) {
+        TxHooks.afterCommit(() -> {
+            doctorIds.forEach(id -> bump(new FeedKey(CalendarOwner.DOCTOR, id)));
+            patientIds.forEach(id -> bump(new FeedKey(CalendarOwner.PATIENT, id)));
+        });
+    }
+
+    // hasta/doktor adı değişti: adı gösteren tüm feed'ler
+    public void onNamesChanged() {
+        TxHooks.afterCommit(generation::incrementAndGet);
+    }
+
+    public boolean isKnownOwner(CalendarOwner owner, Long id) {
+        return known.get(new FeedKey(owner, id)) != null;
+    }
+
+    public void markKnownOwner(CalendarOwner owner, Long id) {
+        known.put(new FeedKey(owner, id), Boolean.TRUE);
+    }
+
+    // doktor / hasta silindi: artık 404 dönsün, eski ETag'ler eşleşmesin
+    public void onOwnerDeleted(CalendarOwner owner, Long id) {
+        FeedKey key = new FeedKey(owner, id);
+        TxHooks.afterCommit(() -> {
+            known.invalidate(key);
+            bump(key);
+        });
+    }
+
+    private void bump(FeedKey key) {
+        counters.merge(key, 1L, Long::sum);
+    }
+
+    record FeedKey(CalendarOwner owner, Long id) {}
+}
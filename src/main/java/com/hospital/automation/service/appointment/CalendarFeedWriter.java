@@ -0,0 +1,175 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.domain.enums.CalendarOwner;
+import com.hospital.automation.repository.projection.CalendarEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Randevuları iCalendar (RFC 5545) olarak sabit bellekle yazar (AuditLogExporter ile aynı yöntem):
+ * - StatelessSession + FORWARD_ONLY scroll + sabit fetch size; liste kurulmaz
+ * - her VEVENT okunur okunmaz çıkışa yazılır
+ *
+ * Saatler uygulamanın saat dilimindeki LocalDateTime'lardır; feed'e UTC (…Z) olarak yazılır.
+ * STATUS sadece CANCELLED / CONFIRMED ayırır: sweeper'ın COMPLETED / NO_SHOW geçişi feed'i değiştirmez.
+ */
+@Component
+@RequiredArgsConstructor
+public class CalendarFeedWriter {
+
+    static final int FETCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 500;
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter UTC_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private static final String SELECT = """
+            select new com.hospital.automation.repository.projection.CalendarEvent(
+                a.id, a.startTime, a.endTime, a.status, a.note,
+                p.firstName, p.lastName, d.firstName, d.lastName, dep.name)
+            from Appointment a
+            join a.patient p
+            join a.doctor d
+            left join a.department dep
+            """;
+
+    // (doctor_id, start_time, id) / (patient_id, start_time, id) index'lerinden sırayla okunur
+    private static final String BY_DOCTOR = SELECT + " where d.id = :ownerId and a.startTime >= :from order by a.startTime, a.id";
+    private static final String BY_PATIENT = SELECT + " where p.id = :ownerId and a.startTime >= :from order by a.startTime, a.id";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * @return yazılan VEVENT sayısı
+     */
+    public long write(CalendarOwner owner, Long ownerId, String calendarName, LocalDateTime from,
+                      OutputStream out) throws IOException {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        ZoneId zone = ZoneId.systemDefault();
+        String stamp = UTC_STAMP.format(Instant.now().atOffset(ZoneOffset.UTC));
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                line(w, "BEGIN:VCALENDAR");
+                line(w, "VERSION:2.0");
+                line(w, "PRODID:-//Hospital Automation//Appointments//EN");
+                line(w, "CALSCALE:GREGORIAN");
+                line(w, "METHOD:PUBLISH");
+                line(w, "X-WR-CALNAME:" + escape(calendarName));
+
+                long count = 0;
+                try (ScrollableResults<CalendarEvent> rows = session
+                        .createQuery(owner == CalendarOwner.DOCTOR ? BY_DOCTOR : BY_PATIENT, CalendarEvent.class)
+                        .setParameter("ownerId", ownerId)
+                        .setParameter("from", from)
+                        .setFetchSize(FETCH_SIZE)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        writeEvent(w, owner, rows.get(), stamp, zone);
+                        if (++count % FLUSH_EVERY == 0) w.flush();
+                    }
+                }
+
+                line(w, "END:VCALENDAR");
+                w.flush();
+                tx.commit();
+                return count;
+            } catch (IOException | RuntimeException e) {
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    static void writeEvent(Writer w, CalendarOwner owner, CalendarEvent e, String stamp, ZoneId zone) throws IOException {
+        // doktor feed'inde hasta, hasta feed'inde doktor görünür
+        String summary = (owner == CalendarOwner.DOCTOR)
+                ? "Appointment: " + e.patientFirstName() + " " + e.patientLastName()
+                : "Appointment: Dr. " + e.doctorFirstName() + " " + e.doctorLastName();
+
+        StringBuilder description = new StringBuilder();
+        if (e.departmentName() != null) description.append("Department: ").append(e.departmentName());
+        if (e.note() != null && !e.note().isBlank()) {
+            if (!description.isEmpty()) description.append('\n');
+            description.append(e.note());
+        }
+
+        line(w, "BEGIN:VEVENT");
+        line(w, "UID:appointment-" + e.id() + "@hospital-automation");
+        line(w, "DTSTAMP:" + stamp);
+        line(w, "DTSTART:" + utc(e.startTime(), zone));
+        if (e.endTime() != null) line(w, "DTEND:" + utc(e.endTime(), zone));
+        line(w, "SUMMARY:" + escape(summary));
+        if (!description.isEmpty()) line(w, "DESCRIPTION:" + escape(description.toString()));
+        line(w, "STATUS:" + (e.status() == AppointmentStatus.CANCELLED ? "CANCELLED" : "CONFIRMED"));
+        line(w, "END:VEVENT");
+    }
+
+    static String utc(LocalDateTime t, ZoneId zone) {
+        return UTC_STAMP.format(t.atZone(zone).withZoneSameInstant(ZoneOffset.UTC));
+    }
+
+    // RFC 5545 TEXT: \ ; , ve satır sonu kaçışlanır
+    static String escape(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // 75 octet'ten uzun satırlar CRLF + boşluk ile katlanır; çok byte'lı UTF-8 karakterler bölünmez
+    static void line(Writer w, String content) throws IOException {
+        int octets = 0;
+        int limit = MAX_LINE_OCTETS;
+        for (int i = 0; i < content.length(); ) {
+            int cp = content.codePointAt(i);
+            int len = utf8Length(cp);
+            if (octets + len > limit) {
+                w.write("\r\n ");
+                octets = 0;
+                limit = MAX_LINE_OCTETS - 1; // devam satırının baştaki boşluğu
+            }
+            w.write(Character.toChars(cp));
+            octets += len;
+            i += Character.charCount(cp);
+        }
+        w.write("\r\n");
+    }
+
+    private static int utf8Length(int cp) {
+        if (cp < 0x80) return 1;
+        if (cp < 0x800) return 2;
+        if (cp < 0x10000) return 3;
+        return 4;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.exception.ConflictException;
+import com.hospital.automation.config.AppointmentProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Doktor başına booking kilidi (lock striping: doktor id'si sabit sayıda kilide dağıtılır).
+ *
+ * "Çakışma var mı?" kontrolü ile INSERT/UPDATE'in commit'i arasında aynı doktora ikinci bir
+ * booking giremesin diye kilit transaction bitene kadar (afterCompletion) tutulur;
+ * böylece SERIALIZABLE'a gerek kalmadan check-then-insert atomik olur.
+ * Aynı transaction'da birden fazla doktor kilitlenecekse stripe sırasına göre alınır (deadlock yok).
+ *
+ * Tek JVM içinde geçerlidir; birden fazla node için PostgreSQL'de AppointmentOverlapConstraint devrededir.
+ */
+@Component
+public class DoctorBookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public DoctorBookingLocks(AppointmentProperties props) {
+        int n = Integer.highestOneBit(Math.max(1, props.getLockStripes()));
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = props.getLockTimeoutMillis();
+    }
+
+    /**
+     * Doktor(lar)ın kilidini alır; aktif transaction bitince (commit/rollback) bırakılır.
+     */
+    public void lockForTransaction(Long doctorId) {
+        lockForTransaction(List.of(doctorId));
+    }
+
+    public void lockForTransaction(Collection<Long> doctorIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Booking lock requires an active transaction");
+        }
+
+        List<ReentrantLock> locks = doctorIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .mapToObj(i -> stripes[i])
+                .toList();
+
+        int acquired = 0;
+        try {
+            for (ReentrantLock lock : locks) {
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new ConflictException("Doctor schedule is busy, please retry");
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Doctor schedule is busy, please retry");
+        } finally {
+            if (acquired < locks.size()) {
+                locks.subList(0, acquired).forEach(ReentrantLock::unlock);
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // afterCommit (index güncellemesi) bittikten sonra çalışır
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    private int stripeOf(Long doctorId) {
+        // Long.hashCode + karıştırma: ardışık id'ler farklı stripe'lara düşsün
+        int h = Long.hashCode(doctorId);
+        h ^= (h >>> 16);
+        return h & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,154 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.cache.BoundedTtlCache;
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.response.ScheduleItemResponse;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Doktor ajandası cache'i: (doktor, gün) başına o gün başlayan randevuların özetleri + içerik özeti (version).
+ *
+ * - Eksik günler tek range sorgusuyla yüklenir (hafta görünümü = en fazla 1 sorgu)
+ * - Randevu yazımları etkilenen (doktor, gün) kayıtlarını commit sonrası (afterCommit) atar;
+ *   rollback cache'e dokunmaz. Hasta adı değişirse o hastanın doktorlarının tüm günleri atılır
+ * - Doktor başına sayaç: yükleme sürerken o doktora commit olduysa eski sonuç cache'e konmaz
+ * - version içerikten hesaplanır (SHA-256): restart sonrası da aynı içerik aynı ETag'i verir
+ */
+@Component
+public class DoctorScheduleCache {
+
+    private final BoundedTtlCache<DayKey, DaySchedule> cache;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public DoctorScheduleCache(AppointmentProperties props) {
+        this.cache = new BoundedTtlCache<>(props.getScheduleCacheMaxDays(), props.getScheduleCacheTtlSeconds() * 1000L);
+    }
+
+    /**
+     * [from, from + days) günleri; eksik olanlar loader(from, to) ile tek seferde yüklenir.
+     * loader başlangıç sırasında [from, to) içinde başlayan randevuları döner.
+     */
+    public List<DaySchedule> getDays(Long doctorId, LocalDate from, int days,
+                                     BiFunction<LocalDateTime, LocalDateTime, List<ScheduleItemResponse>> loader) {
+        Map<LocalDate, DaySchedule> out = new LinkedHashMap<>();
+        LocalDate firstMiss = null;
+        LocalDate lastMiss = null;
+
+        for (int i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            DaySchedule cached = cache.get(new DayKey(doctorId, day));
+            out.put(day, cached);
+            if (cached == null) {
+                if (firstMiss == null) firstMiss = day;
+                lastMiss = day;
+            }
+        }
+        if (firstMiss == null) return new ArrayList<>(out.values());
+
+        long version = versions.getOrDefault(doctorId, 0L);
+        List<ScheduleItemResponse> rows = loader.apply(firstMiss.atStartOfDay(), lastMiss.plusDays(1).atStartOfDay());
+
+        Map<LocalDate, List<ScheduleItemResponse>> byDay = new LinkedHashMap<>();
+        for (ScheduleItemResponse r : rows) {
+            byDay.computeIfAbsent(r.startTime().toLocalDate(), d -> new ArrayList<>()).add(r);
+        }
+
+        List<DaySchedule> fresh = new ArrayList<>();
+        for (LocalDate day = firstMiss; !day.isAfter(lastMiss); day = day.plusDays(1)) {
+            if (out.get(day) != null) continue;
+            DaySchedule d = DaySchedule.of(day, byDay.getOrDefault(day, List.of()));
+            out.put(day, d);
+            fresh.add(d);
+        }
+
+        // versions.compute evict ile aynı anahtar üzerinde atomik: arada commit olduysa koyma
+        versions.compute(doctorId, (k, v) -> {
+            if ((v == null ? 0L : v) == version) {
+                fresh.forEach(d -> cache.put(new DayKey(k, d.date()), d));
+            }
+            return v;
+        });
+        return new ArrayList<>(out.values());
+    }
+
+    // startTime'ın günü (randevu başladığı güne aittir)
+    public void evict(Long doctorId, LocalDateTime startTime) {
+        if (startTime == null) return;
+        evictDays(doctorId, List.of(startTime.toLocalDate()));
+    }
+
+    public void evictDays(Long doctorId, Collection<LocalDate> days) {
+        if (days.isEmpty()) return;
+        Set<LocalDate> copy = new HashSet<>(days);
+        TxHooks.afterCommit(() -> bump(doctorId, () -> copy.forEach(day -> cache.invalidate(new DayKey(doctorId, day)))));
+    }
+
+    // from gününden itibaren (seri düzenleme / toplu iptal)
+    public void evictFrom(Long doctorId, LocalDate from) {
+        TxHooks.afterCommit(() -> bump(doctorId, () ->
+                cache.invalidateIf(k -> k.doctorId().equals(doctorId) && !k.day().isBefore(from))));
+    }
+
+    // doktorun tüm günleri (kayıtlar hasta adını taşır: ad değişikliği)
+    public void evictDoctor(Long doctorId) {
+        TxHooks.afterCommit(() -> bump(doctorId, () -> cache.invalidateIf(k -> k.doctorId().equals(doctorId))));
+    }
+
+    // -------------------------------------------------------------------------
+
+    private void bump(Long doctorId, Runnable eviction) {
+        versions.compute(doctorId, (k, v) -> {
+            eviction.run();
+            return (v == null) ? 1L : v + 1;
+        });
+    }
+
+    static String digest(String s) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Görünümün version'ı: günlerin version'larından türetilir (randevular tekrar gezilmez).
+     */
+    public static String versionOf(String view, List<DaySchedule> days) {
+        StringBuilder sb = new StringBuilder(view);
+        days.forEach(d -> sb.append('|').append(d.date()).append(':').append(d.version()));
+        return digest(sb.toString());
+    }
+
+    record DayKey(Long doctorId, LocalDate day) {}
+
+    public record DaySchedule(LocalDate date, List<ScheduleItemResponse> items, String version) {
+
+        static DaySchedule of(LocalDate date, List<ScheduleItemResponse> items) {
+            StringBuilder sb = new StringBuilder();
+            for (ScheduleItemResponse i : items) {
+                sb.append(i.id()).append(',').append(i.startTime()).append(',').append(i.endTime()).append(',')
+                        .append(i.status()).append(',').append(i.patientId()).append(',').append(i.patientName()).append(';');
+            }
+            return new DaySchedule(date, List.copyOf(items), digest(sb.toString()));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.dto.response.FreeSlotResponse;
+import com.hospital.automation.repository.projection.DoctorBusySlot;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bir doktorun dolu aralıklarından boş aralıkları çıkarır (sweep-line).
+ *
+ * - Girdi start'a göre sıralı dolu aralıklar (DB sorgusu ORDER BY ile verir); tek geçişte
+ *   "şimdiye kadar dolu olan son an" (cursor) ilerletilir, cursor ile sonraki start arası boşluktur.
+ *   Çakışan/iç içe eski kayıtlar da doğru birleşir. O(n).
+ * - Boşluklar çalışma saatlerine kırpılır; dayStart == dayEnd => 24 saat, dayStart > dayEnd => gece vardiyası.
+ * - Sadece minLength'ten uzun boşluklar döner.
+ */
+public final class FreeSlotFinder {
+
+    private final LocalTime dayStart;
+    private final LocalTime dayEnd;
+
+    public FreeSlotFinder(LocalTime dayStart, LocalTime dayEnd) {
+        this.dayStart = dayStart;
+        this.dayEnd = dayEnd;
+    }
+
+    public List<FreeSlotResponse> find(List<DoctorBusySlot> busy, LocalDateTime from, LocalDateTime to, Duration minLength) {
+        List<FreeSlotResponse> out = new ArrayList<>();
+        LocalDateTime cursor = from;
+
+        for (DoctorBusySlot b : busy) {
+            if (!cursor.isBefore(to)) break;
+            if (b.startTime().isAfter(cursor)) {
+                emit(cursor, min(b.startTime(), to), minLength, out);
+            }
+            if (b.endTime().isAfter(cursor)) {
+                cursor = b.endTime();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            emit(cursor, to, minLength, out);
+        }
+        return out;
+    }
+
+    private void emit(LocalDateTime start, LocalDateTime end, Duration minLength, List<FreeSlotResponse> out) {
+        if (dayStart.equals(dayEnd)) {
+            add(start, end, minLength, out);
+            return;
+        }
+
+        // önceki günden başlayan gece vardiyası penceresi de kesişebilir
+        for (LocalDate d = start.toLocalDate().minusDays(1); d.atTime(dayStart).isBefore(end); d = d.plusDays(1)) {
+            LocalDateTime windowStart = d.atTime(dayStart);
+            LocalDateTime windowEnd = dayEnd.isAfter(dayStart) ? d.atTime(dayEnd) : d.plusDays(1).atTime(dayEnd);
+            add(max(start, windowStart), min(end, windowEnd), minLength, out);
+        }
+    }
+
+    private static void add(LocalDateTime start, LocalDateTime end, Duration minLength, List<FreeSlotResponse> out) {
+        if (start.isBefore(end) && Duration.between(start, end).compareTo(minLength) >= 0) {
+            out.add(new FreeSlotResponse(start, end));
+        }
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
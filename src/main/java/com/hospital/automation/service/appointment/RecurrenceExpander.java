@@ -0,0 +1,46 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.domain.enums.RecurrenceFrequency;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seri kuralını (FREQ / INTERVAL / COUNT / UNTIL) tekrar başlangıçlarına açar.
+ * İlk tekrar startTime'dır; UNTIL dahildir. count ve until birlikte verilirse hangisi önce dolarsa.
+ */
+public final class RecurrenceExpander {
+
+    private static final DateTimeFormatter RRULE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private RecurrenceExpander() {}
+
+    public static List<LocalDateTime> expand(LocalDateTime first, RecurrenceFrequency frequency, int interval,
+                                             Integer count, LocalDateTime until, int maxOccurrences) {
+        if (count == null && until == null) {
+            throw new BadRequestException("Either count or until is required");
+        }
+
+        List<LocalDateTime> out = new ArrayList<>();
+        for (long n = 0; count == null || n < count; n++) {
+            LocalDateTime t = frequency.occurrence(first, n, interval);
+            if (until != null && t.isAfter(until)) break;
+            if (out.size() >= maxOccurrences) {
+                throw new BadRequestException("Series must not exceed " + maxOccurrences + " occurrences");
+            }
+            out.add(t);
+        }
+        return out;
+    }
+
+    // RFC 5545 RRULE gösterimi (sadece bilgi amaçlı; yerel saat, TZID'siz)
+    public static String rrule(RecurrenceFrequency frequency, int interval, Integer count, LocalDateTime until) {
+        StringBuilder sb = new StringBuilder("FREQ=").append(frequency.name()).append(";INTERVAL=").append(interval);
+        if (count != null) sb.append(";COUNT=").append(count);
+        if (until != null) sb.append(";UNTIL=").append(RRULE_TIME.format(until));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package com.hospital.automation.service.audit;
+
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.repository.AuditActivityHourlyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * audit_activity_hourly sayaçlarını artımlı günceller.
+ *
+ * - apply(): AuditLogWriter audit satırları commit edildikten sonra çağırır; kendi transaction'ında çalışır
+ *   ve hata fırlatmaz, yani sayaç hatası audit yazımını asla düşürmez. Batch önce bellekte
+ *   (saat, action, entityName, username) anahtarına göre toplanır, sonra anahtar başına tek MERGE (JDBC batch).
+ *   Böylece sayaçlar sadece commit edilen satırları sayar ve batch başına birkaç satır günceller.
+ * - backfill(): sayaçlar devreye girmeden önceki audit_logs satırlarını bir kere sayar. AuditLogWriter
+ *   yazmaya başlamadan önce çağırır: tablo boşsa şu ana kadarki (açık saat dahil) her şey, doluysa
+ *   mevcut en eski bucket'tan önceki saatler sayılır => canlı yazımlarla çakışmaz.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditActivityRollup {
+
+    // Standart SQL MERGE: H2 ve PostgreSQL 15+ ortak
+    private static final String MERGE_SQL = """
+            MERGE INTO audit_activity_hourly t
+            USING (VALUES (CAST(? AS TIMESTAMP), CAST(? AS VARCHAR(30)), CAST(? AS VARCHAR(80)),
+                           CAST(? AS VARCHAR(80)), CAST(? AS BIGINT)))
+                  AS s(bucket_start, action, entity_name, username, event_count)
+            ON t.bucket_start = s.bucket_start AND t.action = s.action
+               AND t.entity_name = s.entity_name AND t.username = s.username
+            WHEN MATCHED THEN UPDATE SET event_count = t.event_count + s.event_count
+            WHEN NOT MATCHED THEN INSERT (bucket_start, action, entity_name, username, event_count)
+                 VALUES (s.bucket_start, s.action, s.entity_name, s.username, s.event_count)
+            """;
+
+    private static final String BACKFILL_SQL = """
+            INSERT INTO audit_activity_hourly (bucket_start, action, entity_name, username, event_count)
+            SELECT DATE_TRUNC('HOUR', created_at), action, entity_name, username, COUNT(*)
+            FROM audit_logs
+            WHERE created_at < ?
+            GROUP BY DATE_TRUNC('HOUR', created_at), action, entity_name, username
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditActivityHourlyRepository rollupRepository;
+    private final PlatformTransactionManager txManager;
+
+    /**
+     * Commit edilmiş audit satırlarını sayar; kendi (yeni) transaction'ında çalışır, hata fırlatmaz.
+     */
+    public void apply(Collection<AuditLog> events) {
+        if (events.isEmpty()) return;
+
+        List<Increment> increments = aggregate(events);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                tx.executeWithoutResult(status -> merge(increments));
+                return;
+            } catch (RuntimeException e) {
+                // başka bir node aynı yeni anahtarı aynı anda eklediyse unique key hatası;
+                // ikinci denemede satır vardır => MATCHED
+                if (attempt >= 2) {
+                    log.error("Audit rollup update failed, {} event(s) not counted", events.size(), e);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Transaction varsa commit sonrasına erteler (rollback olan satır sayılmaz), yoksa hemen uygular.
+     */
+    public void applyAfterCommit(Collection<AuditLog> events) {
+        TxHooks.afterCommit(() -> apply(events));
+    }
+
+    private void merge(List<Increment> increments) {
+        jdbcTemplate.batchUpdate(MERGE_SQL, increments, increments.size(), (ps, inc) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(inc.key().bucket()));
+            ps.setString(2, inc.key().action());
+            ps.setString(3, inc.key().entityName());
+            ps.setString(4, inc.key().username());
+            ps.setLong(5, inc.count());
+        });
+    }
+
+    static List<Increment> aggregate(Collection<AuditLog> events) {
+        Map<Key, long[]> counts = new LinkedHashMap<>();
+        for (AuditLog e : events) {
+            Key key = new Key(e.getCreatedAt().truncatedTo(ChronoUnit.HOURS), e.getAction(), e.getEntityName(), e.getUsername());
+            counts.computeIfAbsent(key, k -> new long[1])[0]++;
+        }
+
+        List<Increment> out = new ArrayList<>(counts.size());
+        counts.forEach((k, c) -> out.add(new Increment(k, c[0])));
+        return out;
+    }
+
+    public void backfill() {
+        LocalDateTime earliest = rollupRepository.findEarliestBucket();
+        // tablo boşsa açık saat de dahil: bu saatin sonraki yazımları aynı bucket'a MERGE ile eklenir
+        LocalDateTime cutoff = (earliest != null) ? earliest : LocalDateTime.now();
+
+        try {
+            Integer rows = new TransactionTemplate(txManager).execute(status ->
+                    jdbcTemplate.update(BACKFILL_SQL, Timestamp.valueOf(cutoff)));
+            if (rows != null && rows > 0) {
+                log.info("Backfilled {} hourly audit rollup row(s) before {}", rows, cutoff);
+            }
+        } catch (RuntimeException e) {
+            // başka node aynı anda doldurmuş olabilir (unique key); sayaçlar yine tutarlı
+            log.warn("Audit rollup backfill skipped: {}", e.getMessage());
+        }
+    }
+
+    record Key(LocalDateTime bucket, String action, String entityName, String username) {}
+
+    record Increment(Key key, long count) {}
+}
@@ -0,0 +1,203 @@
+package com.hospital.automation.service.audit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.hospital.automation.config.AuditProperties;
+import com.hospital.automation.domain.dto.request.AuditLogFilter;
+import com.hospital.automation.domain.entity.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retention ile DB'den ayrılan aylık audit partition'larının arşivi.
+ * Her ay tek dosya: audit_logs_YYYY_MM.ndjson.gz (satır başına bir AuditLog, id'ler korunur).
+ * Satırlar (createdAt, id) sırasında yazılır; search() bu sıraya güvenir.
+ *
+ * Arşiv salt-okunurdur; search() eski aylara uzanan sorgularda buradan okuyup DB sonucu ile birleştirir.
+ * Dosyalar akıtılarak okunur: bellekte yalnızca istenen sayfa tutulur.
+ */
+@Slf4j
+@Component
+public class AuditArchiveStore {
+
+    private static final Pattern FILE_NAME = Pattern.compile("audit_logs_(\\d{4})_(\\d{2})\\.ndjson\\.gz");
+
+    private final Path dir;
+    private final ObjectMapper objectMapper;
+
+    public AuditArchiveStore(AuditProperties props, ObjectMapper objectMapper) {
+        this.dir = Path.of(props.getPartitioning().getArchiveDir());
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Arşivden bir sayfa ve filtreye uyan toplam satır sayısı.
+     */
+    public record Slice(List<AuditLog> rows, long total) {}
+
+    /**
+     * producer'a verilen sink ile satırları (createdAt, id) sırasında akıtarak yazar; önce .tmp'ye yazılıp atomik taşınır,
+     * yarım kalan bir arşiv hiçbir zaman okunmaz. Yazılan satır sayısını döner.
+     */
+    public long write(YearMonth month, Consumer<Consumer<AuditLog>> producer) throws IOException {
+        Files.createDirectories(dir);
+        Path target = pathOf(month);
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+
+        long[] count = {0};
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp));
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(gen)) {
+            producer.accept(row -> {
+                try {
+                    writer.write(row);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(tmp);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Archived {} audit row(s) of {} to {}", count[0], month, target);
+        return count[0];
+    }
+
+    public boolean exists(YearMonth month) {
+        return Files.exists(pathOf(month));
+    }
+
+    public List<YearMonth> archivedMonths() {
+        if (!Files.isDirectory(dir)) return List.of();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .map(p -> FILE_NAME.matcher(p.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Audit archive dir could not be listed: {}", dir, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Arşiv sadece alt sınırı (from) olan sorgularda devreye girer; from'u olmayan
+     * "hepsini getir" sorguları sıcak veriyle (DB) sınırlı kalır.
+     */
+    public boolean covers(AuditLogFilter filter) {
+        return filter.from() != null && !monthsOverlapping(filter.from(), filter.to()).isEmpty();
+    }
+
+    /**
+     * Filtreye uyan arşiv satırlarının (createdAt, id) sırasındaki [offset, offset + limit) dilimi ve toplamı.
+     * İki geçiş: önce ay başına eşleşen satır sayılır, sonra yalnızca dilimin düştüğü aylar tekrar okunur.
+     * Aylar ayrık ve dosyalar sıralı olduğu için global sıra ayların sırasıdır; sıralama/heap gerekmez.
+     */
+    public Slice search(AuditLogFilter filter, boolean desc, long offset, int limit) {
+        if (filter.from() == null) return new Slice(List.of(), 0);
+
+        List<YearMonth> months = monthsOverlapping(filter.from(), filter.to());
+        long[] counts = new long[months.size()];
+        long total = 0;
+        for (int i = 0; i < months.size(); i++) {
+            long[] n = {0};
+            scan(months.get(i), filter, row -> n[0]++);
+            counts[i] = n[0];
+            total += n[0];
+        }
+
+        // istenen dilimin artan sıradaki konumu [lo, hi)
+        long lo = desc ? Math.max(0, total - offset - limit) : offset;
+        long hi = desc ? Math.max(0, total - offset) : Math.min(total, offset + limit);
+        if (limit <= 0 || lo >= hi) return new Slice(List.of(), total);
+
+        List<AuditLog> rows = new ArrayList<>((int) (hi - lo));
+        long base = 0;
+        for (int i = 0; i < months.size() && base < hi; base += counts[i], i++) {
+            if (base + counts[i] <= lo) continue;
+
+            long[] pos = {base};
+            scan(months.get(i), filter, row -> {
+                if (pos[0] >= lo && pos[0] < hi) rows.add(row);
+                pos[0]++;
+            });
+        }
+
+        if (desc) Collections.reverse(rows);
+        return new Slice(rows, total);
+    }
+
+    List<YearMonth> monthsOverlapping(LocalDateTime from, LocalDateTime to) {
+        YearMonth lo = YearMonth.from(from);
+        YearMonth hi = (to == null) ? null : YearMonth.from(to);
+        return archivedMonths().stream()
+                .filter(m -> !m.isBefore(lo) && (hi == null || !m.isAfter(hi)))
+                .toList();
+    }
+
+    private void scan(YearMonth month, AuditLogFilter filter, Consumer<AuditLog> sink) {
+        Path file = pathOf(month);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                AuditLog row = objectMapper.readValue(line, AuditLog.class);
+                if (matches(filter, row)) sink.accept(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit archive could not be read: " + file, e);
+        }
+    }
+
+    // AuditLogSpecifications ile aynı kurallar
+    static boolean matches(AuditLogFilter f, AuditLog a) {
+        if (f.username() != null && !f.username().isBlank()
+                && !a.getUsername().toLowerCase().contains(f.username().toLowerCase())) return false;
+        if (f.action() != null && !f.action().isBlank() && !f.action().equals(a.getAction())) return false;
+        if (f.entityName() != null && !f.entityName().isBlank() && !f.entityName().equals(a.getEntityName())) return false;
+        if (f.q() != null && !f.q().isBlank()) {
+            String q = f.q().trim().toLowerCase();
+            boolean hit = a.getUsername().toLowerCase().contains(q)
+                    || (a.getDetails() != null && a.getDetails().toLowerCase().contains(q));
+            if (!hit) return false;
+        }
+        if (f.from() != null && a.getCreatedAt().isBefore(f.from())) return false;
+        return f.to() == null || !a.getCreatedAt().isAfter(f.to());
+    }
+
+    private Path pathOf(YearMonth month) {
+        return dir.resolve(String.format("audit_logs_%04d_%02d.ndjson.gz", month.getYear(), month.getMonthValue()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.hospital.automation.service.audit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.hospital.automation.domain.dto.response.AuditLogResponse;
+import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.domain.enums.ExportFormat;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Audit log'ları sabit bellekle dışa aktarır:
+ * - StatelessSession: persistence context yok, okunan entity'ler birikmez
+ * - FORWARD_ONLY scroll + sabit fetch size: sürücü satırları parça parça getirir
+ *   (PostgreSQL'de fetch size sadece autocommit kapalıyken çalışır, bu yüzden açık transaction)
+ * - her satır okunur okunmaz çıkışa yazılır
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditLogExporter {
+
+    static final int FETCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 1000;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return yazılan satır sayısı
+     */
+    public long export(Specification<AuditLog> spec, ExportFormat format, OutputStream out) throws IOException {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction tx = session.beginTransaction();
+            try {
+                long count;
+                try (ScrollableResults<AuditLog> rows = session.createQuery(buildQuery(session.getCriteriaBuilder(), spec))
+                        .setFetchSize(FETCH_SIZE)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    count = (format == ExportFormat.CSV) ? writeCsv(rows, out) : writeJson(rows, format, out);
+                }
+                tx.commit();
+                return count;
+            } catch (IOException | RuntimeException e) {
+                if (tx.isActive()) tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private CriteriaQuery<AuditLog> buildQuery(CriteriaBuilder cb, Specification<AuditLog> spec) {
+        CriteriaQuery<AuditLog> cq = cb.createQuery(AuditLog.class);
+        Root<AuditLog> root = cq.from(AuditLog.class);
+
+        Predicate predicate = spec.toPredicate(root, cq, cb);
+        if (predicate != null) {
+            cq.where(predicate);
+        }
+        // kronolojik; (created_at, id) index'inden sırayla okunur
+        cq.orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+        return cq;
+    }
+
+    private long writeJson(ScrollableResults<AuditLog> rows, ExportFormat format, OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // stream'i controller kapatır
+
+        long count = 0;
+        try (gen; SequenceWriter writer = (format == ExportFormat.JSON)
+                ? objectMapper.writerFor(AuditLogResponse.class).writeValuesAsArray(gen)
+                : objectMapper.writerFor(AuditLogResponse.class).withRootValueSeparator("\n").writeValues(gen)) {
+
+            while (rows.next()) {
+                writer.write(toResponse(rows.get()));
+                if (++count % FLUSH_EVERY == 0) writer.flush();
+            }
+        }
+        // dışarıdan verilen generator'ı SequenceWriter kapatmaz; try-with-resources (gen) kapatıp flush eder
+        if (format == ExportFormat.NDJSON && count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(ScrollableResults<AuditLog> rows, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write("id,username,action,entityName,entityId,createdAt,details\n");
+
+        long count = 0;
+        while (rows.next()) {
+            AuditLog a = rows.get();
+            w.write(String.valueOf(a.getId()));
+            w.write(',');
+            w.write(csv(a.getUsername()));
+            w.write(',');
+            w.write(csv(a.getAction()));
+            w.write(',');
+            w.write(csv(a.getEntityName()));
+            w.write(',');
+            w.write(a.getEntityId() != null ? a.getEntityId().toString() : "");
+            w.write(',');
+            w.write(a.getCreatedAt() != null ? a.getCreatedAt().toString() : "");
+            w.write(',');
+            w.write(csv(a.getDetails()));
+            w.write('\n');
+            if (++count % FLUSH_EVERY == 0) w.flush();
+        }
+        w.flush();
+        return count;
+    }
+
+    // RFC 4180: virgül, tırnak veya satır sonu içeriyorsa tırnak içine al, tırnakları ikile
+    static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private AuditLogResponse toResponse(AuditLog a) {
+        return new AuditLogResponse(
+                a.getId(),
+                a.getUsername(),
+                a.getAction(),
+                a.getEntityName(),
+                a.getEntityId(),
+                a.getCreatedAt(),
+                a.getDetails()
+        );
+    }
+}
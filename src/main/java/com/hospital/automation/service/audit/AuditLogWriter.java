@@ -0,0 +1,372 @@
+package com.hospital.automation.service.audit;
+
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.config.AuditProperties;
+import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.repository.AuditLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Audit event'lerini çağıranın transaction'ından ayırıp toplu (JDBC batch) yazar.
+ *
+ * Akış:
+ * 1) submit(): transaction varsa event afterCommit'te kuyruğa girer (rollback olursa hiç yazılmaz)
+ * 2) kuyruk (ring buffer) sınırlıdır; doluysa çağıran offerTimeoutMillis kadar bekler (backpressure),
+ *    yine yer yoksa event diske (AuditSpillStore) yazılır => kayıp yok
+ * 3) tek writer thread batchSize dolunca ya da flushIntervalMillis dolunca tek transaction'da batch INSERT yapar;
+ *    beklerken event'leri kuyruktan almaz ve kilit tutmaz, kilidi yalnızca drain + INSERT sırasında alır
+ * 4) DB hatasında batch diske düşer; diskteki event'ler periyodik olarak tekrar denenir. Dosya batchSize'lık
+ *    dilimlerle akıtılır (belleğe alınmaz); replay ilerlemesi (audit_spill_checkpoints) her dilimle aynı
+ *    transaction'da yazılır => yarıda kalan replay tekrarlanmaz. Hiç yazılamayacak satırlar (bozuk JSON,
+ *    constraint ihlali) karantinaya ayrılır; bir dosyanın hatası sonraki dosyaları bekletmez
+ * 5) kapanışta (SmartLifecycle.stop) kuyruk tamamen boşaltılır
+ * 6) saatlik aktivite sayaçları (AuditActivityRollup) INSERT commit edildikten sonra ayrı transaction'da
+ *    artırılır; sayaç hatası audit satırlarını geri almaz
+ *
+ * app.audit.async=false ise eski davranış: repository.save çağıranın transaction'ında.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_logs (username, action, entity_name, entity_id, created_at, details)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CHECKPOINT_SELECT_SQL =
+            "SELECT replayed_events FROM audit_spill_checkpoints WHERE file_name = ?";
+
+    // Standart SQL MERGE: H2 ve PostgreSQL 15+ ortak
+    private static final String CHECKPOINT_MERGE_SQL = """
+            MERGE INTO audit_spill_checkpoints t
+            USING (VALUES (CAST(? AS VARCHAR(200)), CAST(? AS BIGINT))) AS s(file_name, replayed_events)
+            ON t.file_name = s.file_name
+            WHEN MATCHED THEN UPDATE SET replayed_events = s.replayed_events
+            WHEN NOT MATCHED THEN INSERT (file_name, replayed_events) VALUES (s.file_name, s.replayed_events)
+            """;
+
+    private static final String CHECKPOINT_DELETE_SQL = "DELETE FROM audit_spill_checkpoints WHERE file_name = ?";
+
+    private final AuditProperties props;
+    private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate txTemplate;
+    private final AuditSpillStore spillStore;
+    private final AuditActivityRollup activityRollup;
+    private final BlockingQueue<AuditLog> queue;
+    // kuyruktan alma + yazma bu kilitle yapılır; flush() bununla in-flight batch'i bekler
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // başarılı her offer bir izin bırakır: writer kuyruğa dokunmadan (kilitsiz) bununla bekler
+    private final Semaphore available = new Semaphore(0);
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread worker;
+    private long lastReplayAt; // 0 => ilk boşta kalışta önceki çalışmadan kalan spill dosyaları da denenir
+
+    public AuditLogWriter(AuditProperties props,
+                          AuditLogRepository auditLogRepository,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager txManager,
+                          AuditSpillStore spillStore,
+                          AuditActivityRollup activityRollup) {
+        this.props = props;
+        this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.spillStore = spillStore;
+        this.activityRollup = activityRollup;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getQueueCapacity()));
+    }
+
+    public void submit(AuditLog event) {
+        if (!props.isAsync()) {
+            auditLogRepository.save(event);
+            activityRollup.applyAfterCommit(List.of(event));
+            return;
+        }
+
+        TxHooks.afterCommit(() -> enqueue(event));
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Kuyruktaki her şeyi hemen yazar ve writer thread'in elindeki batch'i de bekler;
+     * döndüğünde o ana kadar commit edilmiş tüm event'ler DB'dedir (ya da diske düşmüştür).
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<AuditLog> batch = new ArrayList<>();
+            while (queue.drainTo(batch, props.getBatchSize()) > 0) {
+                writeOrSpill(batch);
+                batch = new ArrayList<>();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void enqueue(AuditLog event) {
+        try {
+            // start()'tan önce gelenler de kuyrukta bekler; stop()'tan sonrakiler diske gider
+            if (!stopped && queue.offer(event, props.getOfferTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                available.release();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // kuyruk dolu (veya writer durdu): kaybetmek yerine diske
+        spill(List.of(event));
+    }
+
+    // -------------------------------------------------------------------------
+    // writer thread
+    // -------------------------------------------------------------------------
+
+    private void runLoop() {
+        while (running) {
+            boolean hasEvents;
+            try {
+                hasEvents = awaitBatch();
+            } catch (InterruptedException e) {
+                // stop(): event'ler hâlâ kuyrukta, stop() içindeki flush() yazar
+                return;
+            }
+
+            writeLock.lock();
+            try {
+                if (hasEvents) {
+                    List<AuditLog> batch = new ArrayList<>(props.getBatchSize());
+                    queue.drainTo(batch, props.getBatchSize());
+                    // fazla izinler yalnızca boşuna uyanmaya yol açar; kuyrukta kalan varsa bir sonraki tur hemen başlar
+                    available.drainPermits();
+                    if (!queue.isEmpty()) available.release();
+                    writeOrSpill(batch);
+                } else {
+                    replaySpillIfDue();
+                }
+            } catch (RuntimeException e) {
+                log.error("Audit writer loop error", e);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    // ilk event'i, sonra batchSize dolana ya da flushInterval bitene kadar bekler (group commit).
+    // Event'ler kuyrukta kalır: kilit alınmadan önce gelen flush() onları kendisi yazar, kayıp pencere yok.
+    private boolean awaitBatch() throws InterruptedException {
+        if (queue.isEmpty() && !available.tryAcquire(props.getFlushIntervalMillis(), TimeUnit.MILLISECONDS)) {
+            // izin kaçmış olabilir (drainPermits yarışı): kuyruğa bir kez daha bak
+            return !queue.isEmpty();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(props.getFlushIntervalMillis());
+        while (queue.size() < props.getBatchSize()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !available.tryAcquire(remaining, TimeUnit.NANOSECONDS)) break;
+        }
+        return !queue.isEmpty();
+    }
+
+    private void writeOrSpill(List<AuditLog> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            insertBatch(batch);
+        } catch (RuntimeException e) {
+            log.error("Audit batch insert failed ({} events), spilling to disk", batch.size(), e);
+            spill(batch);
+        }
+    }
+
+    private void insertBatch(List<AuditLog> batch) {
+        insertBatch(batch, () -> {});
+    }
+
+    // sameTx: INSERT ile aynı transaction'da çalışır (replay checkpoint'i)
+    private void insertBatch(List<AuditLog> batch, Runnable sameTx) {
+        // tek transaction + JDBC batch => N event için tek commit
+        txTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, e) -> {
+                ps.setString(1, e.getUsername());
+                ps.setString(2, e.getAction());
+                ps.setString(3, e.getEntityName());
+                if (e.getEntityId() != null) {
+                    ps.setLong(4, e.getEntityId());
+                } else {
+                    ps.setNull(4, Types.BIGINT);
+                }
+                ps.setTimestamp(5, Timestamp.valueOf(e.getCreatedAt()));
+                ps.setString(6, e.getDetails());
+            });
+            sameTx.run();
+        });
+        // commit sonrası, ayrı transaction'da; hata fırlatmaz => batch diske düşüp tekrar yazılmaz
+        activityRollup.apply(batch);
+    }
+
+    private void spill(List<AuditLog> events) {
+        try {
+            spillStore.append(events);
+        } catch (Exception e) {
+            // disk de yoksa yapılacak bir şey kalmadı; en azından log'a düşsün
+            log.error("Audit spill failed, {} event(s) lost: {}", events.size(), events, e);
+        }
+    }
+
+    private void replaySpillIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastReplayAt < props.getSpillReplayIntervalMillis()) return;
+        lastReplayAt = now;
+        replaySpill();
+    }
+
+    private void replaySpill() {
+        List<Path> pending;
+        try {
+            pending = spillStore.rotateAndListPending();
+        } catch (Exception e) {
+            log.warn("Audit spill replay failed, will retry later", e);
+            return;
+        }
+        for (Path file : pending) {
+            try {
+                replayFile(file);
+            } catch (Exception e) {
+                // dosya yerinde kalır, bir sonraki turda kaldığı yerden denenir; sıradaki dosyalar yine denenir
+                log.warn("Audit spill replay of {} failed, will retry later", file.getFileName(), e);
+            }
+        }
+    }
+
+    // önceki denemede commit edilmiş dilimler atlanır; pending dosyası rotate'ten sonra değişmez (satır sırası sabit).
+    // Önce dosya, sonra checkpoint silinir: arada çökülürse tekrar yazılmaz
+    private void replayFile(Path pending) throws IOException {
+        String file = pending.getFileName().toString();
+        long done = replayedCount(file);
+        long[] counts = new long[2]; // [yazılan, karantina]
+
+        spillStore.readBatches(pending, done, props.getBatchSize(), batch -> {
+            int quarantined = replayBatch(pending, file, batch);
+            counts[0] += batch.size() - quarantined;
+            counts[1] += quarantined;
+        });
+
+        spillStore.delete(pending);
+        jdbcTemplate.update(CHECKPOINT_DELETE_SQL, file);
+        log.info("Replayed {} spilled audit event(s) from {}", counts[0], file);
+        if (counts[1] > 0) {
+            log.error("Quarantined {} unwritable spilled audit event(s) from {}", counts[1], file);
+        }
+    }
+
+    // dilim tek transaction'da; bozuk satır varsa ya da constraint ihlali olursa satır satır denenir ve
+    // yazılamayanlar karantinaya alınır. Diğer hatalar (DB erişilemez vb.) fırlar: dosya sonra tekrar denenir
+    private int replayBatch(Path pending, String file, List<AuditSpillStore.Entry> batch) throws IOException {
+        List<AuditLog> events = batch.stream().map(AuditSpillStore.Entry::event).filter(Objects::nonNull).toList();
+        if (events.size() == batch.size()) {
+            long end = batch.get(batch.size() - 1).index() + 1;
+            try {
+                insertBatch(events, () -> jdbcTemplate.update(CHECKPOINT_MERGE_SQL, file, end));
+                return 0;
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Spilled audit batch from {} violates a constraint, retrying row by row", file);
+            }
+        }
+
+        int quarantined = 0;
+        for (AuditSpillStore.Entry entry : batch) {
+            long next = entry.index() + 1;
+            if (entry.event() != null) {
+                try {
+                    insertBatch(List.of(entry.event()), () -> jdbcTemplate.update(CHECKPOINT_MERGE_SQL, file, next));
+                    continue;
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("Spilled audit event #{} from {} cannot be written: {}", entry.index(), file, e.getMessage());
+                }
+            }
+            // önce karantina, sonra checkpoint: arada çökülürse satır karantinada iki kez olabilir, kaybolmaz
+            spillStore.quarantine(pending, entry.line());
+            jdbcTemplate.update(CHECKPOINT_MERGE_SQL, file, next);
+            quarantined++;
+        }
+        return quarantined;
+    }
+
+    private long replayedCount(String file) {
+        List<Long> rows = jdbcTemplate.queryForList(CHECKPOINT_SELECT_SQL, Long.class, file);
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    // -------------------------------------------------------------------------
+    // lifecycle
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void start() {
+        if (running) return;
+
+        // canlı yazımlar başlamadan: sayaçlar devreye girmeden önceki satırlar bir kere sayılır
+        activityRollup.backfill();
+        if (!props.isAsync()) return;
+
+        stopped = false;
+        running = true;
+        worker = new Thread(this::runLoop, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+
+        stopped = true;
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // flush-on-shutdown: kuyrukta ne kaldıysa yaz (yazamazsa diske)
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // DataSource / EntityManagerFactory kapanmadan önce durmalı => yüksek phase, erken stop
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1000;
+    }
+}
@@ -0,0 +1,331 @@
+package com.hospital.automation.service.audit;
+
+import com.hospital.automation.config.AuditProperties;
+import com.hospital.automation.domain.entity.AuditLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PostgreSQL'de audit_logs'u created_at üzerinden aylık RANGE partition'lara böler ve yönetir.
+ *
+ * - ilk çalışmada Hibernate'in açtığı düz tabloyu partitioned tabloya taşır (tek transaction)
+ * - her çalışmada bu ay + premakeMonths kadar ileri ay için partition açar
+ * - retentionMonths'tan eski partition'ları DETACH eder, gzip NDJSON arşive yazar ve DROP eder
+ *   (arşivlenmeden önce çökse bile detach edilmiş tablo bir sonraki çalışmada arşivlenir)
+ *
+ * Sorgular created_at filtresiyle geldiği için Postgres partition pruning ile sadece ilgili ayları tarar.
+ * Ayrıca q= (substring) araması için pg_trgm GIN index'lerini açar (app.audit.trigramIndex).
+ * Birden fazla node'da aynı anda çalışmasın diye session-level advisory lock alınır.
+ * PostgreSQL dışındaki veritabanlarında (H2) hiçbir şey yapmaz.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditPartitionManager {
+
+    private static final long ADVISORY_LOCK_KEY = 0x4155_4449_5450_4152L; // "AUDITPAR"
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_y(\\d{4})m(\\d{2})");
+
+    private static final String[] INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_audit_logs_created_id ON audit_logs (created_at, id)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_logs_entity_created_id ON audit_logs (entity_name, created_at, id)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_logs_action_created_id ON audit_logs (action, created_at, id)"
+    };
+
+    // LIKE '%x%' için: B-tree kullanılamaz, trigram GIN kullanılır (ifade AuditLogSpecifications ile aynı: lower(..))
+    private static final String[] TRIGRAM_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_audit_logs_username_trgm ON audit_logs USING gin (lower(username) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_audit_logs_details_trgm ON audit_logs USING gin (lower(details) gin_trgm_ops)"
+    };
+
+    private final AuditProperties props;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchiveStore archiveStore;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.audit.partitioning.cron:0 15 2 * * *}")
+    public void maintain() {
+        if (!props.getPartitioning().isEnabled() && !props.isTrigramIndex()) return;
+
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                if (!"PostgreSQL".equals(con.getMetaData().getDatabaseProductName())) return null;
+                if (!tryLock(con)) {
+                    log.debug("Audit partition maintenance is running on another node, skipping");
+                    return null;
+                }
+                try {
+                    runMaintenance(con);
+                } finally {
+                    unlock(con);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // bir sonraki tetiklemede tekrar denenir
+            log.error("Audit partition maintenance failed", e);
+        }
+    }
+
+    private void runMaintenance(Connection con) throws SQLException {
+        String kind = queryString(con, "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('audit_logs')");
+        if (kind == null) return; // tablo henüz yok (ddl-auto kapalı)
+
+        if (props.getPartitioning().isEnabled()) {
+            maintainPartitions(con, kind);
+        }
+        // migration tabloyu yeniden yarattığı için partition adımlarından sonra
+        if (props.isTrigramIndex()) {
+            exec(con, "CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String ddl : TRIGRAM_INDEXES) {
+                exec(con, ddl);
+            }
+        }
+    }
+
+    private void maintainPartitions(Connection con, String kind) throws SQLException {
+        YearMonth now = YearMonth.now();
+        if ("r".equals(kind)) {
+            migrateToPartitioned(con, now);
+        }
+
+        for (int i = 0; i <= props.getPartitioning().getPremakeMonths(); i++) {
+            createPartition(con, now.plusMonths(i));
+        }
+
+        int retention = props.getPartitioning().getRetentionMonths();
+        if (retention > 0) {
+            detachOlderThan(con, now.minusMonths(retention));
+            archiveDetached(con);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // migration: düz tablo -> partitioned tablo
+    // -------------------------------------------------------------------------
+
+    private void migrateToPartitioned(Connection con, YearMonth now) throws SQLException {
+        log.info("Migrating audit_logs to a monthly range-partitioned table");
+
+        con.setAutoCommit(false);
+        try {
+            exec(con, "LOCK TABLE audit_logs IN ACCESS EXCLUSIVE MODE");
+            exec(con, "ALTER TABLE audit_logs RENAME TO audit_logs_legacy");
+
+            // index ve constraint isimleri şema genelinde tekil: eskilerini yoldan çek
+            String pk = queryString(con,
+                    "SELECT conname FROM pg_constraint WHERE conrelid = 'audit_logs_legacy'::regclass AND contype = 'p'");
+            if (pk != null) {
+                exec(con, "ALTER TABLE audit_logs_legacy RENAME CONSTRAINT \"" + pk + "\" TO audit_logs_legacy_pkey");
+            }
+            exec(con, "DROP INDEX IF EXISTS idx_audit_logs_created_id, idx_audit_logs_entity_created_id, "
+                    + "idx_audit_logs_action_created_id, idx_audit_logs_username_trgm, idx_audit_logs_details_trgm");
+
+            // PG16'da partitioned tabloda identity yok => sequence + default (Hibernate IDENTITY ile uyumlu)
+            exec(con, "CREATE SEQUENCE IF NOT EXISTS audit_logs_part_id_seq");
+            exec(con, """
+                    CREATE TABLE audit_logs (
+                        id BIGINT NOT NULL DEFAULT nextval('audit_logs_part_id_seq'),
+                        username VARCHAR(80) NOT NULL,
+                        action VARCHAR(30) NOT NULL,
+                        entity_name VARCHAR(80) NOT NULL,
+                        entity_id BIGINT,
+                        created_at TIMESTAMP(6) NOT NULL,
+                        details VARCHAR(2000),
+                        PRIMARY KEY (id, created_at)
+                    ) PARTITION BY RANGE (created_at)
+                    """);
+            exec(con, "ALTER SEQUENCE audit_logs_part_id_seq OWNED BY audit_logs.id");
+
+            // mevcut verinin kapsadığı tüm aylar + bu ay için partition
+            YearMonth first = now;
+            Timestamp min = queryTimestamp(con, "SELECT MIN(created_at) FROM audit_logs_legacy");
+            if (min != null) {
+                YearMonth m = YearMonth.from(min.toLocalDateTime());
+                if (m.isBefore(first)) first = m;
+            }
+            for (YearMonth m = first; !m.isAfter(now); m = m.plusMonths(1)) {
+                createPartition(con, m);
+            }
+            // beklenmedik (ileri tarihli vb.) satırlar için
+            exec(con, "CREATE TABLE IF NOT EXISTS audit_logs_default PARTITION OF audit_logs DEFAULT");
+
+            exec(con, """
+                    INSERT INTO audit_logs (id, username, action, entity_name, entity_id, created_at, details)
+                    SELECT id, username, action, entity_name, entity_id, created_at, details FROM audit_logs_legacy
+                    """);
+            exec(con, "SELECT setval('audit_logs_part_id_seq', COALESCE((SELECT MAX(id) FROM audit_logs), 0) + 1, false)");
+            exec(con, "DROP TABLE audit_logs_legacy");
+
+            for (String ddl : INDEXES) {
+                exec(con, ddl);
+            }
+
+            con.commit();
+        } catch (SQLException | RuntimeException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // partition / retention
+    // -------------------------------------------------------------------------
+
+    private void createPartition(Connection con, YearMonth month) throws SQLException {
+        exec(con, "CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF audit_logs FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private void detachOlderThan(Connection con, YearMonth cutoff) throws SQLException {
+        List<String> attached = queryStrings(con, """
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'audit_logs'::regclass
+                """);
+
+        for (String name : attached) {
+            YearMonth month = parseMonth(name);
+            if (month != null && month.isBefore(cutoff)) {
+                exec(con, "ALTER TABLE audit_logs DETACH PARTITION " + name);
+                log.info("Detached audit partition {}", name);
+            }
+        }
+    }
+
+    private void archiveDetached(Connection con) throws SQLException {
+        List<String> detached = queryStrings(con, """
+                SELECT c.relname FROM pg_class c
+                WHERE c.relkind = 'r'
+                  AND c.relname ~ '^audit_logs_y[0-9]{4}m[0-9]{2}$'
+                  AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid)
+                """);
+
+        for (String name : detached) {
+            YearMonth month = parseMonth(name);
+            if (month == null) continue;
+
+            archive(con, name, month);
+            exec(con, "DROP TABLE " + name);
+        }
+    }
+
+    private void archive(Connection con, String table, YearMonth month) throws SQLException {
+        // Postgres JDBC fetchSize'ı sadece autocommit kapalıyken cursor olarak uygular
+        con.setAutoCommit(false);
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT id, username, action, entity_name, entity_id, created_at, details FROM " + table
+                        + " ORDER BY created_at, id")) {
+            ps.setFetchSize(1000);
+            try (ResultSet rs = ps.executeQuery()) {
+                archiveStore.write(month, sink -> {
+                    try {
+                        while (rs.next()) {
+                            long entityId = rs.getLong("entity_id");
+                            sink.accept(AuditLog.builder()
+                                    .id(rs.getLong("id"))
+                                    .username(rs.getString("username"))
+                                    .action(rs.getString("action"))
+                                    .entityName(rs.getString("entity_name"))
+                                    .entityId(rs.wasNull() ? null : entityId)
+                                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                                    .details(rs.getString("details"))
+                                    .build());
+                        }
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Audit partition could not be read: " + table, e);
+                    }
+                });
+            }
+            con.commit();
+        } catch (IOException e) {
+            con.rollback();
+            // tablo DROP edilmez; bir sonraki çalışmada tekrar denenir
+            throw new UncheckedIOException("Audit partition could not be archived: " + table, e);
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("audit_logs_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    static YearMonth parseMonth(String partitionName) {
+        Matcher m = PARTITION_NAME.matcher(partitionName);
+        if (!m.matches()) return null;
+        return YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+    }
+
+    // -------------------------------------------------------------------------
+    // jdbc helpers
+    // -------------------------------------------------------------------------
+
+    private boolean tryLock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            ps.execute();
+        }
+    }
+
+    private static void exec(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static String queryString(Connection con, String sql) throws SQLException {
+        List<String> rows = queryStrings(con, sql);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static Timestamp queryTimestamp(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getTimestamp(1) : null;
+        }
+    }
+
+    private static List<String> queryStrings(Connection con, String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) rows.add(rs.getString(1));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,134 @@
+package com.hospital.automation.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.automation.config.AuditProperties;
+import com.hospital.automation.domain.entity.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * DB'ye yazılamayan audit event'leri için diskte kalıcı yedek (NDJSON, satır başına bir event).
+ * - append: fsync ile yazar, process çökse bile event kaybolmaz
+ * - rotate: aktif dosyayı ".pending" olarak kenara alır; writer bunları tekrar DB'ye basar ve siler
+ * - readBatches: pending dosyayı satır satır, batchSize'lık dilimlerle okur (dosya belleğe alınmaz)
+ * - quarantine: hiç yazılamayacak satırlar (bozuk JSON, constraint ihlali) ".quarantine" dosyasına ayrılır;
+ *   rotate onları listelemez, elle incelenir
+ */
+@Slf4j
+@Component
+public class AuditSpillStore {
+
+    private static final String ACTIVE_FILE = "audit-spill.ndjson";
+    private static final String PENDING_SUFFIX = ".pending";
+    private static final String QUARANTINE_SUFFIX = ".quarantine";
+
+    private final Path dir;
+    private final ObjectMapper objectMapper;
+
+    public AuditSpillStore(AuditProperties props, ObjectMapper objectMapper) {
+        this.dir = Path.of(props.getSpillDir());
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized void append(List<AuditLog> events) throws IOException {
+        if (events.isEmpty()) return;
+
+        Files.createDirectories(dir);
+        try (FileOutputStream out = new FileOutputStream(dir.resolve(ACTIVE_FILE).toFile(), true)) {
+            for (AuditLog e : events) {
+                out.write(objectMapper.writeValueAsBytes(e));
+                out.write('\n');
+            }
+            out.getFD().sync();
+        }
+        log.warn("Spilled {} audit event(s) to {}", events.size(), dir);
+    }
+
+    /**
+     * Aktif dosyayı pending'e çevirir ve tekrar denenecek tüm pending dosyaları (eskiden yeniye) döner.
+     */
+    public synchronized List<Path> rotateAndListPending() throws IOException {
+        if (!Files.isDirectory(dir)) return List.of();
+
+        Path active = dir.resolve(ACTIVE_FILE);
+        if (Files.exists(active)) {
+            Path pending = dir.resolve("audit-spill-" + System.currentTimeMillis() + ".ndjson" + PENDING_SUFFIX);
+            Files.move(active, pending, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(p -> p.getFileName().toString().endsWith(PENDING_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * İlk skip event'i atlar, kalanları en fazla batchSize'lık dilimlerle handler'a verir.
+     * Entry.index dosyadaki sırası (boş satırlar sayılmaz); parse edilemeyen satırın event'i null'dır.
+     */
+    public void readBatches(Path pending, long skip, int batchSize, BatchHandler handler) throws IOException {
+        int size = Math.max(1, batchSize);
+        List<Entry> batch = new ArrayList<>(size);
+        long index = 0;
+        try (BufferedReader reader = Files.newBufferedReader(pending, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if (index >= skip) {
+                    batch.add(new Entry(index, line, parse(line)));
+                    if (batch.size() == size) {
+                        handler.accept(batch);
+                        batch = new ArrayList<>(size);
+                    }
+                }
+                index++;
+            }
+        }
+        if (!batch.isEmpty()) handler.accept(batch);
+    }
+
+    public synchronized void quarantine(Path pending, String line) throws IOException {
+        String name = pending.getFileName().toString();
+        if (name.endsWith(PENDING_SUFFIX)) name = name.substring(0, name.length() - PENDING_SUFFIX.length());
+        try (FileOutputStream out = new FileOutputStream(dir.resolve(name + QUARANTINE_SUFFIX).toFile(), true)) {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+            out.getFD().sync();
+        }
+    }
+
+    public void delete(Path pending) throws IOException {
+        Files.deleteIfExists(pending);
+    }
+
+    private AuditLog parse(String line) {
+        try {
+            AuditLog e = objectMapper.readValue(line, AuditLog.class);
+            e.setId(null);
+            return e;
+        } catch (IOException e) {
+            log.warn("Unreadable spilled audit line: {}", line, e);
+            return null;
+        }
+    }
+
+    public record Entry(long index, String line, AuditLog event) {}
+
+    @FunctionalInterface
+    public interface BatchHandler {
+        void accept(List<Entry> batch) throws IOException;
+    }
+}
@@ -2,23 +2,31 @@ package com.hospital.automation.service.impl;
 
 import com.hospital.automation.common.exception.BadRequestException;
 import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.common.http.EntityVersions;
 import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
 import com.hospital.automation.domain.dto.request.AdmissionDischargeRequest;
+import com.hospital.automation.domain.dto.request.AdmissionTransferRequest;
 import com.hospital.automation.domain.dto.response.AdmissionResponse;
+import com.hospital.automation.domain.dto.response.AdmissionTransferResponse;
 import com.hospital.automation.domain.dto.response.DoctorSummaryResponse;
 import com.hospital.automation.domain.dto.response.PatientSummaryResponse;
 import com.hospital.automation.domain.dto.response.RoomResponse;
 import com.hospital.automation.domain.entity.Admission;
+import com.hospital.automation.domain.entity.AdmissionTransfer;
 import com.hospital.automation.domain.entity.Doctor;
 import com.hospital.automation.domain.entity.Patient;
 import com.hospital.automation.domain.entity.Room;
 import com.hospital.automation.domain.enums.AdmissionStatus;
 import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.AdmissionTransferRepository;
 import com.hospital.automation.repository.DoctorRepository;
 import com.hospital.automation.repository.PatientRepository;
 import com.hospital.automation.repository.RoomRepository;
 import com.hospital.automation.service.AdmissionService;
 import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.admission.CensusIndex;
+import com.hospital.automation.service.admission.RoomAvailabilityIndex;
+import com.hospital.automation.service.admission.RoomOccupancyRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,10 +39,14 @@ import java.util.List;
 public class AdmissionServiceImpl implements AdmissionService {
 
     private final AdmissionRepository admissionRepository;
+    private final AdmissionTransferRepository transferRepository;
     private final PatientRepository patientRepository;
     private final RoomRepository roomRepository;
     private final DoctorRepository doctorRepository;
     private final AuditLogService auditLogService;
+    private final RoomOccupancyRegistry occupancy;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final CensusIndex censusIndex;
 
     @Override
     public AdmissionResponse create(AdmissionCreateRequest request) {
@@ -50,11 +62,13 @@ public class AdmissionServiceImpl implements AdmissionService {
                     .orElseThrow(() -> new NotFoundException("Doctor not found: " + request.attendingDoctorId()));
         }
 
-        if (room.getCapacity() != null) {
-            long activeCount = admissionRepository.countByRoomIdAndStatus(room.getId(), AdmissionStatus.ADMITTED);
-            if (activeCount >= room.getCapacity()) {
-                throw new BadRequestException("Room is full (capacity reached)");
-            }
+        if (request.plannedDischargeAt() != null && request.plannedDischargeAt().isBefore(request.admittedAt())) {
+            throw new BadRequestException("plannedDischargeAt cannot be before admittedAt");
+        }
+
+        // sorgusuz ve yarışsız: yer burada ayrılır, transaction rollback olursa geri verilir
+        if (!occupancy.tryAdmit(room.getId(), room.getCapacity())) {
+            throw new BadRequestException("Room is full (capacity reached)");
         }
 
         Admission admission = Admission.builder()
@@ -64,9 +78,12 @@ public class AdmissionServiceImpl implements AdmissionService {
                 .admittedAt(request.admittedAt())
                 .status(AdmissionStatus.ADMITTED)
                 .note(request.note())
+                .plannedDischargeAt(request.plannedDischargeAt())
                 .build();
 
         Admission saved = admissionRepository.save(admission);
+        availabilityIndex.onAdmissionSaved(saved);
+        censusIndex.invalidate();
 
         auditLogService.log(
                 "CREATE",
@@ -93,9 +110,10 @@ public class AdmissionServiceImpl implements AdmissionService {
     }
 
     @Override
-    public AdmissionResponse discharge(Long id, AdmissionDischargeRequest request) {
+    public AdmissionResponse discharge(Long id, AdmissionDischargeRequest request, Long expectedVersion) {
         Admission a = admissionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Admission not found: " + id));
+        EntityVersions.check(expectedVersion, a.getVersion(), "Admission");
 
         if (a.getStatus() == AdmissionStatus.DISCHARGED) {
             throw new BadRequestException("Admission is already discharged");
@@ -107,9 +125,14 @@ public class AdmissionServiceImpl implements AdmissionService {
 
         a.setDischargedAt(request.dischargedAt());
         a.setStatus(AdmissionStatus.DISCHARGED);
+        occupancy.onReleased(a.getRoom().getId());
+        availabilityIndex.onAdmissionSaved(a);
+        censusIndex.invalidate();
         if (request.note() != null) {
             a.setNote(request.note());
         }
+        // UPDATE burada çalışsın: yanıttaki version (ETag) artmış değer olsun
+        admissionRepository.flush();
 
         auditLogService.log(
                 "DISCHARGE",
@@ -121,12 +144,86 @@ public class AdmissionServiceImpl implements AdmissionService {
         return toResponse(a);
     }
 
+    @Override
+    public AdmissionResponse transfer(Long id, AdmissionTransferRequest request, Long expectedVersion) {
+        Admission a = admissionRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Admission not found: " + id));
+        EntityVersions.check(expectedVersion, a.getVersion(), "Admission");
+
+        if (a.getStatus() != AdmissionStatus.ADMITTED) {
+            throw new BadRequestException("Only an active admission can be transferred");
+        }
+
+        Room from = a.getRoom();
+        if (from.getId().equals(request.toRoomId())) {
+            throw new BadRequestException("Patient is already in room " + from.getRoomNumber());
+        }
+
+        if (request.transferredAt().isBefore(a.getAdmittedAt())) {
+            throw new BadRequestException("transferredAt cannot be before admittedAt");
+        }
+        transferRepository.findFirstByAdmissionIdOrderByTransferredAtDescIdDesc(id).ifPresent(last -> {
+            if (request.transferredAt().isBefore(last.getTransferredAt())) {
+                throw new BadRequestException("transferredAt cannot be before the previous transfer");
+            }
+        });
+
+        Room to = lockRooms(from.getId(), request.toRoomId());
+
+        // yeni yatak ayrılır, eski yatak commit sonrası boşalır; rollback'te ikisi de eski haline döner
+        if (!occupancy.tryAdmit(to.getId(), to.getCapacity())) {
+            throw new BadRequestException("Room is full (capacity reached)");
+        }
+        occupancy.onReleased(from.getId());
+
+        a.setRoom(to);
+        AdmissionTransfer transfer = transferRepository.save(AdmissionTransfer.builder()
+                .admission(a)
+                .fromRoom(from)
+                .toRoom(to)
+                .transferredAt(request.transferredAt())
+                .note(request.note())
+                .build());
+        availabilityIndex.onAdmissionMoved(from.getId(), a);
+        censusIndex.invalidate();
+        // eşzamanlı taburcu / transfer burada version çakışmasıyla düşer (409)
+        admissionRepository.flush();
+
+        auditLogService.log(
+                "TRANSFER",
+                "Admission",
+                a.getId(),
+                "Admission transferred (patientId=" + a.getPatient().getId() + ", fromRoomId=" + from.getId()
+                        + ", toRoomId=" + to.getId() + ", transferId=" + transfer.getId() + ")"
+        );
+
+        return toResponse(a);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AdmissionTransferResponse> getTransfers(Long id) {
+        if (!admissionRepository.existsById(id)) {
+            throw new NotFoundException("Admission not found: " + id);
+        }
+        return transferRepository.findHistory(id).stream()
+                .map(t -> new AdmissionTransferResponse(t.getId(), id, toRoomResponse(t.getFromRoom()),
+                        toRoomResponse(t.getToRoom()), t.getTransferredAt(), t.getNote()))
+                .toList();
+    }
+
     @Override
     public void delete(Long id) {
         Admission a = admissionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Admission not found: " + id));
 
+        transferRepository.deleteByAdmissionId(id);
         admissionRepository.delete(a);
+        if (a.getStatus() == AdmissionStatus.ADMITTED) {
+            occupancy.onReleased(a.getRoom().getId());
+        }
+        availabilityIndex.onAdmissionDeleted(a.getRoom().getId(), a.getId());
+        censusIndex.invalidate();
 
         auditLogService.log(
                 "DELETE",
@@ -136,12 +233,30 @@ public class AdmissionServiceImpl implements AdmissionService {
         );
     }
 
+    // iki oda satırı her zaman küçük id önce kilitlenir: A->B ve B->A transferleri aynı anda gelse de deadlock olmaz
+    private Room lockRooms(Long fromId, Long toId) {
+        Long first = Math.min(fromId, toId);
+        Long second = Math.max(fromId, toId);
+
+        Room firstRoom = roomRepository.findByIdForUpdate(first)
+                .orElseThrow(() -> new NotFoundException("Room not found: " + first));
+        Room secondRoom = roomRepository.findByIdForUpdate(second)
+                .orElseThrow(() -> new NotFoundException("Room not found: " + second));
+
+        return toId.equals(first) ? firstRoom : secondRoom;
+    }
+
+    private static RoomResponse toRoomResponse(Room r) {
+        Long departmentId = (r.getDepartment() == null) ? null : r.getDepartment().getId();
+        return new RoomResponse(r.getId(), r.getRoomNumber(), r.getFloor(), r.getRoomType(), r.getCapacity(), departmentId);
+    }
+
     private AdmissionResponse toResponse(Admission a) {
         Patient p = a.getPatient();
         Room r = a.getRoom();
 
         PatientSummaryResponse patient = new PatientSummaryResponse(p.getId(), p.getFirstName(), p.getLastName());
-        RoomResponse room = new RoomResponse(r.getId(), r.getRoomNumber(), r.getFloor(), r.getRoomType(), r.getCapacity());
+        RoomResponse room = toRoomResponse(r);
 
         DoctorSummaryResponse doc = null;
         if (a.getAttendingDoctor() != null) {
@@ -156,8 +271,10 @@ public class AdmissionServiceImpl implements AdmissionService {
                 doc,
                 a.getAdmittedAt(),
                 a.getDischargedAt(),
+                a.getPlannedDischargeAt(),
                 a.getStatus(),
-                a.getNote()
+                a.getNote(),
+                a.getVersion()
         );
     }
 }
@@ -0,0 +1,120 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.response.DepartmentAvailabilityResponse;
+import com.hospital.automation.domain.dto.response.DepartmentResponse;
+import com.hospital.automation.domain.dto.response.DoctorAvailabilityResponse;
+import com.hospital.automation.domain.dto.response.DoctorSummaryResponse;
+import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.projection.DoctorBusySlot;
+import com.hospital.automation.service.AppointmentAvailabilityService;
+import com.hospital.automation.service.appointment.FreeSlotFinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AppointmentAvailabilityServiceImpl implements AppointmentAvailabilityService {
+
+    static final int MAX_RANGE_DAYS = 93;
+    static final int MIN_DURATION_MINUTES = 5;
+    static final int MAX_DURATION_MINUTES = 24 * 60;
+    static final int DEFAULT_RANGE_DAYS = 7;
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final DepartmentRepository departmentRepository;
+    private final AppointmentProperties props;
+
+    @Override
+    public DoctorAvailabilityResponse doctorAvailability(Long doctorId, LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        Window w = window(from, to, durationMinutes);
+
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new NotFoundException("Doctor not found: " + doctorId));
+
+        List<DoctorBusySlot> busy = appointmentRepository.findBusySlots(
+                List.of(doctorId), AppointmentStatus.SCHEDULED, w.from(), w.to());
+
+        return toResponse(doctor, busy, w);
+    }
+
+    @Override
+    public DepartmentAvailabilityResponse departmentAvailability(Long departmentId, LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        Window w = window(from, to, durationMinutes);
+
+        Department dept = departmentRepository.findById(departmentId)
+                .orElseThrow(() -> new NotFoundException("Department not found: " + departmentId));
+
+        List<Doctor> doctors = doctorRepository.findByDepartment_IdOrderByIdAsc(departmentId);
+        List<DoctorAvailabilityResponse> result = new ArrayList<>(doctors.size());
+
+        if (!doctors.isEmpty()) {
+            // tüm departman için tek sorgu; satırlar doktor + start sırasında gelir => doktor başına ardışık blok
+            List<DoctorBusySlot> busy = appointmentRepository.findBusySlots(
+                    doctors.stream().map(Doctor::getId).toList(), AppointmentStatus.SCHEDULED, w.from(), w.to());
+
+            int i = 0;
+            for (Doctor d : doctors) {
+                int j = i;
+                while (j < busy.size() && busy.get(j).doctorId().equals(d.getId())) j++;
+                result.add(toResponse(d, busy.subList(i, j), w));
+                i = j;
+            }
+        }
+
+        return new DepartmentAvailabilityResponse(
+                new DepartmentResponse(dept.getId(), dept.getName()),
+                w.from(),
+                w.to(),
+                durationMinutes,
+                result
+        );
+    }
+
+    private DoctorAvailabilityResponse toResponse(Doctor d, List<DoctorBusySlot> busy, Window w) {
+        FreeSlotFinder finder = new FreeSlotFinder(props.getWorkdayStart(), props.getWorkdayEnd());
+        return new DoctorAvailabilityResponse(
+                new DoctorSummaryResponse(d.getId(), d.getFirstName(), d.getLastName(), d.getSpecialization()),
+                w.from(),
+                w.to(),
+                (int) w.duration().toMinutes(),
+                finder.find(busy, w.from(), w.to(), w.duration())
+        );
+    }
+
+    // varsayılan: şimdiden itibaren 7 gün
+    private Window window(LocalDateTime from, LocalDateTime to, int durationMinutes) {
+        if (durationMinutes < MIN_DURATION_MINUTES || durationMinutes > MAX_DURATION_MINUTES) {
+            throw new BadRequestException("duration must be between " + MIN_DURATION_MINUTES
+                    + " and " + MAX_DURATION_MINUTES + " minutes");
+        }
+
+        LocalDateTime start = (from != null) ? from : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = (to != null) ? to : start.plusDays(DEFAULT_RANGE_DAYS);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("from must be before to");
+        }
+        if (start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            throw new BadRequestException("Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return new Window(start, end, Duration.ofMinutes(durationMinutes));
+    }
+
+    private record Window(LocalDateTime from, LocalDateTime to, Duration duration) {}
+}
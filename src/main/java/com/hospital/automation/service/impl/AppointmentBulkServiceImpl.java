@@ -0,0 +1,167 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse.RowError;
+import com.hospital.automation.service.AppointmentBulkService;
+import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.appointment.AppointmentBatchInserter;
+import com.hospital.automation.service.appointment.AppointmentBatchInserter.Row;
+import com.hospital.automation.service.appointment.AppointmentCsvFormat;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Toplu randevu oluşturma. Satırlar bulkChunkSize'lık parçalar halinde, her parça kendi kısa
+ * transaction'ında AppointmentBatchInserter ile yazılır: büyük bir import tek transaction'da
+ * kilit ve bağlantı tutmaz, bir parçanın geri alınması öncekileri etkilemez.
+ * Bir parça hangi hatayla düşerse düşsün satırları raporda başarısız sayılır ve import devam eder:
+ * önceki parçalar zaten commit edildiği için çağıran her zaman kısmi raporu alır.
+ */
+@Slf4j
+@Service
+public class AppointmentBulkServiceImpl implements AppointmentBulkService {
+
+    private final AppointmentBatchInserter batchInserter;
+    private final AuditLogService auditLogService;
+    private final AppointmentProperties props;
+    private final TransactionTemplate chunkTx;
+
+    public AppointmentBulkServiceImpl(AppointmentBatchInserter batchInserter,
+                                      AuditLogService auditLogService,
+                                      AppointmentProperties props,
+                                      PlatformTransactionManager txManager) {
+        this.batchInserter = batchInserter;
+        this.auditLogService = auditLogService;
+        this.props = props;
+        this.chunkTx = new TransactionTemplate(txManager);
+    }
+
+    @Override
+    public AppointmentBulkResponse bulkCreate(List<AppointmentCreateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one appointment is required");
+        }
+        if (requests.size() > props.getBulkMaxRows()) {
+            throw new BadRequestException("At most " + props.getBulkMaxRows()
+                    + " appointments per request; use /api/appointments/import for larger files");
+        }
+
+        Report report = new Report(props.getBulkMaxReportedErrors());
+        List<Row> chunk = new ArrayList<>(props.getBulkChunkSize());
+        for (int i = 0; i < requests.size(); i++) {
+            report.received++;
+            chunk.add(new Row(i + 1, requests.get(i)));
+            if (chunk.size() >= props.getBulkChunkSize()) flush(chunk, report);
+        }
+        flush(chunk, report);
+        return report.toResponse();
+    }
+
+    @Override
+    public AppointmentBulkResponse importCsv(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        AppointmentCsvFormat format = AppointmentCsvFormat.fromHeader(reader.readLine());
+
+        Report report = new Report(props.getBulkMaxReportedErrors());
+        List<Row> chunk = new ArrayList<>(props.getBulkChunkSize());
+        int row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            row++;
+            report.received++;
+            try {
+                chunk.add(new Row(row, format.parse(line)));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                report.fail(row, "Invalid row: " + e.getMessage());
+            }
+            if (chunk.size() >= props.getBulkChunkSize()) flush(chunk, report);
+        }
+        flush(chunk, report);
+
+        if (report.received == 0) {
+            throw new BadRequestException("CSV has no rows");
+        }
+        return report.toResponse();
+    }
+
+    private void flush(List<Row> chunk, Report report) {
+        if (chunk.isEmpty()) return;
+
+        try {
+            AppointmentBatchInserter.Result result = chunkTx.execute(status -> {
+                AppointmentBatchInserter.Result r = batchInserter.insert(chunk);
+                if (!r.inserted().isEmpty()) {
+                    // satır başına değil, parça başına tek audit kaydı
+                    long doctors = r.inserted().stream().map(x -> x.request().doctorId()).distinct().count();
+                    auditLogService.log(
+                            "BULK_CREATE",
+                            "Appointment",
+                            null,
+                            "Bulk created " + r.inserted().size() + " appointment(s) for " + doctors + " doctor(s)"
+                    );
+                }
+                return r;
+            });
+            report.created += result.inserted().size();
+            result.errors().forEach(e -> report.fail(e.row(), e.message()));
+        } catch (ConflictException e) {
+            // kilit zaman aşımı: parça yazılmadı
+            chunk.forEach(r -> report.fail(r.row(), e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            // PostgreSQL exclusion constraint (başka node'dan eşzamanlı yazım) vb.: parça geri alındı
+            chunk.forEach(r -> report.fail(r.row(), "Conflicting write, row was not imported; please retry"));
+        } catch (BadRequestException | NotFoundException | IllegalArgumentException | ConstraintViolationException e) {
+            // satır doğrulaması dışında kalan beklenen hatalar: parça geri alındı, mesaj satırlara yazılır
+            chunk.forEach(r -> report.fail(r.row(), e.getMessage()));
+        } catch (RuntimeException e) {
+            // beklenmeyen hata: parça geri alındı ama önceki parçaların raporu kaybolmasın
+            log.error("Bulk appointment chunk failed (rows {}-{})",
+                    chunk.get(0).row(), chunk.get(chunk.size() - 1).row(), e);
+            chunk.forEach(r -> report.fail(r.row(), "Row was not imported due to an internal error; please retry"));
+        }
+        chunk.clear();
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private int received;
+        private int created;
+        private int failed;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(int row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) errors.add(new RowError(row, message));
+        }
+
+        private AppointmentBulkResponse toResponse() {
+            // parse hataları okunurken, diğerleri parça yazılınca eklenir
+            errors.sort(Comparator.comparingInt(RowError::row));
+            return new AppointmentBulkResponse(received, created, failed, errors);
+        }
+    }
+}
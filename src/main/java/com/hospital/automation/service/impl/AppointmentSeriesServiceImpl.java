@@ -0,0 +1,335 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.request.AppointmentSeriesCreateRequest;
+import com.hospital.automation.domain.dto.request.AppointmentSeriesUpdateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentSeriesResponse;
+import com.hospital.automation.domain.dto.response.DepartmentResponse;
+import com.hospital.automation.domain.dto.response.DoctorSummaryResponse;
+import com.hospital.automation.domain.dto.response.PatientSummaryResponse;
+import com.hospital.automation.domain.entity.AppointmentSeries;
+import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.AppointmentSeriesRepository;
+import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.repository.projection.AppointmentSlot;
+import com.hospital.automation.service.AppointmentSeriesService;
+import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.appointment.AppointmentConflictScanner;
+import com.hospital.automation.service.appointment.AppointmentOverlapConstraint;
+import com.hospital.automation.service.appointment.AppointmentOverlapIndex;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.DoctorBookingLocks;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
+import com.hospital.automation.service.appointment.RecurrenceExpander;
+import com.hospital.automation.service.waitlist.FreedSlot;
+import com.hospital.automation.service.waitlist.WaitlistBackfiller;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AppointmentSeriesServiceImpl implements AppointmentSeriesService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO appointments (patient_id, doctor_id, department_id, start_time, end_time, status, note, series_id, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    // hata mesajında listelenecek en fazla çakışan tekrar
+    private static final int MAX_LISTED_CONFLICTS = 10;
+
+    private final AppointmentSeriesRepository seriesRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final DepartmentRepository departmentRepository;
+    private final AuditLogService auditLogService;
+    private final AppointmentOverlapIndex overlapIndex;
+    private final DoctorBookingLocks bookingLocks;
+    private final AppointmentConflictScanner conflictScanner;
+    private final AppointmentProperties props;
+    private final JdbcTemplate jdbcTemplate;
+    private final WaitlistBackfiller waitlistBackfiller;
+    private final DoctorScheduleCache scheduleCache;
+    private final CalendarFeedVersions feedVersions;
+
+    @Override
+    public AppointmentSeriesResponse create(AppointmentSeriesCreateRequest request) {
+        if (request.until() != null && request.until().isBefore(request.startTime())) {
+            throw new BadRequestException("until must not be before startTime");
+        }
+        int interval = (request.interval() != null) ? request.interval() : 1;
+        List<LocalDateTime> starts = RecurrenceExpander.expand(request.startTime(), request.frequency(), interval,
+                request.count(), request.until(), props.getSeriesMaxOccurrences());
+
+        Patient patient = patientRepository.findById(request.patientId())
+                .orElseThrow(() -> new NotFoundException("Patient not found: " + request.patientId()));
+
+        Doctor doctor = doctorRepository.findById(request.doctorId())
+                .orElseThrow(() -> new NotFoundException("Doctor not found: " + request.doctorId()));
+
+        Department dept = resolveDepartment(request.departmentId(), doctor);
+
+        List<AppointmentSlot> candidates = starts.stream()
+                .map(s -> new AppointmentSlot(null, s, s.plusMinutes(request.durationMinutes())))
+                .toList();
+
+        // tüm tekrarlar tek range sorgusu + bellek içi kontrol; kilit commit'e kadar tutulur
+        bookingLocks.lockForTransaction(doctor.getId());
+        List<Integer> conflicts = conflictScanner.findConflicts(doctor.getId(), Set.of(), candidates);
+
+        if (!conflicts.isEmpty() && !request.skipConflicts()) {
+            throw new BadRequestException(describeConflicts(conflicts, candidates));
+        }
+        if (conflicts.size() == candidates.size()) {
+            throw new BadRequestException("All occurrences conflict with existing appointments");
+        }
+
+        AppointmentSeries series = seriesRepository.saveAndFlush(AppointmentSeries.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .department(dept)
+                .startTime(request.startTime())
+                .durationMinutes(request.durationMinutes())
+                .frequency(request.frequency())
+                .interval(interval)
+                .occurrenceCount(request.count())
+                .untilTime(request.until())
+                .note(request.note())
+                .build());
+
+        Set<Integer> skippedIdx = new HashSet<>(conflicts);
+        List<AppointmentSlot> accepted = new ArrayList<>(candidates.size() - conflicts.size());
+        List<LocalDateTime> skipped = new ArrayList<>(conflicts.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (skippedIdx.contains(i)) skipped.add(candidates.get(i).startTime());
+            else accepted.add(candidates.get(i));
+        }
+
+        Long deptId = (dept != null) ? dept.getId() : null;
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, accepted, accepted.size(), (ps, slot) -> {
+                ps.setLong(1, patient.getId());
+                ps.setLong(2, doctor.getId());
+                if (deptId != null) ps.setLong(3, deptId);
+                else ps.setNull(3, Types.BIGINT);
+                ps.setTimestamp(4, Timestamp.valueOf(slot.startTime()));
+                ps.setTimestamp(5, Timestamp.valueOf(slot.endTime()));
+                ps.setString(6, AppointmentStatus.SCHEDULED.name());
+                if (request.note() != null) ps.setString(7, request.note());
+                else ps.setNull(7, Types.VARCHAR);
+                ps.setLong(8, series.getId());
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (AppointmentOverlapConstraint.isViolation(e)) {
+                throw new ConflictException("Doctor has another appointment in this time range");
+            }
+            throw e;
+        }
+        overlapIndex.invalidate(doctor.getId());
+        scheduleCache.evictDays(doctor.getId(), accepted.stream().map(a -> a.startTime().toLocalDate()).toList());
+        feedVersions.onAppointmentChanged(doctor.getId(), patient.getId());
+
+        String rrule = rruleOf(series);
+        auditLogService.log(
+                "CREATE",
+                "AppointmentSeries",
+                series.getId(),
+                "Appointment series created (" + rrule + ", occurrences=" + accepted.size()
+                        + ", skipped=" + skipped.size() + ", doctorId=" + doctor.getId() + ")"
+        );
+
+        return toResponse(series, skipped, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentSeriesResponse getById(Long id) {
+        return toResponse(findSeries(id), List.of(), null);
+    }
+
+    @Override
+    public AppointmentSeriesResponse updateFuture(Long id, AppointmentSeriesUpdateRequest request) {
+        if (request.shiftMinutes() == null && request.durationMinutes() == null && request.note() == null) {
+            throw new BadRequestException("Nothing to update: shiftMinutes, durationMinutes or note is required");
+        }
+
+        AppointmentSeries series = findSeries(id);
+        Long doctorId = series.getDoctor().getId();
+        LocalDateTime from = (request.from() != null) ? request.from() : LocalDateTime.now();
+        int shift = (request.shiftMinutes() != null) ? request.shiftMinutes() : 0;
+        Integer duration = request.durationMinutes();
+
+        bookingLocks.lockForTransaction(doctorId);
+
+        List<AppointmentSlot> moved = List.of();
+        if (shift != 0 || duration != null) {
+            // yeni aralıklar bellekte hesaplanıp tek range sorgusuyla kontrol edilir (serinin kendi satırları hariç)
+            List<AppointmentSlot> future = appointmentRepository.findSeriesSlotsFrom(id, AppointmentStatus.SCHEDULED, from);
+            moved = future.stream()
+                    .map(s -> {
+                        LocalDateTime start = s.startTime().plusMinutes(shift);
+                        LocalDateTime end = (duration != null) ? start.plusMinutes(duration) : s.endTime().plusMinutes(shift);
+                        return new AppointmentSlot(s.id(), start, end);
+                    })
+                    .toList();
+            Set<Long> ownIds = new HashSet<>(future.stream().map(AppointmentSlot::id).toList());
+
+            List<Integer> conflicts = conflictScanner.findConflicts(doctorId, ownIds, moved);
+            if (!conflicts.isEmpty()) {
+                throw new BadRequestException(describeConflicts(conflicts, moved));
+            }
+        }
+
+        if (duration != null) series.setDurationMinutes(duration);
+        if (request.note() != null) series.setNote(request.note());
+        if (shift != 0) reanchor(series, from, shift, moved);
+
+        // seri satırı dahil bekleyen değişiklikler UPDATE'ten önce flush edilir
+        int updated = appointmentRepository.rescheduleSeriesFrom(
+                id, AppointmentStatus.SCHEDULED, from, shift, duration, request.note());
+        overlapIndex.invalidate(doctorId);
+        // geri kaydırmada tekrarlar from'dan önceki günlere geçebilir
+        scheduleCache.evictFrom(doctorId, from.plusMinutes(Math.min(shift, 0)).toLocalDate());
+        feedVersions.onAppointmentChanged(doctorId, series.getPatient().getId());
+
+        auditLogService.log(
+                "UPDATE",
+                "AppointmentSeries",
+                id,
+                "Future occurrences updated (from=" + from + ", count=" + updated + ", shiftMinutes=" + shift
+                        + (duration != null ? ", durationMinutes=" + duration : "") + ")"
+        );
+
+        return toResponse(series, List.of(), updated);
+    }
+
+    @Override
+    public AppointmentSeriesResponse cancelFuture(Long id, LocalDateTime from) {
+        AppointmentSeries series = findSeries(id);
+        LocalDateTime effectiveFrom = (from != null) ? from : LocalDateTime.now();
+
+        Long doctorId = series.getDoctor().getId();
+        Long deptId = (series.getDepartment() != null) ? series.getDepartment().getId()
+                : (series.getDoctor().getDepartment() != null) ? series.getDoctor().getDepartment().getId() : null;
+
+        // boşalacak aralıklar (bekleme listesi için) UPDATE'ten önce tek sorguyla
+        List<FreedSlot> freed = appointmentRepository.findSeriesSlotsFrom(id, AppointmentStatus.SCHEDULED, effectiveFrom)
+                .stream()
+                .map(s -> new FreedSlot(doctorId, deptId, s.startTime(), s.endTime()))
+                .toList();
+
+        // slot boşaltmak çakışma üretmez: kilide gerek yok
+        int cancelled = appointmentRepository.updateSeriesStatusFrom(
+                id, AppointmentStatus.SCHEDULED, AppointmentStatus.CANCELLED, effectiveFrom);
+        overlapIndex.invalidate(doctorId);
+        scheduleCache.evictFrom(doctorId, effectiveFrom.toLocalDate());
+        feedVersions.onAppointmentChanged(doctorId, series.getPatient().getId());
+        waitlistBackfiller.onSlotsFreed(freed);
+
+        auditLogService.log(
+                "CANCEL",
+                "AppointmentSeries",
+                id,
+                "Future occurrences cancelled (from=" + effectiveFrom + ", count=" + cancelled + ")"
+        );
+
+        return toResponse(series, List.of(), cancelled);
+    }
+
+    /**
+     * Kaydırılan tekrarlar serinin kuralıyla (DTSTART + RRULE) tarif edilmeye devam etsin:
+     * - ilk tekrar da kaydırıldıysa DTSTART ve UNTIL aynı miktar kayar, COUNT aynı kalır
+     * - seri ortadan kaydırıldıysa kural bundan sonrasını tarif eder: DTSTART ilk kaydırılan tekrar,
+     *   COUNT yerine UNTIL son kaydırılan tekrar (önceki tekrarlar satır olarak durur)
+     */
+    private static void reanchor(AppointmentSeries series, LocalDateTime from, int shift, List<AppointmentSlot> moved) {
+        if (moved.isEmpty()) return;
+
+        if (!series.getStartTime().isBefore(from)) {
+            series.setStartTime(series.getStartTime().plusMinutes(shift));
+            if (series.getUntilTime() != null) series.setUntilTime(series.getUntilTime().plusMinutes(shift));
+            return;
+        }
+
+        series.setStartTime(moved.stream().map(AppointmentSlot::startTime).min(LocalDateTime::compareTo).orElseThrow());
+        series.setUntilTime(moved.stream().map(AppointmentSlot::startTime).max(LocalDateTime::compareTo).orElseThrow());
+        series.setOccurrenceCount(null);
+    }
+
+    private AppointmentSeries findSeries(Long id) {
+        return seriesRepository.findWithRelationsById(id)
+                .orElseThrow(() -> new NotFoundException("Appointment series not found: " + id));
+    }
+
+    private Department resolveDepartment(Long departmentId, Doctor doctor) {
+        if (departmentId != null) {
+            return departmentRepository.findById(departmentId)
+                    .orElseThrow(() -> new NotFoundException("Department not found: " + departmentId));
+        }
+        return doctor.getDepartment();
+    }
+
+    private static String describeConflicts(List<Integer> conflicts, List<AppointmentSlot> candidates) {
+        List<LocalDateTime> listed = conflicts.stream()
+                .limit(MAX_LISTED_CONFLICTS)
+                .map(i -> candidates.get(i).startTime())
+                .toList();
+        return conflicts.size() + " occurrence(s) conflict with existing appointments: " + listed
+                + (conflicts.size() > MAX_LISTED_CONFLICTS ? " ..." : "");
+    }
+
+    private static String rruleOf(AppointmentSeries s) {
+        return RecurrenceExpander.rrule(s.getFrequency(), s.getInterval(), s.getOccurrenceCount(), s.getUntilTime());
+    }
+
+    private AppointmentSeriesResponse toResponse(AppointmentSeries s, List<LocalDateTime> skipped, Integer affected) {
+        Patient p = s.getPatient();
+        Doctor d = s.getDoctor();
+
+        DepartmentResponse dept = null;
+        if (s.getDepartment() != null) {
+            dept = new DepartmentResponse(s.getDepartment().getId(), s.getDepartment().getName());
+        }
+
+        List<AppointmentSeriesResponse.Occurrence> occurrences = appointmentRepository.findOccurrencesBySeriesId(s.getId())
+                .stream()
+                .map(o -> new AppointmentSeriesResponse.Occurrence(o.id(), o.startTime(), o.endTime(), o.status()))
+                .toList();
+
+        return new AppointmentSeriesResponse(
+                s.getId(),
+                new PatientSummaryResponse(p.getId(), p.getFirstName(), p.getLastName()),
+                new DoctorSummaryResponse(d.getId(), d.getFirstName(), d.getLastName(), d.getSpecialization()),
+                dept,
+                rruleOf(s),
+                s.getStartTime(),
+                s.getDurationMinutes(),
+                s.getNote(),
+                occurrences,
+                skipped,
+                affected
+        );
+    }
+}
@@ -1,40 +1,76 @@
 package com.hospital.automation.service.impl;
 
 import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
 import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.common.http.EntityVersions;
+import com.hospital.automation.common.pagination.KeysetCursor;
 import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.request.AppointmentFilter;
 import com.hospital.automation.domain.dto.request.AppointmentUpdateRequest;
 import com.hospital.automation.domain.dto.response.*;
 import com.hospital.automation.domain.entity.Appointment;
 import com.hospital.automation.domain.entity.Department;
 import com.hospital.automation.domain.entity.Doctor;
 import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.AppointmentChangeType;
 import com.hospital.automation.domain.enums.AppointmentStatus;
 import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.DoctorRepository;
 import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.repository.spec.AppointmentSpecifications;
 import com.hospital.automation.service.AppointmentService;
 import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.appointment.AppointmentOverlapConstraint;
+import com.hospital.automation.service.appointment.AppointmentChangeHub;
+import com.hospital.automation.service.appointment.AppointmentOverlapIndex;
+import com.hospital.automation.service.appointment.DoctorBookingLocks;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
+import com.hospital.automation.service.waitlist.FreedSlot;
+import com.hospital.automation.service.waitlist.WaitlistBackfiller;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AppointmentServiceImpl implements AppointmentService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final Set<String> SORTABLE = Set.of("startTime", "endTime", "status", "id");
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final DepartmentRepository departmentRepository;
     private final AuditLogService auditLogService;
+    private final AppointmentOverlapIndex overlapIndex;
+    private final DoctorBookingLocks bookingLocks;
+    private final WaitlistBackfiller waitlistBackfiller;
+    private final DoctorScheduleCache scheduleCache;
+    private final CalendarFeedVersions feedVersions;
+    private final AppointmentChangeHub changeHub;
 
     @Override
     public AppointmentResponse create(AppointmentCreateRequest request) {
+        return create(request, AppointmentStatus.SCHEDULED);
+    }
+
+    @Override
+    public AppointmentResponse create(AppointmentCreateRequest request, AppointmentStatus status) {
         validateTimeRange(request.startTime(), request.endTime());
 
         Patient patient = patientRepository.findById(request.patientId())
@@ -45,15 +81,15 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         Department dept = resolveDepartment(request.departmentId(), doctor);
 
-        boolean overlap = appointmentRepository.existsOverlappingAppointment(
-                doctor.getId(),
-                AppointmentStatus.SCHEDULED,
-                request.startTime(),
-                request.endTime()
-        );
+        if (status == AppointmentStatus.SCHEDULED) {
+            // kontrol + insert + commit boyunca bu doktora başka booking giremez
+            bookingLocks.lockForTransaction(doctor.getId());
 
-        if (overlap) {
-            throw new BadRequestException("Doctor has another appointment in this time range");
+            boolean overlap = overlapIndex.hasOverlap(doctor.getId(), null, request.startTime(), request.endTime());
+
+            if (overlap) {
+                throw new BadRequestException("Doctor has another appointment in this time range");
+            }
         }
 
         Appointment appointment = Appointment.builder()
@@ -62,11 +98,15 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .department(dept)
                 .startTime(request.startTime())
                 .endTime(request.endTime())
-                .status(AppointmentStatus.SCHEDULED)
+                .status(status)
                 .note(request.note())
                 .build();
 
-        Appointment saved = appointmentRepository.save(appointment);
+        Appointment saved = mapOverlapViolation(() -> appointmentRepository.save(appointment));
+        overlapIndex.onSaved(saved);
+        scheduleCache.evict(doctor.getId(), saved.getStartTime());
+        feedVersions.onAppointmentChanged(doctor.getId(), patient.getId());
+        changeHub.publish(AppointmentChangeType.CREATED, saved);
 
         auditLogService.log(
                 "CREATE",
@@ -84,6 +124,58 @@ public class AppointmentServiceImpl implements AppointmentService {
         return appointmentRepository.findAll().stream().map(this::toResponse).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AppointmentResponse> search(AppointmentFilter filter, int page, int size, String sort) {
+        validatePageSize(size);
+        if (page < 0) {
+            throw new BadRequestException("page must not be negative");
+        }
+
+        Specification<Appointment> spec = buildSpec(filter).and(AppointmentSpecifications.fetchRelations());
+        return appointmentRepository.findAll(spec, PageRequest.of(page, size, parseSort(sort)))
+                .map(this::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AppointmentResponse> searchKeyset(AppointmentFilter filter, String cursor,
+                                                                int size, boolean desc, boolean includeTotal) {
+        validatePageSize(size);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Specification<Appointment> filterSpec = buildSpec(filter);
+        Specification<Appointment> pageSpec = filterSpec.and(AppointmentSpecifications.fetchRelations());
+        if (after != null) {
+            pageSpec = pageSpec.and(AppointmentSpecifications.seekAfter(after.at(), after.id(), desc));
+        }
+
+        Sort.Direction dir = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(dir, "startTime").and(Sort.by(dir, "id"));
+
+        // size+1 satır çekip fazlası varsa hasNext=true (ayrı COUNT yok)
+        List<Appointment> rows = appointmentRepository.findBy(pageSpec, q -> q.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<Appointment> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Appointment last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.getStartTime(), last.getId()).encode();
+        }
+
+        Long total = includeTotal ? appointmentRepository.count(filterSpec) : null;
+
+        return new CursorPageResponse<>(
+                pageRows.stream().map(this::toResponse).toList(),
+                pageRows.size(),
+                hasNext,
+                nextCursor,
+                total
+        );
+    }
+
     @Override
     @Transactional(readOnly = true)
     public AppointmentResponse getById(Long id) {
@@ -93,29 +185,90 @@ public class AppointmentServiceImpl implements AppointmentService {
     }
 
     @Override
-    public AppointmentResponse update(Long id, AppointmentUpdateRequest request) {
+    public AppointmentResponse update(Long id, AppointmentUpdateRequest request, Long expectedVersion) {
+        validateTimeRange(request.startTime(), request.endTime());
+
+        Appointment a = appointmentRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Appointment not found: " + id));
+        EntityVersions.check(expectedVersion, a.getVersion(), "Appointment");
+
+        return apply(a, a.getPatient(), a.getDoctor(), a.getDepartment(),
+                request.startTime(), request.endTime(), request.status(), request.note());
+    }
+
+    @Override
+    public AppointmentResponse edit(Long id, AppointmentCreateRequest request, AppointmentStatus status) {
         validateTimeRange(request.startTime(), request.endTime());
 
         Appointment a = appointmentRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Appointment not found: " + id));
 
-        if (request.status() == AppointmentStatus.SCHEDULED) {
-            boolean overlap = appointmentRepository.existsOverlappingAppointmentExcludingId(
-                    a.getDoctor().getId(),
-                    a.getId(),
-                    AppointmentStatus.SCHEDULED,
-                    request.startTime(),
-                    request.endTime()
-            );
+        Patient patient = patientRepository.findById(request.patientId())
+                .orElseThrow(() -> new NotFoundException("Patient not found: " + request.patientId()));
+
+        Doctor doctor = doctorRepository.findById(request.doctorId())
+                .orElseThrow(() -> new NotFoundException("Doctor not found: " + request.doctorId()));
+
+        return apply(a, patient, doctor, resolveDepartment(request.departmentId(), doctor),
+                request.startTime(), request.endTime(), status, request.note());
+    }
+
+    // update / edit ortak yolu: kilit + çakışma kontrolü, flush, commit sonrası index / cache / feed / SSE
+    private AppointmentResponse apply(Appointment a, Patient patient, Doctor doctor, Department dept,
+                                      LocalDateTime start, LocalDateTime end, AppointmentStatus status, String note) {
+        if (status == AppointmentStatus.SCHEDULED) {
+            bookingLocks.lockForTransaction(doctor.getId());
+
+            boolean overlap = overlapIndex.hasOverlap(doctor.getId(), a.getId(), start, end);
             if (overlap) {
                 throw new BadRequestException("Doctor has another appointment in this time range");
             }
         }
 
-        a.setStartTime(request.startTime());
-        a.setEndTime(request.endTime());
-        a.setStatus(request.status());
-        a.setNote(request.note());
+        // iptal edilen slot commit sonrası bekleme listesinden doldurulur (eski aralık boşalır)
+        FreedSlot freed = (a.getStatus() == AppointmentStatus.SCHEDULED
+                && status == AppointmentStatus.CANCELLED
+                && a.getEndTime() != null)
+                ? new FreedSlot(a.getDoctor().getId(), departmentIdOf(a), a.getStartTime(), a.getEndTime())
+                : null;
+
+        Long previousDoctorId = a.getDoctor().getId();
+        Long previousPatientId = a.getPatient().getId();
+        LocalDateTime previousStart = a.getStartTime();
+        AppointmentChangeType changeType = (status == AppointmentStatus.CANCELLED
+                && a.getStatus() != AppointmentStatus.CANCELLED)
+                ? AppointmentChangeType.CANCELLED
+                : AppointmentChangeType.UPDATED;
+        a.setPatient(patient);
+        a.setDoctor(doctor);
+        a.setDepartment(dept);
+        a.setStartTime(start);
+        a.setEndTime(end);
+        a.setStatus(status);
+        a.setNote(note);
+        // UPDATE commit'te değil burada çalışsın: constraint ihlali ConflictException olarak dönebilsin
+        mapOverlapViolation(() -> {
+            appointmentRepository.flush();
+            return a;
+        });
+
+        // doktor değiştiyse eski doktorun index'i ve ajandası da güncellenir
+        if (!previousDoctorId.equals(doctor.getId())) {
+            overlapIndex.onDeleted(previousDoctorId, a.getId());
+            scheduleCache.evict(previousDoctorId, previousStart);
+        }
+        overlapIndex.onSaved(a);
+        // eski ve yeni gün (aynıysa evictDays tekilleştirir)
+        scheduleCache.evictDays(doctor.getId(),
+                List.of(previousStart.toLocalDate(), a.getStartTime().toLocalDate()));
+        if (!previousDoctorId.equals(doctor.getId()) || !previousPatientId.equals(patient.getId())) {
+            feedVersions.onAppointmentChanged(previousDoctorId, previousPatientId);
+        }
+        feedVersions.onAppointmentChanged(doctor.getId(), patient.getId());
+        changeHub.publish(changeType, a);
+        if (freed != null) {
+            waitlistBackfiller.onSlotFreed(freed);
+        }
 
         auditLogService.log(
                 "UPDATE",
@@ -133,6 +286,10 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .orElseThrow(() -> new NotFoundException("Appointment not found: " + id));
 
         appointmentRepository.delete(a);
+        overlapIndex.onDeleted(a.getDoctor().getId(), id);
+        scheduleCache.evict(a.getDoctor().getId(), a.getStartTime());
+        feedVersions.onAppointmentChanged(a.getDoctor().getId(), a.getPatient().getId());
+        changeHub.publish(AppointmentChangeType.DELETED, a);
 
         auditLogService.log(
                 "DELETE",
@@ -142,12 +299,63 @@ public class AppointmentServiceImpl implements AppointmentService {
         );
     }
 
+    private static Long departmentIdOf(Appointment a) {
+        if (a.getDepartment() != null) return a.getDepartment().getId();
+        return (a.getDoctor().getDepartment() != null) ? a.getDoctor().getDepartment().getId() : null;
+    }
+
+    private Specification<Appointment> buildSpec(AppointmentFilter f) {
+        return Specification
+                .where(AppointmentSpecifications.doctorIdEquals(f.doctorId()))
+                .and(AppointmentSpecifications.patientIdEquals(f.patientId()))
+                .and(AppointmentSpecifications.departmentIdEquals(f.departmentId()))
+                .and(AppointmentSpecifications.statusEquals(f.status()))
+                .and(AppointmentSpecifications.startTimeGte(f.from()))
+                .and(AppointmentSpecifications.startTimeLte(f.to()));
+    }
+
+    // örnek: "startTime,asc"; eşit değerlerde sayfalar arası kaymasın diye id ile tamamlanır
+    private Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Direction.ASC, "startTime").and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE.contains(field)) {
+            throw new BadRequestException("Unsupported sort field: " + field);
+        }
+        String dir = (parts.length > 1) ? parts[1].trim().toLowerCase() : "asc";
+        Sort.Direction direction = dir.equals("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Sort s = Sort.by(direction, field);
+        return field.equals("id") ? s : s.and(Sort.by(direction, "id"));
+    }
+
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
     private void validateTimeRange(java.time.LocalDateTime start, java.time.LocalDateTime end) {
         if (!end.isAfter(start)) {
             throw new BadRequestException("endTime must be after startTime");
         }
     }
 
+    // PostgreSQL exclusion constraint (AppointmentOverlapConstraint) ihlali => 409
+    private <T> T mapOverlapViolation(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            if (AppointmentOverlapConstraint.isViolation(e)) {
+                throw new ConflictException("Doctor has another appointment in this time range");
+            }
+            throw e;
+        }
+    }
+
     private Department resolveDepartment(Long departmentId, Doctor doctor) {
         if (departmentId != null) {
             return departmentRepository.findById(departmentId)
@@ -176,7 +384,8 @@ public class AppointmentServiceImpl implements AppointmentService {
                 a.getStartTime(),
                 a.getEndTime(),
                 a.getStatus(),
-                a.getNote()
+                a.getNote(),
+                a.getVersion()
         );
     }
 }
@@ -1,30 +1,56 @@
 package com.hospital.automation.service.impl;
 
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.pagination.KeysetCursor;
 import com.hospital.automation.config.security.UserPrincipal;
+import com.hospital.automation.domain.dto.request.AuditLogFilter;
+import com.hospital.automation.domain.dto.response.AuditActivityStatsResponse;
 import com.hospital.automation.domain.dto.response.AuditLogResponse;
+import com.hospital.automation.domain.dto.response.CursorPageResponse;
 import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.domain.enums.ExportFormat;
+import com.hospital.automation.domain.enums.StatsGranularity;
+import com.hospital.automation.domain.enums.StatsGroupBy;
+import com.hospital.automation.repository.AuditActivityHourlyRepository;
+import com.hospital.automation.repository.AuditActivityHourlyRepositoryCustom.BucketCount;
 import com.hospital.automation.repository.AuditLogRepository;
 import com.hospital.automation.repository.spec.AuditLogSpecifications;
 import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.audit.AuditArchiveStore;
+import com.hospital.automation.service.audit.AuditLogExporter;
+import com.hospital.automation.service.audit.AuditLogWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AuditLogServiceImpl implements AuditLogService {
 
+    static final int MAX_KEYSET_PAGE_SIZE = 1000;
+    static final int MAX_STATS_RANGE_DAYS = 366;
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditLogExporter auditLogExporter;
+    private final AuditArchiveStore auditArchiveStore;
+    private final AuditActivityHourlyRepository activityRepository;
 
+    // Kendi transaction'ını açmaz: çağıranınkine katılır, yazma commit sonrası AuditLogWriter'da
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void log(String action, String entityName, Long entityId, String details) {
         String username = getCurrentUsername();
 
@@ -37,10 +63,11 @@ public class AuditLogServiceImpl implements AuditLogService {
                 .details(details)
                 .build();
 
-        auditLogRepository.save(log);
+        auditLogWriter.submit(log);
     }
 
     @Override
+    @Deprecated
     @Transactional(readOnly = true)
     public List<AuditLog> getAll() {
         return auditLogRepository.findAll();
@@ -49,23 +76,160 @@ public class AuditLogServiceImpl implements AuditLogService {
     @Override
     @Transactional(readOnly = true)
     public Page<AuditLogResponse> search(String username, String action, String entityName,
-                                         LocalDateTime from, LocalDateTime to,
+                                         LocalDateTime from, LocalDateTime to, String q,
                                          int page, int size, String sort) {
 
         Sort s = parseSort(sort);
         Pageable pageable = PageRequest.of(page, size, s);
 
-        Specification<AuditLog> spec = Specification
-                .where(AuditLogSpecifications.usernameContains(username))
-                .and(AuditLogSpecifications.actionEquals(action))
-                .and(AuditLogSpecifications.entityNameEquals(entityName))
-                .and(AuditLogSpecifications.createdAtGte(from))
-                .and(AuditLogSpecifications.createdAtLte(to));
+        AuditLogFilter filter = new AuditLogFilter(username, action, entityName, from, to, q);
+        Specification<AuditLog> spec = buildSpec(filter);
+
+        // arşivlenmiş (retention ile DB'den ayrılmış) aylara uzanan zaman aralığı sorguları
+        Sort.Order byCreatedAt = s.getOrderFor("createdAt");
+        if (byCreatedAt != null && auditArchiveStore.covers(filter)) {
+            return searchWithArchive(filter, spec, pageable, byCreatedAt.isDescending());
+        }
 
         return auditLogRepository.findAll(spec, pageable)
                 .map(this::toResponse);
     }
 
+    /**
+     * Arşivdeki satırların hepsi DB'dekilerden eskidir (aylık partition sınırı), bu yüzden
+     * birleşik sıra desc için "önce DB, sonra arşiv", asc için tersi; sayfa bu sıranın dilimidir.
+     * Arşivden yalnızca sayfaya düşen satırlar okunur (toplam sayım akıtılarak yapılır).
+     */
+    private Page<AuditLogResponse> searchWithArchive(AuditLogFilter filter, Specification<AuditLog> spec,
+                                                     Pageable pageable, boolean desc) {
+        long dbTotal = auditLogRepository.count(spec);
+
+        Sort.Direction dir = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort dbSort = Sort.by(dir, "createdAt").and(Sort.by(dir, "id"));
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+
+        List<AuditLog> rows = new ArrayList<>(size);
+        AuditArchiveStore.Slice archived;
+        if (desc) {
+            int fromDb = (int) Math.max(0, Math.min(size, dbTotal - offset));
+            rows.addAll(auditLogRepository.findSlice(spec, dbSort, offset, fromDb));
+            archived = auditArchiveStore.search(filter, true, Math.max(0, offset - dbTotal), size - rows.size());
+            rows.addAll(archived.rows());
+        } else {
+            archived = auditArchiveStore.search(filter, false, offset, size);
+            rows.addAll(archived.rows());
+            rows.addAll(auditLogRepository.findSlice(spec, dbSort,
+                    Math.max(0, offset - archived.total()), size - rows.size()));
+        }
+
+        return new PageImpl<>(rows.stream().map(this::toResponse).toList(), pageable, dbTotal + archived.total());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditLogResponse> searchKeyset(AuditLogFilter filter, String cursor,
+                                                             int size, boolean desc, boolean includeTotal) {
+        if (size < 1 || size > MAX_KEYSET_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_KEYSET_PAGE_SIZE);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Specification<AuditLog> filterSpec = buildSpec(filter);
+        Specification<AuditLog> pageSpec = (after == null)
+                ? filterSpec
+                : filterSpec.and(AuditLogSpecifications.seekAfter(after.at(), after.id(), desc));
+
+        Sort.Direction dir = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(dir, "createdAt").and(Sort.by(dir, "id"));
+
+        // size+1 satır çekip fazlası varsa hasNext=true (ayrı COUNT yok)
+        List<AuditLog> rows = auditLogRepository.findBy(pageSpec, q -> q.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<AuditLog> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AuditLog last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        Long total = includeTotal ? auditLogRepository.count(filterSpec) : null;
+
+        return new CursorPageResponse<>(
+                pageRows.stream().map(this::toResponse).toList(),
+                pageRows.size(),
+                hasNext,
+                nextCursor,
+                total
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditActivityStatsResponse stats(LocalDateTime from, LocalDateTime to,
+                                            StatsGranularity granularity, StatsGroupBy groupBy,
+                                            String action, String entityName, String username) {
+        // varsayılan: son 24 saat (içinde bulunulan saat dahil); to hariç
+        LocalDateTime end = (to != null) ? to : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start = (from != null) ? from : end.minusDays(1);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("from must be before to");
+        }
+        if (start.plusDays(MAX_STATS_RANGE_DAYS).isBefore(end)) {
+            throw new BadRequestException("Range must not exceed " + MAX_STATS_RANGE_DAYS + " days");
+        }
+
+        // bucket'lar saat başıdır: from saat ortasındaysa o saatin bucket'ı da dahil
+        List<BucketCount> rows = activityRepository.sumByHour(
+                start.truncatedTo(ChronoUnit.HOURS), end, action, entityName, username, groupBy);
+
+        Map<String, SortedMap<LocalDateTime, Long>> byKey = new HashMap<>();
+        for (BucketCount r : rows) {
+            String key = (groupBy == StatsGroupBy.NONE) ? "ALL" : r.key();
+            byKey.computeIfAbsent(key, k -> new TreeMap<>())
+                    .merge(granularity.truncate(r.bucket()), r.count(), Long::sum);
+        }
+
+        List<AuditActivityStatsResponse.Series> series = new ArrayList<>(byKey.size());
+        byKey.forEach((key, points) -> series.add(new AuditActivityStatsResponse.Series(
+                key,
+                points.values().stream().mapToLong(Long::longValue).sum(),
+                points.entrySet().stream()
+                        .map(e -> new AuditActivityStatsResponse.Point(e.getKey(), e.getValue()))
+                        .toList())));
+        // en yoğun seri önce
+        series.sort(Comparator.comparingLong(AuditActivityStatsResponse.Series::total).reversed()
+                .thenComparing(AuditActivityStatsResponse.Series::key));
+
+        return new AuditActivityStatsResponse(
+                granularity.name(),
+                groupBy.name(),
+                start,
+                end,
+                series.stream().mapToLong(AuditActivityStatsResponse.Series::total).sum(),
+                series
+        );
+    }
+
+    // Exporter kendi StatelessSession + transaction'ını açar; burada JPA transaction'ı gereksiz
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long export(AuditLogFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        return auditLogExporter.export(buildSpec(filter), format, out);
+    }
+
+    private Specification<AuditLog> buildSpec(AuditLogFilter f) {
+        return Specification
+                .where(AuditLogSpecifications.usernameContains(f.username()))
+                .and(AuditLogSpecifications.actionEquals(f.action()))
+                .and(AuditLogSpecifications.entityNameEquals(f.entityName()))
+                .and(AuditLogSpecifications.createdAtGte(f.from()))
+                .and(AuditLogSpecifications.createdAtLte(f.to()))
+                .and(AuditLogSpecifications.textContains(f.q()));
+    }
+
     private AuditLogResponse toResponse(AuditLog a) {
         return new AuditLogResponse(
                 a.getId(),
@@ -61,6 +61,7 @@ public class AuthServiceImpl implements AuthService {
         User saved = userRepository.save(user);
 
         String token = tokenProvider.generateToken(
+                saved.getId(),
                 saved.getUsername(),
                 saved.getRoles().stream().map(Role::getName).toList()
         );
@@ -85,7 +86,7 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new BadRequestException("Invalid credentials"));
 
         List<String> roles = user.getRoles().stream().map(Role::getName).toList();
-        String token = tokenProvider.generateToken(user.getUsername(), roles);
+        String token = tokenProvider.generateToken(user.getId(), user.getUsername(), roles);
 
         return new AuthResponse(
                 token,
@@ -0,0 +1,193 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.config.AdmissionProperties;
+import com.hospital.automation.domain.dto.request.BedAssignmentItemRequest;
+import com.hospital.automation.domain.dto.request.BedAssignmentRequest;
+import com.hospital.automation.domain.dto.response.BedAssignmentResponse;
+import com.hospital.automation.domain.dto.response.BedAssignmentResponse.Assignment;
+import com.hospital.automation.domain.dto.response.BedAssignmentResponse.Unassigned;
+import com.hospital.automation.domain.entity.Admission;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.entity.Room;
+import com.hospital.automation.domain.enums.AdmissionStatus;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.BedAssignmentService;
+import com.hospital.automation.service.admission.BedAssignmentPlanner;
+import com.hospital.automation.service.admission.BedAssignmentPlanner.Demand;
+import com.hospital.automation.service.admission.BedAssignmentPlanner.Placement;
+import com.hospital.automation.service.admission.BedAssignmentPlanner.RoomBeds;
+import com.hospital.automation.service.admission.CensusIndex;
+import com.hospital.automation.service.admission.RoomAvailabilityIndex;
+import com.hospital.automation.service.admission.RoomOccupancyRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Toplu yatışlar için otomatik yatak ataması (ör. toplu yaralanma sonrası).
+ *
+ * - Hastalar, doktorlar ve odalar tek seferde okunur; boş yataklar RoomOccupancyRegistry sayaçlarından
+ * - Atama BedAssignmentPlanner ile bellekte tek geçişte hesaplanır (satır başına deneme / "Room is full" yok)
+ * - Yerleşenler tek transaction'da yazılır; her yatak yine tryAdmit ile ayrılır => aynı anda gelen tekil
+ *   yatışlarla yarışta kapasite aşılmaz, kaybedilen satır sebebiyle döner
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BedAssignmentServiceImpl implements BedAssignmentService {
+
+    private final AdmissionRepository admissionRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final RoomRepository roomRepository;
+    private final AuditLogService auditLogService;
+    private final RoomOccupancyRegistry occupancy;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final CensusIndex censusIndex;
+    private final AdmissionProperties props;
+
+    @Override
+    public BedAssignmentResponse assign(BedAssignmentRequest request) {
+        List<BedAssignmentItemRequest> items = request.admissions();
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("At least one admission is required");
+        }
+        if (items.size() > props.getBedAssignmentMaxBatch()) {
+            throw new BadRequestException("At most " + props.getBedAssignmentMaxBatch() + " admissions per request");
+        }
+        validate(items);
+
+        Map<Long, Patient> patients = new HashMap<>();
+        patientRepository.findAllById(items.stream().map(BedAssignmentItemRequest::patientId).toList())
+                .forEach(p -> patients.put(p.getId(), p));
+        Map<Long, Doctor> doctors = new HashMap<>();
+        doctorRepository.findAllById(items.stream().map(BedAssignmentItemRequest::attendingDoctorId)
+                        .filter(Objects::nonNull).distinct().toList())
+                .forEach(d -> doctors.put(d.getId(), d));
+
+        List<Demand> demands = new ArrayList<>(items.size());
+        for (BedAssignmentItemRequest item : items) {
+            if (!patients.containsKey(item.patientId())) {
+                throw new NotFoundException("Patient not found: " + item.patientId());
+            }
+            Long departmentId = null;
+            if (item.attendingDoctorId() != null) {
+                Doctor d = doctors.get(item.attendingDoctorId());
+                if (d == null) {
+                    throw new NotFoundException("Doctor not found: " + item.attendingDoctorId());
+                }
+                departmentId = (d.getDepartment() == null) ? null : d.getDepartment().getId();
+            }
+            demands.add(new Demand(item.roomType(), item.preferredFloor(), departmentId));
+        }
+
+        // anlık boş yatak snapshot'ı: kapasitesi tanımsız odalar yatak yönetimine dahil değil
+        Map<Long, Room> rooms = new HashMap<>();
+        List<RoomBeds> beds = new ArrayList<>();
+        for (Room r : roomRepository.findAll()) {
+            if (r.getCapacity() == null) continue;
+            rooms.put(r.getId(), r);
+            Long departmentId = (r.getDepartment() == null) ? null : r.getDepartment().getId();
+            beds.add(new RoomBeds(r.getId(), r.getRoomNumber(), r.getFloor(), r.getRoomType(), departmentId,
+                    r.getCapacity(), Math.max(0, r.getCapacity() - occupancy.occupied(r.getId()))));
+        }
+
+        List<Placement> plan = BedAssignmentPlanner.plan(beds, demands);
+
+        List<Admission> admissions = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        List<Unassigned> unassigned = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BedAssignmentItemRequest item = items.get(i);
+            Placement p = plan.get(i);
+            if (p == null) {
+                unassigned.add(new Unassigned(i + 1, item.patientId(), noBedReason(item, demands.get(i))));
+                continue;
+            }
+            // plan ile yazım arasında tekil bir yatış son yatağı almış olabilir
+            if (!occupancy.tryAdmit(p.room().roomId(), p.room().capacity())) {
+                unassigned.add(new Unassigned(i + 1, item.patientId(),
+                        "Room " + p.room().roomNumber() + " filled concurrently; please retry"));
+                continue;
+            }
+
+            admissions.add(Admission.builder()
+                    .patient(patients.get(item.patientId()))
+                    .room(rooms.get(p.room().roomId()))
+                    .attendingDoctor(item.attendingDoctorId() == null ? null : doctors.get(item.attendingDoctorId()))
+                    .admittedAt(item.admittedAt())
+                    .status(AdmissionStatus.ADMITTED)
+                    .note(item.note())
+                    .plannedDischargeAt(item.plannedDischargeAt())
+                    .build());
+            rows.add(i);
+        }
+
+        // rollback ayrılan yatakları da geri verir
+        if (request.allOrNothing() && !unassigned.isEmpty()) {
+            throw new ConflictException(unassigned.size() + " of " + items.size()
+                    + " admission(s) could not be placed; nothing was admitted");
+        }
+
+        List<Admission> saved = admissionRepository.saveAll(admissions);
+        saved.forEach(availabilityIndex::onAdmissionSaved);
+        List<Assignment> assignments = new ArrayList<>(saved.size());
+        for (int k = 0; k < saved.size(); k++) {
+            int i = rows.get(k);
+            Admission a = saved.get(k);
+            Room r = a.getRoom();
+            assignments.add(new Assignment(i + 1, a.getPatient().getId(), a.getId(), r.getId(), r.getRoomNumber(),
+                    r.getFloor(), plan.get(i).preferredFloor()));
+        }
+
+        if (!saved.isEmpty()) {
+            censusIndex.invalidate();
+            // satır başına değil, toplu işlem başına tek audit kaydı
+            long roomCount = assignments.stream().map(Assignment::roomId).distinct().count();
+            auditLogService.log(
+                    "BULK_ASSIGN",
+                    "Admission",
+                    null,
+                    "Assigned beds to " + saved.size() + " admission(s) in " + roomCount + " room(s), "
+                            + unassigned.size() + " unassigned"
+            );
+        }
+
+        return new BedAssignmentResponse(items.size(), assignments.size(), assignments, unassigned);
+    }
+
+    private static void validate(List<BedAssignmentItemRequest> items) {
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            BedAssignmentItemRequest item = items.get(i);
+            if (!seen.add(item.patientId())) {
+                throw new BadRequestException("Row " + (i + 1) + ": patient " + item.patientId() + " appears more than once");
+            }
+            if (item.plannedDischargeAt() != null && item.plannedDischargeAt().isBefore(item.admittedAt())) {
+                throw new BadRequestException("Row " + (i + 1) + ": plannedDischargeAt cannot be before admittedAt");
+            }
+        }
+    }
+
+    private static String noBedReason(BedAssignmentItemRequest item, Demand demand) {
+        return (demand.departmentId() == null)
+                ? "No free " + item.roomType() + " bed"
+                : "No free " + item.roomType() + " bed for department " + demand.departmentId();
+    }
+}
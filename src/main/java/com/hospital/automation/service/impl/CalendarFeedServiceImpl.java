@@ -0,0 +1,63 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.enums.CalendarOwner;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.service.CalendarFeedService;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.CalendarFeedWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+@Service
+@RequiredArgsConstructor
+public class CalendarFeedServiceImpl implements CalendarFeedService {
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final CalendarFeedVersions feedVersions;
+    private final CalendarFeedWriter feedWriter;
+    private final AppointmentProperties props;
+
+    @Override
+    public String version(CalendarOwner owner, Long ownerId) {
+        return feedVersions.current(owner, ownerId);
+    }
+
+    @Override
+    public void requireOwner(CalendarOwner owner, Long ownerId) {
+        if (feedVersions.isKnownOwner(owner, ownerId)) return;
+
+        if (owner == CalendarOwner.DOCTOR) {
+            if (!doctorRepository.existsById(ownerId)) throw new NotFoundException("Doctor not found: " + ownerId);
+        } else if (!patientRepository.existsById(ownerId)) {
+            throw new NotFoundException("Patient not found: " + ownerId);
+        }
+        feedVersions.markKnownOwner(owner, ownerId);
+    }
+
+    @Override
+    public String calendarName(CalendarOwner owner, Long ownerId) {
+        if (owner == CalendarOwner.DOCTOR) {
+            return doctorRepository.findById(ownerId)
+                    .map(d -> "Appointments - Dr. " + d.getFirstName() + " " + d.getLastName())
+                    .orElseThrow(() -> new NotFoundException("Doctor not found: " + ownerId));
+        }
+        return patientRepository.findById(ownerId)
+                .map(p -> "Appointments - " + p.getFirstName() + " " + p.getLastName())
+                .orElseThrow(() -> new NotFoundException("Patient not found: " + ownerId));
+    }
+
+    // Writer kendi StatelessSession + transaction'ını açar; burada JPA transaction'ı gereksiz
+    @Override
+    public long writeFeed(CalendarOwner owner, Long ownerId, String calendarName, OutputStream out) throws IOException {
+        LocalDate from = LocalDate.now().minusDays(props.getCalendarFeedPastDays());
+        return feedWriter.write(owner, ownerId, calendarName, from.atStartOfDay(), out);
+    }
+}
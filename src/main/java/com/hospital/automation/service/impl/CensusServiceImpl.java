@@ -0,0 +1,65 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.config.AdmissionProperties;
+import com.hospital.automation.domain.dto.response.CensusHeatmapResponse;
+import com.hospital.automation.domain.dto.response.CensusPointResponse;
+import com.hospital.automation.domain.dto.response.CensusRangeResponse;
+import com.hospital.automation.domain.enums.CensusGroupBy;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.service.CensusService;
+import com.hospital.automation.service.admission.CensusIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+public class CensusServiceImpl implements CensusService {
+
+    private final CensusIndex censusIndex;
+    private final AdmissionProperties props;
+
+    @Override
+    public CensusPointResponse pointInTime(LocalDateTime at, CensusGroupBy groupBy, RoomType type) {
+        LocalDateTime t = (at == null) ? LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS) : at;
+        return censusIndex.pointInTime(t, groupByOrDefault(groupBy), type);
+    }
+
+    @Override
+    public CensusRangeResponse range(LocalDateTime from, LocalDateTime to, CensusGroupBy groupBy, RoomType type) {
+        validateRange(from, to);
+        return censusIndex.range(from, to, groupByOrDefault(groupBy), type);
+    }
+
+    @Override
+    public CensusHeatmapResponse heatmap(LocalDateTime from, LocalDateTime to, CensusGroupBy groupBy, RoomType type) {
+        validateRange(from, to);
+
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS);
+        if (end.isBefore(to)) end = end.plusHours(1);
+
+        long hours = Duration.between(start, end).toHours();
+        if (hours > props.getCensusHeatmapMaxHours()) {
+            throw new BadRequestException("Heatmap range cannot exceed " + props.getCensusHeatmapMaxHours() + " hours");
+        }
+        return censusIndex.heatmap(start, (int) hours, groupByOrDefault(groupBy), type);
+    }
+
+    private static void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("from and to are required");
+        }
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+    }
+
+    private static CensusGroupBy groupByOrDefault(CensusGroupBy groupBy) {
+        return (groupBy == null) ? CensusGroupBy.ROOM_TYPE : groupBy;
+    }
+}
@@ -1,11 +1,15 @@
 package com.hospital.automation.service.impl;
 
 import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
 import com.hospital.automation.common.exception.NotFoundException;
 import com.hospital.automation.domain.dto.request.DepartmentCreateRequest;
 import com.hospital.automation.domain.dto.response.DepartmentResponse;
 import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.RoomRepository;
 import com.hospital.automation.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,9 @@ import java.util.List;
 public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final RoomRepository roomRepository;
 
     @Override
     public DepartmentResponse create(DepartmentCreateRequest request) {
@@ -53,6 +60,16 @@ public class DepartmentServiceImpl implements DepartmentService {
         if (!departmentRepository.existsById(id)) {
             throw new NotFoundException("Department not found: " + id);
         }
+        // FK ihlali 500 olarak dönmesin: bağlı kayıt varsa 409
+        if (doctorRepository.existsByDepartment_Id(id)) {
+            throw new ConflictException("Department is in use by doctors: " + id);
+        }
+        if (appointmentRepository.existsByDepartment_Id(id)) {
+            throw new ConflictException("Department is in use by appointments: " + id);
+        }
+        if (roomRepository.existsByDepartment_Id(id)) {
+            throw new ConflictException("Department is in use by rooms: " + id);
+        }
         departmentRepository.deleteById(id);
     }
 }
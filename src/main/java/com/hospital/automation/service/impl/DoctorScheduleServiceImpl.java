@@ -0,0 +1,56 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.domain.dto.response.DoctorScheduleResponse;
+import com.hospital.automation.domain.dto.response.ScheduleDayResponse;
+import com.hospital.automation.domain.dto.response.ScheduleItemResponse;
+import com.hospital.automation.domain.enums.ScheduleView;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.service.DoctorScheduleService;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
+import com.hospital.automation.service.appointment.DoctorScheduleCache.DaySchedule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DoctorScheduleServiceImpl implements DoctorScheduleService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final DoctorScheduleCache scheduleCache;
+
+    @Override
+    public DoctorScheduleResponse getSchedule(Long doctorId, LocalDate date, ScheduleView view) {
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new NotFoundException("Doctor not found: " + doctorId);
+        }
+
+        LocalDate day = (date != null) ? date : LocalDate.now();
+        LocalDate from = (view == ScheduleView.WEEK) ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+        int days = (view == ScheduleView.WEEK) ? 7 : 1;
+
+        List<DaySchedule> schedule = scheduleCache.getDays(doctorId, from, days, (start, end) ->
+                appointmentRepository.findScheduleItems(doctorId, start, end).stream()
+                        .map(i -> new ScheduleItemResponse(i.id(), i.startTime(), i.endTime(), i.status(),
+                                i.patientId(), i.patientFirstName() + " " + i.patientLastName()))
+                        .toList());
+
+        return new DoctorScheduleResponse(
+                doctorId,
+                view,
+                from,
+                from.plusDays(days - 1),
+                DoctorScheduleCache.versionOf(view.name(), schedule),
+                schedule.stream().map(d -> new ScheduleDayResponse(d.date(), d.items())).toList()
+        );
+    }
+}
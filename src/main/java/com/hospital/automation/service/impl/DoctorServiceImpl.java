@@ -6,9 +6,11 @@ import com.hospital.automation.domain.dto.response.DepartmentResponse;
 import com.hospital.automation.domain.dto.response.DoctorResponse;
 import com.hospital.automation.domain.entity.Department;
 import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.enums.CalendarOwner;
 import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.DoctorRepository;
 import com.hospital.automation.service.DoctorService;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +24,7 @@ public class DoctorServiceImpl implements DoctorService {
 
     private final DoctorRepository doctorRepository;
     private final DepartmentRepository departmentRepository;
+    private final CalendarFeedVersions feedVersions;
 
     @Override
     public DoctorResponse create(DoctorCreateRequest request) {
@@ -62,6 +65,7 @@ public class DoctorServiceImpl implements DoctorService {
             throw new NotFoundException("Doctor not found: " + id);
         }
         doctorRepository.deleteById(id);
+        feedVersions.onOwnerDeleted(CalendarOwner.DOCTOR, id);
     }
 
     private DoctorResponse toResponse(Doctor d) {
@@ -2,18 +2,24 @@ package com.hospital.automation.service.impl;
 
 import com.hospital.automation.common.exception.BadRequestException;
 import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.common.http.EntityVersions;
 import com.hospital.automation.domain.dto.request.PatientCreateRequest;
 import com.hospital.automation.domain.dto.request.PatientUpdateRequest;
 import com.hospital.automation.domain.dto.response.PatientResponse;
 import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.CalendarOwner;
+import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.PatientRepository;
 import com.hospital.automation.service.AuditLogService;
 import com.hospital.automation.service.PatientService;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +28,9 @@ public class PatientServiceImpl implements PatientService {
 
     private final PatientRepository patientRepository;
     private final AuditLogService auditLogService;
+    private final CalendarFeedVersions feedVersions;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorScheduleCache scheduleCache;
 
     @Override
     public PatientResponse create(PatientCreateRequest request) {
@@ -66,9 +75,10 @@ public class PatientServiceImpl implements PatientService {
     }
 
     @Override
-    public PatientResponse update(Long id, PatientUpdateRequest request) {
+    public PatientResponse update(Long id, PatientUpdateRequest request, Long expectedVersion) {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Patient not found: " + id));
+        EntityVersions.check(expectedVersion, patient.getVersion(), "Patient");
 
         if (request.nationalId() != null && !request.nationalId().isBlank()) {
             patientRepository.findByNationalId(request.nationalId())
@@ -76,12 +86,22 @@ public class PatientServiceImpl implements PatientService {
                     .ifPresent(p -> { throw new BadRequestException("nationalId already exists"); });
         }
 
+        // doktor ICS feed'leri ve ajanda cache'i hasta adını gösterir
+        boolean renamed = !Objects.equals(patient.getFirstName(), request.firstName())
+                || !Objects.equals(patient.getLastName(), request.lastName());
+
         patient.setFirstName(request.firstName());
         patient.setLastName(request.lastName());
         patient.setBirthDate(request.birthDate());
         patient.setNationalId(request.nationalId());
         patient.setPhone(request.phone());
         patient.setAddress(request.address());
+        if (renamed) {
+            feedVersions.onNamesChanged();
+            appointmentRepository.findDoctorIdsByPatientId(id).forEach(scheduleCache::evictDoctor);
+        }
+        // UPDATE burada çalışsın: yanıttaki version (ETag) artmış değer olsun
+        patientRepository.flush();
 
         auditLogService.log(
                 "UPDATE",
@@ -99,6 +119,7 @@ public class PatientServiceImpl implements PatientService {
                 .orElseThrow(() -> new NotFoundException("Patient not found: " + id));
 
         patientRepository.delete(patient);
+        feedVersions.onOwnerDeleted(CalendarOwner.PATIENT, id);
 
         auditLogService.log(
                 "DELETE",
@@ -116,7 +137,8 @@ public class PatientServiceImpl implements PatientService {
                 p.getBirthDate(),
                 p.getNationalId(),
                 p.getPhone(),
-                p.getAddress()
+                p.getAddress(),
+                p.getVersion()
         );
     }
 }
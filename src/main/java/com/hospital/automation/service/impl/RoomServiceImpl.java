@@ -3,15 +3,24 @@ package com.hospital.automation.service.impl;
 import com.hospital.automation.common.exception.BadRequestException;
 import com.hospital.automation.common.exception.NotFoundException;
 import com.hospital.automation.domain.dto.request.RoomCreateRequest;
+import com.hospital.automation.domain.dto.response.RoomAvailabilityItem;
+import com.hospital.automation.domain.dto.response.RoomAvailabilityResponse;
 import com.hospital.automation.domain.dto.response.RoomResponse;
+import com.hospital.automation.domain.entity.Department;
 import com.hospital.automation.domain.entity.Room;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.RoomRepository;
 import com.hospital.automation.service.RoomService;
+import com.hospital.automation.service.admission.CensusIndex;
+import com.hospital.automation.service.admission.RoomAvailabilityIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -19,20 +28,32 @@ import java.util.List;
 public class RoomServiceImpl implements RoomService {
 
     private final RoomRepository roomRepository;
+    private final DepartmentRepository departmentRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final CensusIndex censusIndex;
 
     @Override
     public RoomResponse create(RoomCreateRequest request) {
         roomRepository.findByRoomNumber(request.roomNumber())
                 .ifPresent(r -> { throw new BadRequestException("Room number already exists"); });
 
+        Department department = null;
+        if (request.departmentId() != null) {
+            department = departmentRepository.findById(request.departmentId())
+                    .orElseThrow(() -> new NotFoundException("Department not found: " + request.departmentId()));
+        }
+
         Room room = Room.builder()
                 .roomNumber(request.roomNumber())
                 .floor(request.floor())
                 .roomType(request.roomType())
                 .capacity(request.capacity())
+                .department(department)
                 .build();
 
         Room saved = roomRepository.save(room);
+        availabilityIndex.onRoomsChanged();
+        censusIndex.invalidate();
         return toResponse(saved);
     }
 
@@ -56,9 +77,27 @@ public class RoomServiceImpl implements RoomService {
             throw new NotFoundException("Room not found: " + id);
         }
         roomRepository.deleteById(id);
+        availabilityIndex.onRoomsChanged();
+        censusIndex.invalidate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RoomAvailabilityResponse availability(LocalDateTime at, Set<RoomType> types, Set<Integer> floors,
+                                                 int minFreeBeds) {
+        if (minFreeBeds < 1) {
+            throw new BadRequestException("minFreeBeds must be at least 1");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime effectiveAt = (at == null || at.isBefore(now)) ? now : at;
+        List<RoomAvailabilityItem> rooms = availabilityIndex.find(effectiveAt, types, floors, minFreeBeds);
+        int totalFree = rooms.stream().mapToInt(RoomAvailabilityItem::freeBeds).sum();
+        return new RoomAvailabilityResponse(effectiveAt, totalFree, rooms);
     }
 
     private RoomResponse toResponse(Room r) {
-        return new RoomResponse(r.getId(), r.getRoomNumber(), r.getFloor(), r.getRoomType(), r.getCapacity());
+        Long departmentId = (r.getDepartment() == null) ? null : r.getDepartment().getId();
+        return new RoomResponse(r.getId(), r.getRoomNumber(), r.getFloor(), r.getRoomType(), r.getCapacity(), departmentId);
     }
 }
@@ -125,7 +125,8 @@ public class VisitServiceImpl implements VisitService {
                 v.getComplaint(),
                 v.getDiagnosis(),
                 records,
-                prescriptions
+                prescriptions,
+                v.getVersion()
         );
     }
 }
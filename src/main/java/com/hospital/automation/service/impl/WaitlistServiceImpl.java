@@ -0,0 +1,229 @@
+package com.hospital.automation.service.impl;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.domain.dto.request.WaitlistCreateRequest;
+import com.hospital.automation.domain.dto.response.DepartmentResponse;
+import com.hospital.automation.domain.dto.response.DoctorSummaryResponse;
+import com.hospital.automation.domain.dto.response.PatientSummaryResponse;
+import com.hospital.automation.domain.dto.response.WaitlistEntryResponse;
+import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.entity.WaitlistEntry;
+import com.hospital.automation.domain.enums.WaitlistStatus;
+import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.repository.WaitlistEntryRepository;
+import com.hospital.automation.repository.projection.WaitlistCandidate;
+import com.hospital.automation.repository.spec.WaitlistSpecifications;
+import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.WaitlistService;
+import com.hospital.automation.service.appointment.AppointmentOverlapIndex;
+import com.hospital.automation.service.appointment.DoctorBookingLocks;
+import com.hospital.automation.service.waitlist.WaitlistBackfiller;
+import com.hospital.automation.service.waitlist.WaitlistIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final DepartmentRepository departmentRepository;
+    private final AuditLogService auditLogService;
+    private final WaitlistIndex waitlistIndex;
+    private final WaitlistBackfiller backfiller;
+    private final AppointmentOverlapIndex overlapIndex;
+    private final DoctorBookingLocks bookingLocks;
+
+    @Override
+    public WaitlistEntryResponse join(WaitlistCreateRequest request) {
+        if ((request.doctorId() == null) == (request.departmentId() == null)) {
+            throw new BadRequestException("Exactly one of doctorId or departmentId is required");
+        }
+        if (!request.windowEnd().isAfter(request.windowStart())) {
+            throw new BadRequestException("windowEnd must be after windowStart");
+        }
+        if (!request.windowEnd().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("windowEnd must be in the future");
+        }
+        if (Duration.between(request.windowStart(), request.windowEnd()).toMinutes() < request.durationMinutes()) {
+            throw new BadRequestException("durationMinutes does not fit into the preferred window");
+        }
+
+        Patient patient = patientRepository.findById(request.patientId())
+                .orElseThrow(() -> new NotFoundException("Patient not found: " + request.patientId()));
+
+        Doctor doctor = null;
+        if (request.doctorId() != null) {
+            doctor = doctorRepository.findById(request.doctorId())
+                    .orElseThrow(() -> new NotFoundException("Doctor not found: " + request.doctorId()));
+        }
+
+        Department dept = null;
+        if (request.departmentId() != null) {
+            dept = departmentRepository.findById(request.departmentId())
+                    .orElseThrow(() -> new NotFoundException("Department not found: " + request.departmentId()));
+        }
+
+        WaitlistEntry saved = waitlistRepository.save(WaitlistEntry.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .department(dept)
+                .windowStart(request.windowStart())
+                .windowEnd(request.windowEnd())
+                .durationMinutes(request.durationMinutes())
+                .priority(request.priority() != null ? request.priority() : 0)
+                .autoBook(request.autoBook())
+                .status(WaitlistStatus.WAITING)
+                .createdAt(LocalDateTime.now())
+                .note(request.note())
+                .build());
+        waitlistIndex.onWaiting(toCandidate(saved));
+
+        auditLogService.log(
+                "CREATE",
+                "WaitlistEntry",
+                saved.getId(),
+                "Waitlist entry created (patientId=" + patient.getId()
+                        + (doctor != null ? ", doctorId=" + doctor.getId() : ", departmentId=" + dept.getId()) + ")"
+        );
+
+        return toResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WaitlistEntryResponse getById(Long id) {
+        return toResponse(findEntry(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> search(Long doctorId, Long departmentId, Long patientId, WaitlistStatus status) {
+        return waitlistRepository.findAll(
+                        WaitlistSpecifications.doctorIdEquals(doctorId)
+                                .and(WaitlistSpecifications.departmentIdEquals(departmentId))
+                                .and(WaitlistSpecifications.patientIdEquals(patientId))
+                                .and(WaitlistSpecifications.statusEquals(status))
+                                .and(WaitlistSpecifications.fetchRelations()),
+                        Sort.by(Sort.Direction.DESC, "priority").and(Sort.by("id")))
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @Override
+    public WaitlistEntryResponse accept(Long id) {
+        WaitlistEntry entry = findEntry(id);
+        if (entry.getStatus() != WaitlistStatus.OFFERED) {
+            throw new BadRequestException("Waitlist entry has no open offer: " + id);
+        }
+        if (!entry.getOfferedStart().isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Offered slot has already started");
+        }
+
+        // teklif rezervasyon değildir: slot arada dolduysa kabul edilemez (decline ile beklemeye dönülür)
+        Doctor doctor = entry.getOfferedDoctor();
+        bookingLocks.lockForTransaction(doctor.getId());
+        if (overlapIndex.hasOverlap(doctor.getId(), null, entry.getOfferedStart(), entry.getOfferedEnd())) {
+            throw new BadRequestException("Offered slot is no longer available");
+        }
+
+        backfiller.book(entry, doctor, entry.getOfferedStart(), entry.getOfferedEnd());
+        return toResponse(entry);
+    }
+
+    @Override
+    public WaitlistEntryResponse decline(Long id) {
+        WaitlistEntry entry = findEntry(id);
+        if (entry.getStatus() != WaitlistStatus.OFFERED) {
+            throw new BadRequestException("Waitlist entry has no open offer: " + id);
+        }
+
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setOfferedDoctor(null);
+        entry.setOfferedStart(null);
+        entry.setOfferedEnd(null);
+        waitlistIndex.onWaiting(toCandidate(entry));
+
+        auditLogService.log("DECLINE", "WaitlistEntry", id, "Offer declined, entry is waiting again");
+
+        return toResponse(entry);
+    }
+
+    @Override
+    public void remove(Long id) {
+        WaitlistEntry entry = findEntry(id);
+        if (entry.getStatus() == WaitlistStatus.BOOKED || entry.getStatus() == WaitlistStatus.REMOVED) {
+            throw new BadRequestException("Waitlist entry is already " + entry.getStatus());
+        }
+
+        entry.setStatus(WaitlistStatus.REMOVED);
+        waitlistIndex.onLeft(id);
+
+        auditLogService.log("DELETE", "WaitlistEntry", id, "Waitlist entry removed");
+    }
+
+    private WaitlistEntry findEntry(Long id) {
+        return waitlistRepository.findWithRelationsById(id)
+                .orElseThrow(() -> new NotFoundException("Waitlist entry not found: " + id));
+    }
+
+    private static WaitlistCandidate toCandidate(WaitlistEntry e) {
+        return new WaitlistCandidate(
+                e.getId(),
+                e.getDoctor() != null ? e.getDoctor().getId() : null,
+                e.getDepartment() != null ? e.getDepartment().getId() : null,
+                e.getWindowStart(),
+                e.getWindowEnd(),
+                e.getDurationMinutes(),
+                e.getPriority()
+        );
+    }
+
+    private WaitlistEntryResponse toResponse(WaitlistEntry e) {
+        Patient p = e.getPatient();
+
+        DepartmentResponse dept = null;
+        if (e.getDepartment() != null) {
+            dept = new DepartmentResponse(e.getDepartment().getId(), e.getDepartment().getName());
+        }
+
+        return new WaitlistEntryResponse(
+                e.getId(),
+                new PatientSummaryResponse(p.getId(), p.getFirstName(), p.getLastName()),
+                toDoctorSummary(e.getDoctor()),
+                dept,
+                e.getWindowStart(),
+                e.getWindowEnd(),
+                e.getDurationMinutes(),
+                e.getPriority(),
+                e.isAutoBook(),
+                e.getStatus(),
+                e.getCreatedAt(),
+                toDoctorSummary(e.getOfferedDoctor()),
+                e.getOfferedStart(),
+                e.getOfferedEnd(),
+                e.getAppointment() != null ? e.getAppointment().getId() : null,
+                e.getNote()
+        );
+    }
+
+    private static DoctorSummaryResponse toDoctorSummary(Doctor d) {
+        if (d == null) return null;
+        return new DoctorSummaryResponse(d.getId(), d.getFirstName(), d.getLastName(), d.getSpecialization());
+    }
+}
@@ -0,0 +1,6 @@
+package com.hospital.automation.service.waitlist;
+
+import java.time.LocalDateTime;
+
+// İptal ile boşalan doktor aralığı (departmentId: randevunun ya da doktorun departmanı)
+public record FreedSlot(Long doctorId, Long departmentId, LocalDateTime start, LocalDateTime end) {}
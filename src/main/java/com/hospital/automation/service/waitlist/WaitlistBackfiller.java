@@ -0,0 +1,253 @@
+package com.hospital.automation.service.waitlist;
+
+import com.hospital.automation.common.exception.ConflictException;
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.entity.Appointment;
+import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.entity.WaitlistEntry;
+import com.hospital.automation.domain.enums.AppointmentChangeType;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.domain.enums.WaitlistStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.WaitlistEntryRepository;
+import com.hospital.automation.repository.projection.WaitlistCandidate;
+import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.appointment.AppointmentChangeHub;
+import com.hospital.automation.service.appointment.AppointmentOverlapConstraint;
+import com.hospital.automation.service.appointment.AppointmentOverlapIndex;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.DoctorBookingLocks;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * İptal ile boşalan doktor aralıklarını bekleme listesinden doldurur.
+ *
+ * - İptal eden transaction commit olduktan sonra çalışır (rollback'te hiçbir şey olmaz)
+ * - Varsayılan olarak tek worker thread'de: iptal isteği beklemez ve iptal transaction'ının bağlantısı
+ *   tutulurken ikinci bir bağlantı istenmez (waitlistAsync=false => aynı thread'de, ayrı transaction)
+ * - Aralık baştan doldurulur: en uygun bekleyen WaitlistIndex'ten alınır, autoBook ise randevu oluşturulur,
+ *   değilse teklif edilir; kalan kısım bir sonraki bekleyene gider
+ * - Doktorun booking kilidi altında çalışır; slot arada dolduysa (overlap) durur
+ */
+@Slf4j
+@Component
+public class WaitlistBackfiller {
+
+    private static final int MIN_SLOT_MINUTES = 5;
+
+    private final WaitlistIndex waitlistIndex;
+    private final WaitlistEntryRepository waitlistRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final AppointmentOverlapIndex overlapIndex;
+    private final DoctorBookingLocks bookingLocks;
+    private final DoctorScheduleCache scheduleCache;
+    private final CalendarFeedVersions feedVersions;
+    private final AppointmentChangeHub changeHub;
+    private final AuditLogService auditLogService;
+    private final TransactionTemplate backfillTx;
+    private final ExecutorService executor;
+
+    public WaitlistBackfiller(WaitlistIndex waitlistIndex,
+                              WaitlistEntryRepository waitlistRepository,
+                              AppointmentRepository appointmentRepository,
+                              DoctorRepository doctorRepository,
+                              AppointmentOverlapIndex overlapIndex,
+                              DoctorBookingLocks bookingLocks,
+                              DoctorScheduleCache scheduleCache,
+                              CalendarFeedVersions feedVersions,
+                              AppointmentChangeHub changeHub,
+                              AuditLogService auditLogService,
+                              AppointmentProperties props,
+                              PlatformTransactionManager txManager) {
+        this.waitlistIndex = waitlistIndex;
+        this.waitlistRepository = waitlistRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.overlapIndex = overlapIndex;
+        this.bookingLocks = bookingLocks;
+        this.scheduleCache = scheduleCache;
+        this.feedVersions = feedVersions;
+        this.changeHub = changeHub;
+        this.auditLogService = auditLogService;
+        this.backfillTx = new TransactionTemplate(txManager);
+        this.backfillTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = props.isWaitlistAsync()
+                ? Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "waitlist-backfill");
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) executor.shutdown();
+    }
+
+    public void onSlotFreed(FreedSlot slot) {
+        onSlotsFreed(List.of(slot));
+    }
+
+    public void onSlotsFreed(List<FreedSlot> slots) {
+        if (slots.isEmpty()) return;
+
+        Runnable task = () -> slots.forEach(this::backfillSafely);
+        TxHooks.afterCommit(() -> {
+            if (executor != null) executor.execute(task);
+            else task.run();
+        });
+    }
+
+    /**
+     * Boşalan aralığı doldurur; randevu oluşturulan ya da teklif edilen kayıt sayısını döner.
+     */
+    public int backfill(FreedSlot slot) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!slot.start().isAfter(now)) return 0; // geçmiş slot
+
+        Integer filled = backfillTx.execute(status -> fill(slot, now));
+        return (filled != null) ? filled : 0;
+    }
+
+    /**
+     * Bekleme kaydını [start, end) randevusuna çevirir. Çağıran doktorun booking kilidini tutmalı
+     * ve aralığın boş olduğunu kontrol etmiş olmalı.
+     */
+    public Appointment book(WaitlistEntry entry, Doctor doctor, LocalDateTime start, LocalDateTime end) {
+        Department dept = (entry.getDepartment() != null) ? entry.getDepartment() : doctor.getDepartment();
+
+        Appointment appointment = Appointment.builder()
+                .patient(entry.getPatient())
+                .doctor(doctor)
+                .department(dept)
+                .startTime(start)
+                .endTime(end)
+                .status(AppointmentStatus.SCHEDULED)
+                .note("Waitlist #" + entry.getId())
+                .build();
+
+        Appointment saved;
+        try {
+            saved = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (AppointmentOverlapConstraint.isViolation(e)) {
+                throw new ConflictException("Doctor has another appointment in this time range");
+            }
+            throw e;
+        }
+        overlapIndex.onSaved(saved);
+        scheduleCache.evict(doctor.getId(), start);
+        feedVersions.onAppointmentChanged(doctor.getId(), entry.getPatient().getId());
+        changeHub.publish(AppointmentChangeType.CREATED, saved);
+
+        entry.setStatus(WaitlistStatus.BOOKED);
+        entry.setAppointment(saved);
+        entry.setOfferedDoctor(doctor);
+        entry.setOfferedStart(start);
+        entry.setOfferedEnd(end);
+        waitlistIndex.onLeft(entry.getId());
+
+        auditLogService.log(
+                "CREATE",
+                "Appointment",
+                saved.getId(),
+                "Appointment created from waitlist (waitlistEntryId=" + entry.getId()
+                        + ", patientId=" + entry.getPatient().getId() + ", doctorId=" + doctor.getId() + ")"
+        );
+        auditLogService.log(
+                "BOOK",
+                "WaitlistEntry",
+                entry.getId(),
+                "Waitlist entry booked (appointmentId=" + saved.getId() + ")"
+        );
+        return saved;
+    }
+
+    // -------------------------------------------------------------------------
+
+    private int fill(FreedSlot slot, LocalDateTime now) {
+        Long doctorId = slot.doctorId();
+        bookingLocks.lockForTransaction(doctorId);
+
+        Doctor doctor = null;
+        Set<Long> tried = new HashSet<>();
+        LocalDateTime cursor = slot.start();
+        int filled = 0;
+
+        while (Duration.between(cursor, slot.end()).toMinutes() >= MIN_SLOT_MINUTES) {
+            Optional<WaitlistCandidate> match =
+                    waitlistIndex.match(doctorId, slot.departmentId(), cursor, slot.end(), now, tried);
+            if (match.isEmpty()) break;
+            tried.add(match.get().id());
+
+            WaitlistEntry entry = waitlistRepository.findWithRelationsById(match.get().id()).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+                // index eski: sıradakine geç
+                waitlistIndex.onLeft(match.get().id());
+                continue;
+            }
+
+            LocalDateTime end = cursor.plusMinutes(entry.getDurationMinutes());
+            if (overlapIndex.hasOverlap(doctorId, null, cursor, end)) break; // slot arada doldu
+
+            if (doctor == null) {
+                doctor = doctorRepository.findById(doctorId).orElse(null);
+                if (doctor == null) break;
+            }
+
+            if (entry.isAutoBook()) {
+                book(entry, doctor, cursor, end);
+            } else {
+                offer(entry, doctor, cursor, end);
+            }
+            filled++;
+            cursor = end;
+        }
+        return filled;
+    }
+
+    private void offer(WaitlistEntry entry, Doctor doctor, LocalDateTime start, LocalDateTime end) {
+        entry.setStatus(WaitlistStatus.OFFERED);
+        entry.setOfferedDoctor(doctor);
+        entry.setOfferedStart(start);
+        entry.setOfferedEnd(end);
+        waitlistIndex.onLeft(entry.getId());
+
+        auditLogService.log(
+                "OFFER",
+                "WaitlistEntry",
+                entry.getId(),
+                "Freed slot offered (doctorId=" + doctor.getId() + ", start=" + start + ", end=" + end + ")"
+        );
+    }
+
+    private void backfillSafely(FreedSlot slot) {
+        try {
+            backfill(slot);
+        } catch (RuntimeException e) {
+            // slot boş kalır; bekleyenler bir sonraki iptalde eşleşir
+            log.warn("Waitlist backfill failed for doctor {} at {}", slot.doctorId(), slot.start(), e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.hospital.automation.service.waitlist;
+
+import com.hospital.automation.common.tx.TxHooks;
+import com.hospital.automation.domain.enums.WaitlistStatus;
+import com.hospital.automation.repository.WaitlistEntryRepository;
+import com.hospital.automation.repository.projection.WaitlistCandidate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * WAITING bekleme listesi kayıtlarının bellek içi öncelik index'i.
+ *
+ * - Hedef (doktor ya da departman) başına öncelik sıralı küme: priority desc, id asc (FIFO)
+ * - match(): boşalan slotun doktoru ve departmanı için iki kümeyi öncelik sırasıyla tarar, ilk uyan kayıtta durur;
+ *   penceresi geçmiş kayıtlar tarama sırasında index'ten düşer. Sorgu DB'ye gitmez.
+ * - Açılışta tek sorguyla yüklenir; değişiklikler commit sonrası (afterCommit) yansır
+ * - DB otoriterdir: eşleşen kayıt kullanılmadan önce DB'de hâlâ WAITING mi diye bakılır
+ * - Index node'a özeldir: başka node'un eklediği kayıtlar o node'daki iptallerle eşleşir
+ */
+@Slf4j
+@Component
+public class WaitlistIndex {
+
+    private static final Comparator<WaitlistCandidate> ORDER =
+            Comparator.comparingInt(WaitlistCandidate::priority).reversed().thenComparing(WaitlistCandidate::id);
+
+    private final WaitlistEntryRepository waitlistRepository;
+
+    private final Map<Target, NavigableSet<WaitlistCandidate>> byTarget = new HashMap<>();
+    private final Map<Long, WaitlistCandidate> byId = new HashMap<>();
+
+    public WaitlistIndex(WaitlistEntryRepository waitlistRepository) {
+        this.waitlistRepository = waitlistRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload(waitlistRepository.findCandidatesByStatus(WaitlistStatus.WAITING));
+            log.info("Waitlist index loaded with {} waiting entr(ies)", size());
+        } catch (RuntimeException e) {
+            log.warn("Waitlist index could not be loaded; cancellations will not be backfilled until restart", e);
+        }
+    }
+
+    synchronized void reload(Collection<WaitlistCandidate> candidates) {
+        byTarget.clear();
+        byId.clear();
+        candidates.forEach(this::add);
+    }
+
+    // kayıt WAITING oldu (katıldı / teklifi reddetti): commit sonrası index'e girer
+    public void onWaiting(WaitlistCandidate candidate) {
+        TxHooks.afterCommit(() -> add(candidate));
+    }
+
+    // kayıt WAITING'den çıktı (teklif / randevu / silme)
+    public void onLeft(Long entryId) {
+        TxHooks.afterCommit(() -> remove(entryId));
+    }
+
+    /**
+     * [start, end) boş aralığına en uygun bekleyen: doktor ya da departman hedefli, penceresi
+     * [start, start + duration)'ı kapsayan, süresi aralığa sığan; en yüksek öncelikli, eşitse en eski.
+     * skip: bu backfill'de denenmiş kayıtlar.
+     */
+    public synchronized Optional<WaitlistCandidate> match(Long doctorId, Long departmentId,
+                                                          LocalDateTime start, LocalDateTime end,
+                                                          LocalDateTime now, Collection<Long> skip) {
+        WaitlistCandidate best = firstFit(new Target(false, doctorId), start, end, now, skip);
+        if (departmentId != null) {
+            WaitlistCandidate dept = firstFit(new Target(true, departmentId), start, end, now, skip);
+            if (dept != null && (best == null || ORDER.compare(dept, best) < 0)) {
+                best = dept;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    // -------------------------------------------------------------------------
+
+    private WaitlistCandidate firstFit(Target target, LocalDateTime start, LocalDateTime end,
+                                       LocalDateTime now, Collection<Long> skip) {
+        NavigableSet<WaitlistCandidate> set = byTarget.get(target);
+        if (set == null) return null;
+
+        for (Iterator<WaitlistCandidate> it = set.iterator(); it.hasNext(); ) {
+            WaitlistCandidate c = it.next();
+            if (!c.windowEnd().isAfter(now)) {
+                // penceresi geçti: bir daha eşleşemez
+                it.remove();
+                byId.remove(c.id());
+                continue;
+            }
+            if (!skip.contains(c.id()) && fits(c, start, end)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    static boolean fits(WaitlistCandidate c, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime bookedEnd = start.plusMinutes(c.durationMinutes());
+        return !bookedEnd.isAfter(end)
+                && !c.windowStart().isAfter(start)
+                && !bookedEnd.isAfter(c.windowEnd());
+    }
+
+    private synchronized void add(WaitlistCandidate c) {
+        remove(c.id());
+        Target target = (c.doctorId() != null) ? new Target(false, c.doctorId()) : new Target(true, c.departmentId());
+        byTarget.computeIfAbsent(target, t -> new TreeSet<>(ORDER)).add(c);
+        byId.put(c.id(), c);
+    }
+
+    private synchronized void remove(Long id) {
+        WaitlistCandidate old = byId.remove(id);
+        if (old == null) return;
+
+        Target target = (old.doctorId() != null) ? new Target(false, old.doctorId()) : new Target(true, old.departmentId());
+        NavigableSet<WaitlistCandidate> set = byTarget.get(target);
+        if (set != null) {
+            set.remove(old);
+            if (set.isEmpty()) byTarget.remove(target);
+        }
+    }
+
+    private record Target(boolean department, Long id) {}
+}
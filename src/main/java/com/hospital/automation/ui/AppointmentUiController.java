@@ -1,14 +1,16 @@
 package com.hospital.automation.ui;
 
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
 import com.hospital.automation.domain.entity.Appointment;
-import com.hospital.automation.domain.entity.Department;
-import com.hospital.automation.domain.entity.Doctor;
-import com.hospital.automation.domain.entity.Patient;
 import com.hospital.automation.domain.enums.AppointmentStatus;
 import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.DoctorRepository;
 import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.service.AppointmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
@@ -28,6 +30,7 @@ public class AppointmentUiController {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final DepartmentRepository departmentRepository;
+    private final AppointmentService appointmentService;
 
     @GetMapping
     public String list(Model model) {
@@ -46,33 +49,16 @@ public class AppointmentUiController {
         return "ui/appointments/form";
     }
 
+    // yazımlar servisten geçer: booking kilidi, çakışma index'i, ajanda cache'i, ICS feed ve SSE tek yerde
     @PostMapping
     public String create(@ModelAttribute("appointmentForm") AppointmentForm form,
                          RedirectAttributes ra) {
-
-        Patient patient = patientRepository.findById(form.getPatientId())
-                .orElseThrow(() -> new RuntimeException("Patient not found: " + form.getPatientId()));
-
-        Doctor doctor = doctorRepository.findById(form.getDoctorId())
-                .orElseThrow(() -> new RuntimeException("Doctor not found: " + form.getDoctorId()));
-
-        Department dep = null;
-        if (form.getDepartmentId() != null) {
-            dep = departmentRepository.findById(form.getDepartmentId())
-                    .orElseThrow(() -> new RuntimeException("Department not found: " + form.getDepartmentId()));
+        try {
+            appointmentService.create(toRequest(form), statusOf(form));
+        } catch (BadRequestException | ConflictException | NotFoundException e) {
+            ra.addFlashAttribute("errorMessage", e.getMessage());
+            return "redirect:/ui/appointments";
         }
-
-        Appointment a = Appointment.builder()
-                .patient(patient)
-                .doctor(doctor)
-                .department(dep)
-                .startTime(form.getStartTime())
-                .endTime(form.getEndTime())
-                .status(form.getStatus() == null ? AppointmentStatus.SCHEDULED : form.getStatus())
-                .note(form.getNote())
-                .build();
-
-        appointmentRepository.save(a);
         ra.addFlashAttribute("successMessage", "Appointment created.");
         return "redirect:/ui/appointments";
     }
@@ -107,31 +93,12 @@ public class AppointmentUiController {
     public String update(@PathVariable Long id,
                          @ModelAttribute("appointmentForm") AppointmentForm form,
                          RedirectAttributes ra) {
-
-        Appointment a = appointmentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Appointment not found: " + id));
-
-        Patient patient = patientRepository.findById(form.getPatientId())
-                .orElseThrow(() -> new RuntimeException("Patient not found: " + form.getPatientId()));
-
-        Doctor doctor = doctorRepository.findById(form.getDoctorId())
-                .orElseThrow(() -> new RuntimeException("Doctor not found: " + form.getDoctorId()));
-
-        Department dep = null;
-        if (form.getDepartmentId() != null) {
-            dep = departmentRepository.findById(form.getDepartmentId())
-                    .orElseThrow(() -> new RuntimeException("Department not found: " + form.getDepartmentId()));
+        try {
+            appointmentService.edit(id, toRequest(form), statusOf(form));
+        } catch (BadRequestException | ConflictException | NotFoundException e) {
+            ra.addFlashAttribute("errorMessage", e.getMessage());
+            return "redirect:/ui/appointments";
         }
-
-        a.setPatient(patient);
-        a.setDoctor(doctor);
-        a.setDepartment(dep);
-        a.setStartTime(form.getStartTime());
-        a.setEndTime(form.getEndTime());
-        a.setStatus(form.getStatus() == null ? AppointmentStatus.SCHEDULED : form.getStatus());
-        a.setNote(form.getNote());
-
-        appointmentRepository.save(a);
         ra.addFlashAttribute("successMessage", "Appointment updated.");
         return "redirect:/ui/appointments";
     }
@@ -139,11 +106,27 @@ public class AppointmentUiController {
     // ✅ DELETE
     @PostMapping("/{id}/delete")
     public String delete(@PathVariable Long id, RedirectAttributes ra) {
-        appointmentRepository.deleteById(id);
+        try {
+            appointmentService.delete(id);
+        } catch (NotFoundException ignored) {
+            // zaten silinmiş: önceki davranış gibi sessizce geç
+        }
         ra.addFlashAttribute("successMessage", "Appointment deleted.");
         return "redirect:/ui/appointments";
     }
 
+    private static AppointmentCreateRequest toRequest(AppointmentForm form) {
+        if (form.getPatientId() == null || form.getDoctorId() == null) {
+            throw new BadRequestException("patientId and doctorId are required");
+        }
+        return new AppointmentCreateRequest(form.getPatientId(), form.getDoctorId(), form.getDepartmentId(),
+                form.getStartTime(), form.getEndTime(), form.getNote());
+    }
+
+    private static AppointmentStatus statusOf(AppointmentForm form) {
+        return form.getStatus() == null ? AppointmentStatus.SCHEDULED : form.getStatus();
+    }
+
     public static class AppointmentForm {
         private Long id;
         private Long patientId;
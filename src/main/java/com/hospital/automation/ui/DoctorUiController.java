@@ -2,15 +2,19 @@ package com.hospital.automation.ui;
 
 import com.hospital.automation.domain.entity.Department;
 import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.enums.CalendarOwner;
 import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.Objects;
+
 @Controller
 @RequestMapping("/ui/doctors")
 @RequiredArgsConstructor
@@ -19,6 +23,7 @@ public class DoctorUiController {
     private final DoctorRepository doctorRepository;
     private final DepartmentRepository departmentRepository;
     private final AppointmentRepository appointmentRepository; // ✅ eklendi
+    private final CalendarFeedVersions feedVersions;
 
     // LIST
     @GetMapping
@@ -92,12 +97,16 @@ public class DoctorUiController {
                     .orElseThrow(() -> new RuntimeException("Department not found: " + form.getDepartmentId()));
         }
 
+        boolean renamed = !Objects.equals(doctor.getFirstName(), form.getFirstName())
+                || !Objects.equals(doctor.getLastName(), form.getLastName());
+
         doctor.setFirstName(form.getFirstName());
         doctor.setLastName(form.getLastName());
         doctor.setSpecialization(form.getSpecialization());
         doctor.setDepartment(dep);
 
         doctorRepository.save(doctor);
+        if (renamed) feedVersions.onNamesChanged(); // ICS feed'leri
         return "redirect:/ui/doctors";
     }
 
@@ -112,6 +121,7 @@ public class DoctorUiController {
         }
 
         doctorRepository.deleteById(id);
+        feedVersions.onOwnerDeleted(CalendarOwner.DOCTOR, id); // ICS feed'leri
         ra.addFlashAttribute("success", "Doktor başarıyla silindi.");
         return "redirect:/ui/doctors";
     }
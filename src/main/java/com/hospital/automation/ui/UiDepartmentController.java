@@ -4,6 +4,7 @@ import com.hospital.automation.domain.entity.Department;
 import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Controller;
@@ -19,6 +20,7 @@ public class UiDepartmentController {
     private final DepartmentRepository departmentRepository;
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
+    private final RoomRepository roomRepository;
 
     @GetMapping
     public String list(Model model) {
@@ -78,7 +80,7 @@ public class UiDepartmentController {
         }
     }
 
-    // ✅ DELETE (doktor/randevu varsa engelle)
+    // ✅ DELETE (doktor/randevu/oda varsa engelle)
     @PostMapping("/{id}/delete")
     public String delete(@PathVariable Long id, RedirectAttributes ra) {
 
@@ -94,6 +96,12 @@ public class UiDepartmentController {
             return "redirect:/ui/departments";
         }
 
+        if (roomRepository.existsByDepartment_Id(id)) {
+            ra.addFlashAttribute("errorMessage",
+                    "This department cannot be deleted because rooms are linked to it.");
+            return "redirect:/ui/departments";
+        }
+
         departmentRepository.deleteById(id);
         ra.addFlashAttribute("successMessage", "Department deleted.");
         return "redirect:/ui/departments";
@@ -1,8 +1,11 @@
 package com.hospital.automation.ui;
 
 import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.CalendarOwner;
 import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
+import java.util.Objects;
 
 @Controller
 @RequiredArgsConstructor
@@ -20,6 +24,8 @@ public class UiPatientController {
 
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository; // ✅ eklendi
+    private final CalendarFeedVersions feedVersions;
+    private final DoctorScheduleCache scheduleCache;
 
     @GetMapping
     public String list(Model model) {
@@ -81,6 +87,9 @@ public class UiPatientController {
         Patient p = patientRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Patient not found: " + id));
 
+        boolean renamed = !Objects.equals(p.getFirstName(), form.getFirstName())
+                || !Objects.equals(p.getLastName(), form.getLastName());
+
         p.setFirstName(form.getFirstName());
         p.setLastName(form.getLastName());
         p.setNationalId(form.getNationalId());
@@ -89,6 +98,10 @@ public class UiPatientController {
         p.setAddress(form.getAddress());
 
         patientRepository.save(p);
+        if (renamed) { // ICS feed'leri ve doktor ajandaları hasta adını gösterir
+            feedVersions.onNamesChanged();
+            appointmentRepository.findDoctorIdsByPatientId(id).forEach(scheduleCache::evictDoctor);
+        }
         ra.addFlashAttribute("successMessage", "Patient updated.");
         return "redirect:/ui/patients";
     }
@@ -104,6 +117,7 @@ public class UiPatientController {
         }
 
         patientRepository.deleteById(id);
+        feedVersions.onOwnerDeleted(CalendarOwner.PATIENT, id); // ICS feed'leri
         ra.addFlashAttribute("successMessage", "Patient deleted.");
         return "redirect:/ui/patients";
     }
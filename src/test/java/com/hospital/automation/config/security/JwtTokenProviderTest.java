@@ -0,0 +1,80 @@
+package com.hospital.automation.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private JwtProperties props;
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        props = new JwtProperties();
+        props.setSecret("0123456789abcdef0123456789abcdef");
+        props.setExpirationMinutes(60);
+        provider = new JwtTokenProvider(props);
+    }
+
+    @Test
+    void verify_shouldReturnTypedClaims() {
+        String token = provider.generateToken(7L, "berfin", List.of("ROLE_ADMIN"));
+
+        JwtClaims claims = provider.verify(token).orElseThrow();
+
+        assertEquals(7L, claims.userId());
+        assertEquals("berfin", claims.username());
+        assertEquals(List.of("ROLE_ADMIN"), claims.roles());
+        assertNotNull(claims.issuedAt());
+        assertTrue(claims.expiresAt().isAfter(claims.issuedAt()));
+    }
+
+    @Test
+    void verify_shouldServeRepeatTokenFromCache() {
+        String token = provider.generateToken(7L, "berfin", List.of("ROLE_ADMIN"));
+
+        provider.verify(token);
+        provider.verify(token);
+        provider.verify(token);
+
+        JwtTokenProvider.CacheStats stats = provider.getClaimsCacheStats();
+        assertEquals(1, stats.misses());
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_whenSignatureTampered() {
+        String token = provider.generateToken(7L, "berfin", List.of("ROLE_ADMIN"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertEquals(Optional.empty(), provider.verify(tampered));
+        assertFalse(provider.validate(tampered));
+        assertEquals(0, provider.getClaimsCacheStats().size());
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_whenTokenExpired() {
+        props.setExpirationMinutes(0); // exp == iat => hemen geçersiz
+        String token = provider.generateToken(7L, "berfin", List.of("ROLE_ADMIN"));
+
+        assertTrue(provider.verify(token).isEmpty());
+        assertEquals(0, provider.getClaimsCacheStats().size());
+    }
+
+    @Test
+    void verify_shouldKeepUserIdNull_forLegacyTokens() {
+        String token = provider.generateToken("legacy", List.of("ROLE_DOCTOR"));
+
+        JwtClaims claims = provider.verify(token).orElseThrow();
+
+        assertFalse(claims.hasUserId());
+        assertEquals("legacy", provider.getUsername(token));
+        assertEquals(List.of("ROLE_DOCTOR"), provider.getRoles(token));
+    }
+}
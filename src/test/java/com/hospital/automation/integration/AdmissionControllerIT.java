@@ -2,6 +2,11 @@ package com.hospital.automation.integration;
 
 import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
 import com.hospital.automation.domain.dto.request.AdmissionDischargeRequest;
+import com.hospital.automation.domain.dto.request.AdmissionTransferRequest;
+import com.hospital.automation.domain.dto.request.BedAssignmentItemRequest;
+import com.hospital.automation.domain.dto.request.BedAssignmentRequest;
+import com.hospital.automation.domain.dto.request.DepartmentCreateRequest;
+import com.hospital.automation.domain.dto.request.DoctorCreateRequest;
 import com.hospital.automation.domain.dto.request.PatientCreateRequest;
 import com.hospital.automation.domain.dto.request.RoomCreateRequest;
 import com.hospital.automation.domain.enums.RoomType;
@@ -10,6 +15,7 @@ import org.springframework.http.MediaType;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -54,7 +60,7 @@ class AdmissionControllerIT extends IntegrationTestBase {
         long patientId = objectMapper.readTree(patientRes).get("id").asLong();
 
         // 2) Room create (admin yetkili)
-        var roomReq = new RoomCreateRequest("B-201", 2, RoomType.PRIVATE, 1);
+        var roomReq = new RoomCreateRequest("B-201", 2, RoomType.PRIVATE, 1, null);
 
         String roomRes = mockMvc.perform(post("/api/rooms")
                         .header("Authorization", bearer(adminJwt))
@@ -73,7 +79,8 @@ class AdmissionControllerIT extends IntegrationTestBase {
                 roomId,
                 null, // attendingDoctorId opsiyonel
                 admittedAt,
-                "Observation"
+                "Observation",
+                null // plannedDischargeAt opsiyonel
         );
 
         String admissionRes = mockMvc.perform(post("/api/admissions")
@@ -111,6 +118,134 @@ class AdmissionControllerIT extends IntegrationTestBase {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void transfer_movesBedKeepsAdmission_andRecordsHistory() throws Exception {
+        String suffix = String.valueOf(System.nanoTime() % 100000);
+        long wardId = createId("/api/rooms", adminToken,
+                objectMapper.writeValueAsString(new RoomCreateRequest("TW-" + suffix, 6, RoomType.WARD, 2, null)));
+        long icuId = createId("/api/rooms", adminToken,
+                objectMapper.writeValueAsString(new RoomCreateRequest("TI-" + suffix, 6, RoomType.ICU, 1, null)));
+
+        var admittedAt = LocalDateTime.of(2026, 2, 10, 8, 0);
+        long first = admit(wardId, admittedAt);
+        long second = admit(wardId, admittedAt);
+
+        // eski ETag ile 412
+        mockMvc.perform(post("/api/admissions/{id}/transfer", first)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AdmissionTransferRequest(icuId, admittedAt.plusHours(2), null))))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(post("/api/admissions/{id}/transfer", first)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AdmissionTransferRequest(icuId, admittedAt.plusHours(2), "Worsened"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.id").value(first))
+                .andExpect(jsonPath("$.room.id").value(icuId))
+                .andExpect(jsonPath("$.admittedAt").value("2026-02-10T08:00:00"));
+
+        // ICU tek yataklı ve artık dolu
+        mockMvc.perform(post("/api/admissions/{id}/transfer", second)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AdmissionTransferRequest(icuId, admittedAt.plusHours(3), null))))
+                .andExpect(status().isBadRequest());
+
+        // geri dönüş: önceki transferden önce olamaz
+        mockMvc.perform(post("/api/admissions/{id}/transfer", first)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AdmissionTransferRequest(wardId, admittedAt.plusHours(1), null))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/admissions/{id}/transfer", first)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AdmissionTransferRequest(wardId, admittedAt.plusDays(1), null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admissions/{id}/transfers", first)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].fromRoom.id").value(wardId))
+                .andExpect(jsonPath("$[0].toRoom.id").value(icuId))
+                .andExpect(jsonPath("$[0].note").value("Worsened"))
+                .andExpect(jsonPath("$[1].toRoom.id").value(wardId));
+
+        // geçmişi olan yatış silinebilir
+        mockMvc.perform(delete("/api/admissions/{id}", first)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void assignBeds_placesBatchByDepartmentAndFloor_inOneCall() throws Exception {
+        String suffix = String.valueOf(System.nanoTime() % 100000);
+        long departmentId = createId("/api/departments", adminToken,
+                objectMapper.writeValueAsString(new DepartmentCreateRequest("Trauma-" + suffix)));
+        long doctorId = createId("/api/doctors", adminToken,
+                objectMapper.writeValueAsString(new DoctorCreateRequest("Mert", "Acil", "Trauma", departmentId)));
+
+        int floor = 91; // bu testin odaları: diğer IT'lerin odalarından ayrı kat
+        long traumaIcu = createId("/api/rooms", adminToken, objectMapper.writeValueAsString(
+                new RoomCreateRequest("AT-" + suffix, floor, RoomType.ICU, 1, departmentId)));
+        long sharedIcu = createId("/api/rooms", adminToken, objectMapper.writeValueAsString(
+                new RoomCreateRequest("AS-" + suffix, floor, RoomType.ICU, 2, null)));
+
+        var admittedAt = LocalDateTime.of(2026, 3, 1, 22, 0);
+        var request = new BedAssignmentRequest(List.of(
+                new BedAssignmentItemRequest(patient(), RoomType.ICU, floor, doctorId, admittedAt, null, "MCI"),
+                new BedAssignmentItemRequest(patient(), RoomType.ICU, floor, null, admittedAt, null, "MCI"),
+                new BedAssignmentItemRequest(patient(), RoomType.ICU, floor, doctorId, admittedAt, null, "MCI")
+        ), false);
+
+        mockMvc.perform(post("/api/admissions/assign-beds")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.assigned").value(3))
+                .andExpect(jsonPath("$.assignments[0].roomId").value(traumaIcu))
+                .andExpect(jsonPath("$.assignments[0].preferredFloor").value(true))
+                .andExpect(jsonPath("$.assignments[1].roomId").value(sharedIcu))
+                // bölüm odası doldu: aynı bölümün ikinci hastası genel odaya
+                .andExpect(jsonPath("$.assignments[2].roomId").value(sharedIcu))
+                .andExpect(jsonPath("$.unassigned.length()").value(0));
+
+        // aynı hasta iki satırda => istek reddedilir, hiçbir yatak ayrılmaz
+        long lateA = patient();
+        var duplicate = new BedAssignmentRequest(List.of(
+                new BedAssignmentItemRequest(lateA, RoomType.ICU, floor, null, admittedAt, null, null),
+                new BedAssignmentItemRequest(lateA, RoomType.ICU, floor, null, admittedAt, null, null)
+        ), true);
+        mockMvc.perform(post("/api/admissions/assign-beds")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isBadRequest());
+
+        // katın iki ICU odası da doldu
+
+        mockMvc.perform(get("/api/rooms/availability")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("floor", String.valueOf(floor))
+                        .param("type", "ICU"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms.length()").value(0));
+    }
+
     @Test
     void doctorCannotAccessAdmissionsEndpoints() throws Exception {
         var doctorUser = createUserWithRoles(
@@ -123,4 +258,19 @@ class AdmissionControllerIT extends IntegrationTestBase {
                         .header("Authorization", bearer(jwt)))
                 .andExpect(status().isForbidden());
     }
+
+    private long patient() throws Exception {
+        var patient = new PatientCreateRequest("Batch", "Patient", LocalDate.of(1985, 3, 3),
+                uniqueNationalId11(), "5550007788", "Ankara");
+        return createId("/api/patients", receptionistToken, objectMapper.writeValueAsString(patient));
+    }
+
+    private long admit(long roomId, LocalDateTime admittedAt) throws Exception {
+        var patient = new PatientCreateRequest("Transfer", "Patient", LocalDate.of(1970, 7, 7),
+                uniqueNationalId11(), "5550005566", "Bursa");
+        long patientId = createId("/api/patients", receptionistToken, objectMapper.writeValueAsString(patient));
+
+        var admission = new AdmissionCreateRequest(patientId, roomId, null, admittedAt, null, null);
+        return createId("/api/admissions", receptionistToken, objectMapper.writeValueAsString(admission));
+    }
 }
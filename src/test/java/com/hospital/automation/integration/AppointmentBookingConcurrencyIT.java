@@ -0,0 +1,101 @@
+package com.hospital.automation.integration;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.entity.Appointment;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.service.AppointmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aynı doktorlara binlerce paralel booking: hiçbir doktorda çakışan iki SCHEDULED randevu kalmamalı.
+ */
+class AppointmentBookingConcurrencyIT extends IntegrationTestBase {
+
+    private static final int BOOKINGS = 2000;
+    private static final int THREADS = 32;
+    private static final int DOCTORS = 4;
+    private static final int SLOTS = 96; // 15 dk aralıklarla başlangıç, 30 dk süre => yoğun çakışma
+
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private PatientRepository patientRepository;
+
+    @Test
+    void parallelBookings_shouldNeverDoubleBookADoctor() throws Exception {
+        List<Long> doctorIds = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            doctorIds.add(doctorRepository.save(Doctor.builder()
+                    .firstName("Conc").lastName("Doc" + i).specialization("General").build()).getId());
+        }
+        Long patientId = patientRepository.save(Patient.builder()
+                .firstName("Conc").lastName("Patient").nationalId(uniqueNationalId11()).build()).getId();
+
+        LocalDateTime day = LocalDateTime.of(2030, 5, 6, 0, 0);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Long doctorId = doctorIds.get(i % DOCTORS);
+            LocalDateTime start = day.plusMinutes(15L * ThreadLocalRandom.current().nextInt(SLOTS));
+            futures.add(pool.submit(() -> {
+                go.await();
+                try {
+                    appointmentService.create(new AppointmentCreateRequest(
+                            patientId, doctorId, null, start, start.plusMinutes(30), "conc"));
+                    accepted.incrementAndGet();
+                } catch (BadRequestException | ConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        go.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES); // beklenmeyen exception varsa test burada düşer
+        }
+        pool.shutdown();
+
+        assertEquals(BOOKINGS, accepted.get() + rejected.get());
+        assertTrue(accepted.get() > 0);
+
+        Set<Long> ids = Set.copyOf(doctorIds);
+        var byDoctor = appointmentRepository.findAll().stream()
+                .filter(a -> ids.contains(a.getDoctor().getId()) && a.getStatus() == AppointmentStatus.SCHEDULED)
+                .collect(Collectors.groupingBy(a -> a.getDoctor().getId()));
+
+        int stored = 0;
+        for (List<Appointment> list : byDoctor.values()) {
+            list.sort(Comparator.comparing(Appointment::getStartTime));
+            for (int i = 1; i < list.size(); i++) {
+                assertFalse(list.get(i).getStartTime().isBefore(list.get(i - 1).getEndTime()),
+                        "double booking: " + list.get(i - 1).getId() + " / " + list.get(i).getId());
+            }
+            stored += list.size();
+        }
+        assertEquals(accepted.get(), stored);
+    }
+}
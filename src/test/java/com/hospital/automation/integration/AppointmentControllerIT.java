@@ -1,14 +1,28 @@
 package com.hospital.automation.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hospital.automation.service.appointment.AppointmentSweeper;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 public class AppointmentControllerIT extends IntegrationTestBase {
 
+    @Autowired AppointmentSweeper sweeper;
+
     @Test
     void receptionist_canCreateAppointment_andOverlappingShouldFail() throws Exception {
 
@@ -171,4 +185,273 @@ public class AppointmentControllerIT extends IntegrationTestBase {
                         .header("Authorization", bearer(receptionistToken)))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void update_withIfMatch_shouldReturn404_forMissingAppointment_and412_forStaleVersion() throws Exception {
+        String body = """
+                {"startTime":"2026-01-04T10:00:00","endTime":"2026-01-04T10:30:00","status":"SCHEDULED"}
+                """;
+
+        // version kontrolünden önce kayıt aranır: olmayan id için 412 değil 404
+        mockMvc.perform(put("/api/appointments/{id}", 999999)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isNotFound());
+
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Doc","lastName":"Etag","specialization":"Dermatology"}
+                """);
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Ali","lastName":"Etag","birthDate":"1990-01-01","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+        Long apptId = createId("/api/appointments", receptionistToken, """
+                {"patientId":%d,"doctorId":%d,"startTime":"2026-01-04T09:00:00","endTime":"2026-01-04T09:30:00"}
+                """.formatted(patientId, doctorId));
+
+        mockMvc.perform(put("/api/appointments/{id}", apptId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void search_shouldFilterAndPage_withOffsetAndKeyset() throws Exception {
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Doc","lastName":"Search","specialization":"Neurology"}
+                """);
+        Long patientA = createId("/api/patients", receptionistToken, """
+                {"firstName":"Ali","lastName":"A","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+        Long patientB = createId("/api/patients", receptionistToken, """
+                {"firstName":"Veli","lastName":"B","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        // A: 3 randevu (9, 11, 13), B: 2 randevu (10, 12); aynı doktor, aynı gün
+        for (int h = 9; h <= 13; h++) {
+            Long patientId = (h % 2 == 1) ? patientA : patientB;
+            createId("/api/appointments", receptionistToken, """
+                    {"patientId":%d,"doctorId":%d,"startTime":"2026-06-01T%02d:00:00","endTime":"2026-06-01T%02d:30:00"}
+                    """.formatted(patientId, doctorId, h, h));
+        }
+
+        mockMvc.perform(get("/api/appointments/search")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("doctorId", doctorId.toString())
+                        .param("patientId", patientA.toString())
+                        .param("status", "scheduled")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].startTime", is("2026-06-01T09:00:00")))
+                .andExpect(jsonPath("$.content[0].patient.id", is(patientA.intValue())))
+                .andExpect(jsonPath("$.content[0].doctor.lastName", is("Search")));
+
+        // keyset: 5 randevu, sayfa başına 2 => 2 + 2 + 1, son sayfada nextCursor yok
+        List<String> starts = new ArrayList<>();
+        String cursor = null;
+        do {
+            var req = get("/api/appointments/search")
+                    .header("Authorization", bearer(receptionistToken))
+                    .param("paging", "keyset")
+                    .param("doctorId", doctorId.toString())
+                    .param("from", "2026-06-01T00:00:00")
+                    .param("to", "2026-06-02T00:00:00")
+                    .param("size", "2");
+            if (cursor != null) req.param("cursor", cursor);
+
+            String json = mockMvc.perform(req)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode node = objectMapper.readTree(json);
+            node.get("content").forEach(a -> starts.add(a.get("startTime").asText()));
+            cursor = node.get("nextCursor").isNull() ? null : node.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertEquals(List.of("2026-06-01T09:00:00", "2026-06-01T10:00:00", "2026-06-01T11:00:00",
+                "2026-06-01T12:00:00", "2026-06-01T13:00:00"), starts);
+
+        mockMvc.perform(get("/api/appointments/search")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("status", "unknown"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/appointments")
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(5))));
+    }
+
+    @Test
+    void bulkCreate_andCsvImport_shouldInsertValidRows_andReportFailedOnes() throws Exception {
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Doc","lastName":"Bulk","specialization":"Oncology"}
+                """);
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Ali","lastName":"Bulk","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        String bulkBody = """
+                [
+                  {"patientId":%1$d,"doctorId":%2$d,"startTime":"2026-07-01T09:00:00","endTime":"2026-07-01T09:30:00"},
+                  {"patientId":%1$d,"doctorId":%2$d,"startTime":"2026-07-01T09:15:00","endTime":"2026-07-01T09:45:00"},
+                  {"patientId":999999,"doctorId":%2$d,"startTime":"2026-07-01T10:00:00","endTime":"2026-07-01T10:30:00"},
+                  {"patientId":%1$d,"doctorId":%2$d,"startTime":"2026-07-01T10:00:00","endTime":"2026-07-01T10:30:00"}
+                ]
+                """.formatted(patientId, doctorId);
+
+        mockMvc.perform(post("/api/appointments/bulk")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(4)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[1].row", is(3)))
+                .andExpect(jsonPath("$.errors[1].message", is("Patient not found: 999999")));
+
+        // CSV: 10:00 bulk ile eklendi => 2. veri satırı çakışır, 3. satır bozuk
+        String csv = """
+                patientId,doctorId,startTime,endTime,note
+                %1$d,%2$d,2026-07-01T11:00:00,2026-07-01T11:30:00,"Kontrol, ilk"
+                %1$d,%2$d,2026-07-01T10:15:00,2026-07-01T10:45:00,
+                %1$d,%2$d,not-a-date,2026-07-01T12:30:00,
+                """.formatted(patientId, doctorId);
+
+        mockMvc.perform(post("/api/appointments/import")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(3)))
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[1].row", is(3)));
+
+        mockMvc.perform(get("/api/appointments/search")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("doctorId", doctorId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[2].note", is("Kontrol, ilk")));
+
+        // import sonrası tekil create çakışmayı görmeli (index geçersiz kılındı)
+        mockMvc.perform(post("/api/appointments")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"patientId":%d,"doctorId":%d,"startTime":"2026-07-01T11:15:00","endTime":"2026-07-01T11:45:00"}
+                                """.formatted(patientId, doctorId)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void sweeper_shouldCompleteVisitedAndMarkOthersNoShow() throws Exception {
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Doc","lastName":"Sweep","specialization":"Neurology"}
+                """);
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Ali","lastName":"Sweep","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        // diğer testlerin verisine dokunmamak için çok eski tarihler + açık cutoff
+        String body = """
+                {"patientId":%d,"doctorId":%d,"startTime":"2019-03-0%dT09:00:00","endTime":"2019-03-0%dT09:30:00"}
+                """;
+        Long visited = createId("/api/appointments", receptionistToken, body.formatted(patientId, doctorId, 1, 1));
+        Long missed = createId("/api/appointments", receptionistToken, body.formatted(patientId, doctorId, 2, 2));
+
+        createId("/api/visits", adminToken, """
+                {"patientId":%d,"doctorId":%d,"appointmentId":%d,"visitTime":"2019-03-01T09:05:00"}
+                """.formatted(patientId, doctorId, visited));
+
+        String feedEtag = mockMvc.perform(get("/api/doctors/{id}/calendar.ics", doctorId)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        AppointmentSweeper.SweepResult result = sweeper.sweep(LocalDateTime.of(2020, 1, 1, 0, 0));
+        assertEquals(1, result.completed());
+        assertEquals(1, result.noShow());
+
+        // feed damgası değişti: eski ETag ile 304 değil
+        mockMvc.perform(get("/api/doctors/{id}/calendar.ics", doctorId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-None-Match", feedEtag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/appointments/{id}", visited).header("Authorization", bearer(receptionistToken)))
+                .andExpect(jsonPath("$.status", is("COMPLETED")));
+        mockMvc.perform(get("/api/appointments/{id}", missed).header("Authorization", bearer(receptionistToken)))
+                .andExpect(jsonPath("$.status", is("NO_SHOW")));
+
+        // ikinci çalışma yapacak iş bulamaz
+        assertEquals(new AppointmentSweeper.SweepResult(0, 0, 0), sweeper.sweep(LocalDateTime.of(2020, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void stream_shouldPushCommittedChanges_forSubscribedDoctorOnly() throws Exception {
+        Long watchedDoctor = createId("/api/doctors", adminToken, """
+                {"firstName":"Live","lastName":"Watched","specialization":"Cardiology"}
+                """);
+        Long otherDoctor = createId("/api/doctors", adminToken, """
+                {"firstName":"Live","lastName":"Other","specialization":"Cardiology"}
+                """);
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Live","lastName":"Patient","birthDate":"1990-01-01","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        MvcResult stream = mockMvc.perform(get("/api/appointments/stream")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("doctorId", watchedDoctor.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        createId("/api/appointments", receptionistToken, """
+                {"patientId":%d,"doctorId":%d,"startTime":"2027-05-03T09:00:00","endTime":"2027-05-03T09:30:00"}
+                """.formatted(patientId, otherDoctor));
+        Long apptId = createId("/api/appointments", receptionistToken, """
+                {"patientId":%d,"doctorId":%d,"startTime":"2027-05-03T10:00:00","endTime":"2027-05-03T10:30:00"}
+                """.formatted(patientId, watchedDoctor));
+        mockMvc.perform(put("/api/appointments/{id}", apptId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"startTime":"2027-05-03T10:00:00","endTime":"2027-05-03T10:30:00","status":"CANCELLED"}
+                                """))
+                .andExpect(status().isOk());
+
+        String body = "";
+        for (int i = 0; i < 500 && !body.contains("event:CANCELLED"); i++) {
+            Thread.sleep(10);
+            body = stream.getResponse().getContentAsString();
+        }
+
+        assertTrue(body.contains("event:CREATED"), body);
+        assertTrue(body.contains("event:CANCELLED"), body);
+        assertTrue(body.contains("\"appointmentId\":" + apptId), body);
+        assertFalse(body.contains("\"doctorId\":" + otherDoctor + ","), body);
+    }
+
+    @Test
+    void stream_shouldReturn429_whenUserExceedsOpenStreamLimit() throws Exception {
+        // ayrı kullanıcı: açık kalan test bağlantıları diğer testlerin kotasını yemesin
+        String token = jwtFor(uniqueUsername("sse"), Set.of("ROLE_RECEPTIONIST"));
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/appointments/stream")
+                            .header("Authorization", bearer(token)))
+                    .andExpect(request().asyncStarted());
+        }
+
+        mockMvc.perform(get("/api/appointments/stream")
+                        .header("Authorization", bearer(token)))
+                .andExpect(status().isTooManyRequests());
+    }
 }
@@ -0,0 +1,95 @@
+package com.hospital.automation.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class AppointmentSeriesControllerIT extends IntegrationTestBase {
+
+    @Test
+    void weeklySeries_shouldSkipConflicts_thenShiftAndCancelFutureOccurrences() throws Exception {
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Doc","lastName":"Series","specialization":"Physiotherapy"}
+                """);
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Ali","lastName":"Series","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        // 3. hafta (2026-09-21) dolu
+        createId("/api/appointments", receptionistToken, """
+                {"patientId":%d,"doctorId":%d,"startTime":"2026-09-21T09:15:00","endTime":"2026-09-21T09:45:00"}
+                """.formatted(patientId, doctorId));
+
+        String seriesBody = """
+                {"patientId":%d,"doctorId":%d,"startTime":"2026-09-07T09:00:00","durationMinutes":30,
+                 "frequency":"WEEKLY","count":4,"note":"Fizik tedavi","skipConflicts":%s}
+                """;
+
+        // skipConflicts=false => hiçbiri oluşturulmaz
+        mockMvc.perform(post("/api/appointment-series")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(seriesBody.formatted(patientId, doctorId, false)))
+                .andExpect(status().isBadRequest());
+
+        String json = mockMvc.perform(post("/api/appointment-series")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(seriesBody.formatted(patientId, doctorId, true)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rrule", is("FREQ=WEEKLY;INTERVAL=1;COUNT=4")))
+                .andExpect(jsonPath("$.occurrences", hasSize(3)))
+                .andExpect(jsonPath("$.skipped", contains("2026-09-21T09:00:00")))
+                .andReturn().getResponse().getContentAsString();
+        Long seriesId = objectMapper.readTree(json).get("id").asLong();
+
+        // seri satırları tekil create'in çakışma kontrolünde görünmeli
+        mockMvc.perform(post("/api/appointments")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"patientId":%d,"doctorId":%d,"startTime":"2026-09-14T09:10:00","endTime":"2026-09-14T09:20:00"}
+                                """.formatted(patientId, doctorId)))
+                .andExpect(status().isBadRequest());
+
+        // 14 Eylül'den itibaren 1 saat ileri, 45 dk
+        mockMvc.perform(put("/api/appointment-series/{id}/future", seriesId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"from":"2026-09-14T00:00:00","shiftMinutes":60,"durationMinutes":45}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)))
+                .andExpect(jsonPath("$.durationMinutes", is(45)))
+                // kural bundan sonrasını tarif eder: DTSTART ilk kaydırılan tekrar, COUNT yerine UNTIL
+                .andExpect(jsonPath("$.startTime", is("2026-09-14T10:00:00")))
+                .andExpect(jsonPath("$.rrule", is("FREQ=WEEKLY;INTERVAL=1;UNTIL=20260928T100000")))
+                .andExpect(jsonPath("$.occurrences[0].startTime", is("2026-09-07T09:00:00")))
+                .andExpect(jsonPath("$.occurrences[1].startTime", is("2026-09-14T10:00:00")))
+                .andExpect(jsonPath("$.occurrences[1].endTime", is("2026-09-14T10:45:00")));
+
+        // 14 Eylül tekrarını 21 Eylül 09:00'a kaydırmak tekil randevu ile çakışır => 400, hiçbir satır değişmez
+        mockMvc.perform(put("/api/appointment-series/{id}/future", seriesId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"from":"2026-09-14T00:00:00","shiftMinutes":10020}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/appointment-series/{id}/cancel", seriesId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("from", "2026-09-20T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(1)))
+                .andExpect(jsonPath("$.occurrences[*].status", contains("SCHEDULED", "SCHEDULED", "CANCELLED")));
+
+        mockMvc.perform(get("/api/appointment-series/{id}", seriesId)
+                        .header("Authorization", bearer(doctorToken)))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -1,10 +1,17 @@
 package com.hospital.automation.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.hospital.automation.service.AuditLogService;
+import com.hospital.automation.service.audit.AuditLogWriter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -12,6 +19,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class AuditLogControllerIT extends IntegrationTestBase {
 
     @Autowired private AuditLogService auditLogService;
+    @Autowired private AuditLogWriter auditLogWriter;
 
     @Test
     void onlyAdmin_canSearchAuditLogs() throws Exception {
@@ -32,4 +40,150 @@ class AuditLogControllerIT extends IntegrationTestBase {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
     }
+
+    @Test
+    void keysetPaging_shouldWalkAllRowsOnce() throws Exception {
+        String entity = "KeysetIT_" + uniqueUsername("e");
+        for (long i = 1; i <= 5; i++) {
+            auditLogService.log("CREATE", entity, i, "row " + i);
+        }
+        auditLogWriter.flush();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var req = get("/api/audit-logs")
+                    .header("Authorization", bearer(adminToken))
+                    .param("paging", "keyset")
+                    .param("entityName", entity)
+                    .param("size", "2");
+            if (cursor != null) req.param("cursor", cursor);
+
+            String json = mockMvc.perform(req)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode body = objectMapper.readTree(json);
+            body.get("content").forEach(n -> seen.add(n.get("entityId").asLong()));
+            cursor = body.get("hasNext").asBoolean() ? body.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        org.junit.jupiter.api.Assertions.assertEquals(3, pages);
+        org.junit.jupiter.api.Assertions.assertEquals(5, seen.size());
+        org.junit.jupiter.api.Assertions.assertEquals(5, seen.stream().distinct().count());
+    }
+
+    @Test
+    void export_shouldStreamNdjsonCsvAndGzip_withFilters() throws Exception {
+        String entity = "ExportIT_" + uniqueUsername("e");
+        auditLogService.log("CREATE", entity, 1L, "plain");
+        auditLogService.log("UPDATE", entity, 1L, "has, comma and \"quote\"");
+        auditLogWriter.flush();
+
+        // NDJSON: satır başına bir kayıt
+        String ndjson = mockMvc.perform(get("/api/audit-logs/export")
+                        .header("Authorization", bearer(adminToken))
+                        .param("entityName", entity))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", org.hamcrest.Matchers.startsWith("application/x-ndjson")))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = ndjson.strip().split("\n");
+        org.junit.jupiter.api.Assertions.assertEquals(2, lines.length);
+        org.junit.jupiter.api.Assertions.assertEquals("CREATE", objectMapper.readTree(lines[0]).get("action").asText());
+
+        // CSV: header + 2 satır, virgül/tırnak içeren alan kaçışlı
+        String csv = mockMvc.perform(get("/api/audit-logs/export")
+                        .header("Authorization", bearer(adminToken))
+                        .param("entityName", entity)
+                        .param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        org.junit.jupiter.api.Assertions.assertEquals(3, csv.strip().split("\n").length);
+        org.junit.jupiter.api.Assertions.assertTrue(csv.contains("\"has, comma and \"\"quote\"\"\""));
+
+        // gzip
+        byte[] gz = mockMvc.perform(get("/api/audit-logs/export")
+                        .header("Authorization", bearer(adminToken))
+                        .param("entityName", entity)
+                        .param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+            org.junit.jupiter.api.Assertions.assertEquals(ndjson, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(get("/api/audit-logs/export")
+                        .header("Authorization", bearer(adminToken))
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void all_shouldStillReturnJsonArray() throws Exception {
+        auditLogService.log("CREATE", "AllIT", 1L, "details");
+        auditLogWriter.flush();
+
+        mockMvc.perform(get("/api/audit-logs/all")
+                        .header("Authorization", bearer(adminToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].action").exists());
+    }
+
+    @Test
+    void q_shouldMatchSubstringInDetailsOrUsername_caseInsensitive() throws Exception {
+        String entity = "SearchIT_" + uniqueUsername("e");
+        String token = uniqueUsername("Tok");
+        auditLogService.log("CREATE", entity, 1L, "Patient moved to room " + token + " by nurse");
+        auditLogService.log("UPDATE", entity, 2L, "nothing interesting");
+        auditLogService.log("UPDATE", entity, 3L, "literal 100% done");
+        auditLogWriter.flush();
+
+        mockMvc.perform(get("/api/audit-logs")
+                        .header("Authorization", bearer(adminToken))
+                        .param("entityName", entity)
+                        .param("q", token.toLowerCase()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].entityId").value(1));
+
+        // % literal aranır, wildcard değil
+        mockMvc.perform(get("/api/audit-logs")
+                        .header("Authorization", bearer(adminToken))
+                        .param("entityName", entity)
+                        .param("q", "0% d"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].entityId").value(3));
+    }
+
+    @Test
+    void stats_shouldCountWrittenEvents_perAction() throws Exception {
+        String entity = "StatsIT_" + uniqueUsername("e");
+        auditLogService.log("CREATE", entity, 1L, "a");
+        auditLogService.log("CREATE", entity, 2L, "b");
+        auditLogService.log("DELETE", entity, 1L, "c");
+        auditLogWriter.flush();
+
+        mockMvc.perform(get("/api/audit-logs/stats")
+                        .header("Authorization", bearer(adminToken))
+                        .param("entityName", entity)
+                        .param("groupBy", "action"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.series[0].key").value("CREATE"))
+                .andExpect(jsonPath("$.series[0].total").value(2))
+                .andExpect(jsonPath("$.series[1].key").value("DELETE"));
+
+        mockMvc.perform(get("/api/audit-logs/stats")
+                        .header("Authorization", bearer(adminToken))
+                        .param("granularity", "minute"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -5,6 +5,7 @@ import com.hospital.automation.domain.dto.request.RegisterRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -72,4 +73,17 @@ class AuthControllerIT extends IntegrationTestBase {
                 .andExpect(jsonPath("$.username").value("meuser"))
                 .andExpect(jsonPath("$.roles").isArray());
     }
+
+    @Test
+    void me_shouldResolvePrincipalFromClaims_withoutDbLookup() throws Exception {
+        // DB'de olmayan bir kullanıcı: uid claim'i varsa principal token'dan kurulmalı
+        String jwt = tokenProvider.generateToken(999L, "ghost_user", List.of("ROLE_ADMIN"));
+
+        mockMvc.perform(get("/api/auth/me")
+                        .header("Authorization", bearer(jwt)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(999))
+                .andExpect(jsonPath("$.username").value("ghost_user"))
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_ADMIN"));
+    }
 }
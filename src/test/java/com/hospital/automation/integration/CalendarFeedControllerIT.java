@@ -0,0 +1,125 @@
+package com.hospital.automation.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CalendarFeedControllerIT extends IntegrationTestBase {
+
+    @Test
+    void doctorFeed_shouldStreamEvents_and304UntilAppointmentChanges() throws Exception {
+        Long deptId = createId("/api/departments", adminToken, """
+                {"name":"Ics-%s"}
+                """.formatted(uniqueUsername("d")));
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Ics","lastName":"Doc","specialization":"Cardiology","departmentId":%d}
+                """.formatted(deptId));
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Zeynep","lastName":"Ak","birthDate":"1990-01-01","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        Long apptId = createId("/api/appointments", receptionistToken, """
+                {"patientId":%d,"doctorId":%d,"startTime":"2027-04-05T09:00:00","endTime":"2027-04-05T09:30:00","note":"ilk muayene"}
+                """.formatted(patientId, doctorId));
+
+        String etag = mockMvc.perform(get("/api/doctors/{id}/calendar.ics", doctorId)
+                        .header("Authorization", bearer(doctorToken)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(content().string(startsWith("BEGIN:VCALENDAR\r\n")))
+                .andExpect(content().string(containsString("UID:appointment-" + apptId + "@hospital-automation")))
+                .andExpect(content().string(containsString("SUMMARY:Appointment: Zeynep Ak")))
+                .andExpect(content().string(endsWith("END:VCALENDAR\r\n")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/doctors/{id}/calendar.ics", doctorId)
+                        .header("Authorization", bearer(doctorToken))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // iptal: doktor ve hasta feed'inin damgası değişir
+        String patientEtag = mockMvc.perform(get("/api/patients/{id}/calendar.ics", patientId)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("SUMMARY:Appointment: Dr. Ics Doc")))
+                .andExpect(content().string(containsString("STATUS:CONFIRMED")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/api/appointments/{id}", apptId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"startTime":"2027-04-05T09:00:00","endTime":"2027-04-05T09:30:00","status":"CANCELLED"}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/doctors/{id}/calendar.ics", doctorId)
+                        .header("Authorization", bearer(doctorToken))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+
+        mockMvc.perform(get("/api/patients/{id}/calendar.ics", patientId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-None-Match", patientEtag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("STATUS:CANCELLED")));
+    }
+
+    @Test
+    void patientFeed_shouldReturn404_afterOwnerDeleted_evenWithMatchingETag() throws Exception {
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Silinen","lastName":"Hasta","birthDate":"1990-01-01","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        String etag = mockMvc.perform(get("/api/patients/{id}/calendar.ics", patientId)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/patients/{id}/calendar.ics", patientId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/patients/{id}", patientId)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/patients/{id}/calendar.ics", patientId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void feeds_shouldReturn404_forMissingOwner_and403_forDoctorOnPatientFeed() throws Exception {
+        mockMvc.perform(get("/api/doctors/{id}/calendar.ics", 999999)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/patients/{id}/calendar.ics", 999999)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isNotFound());
+
+        // koşullu istek de sahip kontrolünden geçer: 304/412 değil 404
+        mockMvc.perform(get("/api/doctors/{id}/calendar.ics", 999999)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-None-Match", "*"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/patients/{id}/calendar.ics", 999999)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", "\"0\""))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/patients/{id}/calendar.ics", 999999)
+                        .header("Authorization", bearer(doctorToken)))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,93 @@
+package com.hospital.automation.integration;
+
+import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
+import com.hospital.automation.domain.dto.request.AdmissionDischargeRequest;
+import com.hospital.automation.domain.dto.request.PatientCreateRequest;
+import com.hospital.automation.domain.dto.request.RoomCreateRequest;
+import com.hospital.automation.domain.enums.RoomType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CensusControllerIT extends IntegrationTestBase {
+
+    // diğer IT'lerin yatışları "şimdi" civarında; bu testin aralığı geçmişte kalsın
+    private static final LocalDateTime TUESDAY = LocalDateTime.of(2001, 2, 6, 0, 0);
+
+    @Test
+    void census_pointRangeAndHeatmap_forAdminOnly() throws Exception {
+        String roomNumber = "CEN-" + (System.nanoTime() % 100000);
+        long roomId = createId("/api/rooms", adminToken,
+                objectMapper.writeValueAsString(new RoomCreateRequest(roomNumber, 94, RoomType.ICU, 3, null)));
+
+        long first = admit(roomId, TUESDAY.minusHours(2));
+        admit(roomId, TUESDAY.plusHours(1));
+        discharge(first, TUESDAY.plusHours(2));
+
+        // Salı 01:30: iki hasta
+        mockMvc.perform(get("/api/census")
+                        .header("Authorization", bearer(adminToken))
+                        .param("at", TUESDAY.plusMinutes(90).toString())
+                        .param("groupBy", "ROOM")
+                        .param("type", "ICU"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.rows[?(@.key == '" + roomNumber + "')].occupied").value(2));
+
+        // 00:00-04:00 => 1 + 2 + 1 + 1 = 5 hasta-saat, en yüksek 2
+        mockMvc.perform(get("/api/census/range")
+                        .header("Authorization", bearer(adminToken))
+                        .param("from", TUESDAY.toString())
+                        .param("to", TUESDAY.plusHours(4).toString())
+                        .param("type", "ICU"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.key").value("ICU"))
+                .andExpect(jsonPath("$.total.peak").value(2))
+                .andExpect(jsonPath("$.total.patientHours").value(5.0))
+                .andExpect(jsonPath("$.total.averageOccupancy").value(1.25));
+
+        mockMvc.perform(get("/api/census/heatmap")
+                        .header("Authorization", bearer(adminToken))
+                        .param("from", TUESDAY.toString())
+                        .param("to", TUESDAY.plusHours(3).toString())
+                        .param("type", "ICU"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hours.length()").value(3))
+                .andExpect(jsonPath("$.total.peak[0]").value(1))
+                .andExpect(jsonPath("$.total.peak[1]").value(2))
+                .andExpect(jsonPath("$.total.average[2]").value(1.0));
+
+        mockMvc.perform(get("/api/census/range")
+                        .header("Authorization", bearer(adminToken))
+                        .param("from", TUESDAY.toString())
+                        .param("to", TUESDAY.toString()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/census")
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isForbidden());
+    }
+
+    private long admit(long roomId, LocalDateTime admittedAt) throws Exception {
+        var patient = new PatientCreateRequest("Census", "Patient", LocalDate.of(1975, 5, 5),
+                uniqueNationalId11(), "5550003344", "Izmir");
+        long patientId = createId("/api/patients", receptionistToken, objectMapper.writeValueAsString(patient));
+
+        var admission = new AdmissionCreateRequest(patientId, roomId, null, admittedAt, null, null);
+        return createId("/api/admissions", receptionistToken, objectMapper.writeValueAsString(admission));
+    }
+
+    private void discharge(long admissionId, LocalDateTime dischargedAt) throws Exception {
+        mockMvc.perform(put("/api/admissions/" + admissionId + "/discharge")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AdmissionDischargeRequest(dischargedAt, null))))
+                .andExpect(status().isOk());
+    }
+}
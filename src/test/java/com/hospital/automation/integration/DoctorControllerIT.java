@@ -0,0 +1,151 @@
+package com.hospital.automation.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class DoctorControllerIT extends IntegrationTestBase {
+
+    @Test
+    void availability_shouldReturnFreeGaps_forDoctorAndDepartment() throws Exception {
+        Long deptId = createId("/api/departments", adminToken, """
+                {"name":"Avail-%s"}
+                """.formatted(uniqueUsername("d")));
+        Long busyDoctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Busy","lastName":"Doc","specialization":"Cardiology","departmentId":%d}
+                """.formatted(deptId));
+        Long freeDoctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Free","lastName":"Doc","specialization":"Cardiology","departmentId":%d}
+                """.formatted(deptId));
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Ali","lastName":"Veli","birthDate":"2000-01-01","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        // 08:00-12:00 ve 12:20-17:30 dolu => 12:00-12:20 (20 dk) ve 17:30-18:00 (30 dk) boş
+        book(patientId, busyDoctorId, "2026-05-04T08:00:00", "2026-05-04T12:00:00");
+        book(patientId, busyDoctorId, "2026-05-04T12:20:00", "2026-05-04T17:30:00");
+
+        mockMvc.perform(get("/api/doctors/{id}/availability", busyDoctorId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("from", "2026-05-04T00:00:00")
+                        .param("to", "2026-05-05T00:00:00")
+                        .param("duration", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.doctor.id", is(busyDoctorId.intValue())))
+                .andExpect(jsonPath("$.freeSlots", hasSize(1)))
+                .andExpect(jsonPath("$.freeSlots[0].start", is("2026-05-04T17:30:00")))
+                .andExpect(jsonPath("$.freeSlots[0].end", is("2026-05-04T18:00:00")));
+
+        mockMvc.perform(get("/api/departments/{id}/availability", deptId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("from", "2026-05-04T00:00:00")
+                        .param("to", "2026-05-05T00:00:00")
+                        .param("duration", "15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.department.id", is(deptId.intValue())))
+                .andExpect(jsonPath("$.doctors", hasSize(2)))
+                .andExpect(jsonPath("$.doctors[0].freeSlots", hasSize(2)))
+                .andExpect(jsonPath("$.doctors[0].freeSlots[0].start", is("2026-05-04T12:00:00")))
+                .andExpect(jsonPath("$.doctors[1].doctor.id", is(freeDoctorId.intValue())))
+                .andExpect(jsonPath("$.doctors[1].freeSlots[0].start", is("2026-05-04T08:00:00")))
+                .andExpect(jsonPath("$.doctors[1].freeSlots[0].end", is("2026-05-04T18:00:00")));
+    }
+
+    @Test
+    void availability_shouldReturn400_forInvalidRange_and404_forMissingDoctor() throws Exception {
+        mockMvc.perform(get("/api/doctors/{id}/availability", 999999)
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("from", "2026-05-04T00:00:00")
+                        .param("to", "2026-05-05T00:00:00"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/doctors/{id}/availability", 999999)
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("from", "2026-05-05T00:00:00")
+                        .param("to", "2026-05-04T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void schedule_shouldReturnWeekWithETag_and304UntilAppointmentChanges() throws Exception {
+        Long deptId = createId("/api/departments", adminToken, """
+                {"name":"Sched-%s"}
+                """.formatted(uniqueUsername("d")));
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Sched","lastName":"Doc","specialization":"Cardiology","departmentId":%d}
+                """.formatted(deptId));
+        Long patientId = createId("/api/patients", receptionistToken, """
+                {"firstName":"Ayse","lastName":"Kaya","birthDate":"1990-01-01","nationalId":"%s"}
+                """.formatted(uniqueNationalId11()));
+
+        book(patientId, doctorId, "2027-03-03T09:00:00", "2027-03-03T09:30:00");
+
+        // 2027-03-03 Çarşamba => hafta 2027-03-01 Pazartesi'den başlar
+        String etag = mockMvc.perform(get("/api/doctors/{id}/schedule", doctorId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("date", "2027-03-03")
+                        .param("view", "week"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.view", is("WEEK")))
+                .andExpect(jsonPath("$.from", is("2027-03-01")))
+                .andExpect(jsonPath("$.days", hasSize(7)))
+                .andExpect(jsonPath("$.days[2].appointments", hasSize(1)))
+                .andExpect(jsonPath("$.days[2].appointments[0].patientName", is("Ayse Kaya")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/doctors/{id}/schedule", doctorId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-None-Match", etag)
+                        .param("date", "2027-03-03")
+                        .param("view", "week"))
+                .andExpect(status().isNotModified());
+
+        book(patientId, doctorId, "2027-03-04T10:00:00", "2027-03-04T10:30:00");
+
+        mockMvc.perform(get("/api/doctors/{id}/schedule", doctorId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-None-Match", etag)
+                        .param("date", "2027-03-03")
+                        .param("view", "week"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.days[3].appointments", hasSize(1)));
+
+        mockMvc.perform(get("/api/doctors/{id}/schedule", doctorId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("view", "month"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/doctors/{id}/schedule", 999999)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void scheduleAndAvailability_shouldReturn403_forPatientToken() throws Exception {
+        String patientToken = jwtFor(uniqueUsername("pat"), Set.of("ROLE_PATIENT"));
+
+        mockMvc.perform(get("/api/doctors/{id}/schedule", 1)
+                        .header("Authorization", bearer(patientToken)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/doctors/{id}/availability", 1)
+                        .header("Authorization", bearer(patientToken)))
+                .andExpect(status().isForbidden());
+    }
+
+    private void book(Long patientId, Long doctorId, String start, String end) throws Exception {
+        mockMvc.perform(post("/api/appointments")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"patientId":%d,"doctorId":%d,"startTime":"%s","endTime":"%s"}
+                                """.formatted(patientId, doctorId, start, end)))
+                .andExpect(status().isCreated());
+    }
+}
@@ -73,4 +73,64 @@ public class PatientControllerIT extends IntegrationTestBase {
                         .header("Authorization", bearer(receptionistToken)))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void update_withIfMatch_returnsNewETag_andRejectsStaleVersion() throws Exception {
+        String nationalId = uniqueNationalId11();
+        String body = """
+                {
+                  "firstName":"Ayse",
+                  "lastName":"Kaya",
+                  "birthDate":"1990-05-05",
+                  "nationalId":"%s",
+                  "phone":"5551112233",
+                  "address":"Ankara"
+                }
+                """.formatted(nationalId);
+
+        String createdJson = mockMvc.perform(post("/api/patients")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long patientId = objectMapper.readTree(createdJson).get("id").asLong();
+
+        String etag = mockMvc.perform(get("/api/patients/{id}", patientId)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.version", is(0)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // güncel ETag ile PUT: yeni version döner
+        mockMvc.perform(put("/api/patients/{id}", patientId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace("Ankara", "Izmir")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version", is(1)));
+
+        // aynı (artık eski) ETag ile ikinci PUT: 412, değişiklik uygulanmaz
+        mockMvc.perform(put("/api/patients/{id}", patientId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace("Ankara", "Bursa")))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/patients/{id}", patientId)
+                        .header("Authorization", bearer(receptionistToken)))
+                .andExpect(jsonPath("$.address", is("Izmir")));
+
+        // bozuk If-Match
+        mockMvc.perform(put("/api/patients/{id}", patientId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .header("If-Match", "\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -1,12 +1,18 @@
 package com.hospital.automation.integration;
 
+import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
+import com.hospital.automation.domain.dto.request.PatientCreateRequest;
 import com.hospital.automation.domain.dto.request.RoomCreateRequest;
 import com.hospital.automation.domain.enums.RoomType;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Set;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -20,7 +26,7 @@ class RoomControllerIT extends IntegrationTestBase {
         var patient = createUserWithRoles("rp", "rp@test.com", "pass12345", Set.of("ROLE_PATIENT"));
         String patientJwt = jwtFor(patient.getUsername(), Set.of("ROLE_PATIENT"));
 
-        RoomCreateRequest req = new RoomCreateRequest("A-101", 1, RoomType.PRIVATE, 1);
+        RoomCreateRequest req = new RoomCreateRequest("A-101", 1, RoomType.PRIVATE, 1, null);
 
         mockMvc.perform(post("/api/rooms")
                         .header("Authorization", bearer(patientJwt))
@@ -35,4 +41,62 @@ class RoomControllerIT extends IntegrationTestBase {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.roomNumber").value("A-101"));
     }
+
+    @Test
+    void availability_filtersByTypeAndFloor_andCountsPlannedDischarges() throws Exception {
+        int floor = 93; // bu testin odaları: diğer IT'lerin odalarıyla karışmasın
+        String roomNumber = "ICU-" + (System.nanoTime() % 100000);
+        long icuId = createId("/api/rooms", adminToken,
+                objectMapper.writeValueAsString(new RoomCreateRequest(roomNumber, floor, RoomType.ICU, 2, null)));
+        createId("/api/rooms", adminToken,
+                objectMapper.writeValueAsString(new RoomCreateRequest(roomNumber + "W", floor, RoomType.WARD, 4, null)));
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        admit(icuId, now.minusHours(3), now.plusHours(2));  // planlı taburcu 2 saat sonra
+        admit(icuId, now.minusHours(1), null);               // belirsiz
+
+        // şimdi: ICU dolu (sonuçta yok), WARD boş
+        mockMvc.perform(get("/api/rooms/availability")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("type", "ICU")
+                        .param("floor", String.valueOf(floor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms.length()").value(0))
+                .andExpect(jsonPath("$.totalFreeBeds").value(0));
+
+        // yarın: planlı taburcu sonrası 1 yatak boş
+        mockMvc.perform(get("/api/rooms/availability")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("type", "ICU")
+                        .param("floor", String.valueOf(floor))
+                        .param("at", now.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms.length()").value(1))
+                .andExpect(jsonPath("$.rooms[0].roomId").value(icuId))
+                .andExpect(jsonPath("$.rooms[0].occupied").value(1))
+                .andExpect(jsonPath("$.rooms[0].freeBeds").value(1));
+
+        // tip filtresi yok: aynı kattaki WARD da gelir
+        mockMvc.perform(get("/api/rooms/availability")
+                        .header("Authorization", bearer(adminToken))
+                        .param("floor", String.valueOf(floor))
+                        .param("type", "ICU", "WARD")
+                        .param("at", now.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms.length()").value(2))
+                .andExpect(jsonPath("$.totalFreeBeds").value(5));
+
+        mockMvc.perform(get("/api/rooms/availability")
+                        .header("Authorization", bearer(doctorToken)))
+                .andExpect(status().isForbidden());
+    }
+
+    private void admit(long roomId, LocalDateTime admittedAt, LocalDateTime plannedDischargeAt) throws Exception {
+        var patient = new PatientCreateRequest("Bed", "Manager", LocalDate.of(1980, 1, 1),
+                uniqueNationalId11(), "5550001122", "Ankara");
+        long patientId = createId("/api/patients", receptionistToken, objectMapper.writeValueAsString(patient));
+
+        var admission = new AdmissionCreateRequest(patientId, roomId, null, admittedAt, null, plannedDischargeAt);
+        createId("/api/admissions", receptionistToken, objectMapper.writeValueAsString(admission));
+    }
 }
@@ -0,0 +1,110 @@
+package com.hospital.automation.integration;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
+import com.hospital.automation.domain.dto.request.AdmissionTransferRequest;
+import com.hospital.automation.domain.entity.Admission;
+import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.entity.Room;
+import com.hospital.automation.domain.enums.AdmissionStatus;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.service.AdmissionService;
+import com.hospital.automation.service.admission.RoomOccupancyRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * İki oda arasında iki yönlü paralel transferler: deadlock / lock timeout yok, kapasite aşılmaz,
+ * sayaçlar DB ile aynı kalır.
+ */
+class RoomTransferConcurrencyIT extends IntegrationTestBase {
+
+    private static final int PATIENTS = 10;
+    private static final int CAPACITY = 6;
+    private static final int MOVES = 20;
+
+    @Autowired private AdmissionService admissionService;
+    @Autowired private AdmissionRepository admissionRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private RoomOccupancyRegistry occupancy;
+
+    @Test
+    void oppositeTransfers_shouldNotDeadlock_norExceedCapacity() throws Exception {
+        String suffix = String.valueOf(System.nanoTime() % 100000);
+        Long roomA = roomRepository.save(Room.builder()
+                .roomNumber("XA-" + suffix).floor(7).roomType(RoomType.WARD).capacity(CAPACITY).build()).getId();
+        Long roomB = roomRepository.save(Room.builder()
+                .roomNumber("XB-" + suffix).floor(7).roomType(RoomType.WARD).capacity(CAPACITY).build()).getId();
+
+        LocalDateTime admittedAt = LocalDateTime.of(2026, 4, 1, 8, 0);
+        List<Long> admissionIds = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            Long patientId = patientRepository.save(Patient.builder()
+                    .firstName("Move").lastName("P" + i).nationalId(uniqueNationalId11()).build()).getId();
+            Long roomId = (i % 2 == 0) ? roomA : roomB;
+            admissionIds.add(admissionService.create(
+                    new AdmissionCreateRequest(patientId, roomId, null, admittedAt, null, null)).id());
+        }
+
+        AtomicInteger moved = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(PATIENTS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // her thread kendi hastasını iki oda arasında gidip getirir (version çakışması yok, sadece oda kilitleri)
+        for (Long admissionId : admissionIds) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                for (int m = 1; m <= MOVES; m++) {
+                    Long current = admissionService.getById(admissionId).room().id();
+                    Long target = current.equals(roomA) ? roomB : roomA;
+                    try {
+                        admissionService.transfer(admissionId,
+                                new AdmissionTransferRequest(target, admittedAt.plusMinutes(m), null), null);
+                        moved.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        full.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        go.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES); // deadlock / lock timeout olursa test burada düşer
+        }
+        pool.shutdown();
+
+        assertEquals(PATIENTS * MOVES, moved.get() + full.get());
+        assertTrue(moved.get() > 0);
+
+        long inA = countIn(roomA);
+        long inB = countIn(roomB);
+        assertEquals(PATIENTS, inA + inB);
+        assertTrue(inA <= CAPACITY && inB <= CAPACITY, "capacity exceeded: " + inA + " / " + inB);
+        assertEquals(inA, occupancy.occupied(roomA));
+        assertEquals(inB, occupancy.occupied(roomB));
+    }
+
+    private long countIn(Long roomId) {
+        return admissionRepository.findAll().stream()
+                .filter(a -> a.getStatus() == AdmissionStatus.ADMITTED)
+                .map(Admission::getRoom)
+                .filter(r -> r.getId().equals(roomId))
+                .count();
+    }
+}
@@ -0,0 +1,109 @@
+package com.hospital.automation.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class WaitlistControllerIT extends IntegrationTestBase {
+
+    @Test
+    void cancellation_shouldBookDoctorEntry_andOfferRemainderToDepartmentEntry() throws Exception {
+        Long deptId = createId("/api/departments", adminToken, """
+                {"name":"Wait-%s"}
+                """.formatted(uniqueUsername("d")));
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Doc","lastName":"Wait","specialization":"Cardiology","departmentId":%d}
+                """.formatted(deptId));
+        Long holder = patient("Holder");
+        Long first = patient("First");
+        Long second = patient("Second");
+
+        Long apptId = createId("/api/appointments", receptionistToken, """
+                {"patientId":%d,"doctorId":%d,"startTime":"2027-03-01T10:00:00","endTime":"2027-03-01T10:30:00"}
+                """.formatted(holder, doctorId));
+
+        // doktor kaydı (otomatik, 20 dk) önce geldi; departman kaydı (teklif, 10 dk) kalan kısma sığar
+        Long bookEntry = createId("/api/waitlist", receptionistToken, """
+                {"patientId":%d,"doctorId":%d,"windowStart":"2027-03-01T09:00:00","windowEnd":"2027-03-01T12:00:00",
+                 "durationMinutes":20,"autoBook":true}
+                """.formatted(first, doctorId));
+        Long offerEntry = createId("/api/waitlist", receptionistToken, """
+                {"patientId":%d,"departmentId":%d,"windowStart":"2027-03-01T09:00:00","windowEnd":"2027-03-01T12:00:00",
+                 "durationMinutes":10,"autoBook":false}
+                """.formatted(second, deptId));
+
+        mockMvc.perform(put("/api/appointments/{id}", apptId)
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"startTime":"2027-03-01T10:00:00","endTime":"2027-03-01T10:30:00","status":"CANCELLED"}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/waitlist/{id}", bookEntry).header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("BOOKED")))
+                .andExpect(jsonPath("$.appointmentId", notNullValue()))
+                .andExpect(jsonPath("$.offeredEnd", is("2027-03-01T10:20:00")));
+
+        mockMvc.perform(get("/api/waitlist")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("departmentId", deptId.toString())
+                        .param("status", "offered"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(offerEntry.intValue())))
+                .andExpect(jsonPath("$[0].offeredDoctor.id", is(doctorId.intValue())))
+                .andExpect(jsonPath("$[0].offeredStart", is("2027-03-01T10:20:00")));
+
+        mockMvc.perform(post("/api/waitlist/{id}/accept", offerEntry).header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("BOOKED")));
+
+        // iptal edilen 30 dk'nın tamamı doldu
+        mockMvc.perform(get("/api/appointments/search")
+                        .header("Authorization", bearer(receptionistToken))
+                        .param("doctorId", doctorId.toString())
+                        .param("status", "SCHEDULED"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+    }
+
+    @Test
+    void join_shouldValidateTarget_andRemoveShouldLeaveQueue() throws Exception {
+        Long doctorId = createId("/api/doctors", adminToken, """
+                {"firstName":"Doc","lastName":"Queue","specialization":"Cardiology"}
+                """);
+        Long patientId = patient("Queue");
+
+        String body = """
+                {"patientId":%d,%s"windowStart":"2027-04-01T09:00:00","windowEnd":"2027-04-01T12:00:00","durationMinutes":30}
+                """;
+
+        mockMvc.perform(post("/api/waitlist")
+                        .header("Authorization", bearer(receptionistToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.formatted(patientId, "")))
+                .andExpect(status().isBadRequest());
+
+        Long entryId = createId("/api/waitlist", receptionistToken,
+                body.formatted(patientId, "\"doctorId\":" + doctorId + ","));
+
+        mockMvc.perform(delete("/api/waitlist/{id}", entryId).header("Authorization", bearer(receptionistToken)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/waitlist/{id}", entryId).header("Authorization", bearer(receptionistToken)))
+                .andExpect(jsonPath("$.status", is("REMOVED")));
+
+        mockMvc.perform(get("/api/waitlist").header("Authorization", bearer(doctorToken)))
+                .andExpect(status().isForbidden());
+    }
+
+    private Long patient(String lastName) throws Exception {
+        return createId("/api/patients", receptionistToken, """
+                {"firstName":"Ali","lastName":"%s","nationalId":"%s"}
+                """.formatted(lastName, uniqueNationalId11()));
+    }
+}
@@ -4,23 +4,30 @@ import com.hospital.automation.common.exception.BadRequestException;
 import com.hospital.automation.common.exception.NotFoundException;
 import com.hospital.automation.domain.dto.request.AdmissionCreateRequest;
 import com.hospital.automation.domain.dto.request.AdmissionDischargeRequest;
+import com.hospital.automation.domain.dto.request.AdmissionTransferRequest;
 import com.hospital.automation.domain.dto.response.AdmissionResponse;
 import com.hospital.automation.domain.entity.Admission;
+import com.hospital.automation.domain.entity.AdmissionTransfer;
 import com.hospital.automation.domain.entity.Doctor;
 import com.hospital.automation.domain.entity.Patient;
 import com.hospital.automation.domain.entity.Room;
 import com.hospital.automation.domain.enums.AdmissionStatus;
 import com.hospital.automation.domain.enums.RoomType;
 import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.AdmissionTransferRepository;
 import com.hospital.automation.repository.DoctorRepository;
 import com.hospital.automation.repository.PatientRepository;
 import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.service.admission.CensusIndex;
+import com.hospital.automation.service.admission.RoomAvailabilityIndex;
+import com.hospital.automation.service.admission.RoomOccupancyRegistry;
 import com.hospital.automation.service.impl.AdmissionServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -49,10 +56,14 @@ import static org.mockito.Mockito.*;
 class AdmissionServiceImplTest {
 
     @Mock private AdmissionRepository admissionRepository;
+    @Mock private AdmissionTransferRepository transferRepository;
     @Mock private PatientRepository patientRepository;
     @Mock private RoomRepository roomRepository;
     @Mock private DoctorRepository doctorRepository;
     @Mock private AuditLogService auditLogService;
+    @Mock private RoomOccupancyRegistry occupancy;
+    @Mock private RoomAvailabilityIndex availabilityIndex;
+    @Mock private CensusIndex censusIndex;
 
     @InjectMocks
     private AdmissionServiceImpl admissionService;
@@ -106,7 +117,8 @@ class AdmissionServiceImplTest {
                 5L,     // roomId
                 null,   // attendingDoctorId
                 admittedAt,
-                "note"
+                "note",
+                null   // plannedDischargeAt
         );
 
         // Arrange (stub):
@@ -132,7 +144,7 @@ class AdmissionServiceImplTest {
         // room yoksa NotFoundException
 
         LocalDateTime admittedAt = LocalDateTime.now().plusDays(1);
-        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, null, admittedAt, null);
+        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, null, admittedAt, null, null);
 
         // Arrange:
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
@@ -156,7 +168,7 @@ class AdmissionServiceImplTest {
         // doktor yoksa NotFoundException
 
         LocalDateTime admittedAt = LocalDateTime.now().plusDays(1);
-        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, 7L, admittedAt, "x");
+        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, 7L, admittedAt, "x", null);
 
         // Arrange:
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
@@ -176,19 +188,17 @@ class AdmissionServiceImplTest {
     @Test
     void create_shouldThrowBadRequest_whenRoomCapacityReached() {
         // Amaç:
-        // room.capacity != null ise aktif admission sayısı kontrol edilir.
-        // activeCount >= capacity ise "Room is full" BadRequestException fırlatılır.
+        // oda sayacı kapasiteye ulaşmışsa (tryAdmit false) "Room is full" BadRequestException fırlatılır.
 
         LocalDateTime admittedAt = LocalDateTime.now().plusDays(1);
-        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, null, admittedAt, null);
+        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, null, admittedAt, null, null);
 
         // Arrange:
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
         when(roomRepository.findById(5L)).thenReturn(Optional.of(room));
 
-        // capacity = 2 (room içinde setUp'ta verdik)
-        // aktif admission sayısı = 2 döndürürsek => dolu sayılır
-        when(admissionRepository.countByRoomIdAndStatus(5L, AdmissionStatus.ADMITTED)).thenReturn(2L);
+        // capacity = 2 (room içinde setUp'ta verdik); sayaç yer ayıramazsa => dolu sayılır
+        when(occupancy.tryAdmit(5L, 2)).thenReturn(false);
 
         // Act + Assert:
         BadRequestException ex = assertThrows(BadRequestException.class,
@@ -208,12 +218,12 @@ class AdmissionServiceImplTest {
         // attendingDoctorId null ise doctor repository'ye hiç gidilmemeli
 
         LocalDateTime admittedAt = LocalDateTime.now().plusDays(1);
-        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, null, admittedAt, "note-1");
+        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, null, admittedAt, "note-1", null);
 
         // Arrange:
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
         when(roomRepository.findById(5L)).thenReturn(Optional.of(room));
-        when(admissionRepository.countByRoomIdAndStatus(5L, AdmissionStatus.ADMITTED)).thenReturn(0L);
+        when(occupancy.tryAdmit(5L, 2)).thenReturn(true);
 
         // save() çağrılınca DB normalde id üretir. Unit testte DB yok.
         // Bu yüzden biz save() sonucu döndürülecek "saved" objesini kurgularız:
@@ -272,13 +282,13 @@ class AdmissionServiceImplTest {
         // attendingDoctorId verilmişse doctor bulunup admission'a set edilmeli
 
         LocalDateTime admittedAt = LocalDateTime.now().plusDays(1);
-        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, 7L, admittedAt, "note-2");
+        AdmissionCreateRequest request = new AdmissionCreateRequest(1L, 5L, 7L, admittedAt, "note-2", null);
 
         // Arrange:
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
         when(roomRepository.findById(5L)).thenReturn(Optional.of(room));
         when(doctorRepository.findById(7L)).thenReturn(Optional.of(doctor));
-        when(admissionRepository.countByRoomIdAndStatus(5L, AdmissionStatus.ADMITTED)).thenReturn(0L);
+        when(occupancy.tryAdmit(5L, 2)).thenReturn(true);
 
         when(admissionRepository.save(any(Admission.class))).thenAnswer(invocation -> {
             Admission a = invocation.getArgument(0);
@@ -378,7 +388,7 @@ class AdmissionServiceImplTest {
         AdmissionDischargeRequest request = new AdmissionDischargeRequest(LocalDateTime.now().plusDays(1), "x");
 
         NotFoundException ex = assertThrows(NotFoundException.class,
-                () -> admissionService.discharge(404L, request));
+                () -> admissionService.discharge(404L, request, null));
 
         assertTrue(ex.getMessage().contains("Admission not found"));
         verify(auditLogService, never()).log(any(), any(), any(), any());
@@ -400,7 +410,7 @@ class AdmissionServiceImplTest {
         AdmissionDischargeRequest request = new AdmissionDischargeRequest(LocalDateTime.now().plusHours(1), "x");
 
         BadRequestException ex = assertThrows(BadRequestException.class,
-                () -> admissionService.discharge(10L, request));
+                () -> admissionService.discharge(10L, request, null));
 
         assertTrue(ex.getMessage().contains("already discharged"));
         verify(auditLogService, never()).log(any(), any(), any(), any());
@@ -423,7 +433,7 @@ class AdmissionServiceImplTest {
         AdmissionDischargeRequest request = new AdmissionDischargeRequest(admittedAt.minusHours(1), "x");
 
         BadRequestException ex = assertThrows(BadRequestException.class,
-                () -> admissionService.discharge(11L, request));
+                () -> admissionService.discharge(11L, request, null));
 
         assertTrue(ex.getMessage().contains("dischargedAt cannot be before admittedAt"));
         verify(auditLogService, never()).log(any(), any(), any(), any());
@@ -447,7 +457,7 @@ class AdmissionServiceImplTest {
         LocalDateTime dischargedAt = LocalDateTime.now();
         AdmissionDischargeRequest request = new AdmissionDischargeRequest(dischargedAt, "new-note");
 
-        AdmissionResponse response = admissionService.discharge(12L, request);
+        AdmissionResponse response = admissionService.discharge(12L, request, null);
 
         // Entity güncellenmiş mi?
         assertEquals(AdmissionStatus.DISCHARGED, admission.getStatus());
@@ -459,6 +469,9 @@ class AdmissionServiceImplTest {
         assertEquals(dischargedAt, response.dischargedAt());
         assertEquals("new-note", response.note());
 
+        // yatak boşaldı (sayaç commit sonrası düşer)
+        verify(occupancy).onReleased(5L);
+
         // Audit log atıldı mı?
         verify(auditLogService).log(eq("DISCHARGE"), eq("Admission"), eq(12L), contains("discharged"));
     }
@@ -486,7 +499,7 @@ class AdmissionServiceImplTest {
         LocalDateTime dischargedAt = LocalDateTime.now();
         AdmissionDischargeRequest request = new AdmissionDischargeRequest(dischargedAt, null);
 
-        AdmissionResponse response = admissionService.discharge(13L, request);
+        AdmissionResponse response = admissionService.discharge(13L, request, null);
 
         assertEquals(AdmissionStatus.DISCHARGED, admission.getStatus());
         assertEquals("keep-this-note", admission.getNote());
@@ -495,6 +508,97 @@ class AdmissionServiceImplTest {
         verify(auditLogService).log(eq("DISCHARGE"), eq("Admission"), eq(13L), anyString());
     }
 
+    // ------------------------------------------------------------
+    // TRANSFER TESTLERİ
+    // ------------------------------------------------------------
+
+    @Test
+    void transfer_shouldLockRoomsInIdOrder_moveBed_andRecordHistory() {
+        // Amaç: hedef oda id'si küçük olsa bile kilit sırası hep küçük id önce (deadlock olmasın)
+        Room target = Room.builder().id(3L).roomNumber("ICU-1").floor(2).roomType(RoomType.ICU).capacity(1).build();
+        LocalDateTime admittedAt = LocalDateTime.now().minusDays(2);
+        Admission admission = Admission.builder()
+                .id(20L)
+                .patient(patient)
+                .room(room)
+                .admittedAt(admittedAt)
+                .status(AdmissionStatus.ADMITTED)
+                .build();
+
+        when(admissionRepository.findById(20L)).thenReturn(Optional.of(admission));
+        when(transferRepository.findFirstByAdmissionIdOrderByTransferredAtDescIdDesc(20L)).thenReturn(Optional.empty());
+        when(roomRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(target));
+        when(roomRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(room));
+        when(occupancy.tryAdmit(3L, 1)).thenReturn(true);
+        when(transferRepository.save(any(AdmissionTransfer.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        LocalDateTime at = admittedAt.plusHours(6);
+        AdmissionResponse response = admissionService.transfer(20L, new AdmissionTransferRequest(3L, at, "ICU"), null);
+
+        assertEquals(3L, response.room().id());
+        assertSame(target, admission.getRoom());
+
+        InOrder locks = inOrder(roomRepository);
+        locks.verify(roomRepository).findByIdForUpdate(3L);
+        locks.verify(roomRepository).findByIdForUpdate(5L);
+
+        ArgumentCaptor<AdmissionTransfer> transfer = ArgumentCaptor.forClass(AdmissionTransfer.class);
+        verify(transferRepository).save(transfer.capture());
+        assertSame(room, transfer.getValue().getFromRoom());
+        assertSame(target, transfer.getValue().getToRoom());
+        assertEquals(at, transfer.getValue().getTransferredAt());
+
+        verify(occupancy).onReleased(5L);
+        verify(availabilityIndex).onAdmissionMoved(5L, admission);
+        verify(auditLogService).log(eq("TRANSFER"), eq("Admission"), eq(20L), contains("transferred"));
+    }
+
+    @Test
+    void transfer_shouldThrowBadRequest_whenTargetRoomFull_andKeepOldRoom() {
+        Room target = Room.builder().id(8L).roomNumber("ICU-2").roomType(RoomType.ICU).capacity(1).build();
+        Admission admission = Admission.builder()
+                .id(21L)
+                .patient(patient)
+                .room(room)
+                .admittedAt(LocalDateTime.now().minusDays(1))
+                .status(AdmissionStatus.ADMITTED)
+                .build();
+
+        when(admissionRepository.findById(21L)).thenReturn(Optional.of(admission));
+        when(roomRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(room));
+        when(roomRepository.findByIdForUpdate(8L)).thenReturn(Optional.of(target));
+        when(occupancy.tryAdmit(8L, 1)).thenReturn(false);
+
+        assertThrows(BadRequestException.class, () -> admissionService.transfer(21L,
+                new AdmissionTransferRequest(8L, LocalDateTime.now(), null), null));
+
+        assertSame(room, admission.getRoom());
+        verify(occupancy, never()).onReleased(any());
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    void transfer_shouldThrowBadRequest_whenSameRoomOrDischarged() {
+        Admission admission = Admission.builder()
+                .id(22L)
+                .patient(patient)
+                .room(room)
+                .admittedAt(LocalDateTime.now().minusDays(1))
+                .status(AdmissionStatus.ADMITTED)
+                .build();
+        when(admissionRepository.findById(22L)).thenReturn(Optional.of(admission));
+
+        assertThrows(BadRequestException.class, () -> admissionService.transfer(22L,
+                new AdmissionTransferRequest(5L, LocalDateTime.now(), null), null));
+
+        admission.setStatus(AdmissionStatus.DISCHARGED);
+        assertThrows(BadRequestException.class, () -> admissionService.transfer(22L,
+                new AdmissionTransferRequest(9L, LocalDateTime.now(), null), null));
+
+        verifyNoInteractions(occupancy);
+        verify(roomRepository, never()).findByIdForUpdate(any());
+    }
+
     // ------------------------------------------------------------
     // DELETE TESTLERİ
     // ------------------------------------------------------------
@@ -523,8 +627,11 @@ class AdmissionServiceImplTest {
 
         admissionService.delete(300L);
 
-        // delete gerçekten çağrıldı mı?
+        // delete gerçekten çağrıldı mı? (önce transfer geçmişi)
+        verify(transferRepository).deleteByAdmissionId(300L);
         verify(admissionRepository).delete(admission);
+        // aktif yatış silindi => oda sayacı düşer
+        verify(occupancy).onReleased(5L);
 
         // audit log çağrıldı mı?
         verify(auditLogService).log(eq("DELETE"), eq("Admission"), eq(300L), contains("deleted"));
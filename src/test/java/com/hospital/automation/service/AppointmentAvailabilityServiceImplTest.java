@@ -0,0 +1,127 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.response.DepartmentAvailabilityResponse;
+import com.hospital.automation.domain.dto.response.DoctorAvailabilityResponse;
+import com.hospital.automation.domain.dto.response.FreeSlotResponse;
+import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.projection.DoctorBusySlot;
+import com.hospital.automation.service.impl.AppointmentAvailabilityServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentAvailabilityServiceImplTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    private AppointmentAvailabilityServiceImpl availabilityService;
+
+    private Department cardiology;
+    private Doctor doc1;
+    private Doctor doc2;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentProperties props = new AppointmentProperties();
+        props.setWorkdayStart(LocalTime.of(9, 0));
+        props.setWorkdayEnd(LocalTime.of(17, 0));
+
+        availabilityService = new AppointmentAvailabilityServiceImpl(
+                appointmentRepository, doctorRepository, departmentRepository, props);
+
+        cardiology = Department.builder().id(1L).name("Cardiology").build();
+        doc1 = Doctor.builder().id(10L).firstName("Ahmet").lastName("Yilmaz").department(cardiology).build();
+        doc2 = Doctor.builder().id(11L).firstName("Ayse").lastName("Kaya").department(cardiology).build();
+    }
+
+    @Test
+    @DisplayName("doctorAvailability: randevular arası boşluklar çalışma saatine kırpılarak dönmeli")
+    void doctorAvailability_shouldReturnGapsInsideWorkingHours() {
+        when(doctorRepository.findById(10L)).thenReturn(Optional.of(doc1));
+        when(appointmentRepository.findBusySlots(List.of(10L), AppointmentStatus.SCHEDULED, DAY, DAY.plusDays(1)))
+                .thenReturn(List.of(busy(10L, 9, 0, 12, 0), busy(10L, 12, 15, 16, 0)));
+
+        DoctorAvailabilityResponse res = availabilityService.doctorAvailability(10L, DAY, DAY.plusDays(1), 30);
+
+        // 12:00-12:15 (15 dk) elenir, 16:00-17:00 kalır
+        assertEquals(List.of(new FreeSlotResponse(at(16, 0), at(17, 0))), res.freeSlots());
+        assertEquals(30, res.durationMinutes());
+    }
+
+    @Test
+    @DisplayName("departmentAvailability: tek sorgu ile tüm doktorlar, randevusu olmayan doktor tamamen boş")
+    void departmentAvailability_shouldUseSingleRangeQuery_forAllDoctors() {
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(cardiology));
+        when(doctorRepository.findByDepartment_IdOrderByIdAsc(1L)).thenReturn(List.of(doc1, doc2));
+        when(appointmentRepository.findBusySlots(List.of(10L, 11L), AppointmentStatus.SCHEDULED, DAY, DAY.plusDays(1)))
+                .thenReturn(List.of(busy(10L, 9, 0, 16, 30)));
+
+        DepartmentAvailabilityResponse res = availabilityService.departmentAvailability(1L, DAY, DAY.plusDays(1), 30);
+
+        assertEquals(2, res.doctors().size());
+        assertEquals(List.of(new FreeSlotResponse(at(16, 30), at(17, 0))), res.doctors().get(0).freeSlots());
+        assertEquals(List.of(new FreeSlotResponse(at(9, 0), at(17, 0))), res.doctors().get(1).freeSlots());
+        verify(appointmentRepository, times(1)).findBusySlots(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Geçersiz süre veya çok uzun aralık -> BadRequestException, DB'ye gidilmemeli")
+    void availability_shouldRejectInvalidParameters() {
+        assertThrows(BadRequestException.class,
+                () -> availabilityService.doctorAvailability(10L, DAY, DAY.plusDays(1), 0));
+        assertThrows(BadRequestException.class,
+                () -> availabilityService.doctorAvailability(10L, DAY.plusDays(1), DAY, 30));
+        assertThrows(BadRequestException.class,
+                () -> availabilityService.departmentAvailability(1L, DAY, DAY.plusDays(200), 30));
+
+        verifyNoInteractions(appointmentRepository, doctorRepository, departmentRepository);
+    }
+
+    @Test
+    @DisplayName("doctorAvailability: doktor yoksa NotFoundException")
+    void doctorAvailability_shouldThrowNotFound_whenDoctorMissing() {
+        when(doctorRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class,
+                () -> availabilityService.doctorAvailability(99L, DAY, DAY.plusDays(1), 30));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    private static DoctorBusySlot busy(Long doctorId, int sh, int sm, int eh, int em) {
+        return new DoctorBusySlot(doctorId, at(sh, sm), at(eh, em));
+    }
+
+    private static LocalDateTime at(int h, int m) {
+        return DAY.withHour(h).withMinute(m);
+    }
+}
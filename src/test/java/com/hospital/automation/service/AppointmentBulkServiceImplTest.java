@@ -0,0 +1,77 @@
+package com.hospital.automation.service;
+
+import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse.RowError;
+import com.hospital.automation.service.appointment.AppointmentBatchInserter;
+import com.hospital.automation.service.appointment.AppointmentBatchInserter.Row;
+import com.hospital.automation.service.impl.AppointmentBulkServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentBulkServiceImplTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Mock AppointmentBatchInserter batchInserter;
+    @Mock AuditLogService auditLogService;
+    @Mock PlatformTransactionManager txManager;
+
+    AppointmentBulkServiceImpl bulkService;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentProperties props = new AppointmentProperties();
+        props.setBulkChunkSize(2);
+        bulkService = new AppointmentBulkServiceImpl(batchInserter, auditLogService, props, txManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkCreate_shouldReportFailedChunkRows_andKeepGoing_whenChunkThrowsExpectedException() {
+        when(batchInserter.insert(anyList()))
+                .thenAnswer(inv -> new AppointmentBatchInserter.Result(List.copyOf((List<Row>) inv.getArgument(0)), List.of()))
+                .thenThrow(new NotFoundException("Doctor not found: 9"))
+                .thenThrow(new IllegalArgumentException("bad id"));
+
+        AppointmentBulkResponse report = bulkService.bulkCreate(List.of(req(), req(), req(), req(), req()));
+
+        assertEquals(5, report.received());
+        assertEquals(2, report.created());
+        assertEquals(3, report.failed());
+        assertEquals(List.of(
+                new RowError(3, "Doctor not found: 9"),
+                new RowError(4, "Doctor not found: 9"),
+                new RowError(5, "bad id")), report.errors());
+    }
+
+    @Test
+    void bulkCreate_shouldStillReturnReport_whenChunkFailsUnexpectedly() {
+        when(batchInserter.insert(anyList())).thenThrow(new IllegalStateException("boom"));
+
+        AppointmentBulkResponse report = bulkService.bulkCreate(List.of(req()));
+
+        assertEquals(0, report.created());
+        assertEquals(1, report.failed());
+        assertTrue(report.errors().get(0).message().contains("internal error"));
+        verifyNoInteractions(auditLogService);
+    }
+
+    private static AppointmentCreateRequest req() {
+        return new AppointmentCreateRequest(1L, 10L, null, T, T.plusMinutes(30), null);
+    }
+}
@@ -2,28 +2,48 @@ package com.hospital.automation.service;
 
 import com.hospital.automation.common.exception.BadRequestException;
 import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.common.pagination.KeysetCursor;
+import com.hospital.automation.config.AppointmentProperties;
 import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.request.AppointmentFilter;
 import com.hospital.automation.domain.dto.request.AppointmentUpdateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentResponse;
+import com.hospital.automation.domain.dto.response.CursorPageResponse;
 import com.hospital.automation.domain.entity.Appointment;
 import com.hospital.automation.domain.entity.Department;
 import com.hospital.automation.domain.entity.Doctor;
 import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.AppointmentChangeType;
 import com.hospital.automation.domain.enums.AppointmentStatus;
 import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.DoctorRepository;
 import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.service.appointment.AppointmentChangeHub;
+import com.hospital.automation.service.appointment.AppointmentOverlapIndex;
+import com.hospital.automation.service.appointment.DoctorBookingLocks;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
 import com.hospital.automation.service.impl.AppointmentServiceImpl;
+import com.hospital.automation.service.waitlist.FreedSlot;
+import com.hospital.automation.service.waitlist.WaitlistBackfiller;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,17 +56,32 @@ class AppointmentServiceImplTest {
     @Mock DoctorRepository doctorRepository;
     @Mock DepartmentRepository departmentRepository;
     @Mock AuditLogService auditLogService;
+    @Mock DoctorBookingLocks bookingLocks;
+    @Mock WaitlistBackfiller waitlistBackfiller;
+    @Mock DoctorScheduleCache scheduleCache;
+    @Mock CalendarFeedVersions feedVersions;
+    @Mock AppointmentChangeHub changeHub;
 
     AppointmentServiceImpl appointmentService;
 
     @BeforeEach
     void setUp() {
+        // index kapalı: çakışma kontrolü doğrudan repository'ye gider (index'in kendi testi ayrı)
+        AppointmentProperties props = new AppointmentProperties();
+        props.setOverlapIndexEnabled(false);
+
         appointmentService = new AppointmentServiceImpl(
                 appointmentRepository,
                 patientRepository,
                 doctorRepository,
                 departmentRepository,
-                auditLogService
+                auditLogService,
+                new AppointmentOverlapIndex(appointmentRepository, props, mock(PlatformTransactionManager.class)),
+                bookingLocks,
+                waitlistBackfiller,
+                scheduleCache,
+                feedVersions,
+                changeHub
         );
     }
 
@@ -339,7 +374,7 @@ class AppointmentServiceImplTest {
         when(request.startTime()).thenReturn(LocalDateTime.now().plusDays(1));
         when(request.endTime()).thenReturn(LocalDateTime.now().plusDays(1).plusMinutes(30));
 
-        assertThrows(NotFoundException.class, () -> appointmentService.update(1L, request));
+        assertThrows(NotFoundException.class, () -> appointmentService.update(1L, request, null));
     }
 
     @Test
@@ -368,7 +403,7 @@ class AppointmentServiceImplTest {
                 doctorId, apptId, AppointmentStatus.SCHEDULED, start, end
         )).thenReturn(true);
 
-        assertThrows(BadRequestException.class, () -> appointmentService.update(apptId, request));
+        assertThrows(BadRequestException.class, () -> appointmentService.update(apptId, request, null));
 
         verify(a, never()).setStartTime(any());
         verify(a, never()).setEndTime(any());
@@ -378,6 +413,24 @@ class AppointmentServiceImplTest {
     }
 
 
+    @Test
+    void update_toCancelled_shouldHandFreedSlotToWaitlist() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        Department dept = Department.builder().id(3L).name("Cardiology").build();
+        Doctor d = Doctor.builder().id(10L).firstName("D").lastName("X").department(dept).build();
+        Patient p = Patient.builder().id(1L).firstName("A").lastName("B").build();
+        Appointment a = Appointment.builder().id(50L).patient(p).doctor(d)
+                .startTime(start).endTime(start.plusMinutes(30)).status(AppointmentStatus.SCHEDULED).build();
+        when(appointmentRepository.findById(50L)).thenReturn(Optional.of(a));
+
+        appointmentService.update(50L, new AppointmentUpdateRequest(start, start.plusMinutes(30), AppointmentStatus.CANCELLED, null), null);
+
+        // departman randevuda yoksa doktorunkinden gelir
+        verify(waitlistBackfiller).onSlotFreed(new FreedSlot(10L, 3L, start, start.plusMinutes(30)));
+        verify(changeHub).publish(AppointmentChangeType.CANCELLED, a);
+        verifyNoInteractions(bookingLocks);
+    }
+
     @Test
     void update_shouldSetFieldsAndLog_whenValid() {
         Long apptId = 50L;
@@ -421,7 +474,7 @@ class AppointmentServiceImplTest {
                 doctorId, apptId, AppointmentStatus.SCHEDULED, start, end
         )).thenReturn(false);
 
-        var response = appointmentService.update(apptId, request);
+        var response = appointmentService.update(apptId, request, null);
 
         assertEquals(apptId, response.id());
 
@@ -438,6 +491,47 @@ class AppointmentServiceImplTest {
         );
     }
 
+    @Test
+    void edit_movingToAnotherDoctor_shouldLockNewDoctor_andRefreshBothDoctors() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        Doctor oldDoctor = Doctor.builder().id(10L).firstName("D").lastName("X").build();
+        Doctor newDoctor = Doctor.builder().id(11L).firstName("E").lastName("Y").build();
+        Patient p = Patient.builder().id(1L).firstName("A").lastName("B").build();
+        Appointment a = Appointment.builder().id(50L).patient(p).doctor(oldDoctor)
+                .startTime(start).endTime(start.plusMinutes(30)).status(AppointmentStatus.SCHEDULED).build();
+        when(appointmentRepository.findById(50L)).thenReturn(Optional.of(a));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(p));
+        when(doctorRepository.findById(11L)).thenReturn(Optional.of(newDoctor));
+
+        appointmentService.edit(50L, new AppointmentCreateRequest(1L, 11L, null, start, start.plusMinutes(30), null),
+                AppointmentStatus.SCHEDULED);
+
+        assertSame(newDoctor, a.getDoctor());
+        verify(bookingLocks).lockForTransaction(11L);
+        verify(appointmentRepository).existsOverlappingAppointmentExcludingId(
+                11L, 50L, AppointmentStatus.SCHEDULED, start, start.plusMinutes(30));
+        verify(scheduleCache).evict(10L, start);
+        verify(feedVersions).onAppointmentChanged(10L, 1L);
+        verify(feedVersions).onAppointmentChanged(11L, 1L);
+    }
+
+    @Test
+    void create_withNonScheduledStatus_shouldSkipLockAndOverlapCheck() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        Doctor d = Doctor.builder().id(10L).firstName("D").lastName("X").build();
+        Patient p = Patient.builder().id(1L).firstName("A").lastName("B").build();
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(p));
+        when(doctorRepository.findById(10L)).thenReturn(Optional.of(d));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        var response = appointmentService.create(
+                new AppointmentCreateRequest(1L, 10L, null, start, start.plusMinutes(30), null), AppointmentStatus.COMPLETED);
+
+        assertEquals(AppointmentStatus.COMPLETED, response.status());
+        verifyNoInteractions(bookingLocks);
+        verify(appointmentRepository, never()).existsOverlappingAppointment(any(), any(), any(), any());
+    }
+
     // ------------------------------------------------------------
     // DELETE TESTS
     // ------------------------------------------------------------
@@ -476,4 +570,64 @@ class AppointmentServiceImplTest {
                 contains("doctorId=")
         );
     }
+
+    // ------------------------------------------------------------
+    // SEARCH TESTS
+    // ------------------------------------------------------------
+
+    @Test
+    void search_shouldUseSingleSpecQuery_withStartTimeAndIdSort() {
+        Appointment a = appointment(100L, LocalDateTime.of(2026, 3, 2, 9, 0));
+        when(appointmentRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(a), PageRequest.of(0, 20), 1));
+
+        Page<AppointmentResponse> page = appointmentService.search(
+                new AppointmentFilter(10L, null, null, AppointmentStatus.SCHEDULED, null, null), 0, 20, "startTime,desc");
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(100L, page.getContent().get(0).id());
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(appointmentRepository).findAll(any(Specification.class), captor.capture());
+        // id ile tamamlanmış deterministik sıralama
+        assertEquals("startTime: DESC,id: DESC", captor.getValue().getSort().toString());
+        verify(appointmentRepository, never()).findAll();
+    }
+
+    @Test
+    void search_shouldRejectUnknownSortField_andInvalidSize() {
+        AppointmentFilter none = new AppointmentFilter(null, null, null, null, null, null);
+
+        assertThrows(BadRequestException.class, () -> appointmentService.search(none, 0, 20, "note,asc"));
+        assertThrows(BadRequestException.class, () -> appointmentService.search(none, 0, 0, null));
+        assertThrows(BadRequestException.class, () -> appointmentService.searchKeyset(none, null, 5000, false, false));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    void searchKeyset_shouldReturnNextCursor_fromLastRowOfPage() {
+        LocalDateTime t = LocalDateTime.of(2026, 3, 2, 9, 0);
+        when(appointmentRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(List.of(appointment(1L, t), appointment(2L, t), appointment(3L, t.plusHours(1))));
+
+        CursorPageResponse<AppointmentResponse> page = appointmentService.searchKeyset(
+                new AppointmentFilter(null, 5L, null, null, null, null), null, 2, false, false);
+
+        assertTrue(page.hasNext());
+        assertEquals(List.of(1L, 2L), page.content().stream().map(AppointmentResponse::id).toList());
+        assertEquals(new KeysetCursor(t, 2L), KeysetCursor.decode(page.nextCursor()));
+        assertNull(page.totalElements());
+        verify(appointmentRepository, never()).count(any(Specification.class));
+    }
+
+    private static Appointment appointment(Long id, LocalDateTime start) {
+        return Appointment.builder()
+                .id(id)
+                .patient(Patient.builder().id(5L).firstName("Ali").lastName("Veli").build())
+                .doctor(Doctor.builder().id(10L).firstName("Ayse").lastName("Demir").build())
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .status(AppointmentStatus.SCHEDULED)
+                .build();
+    }
 }
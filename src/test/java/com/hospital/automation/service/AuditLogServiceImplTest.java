@@ -1,9 +1,20 @@
 package com.hospital.automation.service;
 
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.pagination.KeysetCursor;
 import com.hospital.automation.config.security.UserPrincipal;
+import com.hospital.automation.domain.dto.request.AuditLogFilter;
+import com.hospital.automation.domain.dto.response.AuditActivityStatsResponse;
 import com.hospital.automation.domain.dto.response.AuditLogResponse;
+import com.hospital.automation.domain.dto.response.CursorPageResponse;
 import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.domain.enums.StatsGranularity;
+import com.hospital.automation.domain.enums.StatsGroupBy;
+import com.hospital.automation.repository.AuditActivityHourlyRepository;
+import com.hospital.automation.repository.AuditActivityHourlyRepositoryCustom.BucketCount;
 import com.hospital.automation.repository.AuditLogRepository;
+import com.hospital.automation.service.audit.AuditArchiveStore;
+import com.hospital.automation.service.audit.AuditLogWriter;
 import com.hospital.automation.service.impl.AuditLogServiceImpl;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +29,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,6 +47,15 @@ class AuditLogServiceImplTest {
     @Mock
     private AuditLogRepository auditLogRepository;
 
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private AuditArchiveStore auditArchiveStore;
+
+    @Mock
+    private AuditActivityHourlyRepository activityRepository;
+
     @InjectMocks
     private AuditLogServiceImpl auditLogService;
 
@@ -49,7 +70,7 @@ class AuditLogServiceImplTest {
     // -------------------------------------------------------------------------
 
     @Test
-    @DisplayName("log(): Authentication varsa auth.getName() username olarak kaydedilir ve repository.save çağrılır")
+    @DisplayName("log(): Authentication varsa auth.getName() username olarak kaydedilir ve writer'a teslim edilir")
     void log_shouldSaveAuditLog_withUsernameFromAuthName() {
         // Arrange (Hazırlık)
         // 1) SecurityContext'e bir Authentication koyuyoruz.
@@ -68,9 +89,9 @@ class AuditLogServiceImplTest {
         auditLogService.log(action, entityName, entityId, details);
 
         // Assert (Doğrula)
-        // save içine giden AuditLog nesnesini yakalayıp alanlarını kontrol edeceğiz.
+        // writer'a giden AuditLog nesnesini yakalayıp alanlarını kontrol edeceğiz.
         ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository, times(1)).save(captor.capture());
+        verify(auditLogWriter, times(1)).submit(captor.capture());
 
         AuditLog saved = captor.getValue();
 
@@ -85,7 +106,8 @@ class AuditLogServiceImplTest {
         assertTrue(saved.getCreatedAt().isAfter(beforeCall),
                 "createdAt, log çağrısından sonra set edilmiş olmalı");
 
-        verifyNoMoreInteractions(auditLogRepository);
+        // yazma asenkron: log() repository'ye doğrudan dokunmaz
+        verifyNoInteractions(auditLogRepository);
     }
 
     @Test
@@ -100,7 +122,7 @@ class AuditLogServiceImplTest {
 
         // Assert
         ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository).save(captor.capture());
+        verify(auditLogWriter).submit(captor.capture());
 
         AuditLog saved = captor.getValue();
         assertEquals("SYSTEM", saved.getUsername());
@@ -129,7 +151,7 @@ class AuditLogServiceImplTest {
 
         // Assert
         ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository).save(captor.capture());
+        verify(auditLogWriter).submit(captor.capture());
         AuditLog saved = captor.getValue();
 
         assertEquals("taha", saved.getUsername());
@@ -198,6 +220,7 @@ class AuditLogServiceImplTest {
                 "Appointment",  // entityName equals
                 null,           // from
                 null,           // to
+                null,           // q
                 0,              // page
                 5,              // size
                 ""              // sort (blank) => default createdAt desc
@@ -241,7 +264,7 @@ class AuditLogServiceImplTest {
         // Act
         auditLogService.search(
                 null, null, null,
-                null, null,
+                null, null, null,
                 1, 10,
                 "username,asc"
         );
@@ -271,7 +294,7 @@ class AuditLogServiceImplTest {
         // Act
         auditLogService.search(
                 null, null, null,
-                null, null,
+                null, null, null,
                 0, 20,
                 "createdAt,desc"
         );
@@ -287,4 +310,163 @@ class AuditLogServiceImplTest {
 
         verifyNoMoreInteractions(auditLogRepository);
     }
+
+    // -------------------------------------------------------------------------
+    // 4) searchKeyset(...) TESTLERİ
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("searchKeyset(): size+1 satır gelirse hasNext=true ve son satırdan cursor üretilir, COUNT yapılmaz")
+    @SuppressWarnings("unchecked")
+    void searchKeyset_shouldReturnNextCursor_withoutCount() {
+        LocalDateTime t = LocalDateTime.of(2026, 1, 1, 10, 0);
+        AuditLog a1 = AuditLog.builder().id(3L).username("u").action("CREATE").entityName("X").createdAt(t).build();
+        AuditLog a2 = AuditLog.builder().id(2L).username("u").action("CREATE").entityName("X").createdAt(t).build();
+        AuditLog a3 = AuditLog.builder().id(1L).username("u").action("CREATE").entityName("X").createdAt(t.minusHours(1)).build();
+
+        when(auditLogRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(List.of(a1, a2, a3));
+
+        CursorPageResponse<AuditLogResponse> page = auditLogService.searchKeyset(
+                new AuditLogFilter(null, null, "X", null, null, null), null, 2, true, false);
+
+        assertEquals(2, page.size());
+        assertTrue(page.hasNext());
+        assertNull(page.totalElements());
+        assertEquals(List.of(3L, 2L), page.content().stream().map(AuditLogResponse::id).toList());
+
+        KeysetCursor next = KeysetCursor.decode(page.nextCursor());
+        assertEquals(t, next.at());
+        assertEquals(2L, next.id());
+
+        verify(auditLogRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("searchKeyset(): son sayfada hasNext=false, includeTotal=true ise count döner")
+    @SuppressWarnings("unchecked")
+    void searchKeyset_shouldReturnTotal_whenRequested() {
+        AuditLog a1 = AuditLog.builder().id(1L).username("u").action("CREATE").entityName("X")
+                .createdAt(LocalDateTime.of(2026, 1, 1, 10, 0)).build();
+
+        when(auditLogRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of(a1));
+        when(auditLogRepository.count(any(Specification.class))).thenReturn(41L);
+
+        String cursor = new KeysetCursor(LocalDateTime.of(2026, 1, 2, 0, 0), 99L).encode();
+        CursorPageResponse<AuditLogResponse> page = auditLogService.searchKeyset(
+                new AuditLogFilter(null, null, null, null, null, null), cursor, 10, true, true);
+
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+        assertEquals(41L, page.totalElements());
+    }
+
+    @Test
+    @DisplayName("searchKeyset(): bozuk cursor veya geçersiz size => BadRequest")
+    void searchKeyset_shouldRejectInvalidInput() {
+        AuditLogFilter none = new AuditLogFilter(null, null, null, null, null, null);
+
+        assertThrows(BadRequestException.class, () -> auditLogService.searchKeyset(none, "not-a-cursor", 10, true, false));
+        assertThrows(BadRequestException.class, () -> auditLogService.searchKeyset(none, null, 0, true, false));
+
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    // -------------------------------------------------------------------------
+    // 5) search(...) + ARŞİV TESTLERİ
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("search(): arşive uzanan desc sorguda sayfa önce DB'den, kalanı arşivden dolar; total ikisinin toplamı")
+    @SuppressWarnings("unchecked")
+    void search_shouldMergeArchive_afterDbRows_whenDesc() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AuditLog db1 = row(12L, LocalDateTime.of(2026, 5, 2, 10, 0));
+        AuditLog ar1 = row(5L, LocalDateTime.of(2024, 3, 2, 10, 0));
+
+        when(auditArchiveStore.covers(any())).thenReturn(true);
+        // arşivden yalnızca sayfaya düşen satır istenir (toplam 2)
+        when(auditArchiveStore.search(any(), eq(true), eq(0L), eq(1))).thenReturn(new AuditArchiveStore.Slice(List.of(ar1), 2));
+        when(auditLogRepository.count(any(Specification.class))).thenReturn(3L);
+        // page=1,size=2 => global offset 2: DB'nin 3. satırı + arşivin ilk satırı
+        when(auditLogRepository.findSlice(any(Specification.class), any(Sort.class), eq(2L), eq(1)))
+                .thenReturn(List.of(db1));
+
+        Page<AuditLogResponse> result = auditLogService.search(null, null, null, from, null, null, 1, 2, null);
+
+        assertEquals(List.of(12L, 5L), result.getContent().stream().map(AuditLogResponse::id).toList());
+        assertEquals(5L, result.getTotalElements());
+        verify(auditLogRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("search(): asc sorguda arşiv satırları önce gelir, DB dilimi arşiv sonrası offset'ten başlar")
+    @SuppressWarnings("unchecked")
+    void search_shouldMergeArchive_beforeDbRows_whenAsc() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AuditLog ar3 = row(6L, LocalDateTime.of(2024, 3, 3, 10, 0));
+        AuditLog db1 = row(10L, LocalDateTime.of(2026, 5, 1, 10, 0));
+
+        when(auditArchiveStore.covers(any())).thenReturn(true);
+        // arşivde 3 satır; offset 2'den 2 satır istenir, yalnızca sonuncusu döner
+        when(auditArchiveStore.search(any(), eq(false), eq(2L), eq(2))).thenReturn(new AuditArchiveStore.Slice(List.of(ar3), 3));
+        when(auditLogRepository.count(any(Specification.class))).thenReturn(7L);
+        when(auditLogRepository.findSlice(any(Specification.class), any(Sort.class), eq(0L), eq(1)))
+                .thenReturn(List.of(db1));
+
+        Page<AuditLogResponse> result = auditLogService.search(null, null, null, from, null, null, 1, 2, "createdAt,asc");
+
+        assertEquals(List.of(6L, 10L), result.getContent().stream().map(AuditLogResponse::id).toList());
+        assertEquals(10L, result.getTotalElements());
+    }
+
+    private static AuditLog row(Long id, LocalDateTime at) {
+        return AuditLog.builder().id(id).username("u").action("CREATE").entityName("X").createdAt(at).build();
+    }
+
+    // -------------------------------------------------------------------------
+    // 6) stats(...) TESTLERİ
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("stats(): saatlik sayaçlar DAY'e toplanır, seriler toplamına göre azalan sıralanır; audit_logs'a gidilmez")
+    void stats_shouldFoldHourlyBucketsIntoDays_andSortSeriesByTotal() {
+        LocalDateTime from = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 3, 3, 0, 0);
+
+        when(activityRepository.sumByHour(from, to, null, null, null, StatsGroupBy.ACTION)).thenReturn(List.of(
+                new BucketCount(LocalDateTime.of(2026, 3, 1, 9, 0), "CREATE", 2),
+                new BucketCount(LocalDateTime.of(2026, 3, 1, 14, 0), "CREATE", 3),
+                new BucketCount(LocalDateTime.of(2026, 3, 1, 14, 0), "DELETE", 1),
+                new BucketCount(LocalDateTime.of(2026, 3, 2, 8, 0), "CREATE", 4)
+        ));
+
+        AuditActivityStatsResponse stats = auditLogService.stats(
+                from, to, StatsGranularity.DAY, StatsGroupBy.ACTION, null, null, null);
+
+        assertEquals(10, stats.total());
+        assertEquals(List.of("CREATE", "DELETE"), stats.series().stream().map(AuditActivityStatsResponse.Series::key).toList());
+
+        AuditActivityStatsResponse.Series create = stats.series().get(0);
+        assertEquals(9, create.total());
+        assertEquals(List.of(
+                new AuditActivityStatsResponse.Point(LocalDateTime.of(2026, 3, 1, 0, 0), 5),
+                new AuditActivityStatsResponse.Point(LocalDateTime.of(2026, 3, 2, 0, 0), 4)
+        ), create.points());
+
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    @Test
+    @DisplayName("stats(): from >= to veya çok geniş aralık => BadRequest")
+    void stats_shouldRejectInvalidRange() {
+        LocalDateTime t = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+        assertThrows(BadRequestException.class, () -> auditLogService.stats(
+                t, t, StatsGranularity.HOUR, StatsGroupBy.NONE, null, null, null));
+        assertThrows(BadRequestException.class, () -> auditLogService.stats(
+                t.minusYears(2), t, StatsGranularity.DAY, StatsGroupBy.NONE, null, null, null));
+
+        verifyNoInteractions(activityRepository);
+    }
 }
@@ -78,7 +78,7 @@ class AuthServiceImplTest {
         verify(userRepository, never()).existsByEmail(anyString());
         verify(roleRepository, never()).findByName(anyString());
         verify(userRepository, never()).save(any(User.class));
-        verify(tokenProvider, never()).generateToken(anyString(), anyList());
+        verify(tokenProvider, never()).generateToken(any(), anyString(), anyList());
     }
 
     @Test
@@ -104,7 +104,7 @@ class AuthServiceImplTest {
 
         verify(roleRepository, never()).findByName(anyString());
         verify(userRepository, never()).save(any(User.class));
-        verify(tokenProvider, never()).generateToken(anyString(), anyList());
+        verify(tokenProvider, never()).generateToken(any(), anyString(), anyList());
     }
 
     @Test
@@ -130,7 +130,7 @@ class AuthServiceImplTest {
             return u;
         });
 
-        when(tokenProvider.generateToken(eq("berfin"), anyList())).thenReturn("jwt-token");
+        when(tokenProvider.generateToken(eq(10L), eq("berfin"), anyList())).thenReturn("jwt-token");
 
         // Act
         AuthResponse response = authService.register(request);
@@ -154,7 +154,7 @@ class AuthServiceImplTest {
         assertEquals(Set.of("ROLE_PATIENT"), savedArg.getRoles().stream().map(Role::getName).collect(java.util.stream.Collectors.toSet()));
 
         // Token üretimi doğru mu?
-        verify(tokenProvider).generateToken(eq("berfin"), eq(List.of("ROLE_PATIENT")));
+        verify(tokenProvider).generateToken(eq(10L), eq("berfin"), eq(List.of("ROLE_PATIENT")));
     }
 
     @Test
@@ -179,7 +179,7 @@ class AuthServiceImplTest {
             return u;
         });
 
-        when(tokenProvider.generateToken(eq("berfin"), eq(List.of("ROLE_ADMIN")))).thenReturn("jwt-admin");
+        when(tokenProvider.generateToken(eq(11L), eq("berfin"), eq(List.of("ROLE_ADMIN")))).thenReturn("jwt-admin");
 
         // Act
         AuthResponse response = authService.register(request);
@@ -190,7 +190,7 @@ class AuthServiceImplTest {
         assertEquals("jwt-admin", response.token());
 
         verify(roleRepository).findByName("ROLE_ADMIN");
-        verify(tokenProvider).generateToken(eq("berfin"), eq(List.of("ROLE_ADMIN")));
+        verify(tokenProvider).generateToken(eq(11L), eq("berfin"), eq(List.of("ROLE_ADMIN")));
     }
 
     @Test
@@ -218,7 +218,7 @@ class AuthServiceImplTest {
 
         // Role bulunamadığı için user save ve token üretimi olmamalı
         verify(userRepository, never()).save(any(User.class));
-        verify(tokenProvider, never()).generateToken(anyString(), anyList());
+        verify(tokenProvider, never()).generateToken(any(), anyString(), anyList());
     }
 
     @Test
@@ -248,7 +248,7 @@ class AuthServiceImplTest {
 
         // tokenProvider'a hangi rol listesi gittiğini anyList() ile geçeceğiz,
         // sonra verify ile kontrol edeceğiz (sıra set'ten geldiği için değişebilir)
-        when(tokenProvider.generateToken(eq("berfin"), anyList())).thenReturn("jwt-multi");
+        when(tokenProvider.generateToken(eq(12L), eq("berfin"), anyList())).thenReturn("jwt-multi");
 
         // Act
         AuthResponse response = authService.register(request);
@@ -273,8 +273,8 @@ class AuthServiceImplTest {
         Set<String> savedRoleNames = saved.getRoles().stream().map(Role::getName).collect(java.util.stream.Collectors.toSet());
         assertEquals(Set.of("ROLE_ADMIN", "ROLE_PATIENT"), savedRoleNames);
 
-        // token üretimi username ile çağrıldı mı?
-        verify(tokenProvider).generateToken(eq("berfin"), argThat(list ->
+        // token üretimi userId + username ile çağrıldı mı?
+        verify(tokenProvider).generateToken(eq(12L), eq("berfin"), argThat(list ->
                 list.contains("ROLE_ADMIN") && list.contains("ROLE_PATIENT") && list.size() == 2
         ));
     }
@@ -300,7 +300,7 @@ class AuthServiceImplTest {
                 .build();
 
         when(userRepository.findByUsername("berfin")).thenReturn(Optional.of(user));
-        when(tokenProvider.generateToken(eq("berfin"), anyList())).thenReturn("jwt-login");
+        when(tokenProvider.generateToken(eq(20L), eq("berfin"), anyList())).thenReturn("jwt-login");
 
         // Act
         AuthResponse response = authService.login(request);
@@ -316,8 +316,8 @@ class AuthServiceImplTest {
         // authenticate çağrıldı mı?
         verify(authenticationManager).authenticate(any());
 
-        // token doğru username ile üretildi mi?
-        verify(tokenProvider).generateToken(eq("berfin"), argThat(list ->
+        // token doğru userId + username ile üretildi mi?
+        verify(tokenProvider).generateToken(eq(20L), eq("berfin"), argThat(list ->
                 list.contains("ROLE_ADMIN") && list.contains("ROLE_PATIENT") && list.size() == 2
         ));
     }
@@ -339,6 +339,6 @@ class AuthServiceImplTest {
         assertEquals("Invalid credentials", ex.getMessage());
 
         // Token üretimi olmamalı
-        verify(tokenProvider, never()).generateToken(anyString(), anyList());
+        verify(tokenProvider, never()).generateToken(any(), anyString(), anyList());
     }
 }
@@ -1,11 +1,15 @@
 package com.hospital.automation.service;
 
 import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.common.exception.ConflictException;
 import com.hospital.automation.common.exception.NotFoundException;
 import com.hospital.automation.domain.dto.request.DepartmentCreateRequest;
 import com.hospital.automation.domain.dto.response.DepartmentResponse;
 import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.RoomRepository;
 import com.hospital.automation.service.impl.DepartmentServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,6 +31,15 @@ class DepartmentServiceImplTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
     @InjectMocks
     private DepartmentServiceImpl departmentService;
 
@@ -215,4 +228,17 @@ class DepartmentServiceImplTest {
 
         verifyNoMoreInteractions(departmentRepository);
     }
+
+    @Test
+    @DisplayName("delete(): departmana bağlı oda varsa ConflictException fırlatır ve deleteById çağrılmaz")
+    void delete_shouldThrowConflict_whenRoomsLinked() {
+        // --- Arrange ---
+        when(departmentRepository.existsById(15L)).thenReturn(true);
+        when(roomRepository.existsByDepartment_Id(15L)).thenReturn(true);
+
+        // --- Act + Assert ---
+        assertThrows(ConflictException.class, () -> departmentService.delete(15L));
+
+        verify(departmentRepository, never()).deleteById(anyLong());
+    }
 }
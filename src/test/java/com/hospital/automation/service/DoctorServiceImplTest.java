@@ -5,8 +5,10 @@ import com.hospital.automation.domain.dto.request.DoctorCreateRequest;
 import com.hospital.automation.domain.dto.response.DoctorResponse;
 import com.hospital.automation.domain.entity.Department;
 import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.enums.CalendarOwner;
 import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
 import com.hospital.automation.service.impl.DoctorServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -34,6 +36,9 @@ class DoctorServiceImplTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private CalendarFeedVersions feedVersions;
+
     // Test edeceğimiz gerçek sınıf (içine mock'lar enjekte edilecek)
     @InjectMocks
     private DoctorServiceImpl doctorService;
@@ -262,5 +267,6 @@ class DoctorServiceImplTest {
         // 3) verify
         verify(doctorRepository, times(1)).existsById(id);
         verify(doctorRepository, times(1)).deleteById(id);
+        verify(feedVersions).onOwnerDeleted(CalendarOwner.DOCTOR, id);
     }
 }
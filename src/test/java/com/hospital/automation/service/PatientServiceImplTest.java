@@ -2,11 +2,16 @@ package com.hospital.automation.service;
 
 import com.hospital.automation.common.exception.BadRequestException;
 import com.hospital.automation.common.exception.NotFoundException;
+import com.hospital.automation.common.exception.PreconditionFailedException;
 import com.hospital.automation.domain.dto.request.PatientCreateRequest;
 import com.hospital.automation.domain.dto.request.PatientUpdateRequest;
 import com.hospital.automation.domain.dto.response.PatientResponse;
 import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.CalendarOwner;
+import com.hospital.automation.repository.AppointmentRepository;
 import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.service.appointment.CalendarFeedVersions;
+import com.hospital.automation.service.appointment.DoctorScheduleCache;
 import com.hospital.automation.service.impl.PatientServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +35,15 @@ class PatientServiceImplTest {
     @Mock
     private AuditLogService auditLogService;
 
+    @Mock
+    private CalendarFeedVersions feedVersions;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorScheduleCache scheduleCache;
+
     @InjectMocks
     private PatientServiceImpl patientService;
 
@@ -213,7 +227,7 @@ class PatientServiceImplTest {
 
         when(patientRepository.findById(77L)).thenReturn(Optional.empty());
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> patientService.update(77L, req));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> patientService.update(77L, req, null));
         assertEquals("Patient not found: 77", ex.getMessage());
 
         verify(patientRepository).findById(77L);
@@ -237,17 +251,41 @@ class PatientServiceImplTest {
                 "Istanbul"
         );
 
-        BadRequestException ex = assertThrows(BadRequestException.class, () -> patientService.update(10L, req));
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> patientService.update(10L, req, null));
         assertEquals("nationalId already exists", ex.getMessage());
 
         verify(auditLogService, never()).log(any(), any(), any(), any());
     }
 
+    @Test
+    void update_shouldThrowPreconditionFailed_whenIfMatchVersionIsStale() {
+        patient1.setVersion(3L);
+        when(patientRepository.findById(10L)).thenReturn(Optional.of(patient1));
+
+        PatientUpdateRequest req = new PatientUpdateRequest(
+                "AliUpdated",
+                "VeliUpdated",
+                LocalDate.of(1998, 12, 31),
+                "11111111111",
+                "5559998887",
+                "Izmir"
+        );
+
+        PreconditionFailedException ex = assertThrows(PreconditionFailedException.class,
+                () -> patientService.update(10L, req, 2L));
+        assertTrue(ex.getMessage().contains("current version 3"));
+
+        // entity'ye dokunulmadı
+        assertEquals("Ali", patient1.getFirstName());
+        verify(auditLogService, never()).log(any(), any(), any(), any());
+    }
+
     @Test
     void update_shouldUpdateFieldsAndReturnResponse_whenValid_andSameNationalIdOwner() {
         when(patientRepository.findById(10L)).thenReturn(Optional.of(patient1));
         // aynı patient dönüyor (id=10) -> filter(!equals(id)) ile elenecek, hata yok
         when(patientRepository.findByNationalId("11111111111")).thenReturn(Optional.of(patient1));
+        when(appointmentRepository.findDoctorIdsByPatientId(10L)).thenReturn(List.of(1L, 2L));
 
         PatientUpdateRequest req = new PatientUpdateRequest(
                 "AliUpdated",
@@ -258,7 +296,7 @@ class PatientServiceImplTest {
                 "Izmir"
         );
 
-        PatientResponse res = patientService.update(10L, req);
+        PatientResponse res = patientService.update(10L, req, null);
 
         assertEquals(10L, res.id());
         assertEquals("AliUpdated", res.firstName());
@@ -282,6 +320,11 @@ class PatientServiceImplTest {
         // update’te repo.save çağrısı yok (serviste yok). O yüzden verify(save) yapmıyoruz.
         verify(patientRepository).findById(10L);
         verify(patientRepository).findByNationalId("11111111111");
+
+        // ad değişti: feed damgası ve hastanın doktorlarının ajanda cache'i
+        verify(feedVersions).onNamesChanged();
+        verify(scheduleCache).evictDoctor(1L);
+        verify(scheduleCache).evictDoctor(2L);
     }
 
     @Test
@@ -297,7 +340,7 @@ class PatientServiceImplTest {
                 "Izmir"
         );
 
-        PatientResponse res = patientService.update(10L, req);
+        PatientResponse res = patientService.update(10L, req, null);
 
         assertEquals("AliUpdated", res.firstName());
         verify(patientRepository, never()).findByNationalId(anyString());
@@ -333,6 +376,7 @@ class PatientServiceImplTest {
         patientService.delete(10L);
 
         verify(patientRepository).delete(patient1);
+        verify(feedVersions).onOwnerDeleted(CalendarOwner.PATIENT, 10L);
 
         verify(auditLogService).log(
                 eq("DELETE"),
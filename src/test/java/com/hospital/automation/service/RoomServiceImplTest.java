@@ -6,7 +6,10 @@ import com.hospital.automation.domain.dto.request.RoomCreateRequest;
 import com.hospital.automation.domain.dto.response.RoomResponse;
 import com.hospital.automation.domain.entity.Room;
 import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.repository.DepartmentRepository;
 import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.service.admission.CensusIndex;
+import com.hospital.automation.service.admission.RoomAvailabilityIndex;
 import com.hospital.automation.service.impl.RoomServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,13 +28,22 @@ class RoomServiceImplTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private CensusIndex censusIndex;
+
     @InjectMocks
     private RoomServiceImpl roomService;
 
     @Test
     void create_shouldThrowBadRequest_whenRoomNumberAlreadyExists() {
         // given
-        RoomCreateRequest req = new RoomCreateRequest("101A", 1, RoomType.WARD, 2);
+        RoomCreateRequest req = new RoomCreateRequest("101A", 1, RoomType.WARD, 2, null);
 
         when(roomRepository.findByRoomNumber("101A"))
                 .thenReturn(Optional.of(Room.builder().id(99L).roomNumber("101A").build()));
@@ -46,7 +58,7 @@ class RoomServiceImplTest {
     @Test
     void create_shouldSaveRoom_andReturnResponse() {
         // given
-        RoomCreateRequest req = new RoomCreateRequest("101A", 1, RoomType.WARD, 2);
+        RoomCreateRequest req = new RoomCreateRequest("101A", 1, RoomType.WARD, 2, null);
 
         when(roomRepository.findByRoomNumber("101A")).thenReturn(Optional.empty());
         when(roomRepository.save(any(Room.class))).thenAnswer(inv -> {
@@ -0,0 +1,97 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.service.admission.BedAssignmentPlanner.Demand;
+import com.hospital.automation.service.admission.BedAssignmentPlanner.Placement;
+import com.hospital.automation.service.admission.BedAssignmentPlanner.RoomBeds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BedAssignmentPlannerTest {
+
+    private static final Long CARDIO = 1L;
+
+    @Test
+    void plan_shouldPreferOwnDepartmentRoom_thenPreferredFloor() {
+        List<RoomBeds> rooms = List.of(
+                beds(1L, 2, RoomType.WARD, null, 4),
+                beds(2L, 3, RoomType.WARD, null, 4),
+                beds(3L, 5, RoomType.WARD, CARDIO, 2));
+
+        List<Placement> plan = BedAssignmentPlanner.plan(rooms, List.of(
+                new Demand(RoomType.WARD, 3, CARDIO),   // bölüm odası kat tercihinden önce gelir
+                new Demand(RoomType.WARD, 3, null),
+                new Demand(RoomType.WARD, 4, null)));   // tam eşleşme yok => en yakın kat
+
+        assertEquals(3L, plan.get(0).room().roomId());
+        assertFalse(plan.get(0).preferredFloor());
+        assertEquals(2L, plan.get(1).room().roomId());
+        assertTrue(plan.get(1).preferredFloor());
+        assertEquals(2L, plan.get(2).room().roomId());
+    }
+
+    @Test
+    void plan_shouldKeepDepartmentRoomsForTheirDepartment_andReportUnplaced() {
+        List<RoomBeds> rooms = List.of(
+                beds(1L, 1, RoomType.ICU, CARDIO, 1),
+                beds(2L, 1, RoomType.ICU, null, 1));
+
+        List<Placement> plan = BedAssignmentPlanner.plan(rooms, List.of(
+                new Demand(RoomType.ICU, null, null),
+                new Demand(RoomType.ICU, null, null),     // kardiyoloji odası buna açık değil
+                new Demand(RoomType.PRIVATE, null, null)));
+
+        assertEquals(2L, plan.get(0).room().roomId());
+        assertNull(plan.get(1));
+        assertNull(plan.get(2));
+    }
+
+    @Test
+    void plan_shouldGiveEarlierRowsTheirPreferredFloorFirst() {
+        // bölüm hastası genel yatağı boşa harcamaz: sonraki genel hasta tercih ettiği kattaki yatağı alır
+        List<RoomBeds> rooms = List.of(
+                beds(1L, 1, RoomType.WARD, null, 1),
+                beds(2L, 4, RoomType.WARD, null, 1),
+                beds(3L, 4, RoomType.WARD, CARDIO, 1));
+
+        List<Placement> plan = BedAssignmentPlanner.plan(rooms, List.of(
+                new Demand(RoomType.WARD, 1, CARDIO),
+                new Demand(RoomType.WARD, 1, null),
+                new Demand(RoomType.WARD, 1, null)));
+
+        assertEquals(3L, plan.get(0).room().roomId());
+        assertEquals(1L, plan.get(1).room().roomId());
+        assertTrue(plan.get(1).preferredFloor());
+        assertEquals(2L, plan.get(2).room().roomId());
+        assertFalse(plan.get(2).preferredFloor());
+    }
+
+    @Test
+    void plan_shouldNeverExceedFreeBeds_andFillTightestRoomFirst() {
+        List<RoomBeds> rooms = List.of(
+                beds(1L, 1, RoomType.WARD, null, 3),
+                beds(2L, 1, RoomType.WARD, null, 1),
+                beds(3L, 1, RoomType.WARD, null, 0));
+
+        List<Demand> demands = new ArrayList<>();
+        for (int i = 0; i < 6; i++) demands.add(new Demand(RoomType.WARD, 1, null));
+        List<Placement> plan = BedAssignmentPlanner.plan(rooms, demands);
+
+        Map<Long, Integer> perRoom = new HashMap<>();
+        plan.stream().filter(p -> p != null).forEach(p -> perRoom.merge(p.room().roomId(), 1, Integer::sum));
+        assertEquals(Map.of(1L, 3, 2L, 1), perRoom);
+        // best-fit: ilk hasta tek boş yataklı odaya
+        assertEquals(2L, plan.get(0).room().roomId());
+        assertEquals(2, plan.stream().filter(p -> p == null).count());
+    }
+
+    private static RoomBeds beds(Long id, Integer floor, RoomType type, Long departmentId, int free) {
+        return new RoomBeds(id, "R-" + id, floor, type, departmentId, 4, free);
+    }
+}
@@ -0,0 +1,123 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.domain.dto.response.CensusCount;
+import com.hospital.automation.domain.dto.response.CensusHeatmapResponse;
+import com.hospital.automation.domain.dto.response.CensusPointResponse;
+import com.hospital.automation.domain.dto.response.CensusRangeResponse;
+import com.hospital.automation.domain.entity.Room;
+import com.hospital.automation.domain.enums.CensusGroupBy;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.AdmissionTransferRepository;
+import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.repository.projection.OccupancyInterval;
+import com.hospital.automation.repository.projection.TransferStep;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CensusIndexTest {
+
+    private static final LocalDateTime TUESDAY = LocalDateTime.of(2026, 3, 3, 0, 0);
+
+    @Mock RoomRepository roomRepository;
+    @Mock AdmissionRepository admissionRepository;
+    @Mock AdmissionTransferRepository transferRepository;
+    @Mock PlatformTransactionManager txManager;
+
+    CensusIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CensusIndex(roomRepository, admissionRepository, transferRepository, txManager);
+
+        when(roomRepository.findAll()).thenReturn(List.of(
+                room(1L, "ICU-1", RoomType.ICU),
+                room(2L, "ICU-2", RoomType.ICU),
+                room(3L, "W-1", RoomType.WARD)));
+        when(admissionRepository.findOccupancyIntervals()).thenReturn(List.of(
+                new OccupancyInterval(10L, 1L, TUESDAY.minusDays(1), TUESDAY.plusHours(1)),      // 01:00'de çıktı
+                new OccupancyInterval(11L, 1L, TUESDAY.plusHours(1).plusMinutes(30), null),    // hâlâ yatıyor
+                new OccupancyInterval(12L, 2L, TUESDAY.plusHours(1), TUESDAY.plusHours(3)),
+                new OccupancyInterval(13L, 3L, TUESDAY, TUESDAY.plusHours(2))));
+    }
+
+    @Test
+    void pointInTime_shouldCountPerRoomTypeAndTotal() {
+        CensusPointResponse at2 = index.pointInTime(TUESDAY.plusHours(2), CensusGroupBy.ROOM_TYPE, null);
+
+        assertEquals(2, at2.total()); // W-1 02:00'de çıktı (yarı açık aralık)
+        assertEquals(List.of(new CensusCount("WARD", 0), new CensusCount("ICU", 2), new CensusCount("PRIVATE", 0)),
+                at2.rows());
+
+        CensusPointResponse icuRooms = index.pointInTime(TUESDAY.plusMinutes(30), CensusGroupBy.ROOM, RoomType.ICU);
+        assertEquals(1, icuRooms.total());
+        assertEquals(List.of(new CensusCount("ICU-1", 1), new CensusCount("ICU-2", 0)), icuRooms.rows());
+    }
+
+    @Test
+    void range_shouldReportPeakAverageAndPatientHours() {
+        CensusRangeResponse r = index.range(TUESDAY, TUESDAY.plusHours(4), CensusGroupBy.ROOM_TYPE, RoomType.ICU);
+
+        // ICU: 00-01 => 1, 01-01:30 => 1, 01:30-03 => 2, 03-04 => 1  => 1 + 0.5 + 3 + 1 = 5.5 hasta-saat
+        assertEquals("ICU", r.total().key());
+        assertEquals(2, r.total().peak());
+        assertEquals(5.5, r.total().patientHours());
+        assertEquals(1.38, r.total().averageOccupancy());
+    }
+
+    @Test
+    void heatmap_shouldEmitHourlyAverageAndPeak_andBuildOnce() {
+        CensusHeatmapResponse h = index.heatmap(TUESDAY, 3, CensusGroupBy.ROOM_TYPE, RoomType.ICU);
+
+        assertEquals(List.of(TUESDAY, TUESDAY.plusHours(1), TUESDAY.plusHours(2)), h.hours());
+        assertEquals(List.of(1.0, 1.5, 2.0), h.total().average());
+        assertEquals(List.of(1, 2, 2), h.total().peak());
+
+        index.pointInTime(TUESDAY, CensusGroupBy.ROOM, null);
+        verify(admissionRepository, times(1)).findOccupancyIntervals();
+
+        // transaction yok => hemen geçersiz kılınır, bir sonraki sorgu yeniden kurar
+        index.invalidate();
+        index.pointInTime(TUESDAY, CensusGroupBy.ROOM, null);
+        verify(admissionRepository, times(2)).findOccupancyIntervals();
+    }
+
+    @Test
+    void transferredAdmission_shouldCountInEachRoomForItsOwnSegment() {
+        // 14: W-1'de yattı, 02:00'de ICU-2'ye geçti, 05:00'te taburcu
+        when(admissionRepository.findOccupancyIntervals()).thenReturn(List.of(
+                new OccupancyInterval(14L, 2L, TUESDAY, TUESDAY.plusHours(5))));
+        when(transferRepository.findAllSteps()).thenReturn(List.of(
+                new TransferStep(14L, 3L, 2L, TUESDAY.plusHours(2))));
+
+        CensusPointResponse before = index.pointInTime(TUESDAY.plusHours(1), CensusGroupBy.ROOM_TYPE, null);
+        assertEquals(List.of(new CensusCount("WARD", 1), new CensusCount("ICU", 0), new CensusCount("PRIVATE", 0)),
+                before.rows());
+
+        CensusPointResponse after = index.pointInTime(TUESDAY.plusHours(2), CensusGroupBy.ROOM_TYPE, null);
+        assertEquals(List.of(new CensusCount("WARD", 0), new CensusCount("ICU", 1), new CensusCount("PRIVATE", 0)),
+                after.rows());
+
+        // hastane geneli: transfer anında düşüş yok
+        CensusRangeResponse r = index.range(TUESDAY, TUESDAY.plusHours(5), CensusGroupBy.ROOM, null);
+        assertEquals(1, r.total().peak());
+        assertEquals(5.0, r.total().patientHours());
+        assertEquals(2.0, r.rows().stream().filter(row -> row.key().equals("W-1")).findFirst().orElseThrow().patientHours());
+        assertEquals(3.0, r.rows().stream().filter(row -> row.key().equals("ICU-2")).findFirst().orElseThrow().patientHours());
+    }
+
+    private static Room room(Long id, String number, RoomType type) {
+        return Room.builder().id(id).roomNumber(number).roomType(type).capacity(2).build();
+    }
+}
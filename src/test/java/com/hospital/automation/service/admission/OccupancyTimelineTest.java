@@ -0,0 +1,70 @@
+package com.hospital.automation.service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyTimelineTest {
+
+    @Test
+    void at_shouldCountOpenAndClosedIntervals_withHalfOpenEnds() {
+        OccupancyTimeline tl = OccupancyTimeline.of(
+                new long[]{10, 20, 20, 50},
+                new long[]{30, 40, Long.MAX_VALUE, 50},   // son aralık boş (start == end)
+                4);
+
+        assertEquals(0, tl.at(9));
+        assertEquals(1, tl.at(10));
+        assertEquals(3, tl.at(20));
+        assertEquals(2, tl.at(30));   // [10, 30) 30'da bitti
+        assertEquals(1, tl.at(40));
+        assertEquals(1, tl.at(1_000_000));
+    }
+
+    @Test
+    void emptyTimeline_shouldAnswerZero() {
+        OccupancyTimeline tl = OccupancyTimeline.of(new long[0], new long[0], 0);
+
+        assertEquals(0, tl.at(5));
+        assertEquals(0, tl.peak(0, 100));
+        assertEquals(0, tl.integral(0, 100));
+    }
+
+    @Test
+    void queries_shouldMatchBruteForce_onRandomIntervals() {
+        Random random = new Random(42);
+        int n = 300;
+        int horizon = 2000;
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = random.nextInt(horizon);
+            ends[i] = (random.nextInt(10) == 0) ? Long.MAX_VALUE : starts[i] + 1 + random.nextInt(300);
+        }
+        OccupancyTimeline tl = OccupancyTimeline.of(starts, ends, n);
+
+        int[] level = new int[horizon + 400];
+        for (int i = 0; i < n; i++) {
+            long end = Math.min(ends[i], level.length);
+            for (long t = starts[i]; t < end; t++) level[(int) t]++;
+        }
+
+        for (int q = 0; q < 500; q++) {
+            int a = random.nextInt(level.length - 1);
+            int b = a + 1 + random.nextInt(level.length - a - 1);
+
+            assertEquals(level[a], tl.at(a), "at " + a);
+
+            int peak = 0;
+            long area = 0;
+            for (int t = a; t < b; t++) {
+                peak = Math.max(peak, level[t]);
+                area += level[t];
+            }
+            assertEquals(peak, tl.peak(a, b), "peak [" + a + ", " + b + ")");
+            assertEquals(area, tl.integral(a, b), "integral [" + a + ", " + b + ")");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.domain.dto.response.RoomAvailabilityItem;
+import com.hospital.automation.domain.entity.Admission;
+import com.hospital.automation.domain.entity.Room;
+import com.hospital.automation.domain.enums.AdmissionStatus;
+import com.hospital.automation.domain.enums.RoomType;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.RoomRepository;
+import com.hospital.automation.repository.projection.AdmissionStay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAvailabilityIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Mock RoomRepository roomRepository;
+    @Mock AdmissionRepository admissionRepository;
+    @Mock PlatformTransactionManager txManager;
+
+    RoomAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+        index = new RoomAvailabilityIndex(roomRepository, admissionRepository, txManager, clock);
+
+        when(roomRepository.findAll()).thenReturn(List.of(
+                room(1L, "ICU-1", 3, RoomType.ICU, 2),
+                room(2L, "ICU-2", 4, RoomType.ICU, 1),
+                room(3L, "W-1", 3, RoomType.WARD, 4),
+                room(4L, "P-1", 3, RoomType.PRIVATE, null)));   // kapasitesiz: yönetilmez
+        when(admissionRepository.findStaysHoldingBeds(AdmissionStatus.ADMITTED, NOW)).thenReturn(List.of(
+                stay(10L, 1L, AdmissionStatus.ADMITTED, null, NOW.plusHours(5)),        // yarın boşalır
+                stay(11L, 1L, AdmissionStatus.ADMITTED, null, null),
+                stay(12L, 2L, AdmissionStatus.ADMITTED, null, NOW.minusHours(1)),       // gecikmiş planlı taburcu
+                stay(13L, 3L, AdmissionStatus.DISCHARGED, NOW.plusHours(2), null)));    // ileri tarihli taburcu
+    }
+
+    @Test
+    void find_shouldFilterByTypeAndFloorBitsets() {
+        List<RoomAvailabilityItem> icuFloor3 = index.find(null, Set.of(RoomType.ICU), Set.of(3), 1);
+        assertTrue(icuFloor3.isEmpty()); // ICU-1 şu an dolu
+
+        List<RoomAvailabilityItem> floor3 = index.find(null, Set.of(), Set.of(3), 1);
+        assertEquals(List.of(3L), ids(floor3));
+        assertEquals(3, floor3.get(0).freeBeds());
+
+        assertEquals(List.of(3L), ids(index.find(null, Set.of(RoomType.WARD, RoomType.PRIVATE), null, 1)));
+        assertTrue(index.find(null, null, Set.of(99), 1).isEmpty());
+    }
+
+    @Test
+    void find_shouldCountPlannedAndFutureDischarges_butKeepOverdueStaysOccupied() {
+        List<RoomAvailabilityItem> tomorrow = index.find(NOW.plusDays(1), null, null, 1);
+
+        assertEquals(List.of(1L, 3L), ids(tomorrow));
+        assertEquals(1, tomorrow.get(0).freeBeds());   // planlı taburcu sonrası
+        assertEquals(4, tomorrow.get(1).freeBeds());   // ileri tarihli taburcu sonrası
+        // ICU-2: planlı taburcusu geçmiş ama hasta hâlâ yatıyor => dolu
+
+        assertEquals(List.of(3L), ids(index.find(NOW.plusDays(1), null, null, 2)));
+    }
+
+    @Test
+    void find_shouldLoadOnce_andApplyAdmissionChangesWithoutReload() {
+        assertTrue(index.find(null, Set.of(RoomType.ICU), null, 1).isEmpty());
+
+        // transaction yok => değişiklik hemen uygulanır
+        Admission discharged = admission(11L, 1L, AdmissionStatus.DISCHARGED, NOW.minusMinutes(5), null);
+        index.onAdmissionSaved(discharged);
+        assertEquals(List.of(1L), ids(index.find(null, Set.of(RoomType.ICU), null, 1)));
+
+        index.onAdmissionDeleted(2L, 12L);
+        assertEquals(List.of(1L, 2L), ids(index.find(null, Set.of(RoomType.ICU), null, 1)));
+
+        verify(roomRepository, times(1)).findAll();
+        verify(admissionRepository, times(1)).findStaysHoldingBeds(any(), any());
+    }
+
+    @Test
+    void onAdmissionMoved_shouldFreeOldBedAndTakeNewOne() {
+        index.find(null, null, null, 1);
+
+        // 11: ICU-1 -> W-1
+        index.onAdmissionMoved(1L, admission(11L, 3L, AdmissionStatus.ADMITTED, null, null));
+
+        List<RoomAvailabilityItem> rooms = index.find(null, Set.of(RoomType.ICU, RoomType.WARD), Set.of(3), 1);
+        assertEquals(List.of(1L, 3L), ids(rooms));
+        assertEquals(1, rooms.get(0).occupied());
+        assertEquals(2, rooms.get(1).occupied());
+    }
+
+    @Test
+    void onRoomsChanged_shouldReloadSnapshotOnNextQuery() {
+        index.find(null, null, null, 1);
+        index.onRoomsChanged();
+        index.find(null, null, null, 1);
+
+        verify(roomRepository, times(2)).findAll();
+    }
+
+    private static List<Long> ids(List<RoomAvailabilityItem> items) {
+        return items.stream().map(RoomAvailabilityItem::roomId).toList();
+    }
+
+    private static Room room(Long id, String number, Integer floor, RoomType type, Integer capacity) {
+        return Room.builder().id(id).roomNumber(number).floor(floor).roomType(type).capacity(capacity).build();
+    }
+
+    private static AdmissionStay stay(Long id, Long roomId, AdmissionStatus status,
+                                      LocalDateTime dischargedAt, LocalDateTime plannedDischargeAt) {
+        return new AdmissionStay(id, roomId, status, dischargedAt, plannedDischargeAt);
+    }
+
+    private static Admission admission(Long id, Long roomId, AdmissionStatus status,
+                                       LocalDateTime dischargedAt, LocalDateTime plannedDischargeAt) {
+        return Admission.builder()
+                .id(id)
+                .room(Room.builder().id(roomId).build())
+                .status(status)
+                .dischargedAt(dischargedAt)
+                .plannedDischargeAt(plannedDischargeAt)
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.hospital.automation.service.admission;
+
+import com.hospital.automation.config.AdmissionProperties;
+import com.hospital.automation.domain.enums.AdmissionStatus;
+import com.hospital.automation.repository.AdmissionRepository;
+import com.hospital.automation.repository.projection.RoomOccupancy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomOccupancyRegistryTest {
+
+    private static final Long ROOM_ID = 5L;
+
+    @Mock AdmissionRepository admissionRepository;
+
+    RoomOccupancyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RoomOccupancyRegistry(admissionRepository, new AdmissionProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tryAdmit_shouldSeedOnceFromGroupedQuery_andRespectCapacity() {
+        when(admissionRepository.countByRoomAndStatus(AdmissionStatus.ADMITTED))
+                .thenReturn(List.of(new RoomOccupancy(ROOM_ID, 1)));
+
+        assertTrue(registry.tryAdmit(ROOM_ID, 2));
+        assertFalse(registry.tryAdmit(ROOM_ID, 2));
+        assertTrue(registry.tryAdmit(99L, null)); // kapasitesiz oda
+
+        assertEquals(2, registry.occupied(ROOM_ID));
+        verify(admissionRepository, times(1)).countByRoomAndStatus(AdmissionStatus.ADMITTED);
+    }
+
+    @Test
+    void tryAdmit_shouldNeverExceedCapacity_underConcurrentAdmissions() throws Exception {
+        when(admissionRepository.countByRoomAndStatus(AdmissionStatus.ADMITTED)).thenReturn(List.of());
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads * 10; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    if (registry.tryAdmit(ROOM_ID, 7)) admitted.incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(7, admitted.get());
+        assertEquals(7, registry.occupied(ROOM_ID));
+    }
+
+    @Test
+    void tryAdmit_shouldGiveBedBack_whenTransactionRollsBack() {
+        when(admissionRepository.countByRoomAndStatus(AdmissionStatus.ADMITTED)).thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(registry.tryAdmit(ROOM_ID, 1));
+        // commit beklerken yer ayrılmış: ikinci yatış alamaz
+        assertFalse(registry.tryAdmit(ROOM_ID, 1));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, registry.occupied(ROOM_ID));
+        assertTrue(registry.tryAdmit(ROOM_ID, 1));
+    }
+
+    @Test
+    void onReleased_shouldFreeBedOnlyAfterCommit() {
+        when(admissionRepository.countByRoomAndStatus(AdmissionStatus.ADMITTED))
+                .thenReturn(List.of(new RoomOccupancy(ROOM_ID, 1)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.onReleased(ROOM_ID);
+        assertFalse(registry.tryAdmit(ROOM_ID, 1));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(1, registry.occupied(ROOM_ID));
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.onReleased(ROOM_ID);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, registry.occupied(ROOM_ID));
+    }
+
+    @Test
+    void reconcile_shouldCorrectDrift_butSkipRoomsWithPendingChanges() {
+        when(admissionRepository.countByRoomAndStatus(AdmissionStatus.ADMITTED))
+                .thenReturn(List.of(new RoomOccupancy(ROOM_ID, 1), new RoomOccupancy(6L, 1)))
+                // başka node'lar: oda 5'te 3, oda 6'da 2 aktif yatış, oda 7 yeni dolmuş
+                .thenReturn(List.of(new RoomOccupancy(ROOM_ID, 3), new RoomOccupancy(6L, 2), new RoomOccupancy(7L, 1)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(registry.tryAdmit(6L, null)); // oda 6: commit bekleyen ayırma
+
+        assertEquals(2, registry.reconcile()); // oda 5 ve 7
+        assertEquals(3, registry.occupied(ROOM_ID));
+        assertEquals(1, registry.occupied(7L));
+        assertEquals(2, registry.occupied(6L)); // dokunulmadı (1 + bekleyen 1)
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(2, registry.occupied(6L));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        syncs.forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import com.hospital.automation.domain.dto.response.AppointmentBulkResponse.RowError;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.DepartmentRepository;
+import com.hospital.automation.repository.DoctorRepository;
+import com.hospital.automation.repository.PatientRepository;
+import com.hospital.automation.repository.projection.DoctorBusySlot;
+import com.hospital.automation.repository.projection.DoctorDepartmentRef;
+import com.hospital.automation.service.appointment.AppointmentBatchInserter.Row;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentBatchInserterTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+
+    @Mock PatientRepository patientRepository;
+    @Mock DoctorRepository doctorRepository;
+    @Mock DepartmentRepository departmentRepository;
+    @Mock AppointmentRepository appointmentRepository;
+    @Mock DoctorBookingLocks bookingLocks;
+    @Mock AppointmentOverlapIndex overlapIndex;
+    @Mock DoctorScheduleCache scheduleCache;
+    @Mock CalendarFeedVersions feedVersions;
+    @Mock JdbcTemplate jdbcTemplate;
+
+    AppointmentBatchInserter inserter;
+
+    @BeforeEach
+    void setUp() {
+        inserter = new AppointmentBatchInserter(patientRepository, doctorRepository, departmentRepository,
+                appointmentRepository, bookingLocks, overlapIndex, scheduleCache, feedVersions, jdbcTemplate);
+    }
+
+    @Test
+    void insert_shouldReportRowErrors_andBatchInsertOnlyAcceptedRows() {
+        when(patientRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        when(doctorRepository.findDepartmentRefs(anyCollection()))
+                .thenReturn(List.of(new DoctorDepartmentRef(10L, 5L), new DoctorDepartmentRef(11L, null)));
+        // doktor 10'un DB'de 09:00-09:30 randevusu var
+        when(appointmentRepository.findBusySlots(anyCollection(), eq(AppointmentStatus.SCHEDULED), any(), any()))
+                .thenReturn(List.of(new DoctorBusySlot(10L, at(9, 0), at(9, 30))));
+
+        List<Row> rows = List.of(
+                row(1, 1L, 10L, 9, 30, 10, 0),    // OK (DB randevusunun hemen arkası)
+                row(2, 1L, 10L, 9, 15, 9, 45),    // DB ile çakışır
+                row(3, 1L, 10L, 9, 45, 10, 15),   // batch içindeki 1. satırla çakışır
+                row(4, 2L, 10L, 11, 0, 11, 30),   // hasta yok
+                row(5, 1L, 11L, 9, 0, 9, 30),     // başka doktor, OK
+                row(6, 1L, 11L, 10, 0, 10, 0),    // geçersiz aralık
+                row(7, 1L, 99L, 9, 0, 9, 30)      // doktor yok
+        );
+
+        AppointmentBatchInserter.Result result = inserter.insert(rows);
+
+        assertEquals(List.of(1, 5), result.inserted().stream().map(Row::row).toList());
+        assertEquals(List.of(2, 3, 4, 6, 7), result.errors().stream().map(RowError::row).toList());
+        assertEquals("Doctor has another appointment in this time range", result.errors().get(1).message());
+        assertEquals("Patient not found: 2", result.errors().get(2).message());
+
+        // tüm varlık kontrolleri set-based: satır sayısından bağımsız birer sorgu
+        verify(patientRepository, times(1)).findExistingIds(anyCollection());
+        verify(doctorRepository, times(1)).findDepartmentRefs(anyCollection());
+        verify(appointmentRepository, times(1)).findBusySlots(anyCollection(), any(), any(), any());
+        verifyNoInteractions(departmentRepository);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+
+        verify(bookingLocks).lockForTransaction(argThat((Collection<Long> ids) -> ids.containsAll(List.of(10L, 11L))));
+        verify(overlapIndex).invalidate(10L);
+        verify(overlapIndex).invalidate(11L);
+    }
+
+    @Test
+    void insert_shouldNotTouchDb_whenNoRowIsValid() {
+        AppointmentBatchInserter.Result result = inserter.insert(List.of(
+                new Row(1, new AppointmentCreateRequest(null, 10L, null, at(9, 0), at(9, 30), null))));
+
+        assertTrue(result.inserted().isEmpty());
+        assertEquals("patientId is required", result.errors().get(0).message());
+        verifyNoInteractions(patientRepository, doctorRepository, appointmentRepository, bookingLocks, jdbcTemplate);
+    }
+
+    private static Row row(int row, Long patientId, Long doctorId, int sh, int sm, int eh, int em) {
+        return new Row(row, new AppointmentCreateRequest(patientId, doctorId, null, at(sh, sm), at(eh, em), null));
+    }
+
+    private static LocalDateTime at(int h, int m) {
+        return DAY.withHour(h).withMinute(m);
+    }
+}
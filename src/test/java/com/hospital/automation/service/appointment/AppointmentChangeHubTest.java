@@ -0,0 +1,193 @@
+package com.hospital.automation.service.appointment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.automation.common.exception.TooManyRequestsException;
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.entity.Appointment;
+import com.hospital.automation.domain.entity.Department;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.entity.Patient;
+import com.hospital.automation.domain.enums.AppointmentChangeType;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentChangeHubTest {
+
+    private AppointmentChangeHub hub;
+
+    @AfterEach
+    void tearDown() {
+        if (hub != null) hub.shutdown();
+    }
+
+    @Test
+    void publish_shouldDeliverOnlyToMatchingSubscribers() throws Exception {
+        hub = newHub(16);
+        RecordingEmitter cardiology = new RecordingEmitter(null);
+        RecordingEmitter doctor20 = new RecordingEmitter(null);
+        RecordingEmitter all = new RecordingEmitter(null);
+        hub.subscribe("alice", 3L, null, cardiology);
+        hub.subscribe("alice", null, 20L, doctor20);
+        hub.subscribe("alice", null, null, all);
+
+        hub.publish(AppointmentChangeType.CREATED, appointment(1L, 10L, 3L));
+        hub.publish(AppointmentChangeType.CANCELLED, appointment(2L, 20L, 4L));
+
+        await(() -> all.events().size() == 2);
+        await(() -> cardiology.events().size() == 1 && doctor20.events().size() == 1);
+        assertTrue(cardiology.events().get(0).contains("event:CREATED"));
+        assertTrue(cardiology.events().get(0).contains("\"appointmentId\":1"));
+        assertTrue(doctor20.events().get(0).contains("event:CANCELLED"));
+        assertTrue(doctor20.events().get(0).contains("\"departmentId\":4"));
+    }
+
+    @Test
+    void publish_shouldEvictSlowConsumer_withoutAffectingOthers() throws Exception {
+        hub = newHub(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        AppointmentChangeHub.Subscriber slowSub = hub.subscribe("alice", null, null, slow);
+        hub.subscribe("alice", null, null, fast);
+        await(() -> slow.connected && fast.connected);
+
+        // 1. event send'de takılır, 2. kuyruğu doldurur, 3. taşar => atılır
+        // hızlı abone her event'i bir sonrakinden önce alır
+        for (int id = 1; id <= 3; id++) {
+            hub.publish(AppointmentChangeType.CREATED, appointment((long) id, 10L, 3L));
+            int received = id;
+            await(() -> fast.events().size() == received);
+            if (id == 1) await(() -> slow.blocked);
+        }
+
+        assertTrue(slowSub.evicted);
+        assertEquals(1, hub.subscriberCount());
+
+        release.countDown();
+        await(() -> slow.completed);
+        assertTrue(slow.events().stream().anyMatch(e -> e.contains("event:evicted")));
+    }
+
+    @Test
+    void publish_shouldNotDeliver_whenTransactionDoesNotCommit() throws Exception {
+        hub = newHub(16);
+        RecordingEmitter all = new RecordingEmitter(null);
+        hub.subscribe("alice", null, null, all);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            hub.publish(AppointmentChangeType.CREATED, appointment(1L, 10L, 3L));
+        } finally {
+            // rollback: afterCommit hiç çağrılmaz
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        hub.publish(AppointmentChangeType.UPDATED, appointment(2L, 10L, 3L));
+
+        await(() -> all.events().size() == 1);
+        assertTrue(all.events().get(0).contains("\"appointmentId\":2"));
+    }
+
+    @Test
+    void subscribe_shouldRejectOverPerUserAndGlobalLimit_andFreeSlotOnClose() throws Exception {
+        AppointmentProperties props = new AppointmentProperties();
+        props.setStreamMaxSubscribers(3);
+        props.setStreamMaxSubscribersPerUser(2);
+        props.setStreamHeartbeatSeconds(1);
+        hub = new AppointmentChangeHub(new ObjectMapper().findAndRegisterModules(), props);
+
+        AppointmentChangeHub.Subscriber first = hub.subscribe("alice", null, null, new RecordingEmitter(null));
+        hub.subscribe("alice", null, null, new RecordingEmitter(null));
+        assertThrows(TooManyRequestsException.class,
+                () -> hub.subscribe("alice", null, null, new RecordingEmitter(null)));
+
+        hub.subscribe("bob", null, null, new RecordingEmitter(null));
+        assertThrows(TooManyRequestsException.class,
+                () -> hub.subscribe("carol", null, null, new RecordingEmitter(null)));
+        assertEquals(3, hub.subscriberCount());
+
+        // abone kapanınca hem toplam hem kullanıcı sayacı düşer
+        first.closed = true;
+        await(() -> hub.subscriberCount() == 2);
+        hub.subscribe("alice", null, null, new RecordingEmitter(null));
+        assertEquals(3, hub.subscriberCount());
+    }
+
+    private static AppointmentChangeHub newHub(int bufferSize) {
+        AppointmentProperties props = new AppointmentProperties();
+        props.setStreamBufferSize(bufferSize);
+        return new AppointmentChangeHub(new ObjectMapper().findAndRegisterModules(), props);
+    }
+
+    private static Appointment appointment(Long id, Long doctorId, Long departmentId) {
+        Department dept = Department.builder().id(departmentId).name("D" + departmentId).build();
+        Doctor doctor = Doctor.builder().id(doctorId).firstName("D").lastName("X").department(dept).build();
+        Patient patient = Patient.builder().id(1L).firstName("A").lastName("B").build();
+        LocalDateTime start = LocalDateTime.of(2027, 1, 4, 9, 0);
+        return Appointment.builder().id(id).doctor(doctor).patient(patient)
+                .startTime(start).endTime(start.plusMinutes(30)).status(AppointmentStatus.SCHEDULED).build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    // gönderilen SSE parçalarını kaydeder; release verilirse ilk data event'inde onu bekler (yavaş istemci)
+    static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        volatile boolean connected;
+        volatile boolean blocked;
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String text = builder.build().stream().map(d -> String.valueOf(d.getData())).collect(Collectors.joining());
+            if (text.startsWith(":connected")) {
+                connected = true;
+                return;
+            }
+            if (release != null && text.contains("event:CREATED") && !blocked) {
+                blocked = true;
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sent.add(text);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> events() {
+            return sent.stream().filter(s -> s.contains("event:")).toList();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.projection.AppointmentSlot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentConflictScannerTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+
+    @Mock AppointmentRepository appointmentRepository;
+    @InjectMocks AppointmentConflictScanner scanner;
+
+    @Test
+    void findConflicts_shouldUseOneRangeQuery_andCatchConflictsBetweenCandidates() {
+        when(appointmentRepository.findSlotsByDoctorAndStatusInRange(
+                1L, AppointmentStatus.SCHEDULED, DAY.withHour(9), DAY.plusDays(2).withHour(10)))
+                .thenReturn(List.of(new AppointmentSlot(100L, DAY.plusDays(1).withHour(9), DAY.plusDays(1).withHour(10))));
+
+        List<AppointmentSlot> candidates = List.of(
+                slot(0, 9, 10),     // OK
+                slot(1, 9, 10),     // DB randevusu ile çakışır
+                slot(0, 9, 10),     // önceki aday ile çakışır
+                slot(2, 9, 10));    // OK
+
+        assertEquals(List.of(1, 2), scanner.findConflicts(1L, Set.of(), candidates));
+        verify(appointmentRepository, times(1)).findSlotsByDoctorAndStatusInRange(any(), any(), any(), any());
+    }
+
+    @Test
+    void findConflicts_shouldIgnoreExcludedOwnRows() {
+        when(appointmentRepository.findSlotsByDoctorAndStatusInRange(eq(1L), eq(AppointmentStatus.SCHEDULED), any(), any()))
+                .thenReturn(List.of(new AppointmentSlot(100L, DAY.withHour(9), DAY.withHour(10))));
+
+        assertEquals(List.of(), scanner.findConflicts(1L, Set.of(100L), List.of(slot(0, 9, 10))));
+    }
+
+    private static AppointmentSlot slot(int day, int fromHour, int toHour) {
+        return new AppointmentSlot(null, DAY.plusDays(day).withHour(fromHour), DAY.plusDays(day).withHour(toHour));
+    }
+}
@@ -0,0 +1,54 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.domain.dto.request.AppointmentCreateRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentCsvFormatTest {
+
+    @Test
+    void parse_shouldMapColumnsByHeaderName_inAnyOrder() {
+        AppointmentCsvFormat format = AppointmentCsvFormat.fromHeader("startTime,endTime,DoctorId,patientId,note");
+
+        AppointmentCreateRequest req = format.parse("2026-01-03T10:00:00,2026-01-03T10:30:00,7,3,\"Kontrol, \"\"acil\"\"\"");
+
+        assertEquals(3L, req.patientId());
+        assertEquals(7L, req.doctorId());
+        assertNull(req.departmentId());
+        assertEquals(LocalDateTime.of(2026, 1, 3, 10, 0), req.startTime());
+        assertEquals(LocalDateTime.of(2026, 1, 3, 10, 30), req.endTime());
+        assertEquals("Kontrol, \"acil\"", req.note());
+    }
+
+    @Test
+    void parse_shouldTreatEmptyValuesAsNull_andRejectMalformedValues() {
+        AppointmentCsvFormat format = AppointmentCsvFormat.fromHeader("patientId,doctorId,departmentId,startTime,endTime");
+
+        AppointmentCreateRequest req = format.parse("3,7,,2026-01-03T10:00:00,");
+        assertNull(req.departmentId());
+        assertNull(req.endTime());
+
+        assertThrows(IllegalArgumentException.class, () -> format.parse("x,7,,2026-01-03T10:00:00,2026-01-03T10:30:00"));
+        assertThrows(RuntimeException.class, () -> format.parse("3,7,,03.01.2026 10:00,2026-01-03T10:30:00"));
+        assertThrows(IllegalArgumentException.class, () -> format.parse("3,7,,\"2026-01-03T10:00:00,2026-01-03T10:30:00"));
+    }
+
+    @Test
+    void fromHeader_shouldRejectMissingRequiredColumns() {
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> AppointmentCsvFormat.fromHeader("patientId,doctorId,startTime"));
+        assertTrue(ex.getMessage().contains("endtime"));
+
+        assertThrows(BadRequestException.class, () -> AppointmentCsvFormat.fromHeader(null));
+    }
+
+    @Test
+    void split_shouldKeepEmptyTrailingField() {
+        assertEquals(List.of("a", "", "c", ""), AppointmentCsvFormat.split("a,,c,"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.entity.Appointment;
+import com.hospital.automation.domain.entity.Doctor;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.projection.AppointmentSlot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentOverlapIndexTest {
+
+    private static final Long DOCTOR_ID = 10L;
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+
+    @Mock AppointmentRepository appointmentRepository;
+    @Mock PlatformTransactionManager txManager;
+
+    AppointmentOverlapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AppointmentOverlapIndex(appointmentRepository, new AppointmentProperties(), txManager);
+    }
+
+    @Test
+    void hasOverlap_shouldLoadLazilyOnce_andAnswerFreeSlotsWithoutDbQuery() {
+        when(appointmentRepository.findSlotsByDoctorAndStatus(DOCTOR_ID, AppointmentStatus.SCHEDULED))
+                .thenReturn(List.of(slot(1L, 9, 0, 9, 30), slot(2L, 10, 0, 10, 30)));
+
+        assertFalse(index.hasOverlap(DOCTOR_ID, null, at(9, 30), at(10, 0)));  // tam arada
+        assertFalse(index.hasOverlap(DOCTOR_ID, null, at(11, 0), at(11, 30)));
+
+        verify(appointmentRepository, times(1)).findSlotsByDoctorAndStatus(DOCTOR_ID, AppointmentStatus.SCHEDULED);
+        verify(appointmentRepository, never()).existsOverlappingAppointment(any(), any(), any(), any());
+    }
+
+    @Test
+    void hasOverlap_shouldConfirmWithDb_whenIndexReportsConflict() {
+        when(appointmentRepository.findSlotsByDoctorAndStatus(DOCTOR_ID, AppointmentStatus.SCHEDULED))
+                .thenReturn(List.of(slot(1L, 9, 0, 9, 30)));
+        // DB otoriter: index eski kalmış olsa bile DB "yok" derse yok
+        when(appointmentRepository.existsOverlappingAppointment(DOCTOR_ID, AppointmentStatus.SCHEDULED, at(9, 15), at(9, 45)))
+                .thenReturn(false);
+
+        assertFalse(index.hasOverlap(DOCTOR_ID, null, at(9, 15), at(9, 45)));
+    }
+
+    @Test
+    void hasOverlap_shouldFindLongEarlierInterval_evenWithOverlappingLegacyRows() {
+        // 08:00-12:00 uzun kayıt + içinde kısa bir kayıt (eski veride çakışma olabilir)
+        when(appointmentRepository.findSlotsByDoctorAndStatus(DOCTOR_ID, AppointmentStatus.SCHEDULED))
+                .thenReturn(List.of(slot(1L, 8, 0, 12, 0), slot(2L, 9, 0, 9, 30)));
+        when(appointmentRepository.existsOverlappingAppointment(DOCTOR_ID, AppointmentStatus.SCHEDULED, at(10, 0), at(11, 0)))
+                .thenReturn(true);
+
+        assertTrue(index.hasOverlap(DOCTOR_ID, null, at(10, 0), at(11, 0)));
+    }
+
+    @Test
+    void onSavedAndOnDeleted_shouldKeepIndexInSync() {
+        when(appointmentRepository.findSlotsByDoctorAndStatus(DOCTOR_ID, AppointmentStatus.SCHEDULED))
+                .thenReturn(List.of());
+        assertFalse(index.hasOverlap(DOCTOR_ID, null, at(9, 0), at(9, 30)));
+
+        // transaction yok => değişiklik hemen uygulanır
+        Appointment a = appointment(5L, at(9, 0), at(9, 30), AppointmentStatus.SCHEDULED);
+        index.onSaved(a);
+        when(appointmentRepository.existsOverlappingAppointment(DOCTOR_ID, AppointmentStatus.SCHEDULED, at(9, 0), at(9, 30)))
+                .thenReturn(true);
+        assertTrue(index.hasOverlap(DOCTOR_ID, null, at(9, 0), at(9, 30)));
+
+        // kendisi hariç tutulunca çakışma yok (update senaryosu), DB'ye gidilmez
+        assertFalse(index.hasOverlap(DOCTOR_ID, 5L, at(9, 0), at(9, 30)));
+
+        // iptal => index'ten çıkar
+        a.setStatus(AppointmentStatus.CANCELLED);
+        index.onSaved(a);
+        assertFalse(index.hasOverlap(DOCTOR_ID, null, at(9, 0), at(9, 30)));
+
+        index.onSaved(appointment(6L, at(13, 0), at(13, 30), AppointmentStatus.SCHEDULED));
+        index.onDeleted(DOCTOR_ID, 6L);
+        assertFalse(index.hasOverlap(DOCTOR_ID, null, at(13, 0), at(13, 30)));
+
+        verify(appointmentRepository, times(1)).findSlotsByDoctorAndStatus(DOCTOR_ID, AppointmentStatus.SCHEDULED);
+        verify(appointmentRepository, never()).existsOverlappingAppointmentExcludingId(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void hasOverlap_shouldUseDbOnly_whenIndexDisabled() {
+        AppointmentProperties props = new AppointmentProperties();
+        props.setOverlapIndexEnabled(false);
+        index = new AppointmentOverlapIndex(appointmentRepository, props, txManager);
+
+        when(appointmentRepository.existsOverlappingAppointmentExcludingId(DOCTOR_ID, 3L, AppointmentStatus.SCHEDULED, at(9, 0), at(9, 30)))
+                .thenReturn(true);
+
+        assertTrue(index.hasOverlap(DOCTOR_ID, 3L, at(9, 0), at(9, 30)));
+        verify(appointmentRepository, never()).findSlotsByDoctorAndStatus(any(), any());
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.withHour(hour).withMinute(minute);
+    }
+
+    private static AppointmentSlot slot(Long id, int h1, int m1, int h2, int m2) {
+        return new AppointmentSlot(id, at(h1, m1), at(h2, m2));
+    }
+
+    private static Appointment appointment(Long id, LocalDateTime start, LocalDateTime end, AppointmentStatus status) {
+        Doctor doctor = new Doctor();
+        doctor.setId(DOCTOR_ID);
+        return Appointment.builder().id(id).doctor(doctor).startTime(start).endTime(end).status(status).build();
+    }
+}
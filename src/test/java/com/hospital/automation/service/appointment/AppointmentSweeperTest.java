@@ -0,0 +1,116 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.response.AppointmentChangeEvent;
+import com.hospital.automation.domain.enums.AppointmentChangeType;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.repository.AppointmentRepository;
+import com.hospital.automation.repository.projection.PastDueAppointment;
+import com.hospital.automation.repository.projection.SweptAppointment;
+import com.hospital.automation.service.AuditLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentSweeperTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    @Mock AppointmentRepository appointmentRepository;
+    @Mock AppointmentOverlapIndex overlapIndex;
+    @Mock DoctorScheduleCache scheduleCache;
+    @Mock CalendarFeedVersions feedVersions;
+    @Mock AppointmentChangeHub changeHub;
+    @Mock AuditLogService auditLogService;
+    @Mock JdbcTemplate jdbcTemplate;
+    @Mock PlatformTransactionManager txManager;
+
+    AppointmentSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentProperties props = new AppointmentProperties();
+        props.setSweeperBatchSize(2);
+        sweeper = new AppointmentSweeper(appointmentRepository, overlapIndex, scheduleCache, feedVersions, changeHub,
+                auditLogService, props, jdbcTemplate, txManager);
+    }
+
+    @Test
+    void sweep_shouldWalkKeysetBatches_andWriteOneAuditEntryPerBatch() {
+        PastDueAppointment a = row(1L, 10L, 8);
+        PastDueAppointment b = row(2L, 11L, 9);
+        PastDueAppointment c = row(3L, 10L, 10);
+
+        when(appointmentRepository.findPastDue(eq(AppointmentStatus.SCHEDULED), eq(CUTOFF), any()))
+                .thenReturn(List.of(a, b));
+        when(appointmentRepository.findPastDueAfter(eq(AppointmentStatus.SCHEDULED), eq(CUTOFF), eq(b.endTime()), eq(2L), any()))
+                .thenReturn(List.of(c));
+        when(appointmentRepository.updateStatusOfVisited(List.of(1L, 2L), AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED, CUTOFF))
+                .thenReturn(1);
+        when(appointmentRepository.updateStatusOfPastDue(List.of(1L, 2L), AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW, CUTOFF))
+                .thenReturn(1);
+        when(appointmentRepository.updateStatusOfVisited(List.of(3L), AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED, CUTOFF))
+                .thenReturn(0);
+        when(appointmentRepository.updateStatusOfPastDue(List.of(3L), AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW, CUTOFF))
+                .thenReturn(1);
+
+        AppointmentSweeper.SweepResult result = sweeper.sweep(CUTOFF);
+
+        assertEquals(new AppointmentSweeper.SweepResult(1, 2, 2), result);
+        verify(auditLogService, times(2)).log(eq("SWEEP"), eq("Appointment"), isNull(), anyString());
+        verify(overlapIndex, times(2)).invalidate(10L);
+        verify(overlapIndex).invalidate(11L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sweep_shouldBumpFeedsAndPublishEvents_forRowsItActuallyClosed() {
+        when(appointmentRepository.findPastDue(eq(AppointmentStatus.SCHEDULED), eq(CUTOFF), any()))
+                .thenReturn(List.of(row(1L, 10L, 8), row(2L, 11L, 9)));
+        when(appointmentRepository.updateStatusOfPastDue(List.of(1L, 2L), AppointmentStatus.SCHEDULED, AppointmentStatus.NO_SHOW, CUTOFF))
+                .thenReturn(1);
+        // 2 arada iptal edilmiş: sadece 1 kapandı
+        when(appointmentRepository.findSwept(List.of(1L, 2L), List.of(AppointmentStatus.COMPLETED, AppointmentStatus.NO_SHOW)))
+                .thenReturn(List.of(new SweptAppointment(1L, 10L, 3L, 50L,
+                        CUTOFF.withHour(7), CUTOFF.withHour(8), AppointmentStatus.NO_SHOW)));
+
+        sweeper.sweep(CUTOFF);
+
+        verify(feedVersions).onAppointmentsChanged(Set.of(10L), Set.of(50L));
+        ArgumentCaptor<Collection<AppointmentChangeEvent>> events = ArgumentCaptor.forClass(Collection.class);
+        verify(changeHub).publishAll(events.capture());
+        AppointmentChangeEvent e = events.getValue().iterator().next();
+        assertEquals(1, events.getValue().size());
+        assertEquals(AppointmentChangeType.UPDATED, e.type());
+        assertEquals(AppointmentStatus.NO_SHOW, e.status());
+        assertEquals(3L, e.departmentId());
+    }
+
+    @Test
+    void sweep_shouldNotAudit_whenRowsWereChangedConcurrently() {
+        when(appointmentRepository.findPastDue(eq(AppointmentStatus.SCHEDULED), eq(CUTOFF), any()))
+                .thenReturn(List.of(row(1L, 10L, 8)));
+        // başka bir node aynı satırı önce kapatmış: koşullu UPDATE'ler 0 döner
+
+        assertEquals(new AppointmentSweeper.SweepResult(0, 0, 1), sweeper.sweep(CUTOFF));
+        verifyNoInteractions(auditLogService, feedVersions, changeHub);
+    }
+
+    private static PastDueAppointment row(Long id, Long doctorId, int endHour) {
+        return new PastDueAppointment(id, doctorId, CUTOFF.withHour(endHour - 1), CUTOFF.withHour(endHour));
+    }
+}
@@ -0,0 +1,62 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.enums.CalendarOwner;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarFeedVersionsTest {
+
+    @Test
+    void appointmentChange_shouldBumpOnlyAffectedDoctorAndPatientFeeds() {
+        CalendarFeedVersions versions = new CalendarFeedVersions(new AppointmentProperties(), () -> 0L);
+        String doctor = versions.current(CalendarOwner.DOCTOR, 1L);
+        String patient = versions.current(CalendarOwner.PATIENT, 2L);
+        String other = versions.current(CalendarOwner.DOCTOR, 3L);
+
+        versions.onAppointmentChanged(1L, 2L);
+
+        assertNotEquals(doctor, versions.current(CalendarOwner.DOCTOR, 1L));
+        assertNotEquals(patient, versions.current(CalendarOwner.PATIENT, 2L));
+        assertEquals(other, versions.current(CalendarOwner.DOCTOR, 3L));
+    }
+
+    @Test
+    void ownerDeleted_shouldForgetKnownOwner_andChangeItsStamp() {
+        CalendarFeedVersions versions = new CalendarFeedVersions(new AppointmentProperties(), () -> 0L);
+        versions.markKnownOwner(CalendarOwner.PATIENT, 2L);
+        versions.markKnownOwner(CalendarOwner.DOCTOR, 2L);
+        String before = versions.current(CalendarOwner.PATIENT, 2L);
+
+        versions.onOwnerDeleted(CalendarOwner.PATIENT, 2L);
+
+        assertFalse(versions.isKnownOwner(CalendarOwner.PATIENT, 2L));
+        assertTrue(versions.isKnownOwner(CalendarOwner.DOCTOR, 2L));
+        assertNotEquals(before, versions.current(CalendarOwner.PATIENT, 2L));
+    }
+
+    @Test
+    void namesChangeAndStaleWindow_shouldBumpEveryFeed() {
+        AppointmentProperties props = new AppointmentProperties();
+        props.setCalendarFeedMaxStaleSeconds(300);
+        AtomicLong now = new AtomicLong(0);
+        CalendarFeedVersions versions = new CalendarFeedVersions(props, now::get);
+
+        String before = versions.current(CalendarOwner.DOCTOR, 1L);
+        versions.onAppointmentsChanged(List.of(), List.of(9L));
+        assertEquals(before, versions.current(CalendarOwner.DOCTOR, 1L));
+
+        versions.onNamesChanged();
+        String renamed = versions.current(CalendarOwner.DOCTOR, 1L);
+        assertNotEquals(before, renamed);
+
+        now.set(299_000);
+        assertEquals(renamed, versions.current(CalendarOwner.DOCTOR, 1L));
+        now.set(300_000);
+        assertNotEquals(renamed, versions.current(CalendarOwner.DOCTOR, 1L));
+    }
+}
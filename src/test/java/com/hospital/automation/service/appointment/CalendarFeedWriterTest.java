@@ -0,0 +1,75 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.domain.enums.CalendarOwner;
+import com.hospital.automation.repository.projection.CalendarEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarFeedWriterTest {
+
+    private static final ZoneId ISTANBUL = ZoneId.of("Europe/Istanbul");
+
+    @Test
+    void writeEvent_shouldWriteUtcTimesAndOwnerSpecificSummary() throws IOException {
+        CalendarEvent e = new CalendarEvent(7L,
+                LocalDateTime.of(2027, 3, 3, 9, 0), LocalDateTime.of(2027, 3, 3, 9, 30),
+                AppointmentStatus.SCHEDULED, "Kontrol; açlık, 8 saat",
+                "Ayse", "Kaya", "Mehmet", "Oz", "Cardiology");
+
+        StringWriter doctorFeed = new StringWriter();
+        CalendarFeedWriter.writeEvent(doctorFeed, CalendarOwner.DOCTOR, e, "20270101T000000Z", ISTANBUL);
+        String ics = doctorFeed.toString();
+
+        assertTrue(ics.startsWith("BEGIN:VEVENT\r\nUID:appointment-7@hospital-automation\r\n"));
+        assertTrue(ics.contains("DTSTART:20270303T060000Z\r\n"));
+        assertTrue(ics.contains("DTEND:20270303T063000Z\r\n"));
+        assertTrue(ics.contains("SUMMARY:Appointment: Ayse Kaya\r\n"));
+        assertTrue(ics.contains("DESCRIPTION:Department: Cardiology\\nKontrol\\; açlık\\, 8 saat\r\n"));
+        assertTrue(ics.contains("STATUS:CONFIRMED\r\n"));
+        assertTrue(ics.endsWith("END:VEVENT\r\n"));
+
+        StringWriter patientFeed = new StringWriter();
+        CalendarFeedWriter.writeEvent(patientFeed, CalendarOwner.PATIENT,
+                new CalendarEvent(8L, e.startTime(), null, AppointmentStatus.CANCELLED, null,
+                        "Ayse", "Kaya", "Mehmet", "Oz", null),
+                "20270101T000000Z", ISTANBUL);
+
+        assertTrue(patientFeed.toString().contains("SUMMARY:Appointment: Dr. Mehmet Oz\r\n"));
+        assertTrue(patientFeed.toString().contains("STATUS:CANCELLED\r\n"));
+        assertFalse(patientFeed.toString().contains("DTEND"));
+        assertFalse(patientFeed.toString().contains("DESCRIPTION"));
+    }
+
+    @Test
+    void line_shouldFoldAt75Octets_withoutSplittingMultiByteChars() throws IOException {
+        String content = "DESCRIPTION:" + "ş".repeat(60);
+
+        StringWriter w = new StringWriter();
+        CalendarFeedWriter.line(w, content);
+        String[] lines = w.toString().split("\r\n");
+
+        assertTrue(lines.length > 1);
+        for (String l : lines) {
+            assertTrue(l.getBytes(StandardCharsets.UTF_8).length <= 75, l);
+        }
+        for (int i = 1; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith(" "));
+        }
+        // katlama geri açılınca içerik aynı
+        assertEquals(content, w.toString().replace("\r\n ", "").replace("\r\n", ""));
+    }
+
+    @Test
+    void escape_shouldEscapeTextSpecials() {
+        assertEquals("a\\\\b\\;c\\,d\\ne", CalendarFeedWriter.escape("a\\b;c,d\r\ne"));
+        assertEquals("", CalendarFeedWriter.escape(null));
+    }
+}
@@ -0,0 +1,118 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.config.AppointmentProperties;
+import com.hospital.automation.domain.dto.response.ScheduleItemResponse;
+import com.hospital.automation.domain.enums.AppointmentStatus;
+import com.hospital.automation.service.appointment.DoctorScheduleCache.DaySchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoctorScheduleCacheTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    DoctorScheduleCache cache;
+    List<ScheduleItemResponse> db;
+    AtomicInteger queries;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DoctorScheduleCache(new AppointmentProperties());
+        db = new ArrayList<>();
+        queries = new AtomicInteger();
+    }
+
+    @Test
+    void getDays_shouldLoadMissingDaysWithOneQuery_andServeRepeatsFromCache() {
+        db.add(item(1L, MONDAY.atTime(9, 0)));
+        db.add(item(2L, MONDAY.plusDays(2).atTime(10, 0)));
+
+        List<DaySchedule> week = cache.getDays(10L, MONDAY, 7, loader());
+        assertEquals(7, week.size());
+        assertEquals(1, week.get(0).items().size());
+        assertEquals(1, week.get(2).items().size());
+        assertEquals(1, queries.get());
+
+        cache.getDays(10L, MONDAY, 7, loader());
+        cache.getDays(10L, MONDAY.plusDays(2), 1, loader());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void evict_shouldDropOnlyThatDay_andChangeVersionWhenContentChanges() {
+        db.add(item(1L, MONDAY.atTime(9, 0)));
+        String before = cache.getDays(10L, MONDAY, 1, loader()).get(0).version();
+        String tuesday = cache.getDays(10L, MONDAY.plusDays(1), 1, loader()).get(0).version();
+
+        db.add(item(2L, MONDAY.atTime(11, 0)));
+        cache.evict(10L, MONDAY.atTime(11, 0));
+
+        DaySchedule after = cache.getDays(10L, MONDAY, 1, loader()).get(0);
+        assertEquals(2, after.items().size());
+        assertNotEquals(before, after.version());
+
+        // salı cache'ten gelir, version aynı
+        int q = queries.get();
+        assertEquals(tuesday, cache.getDays(10L, MONDAY.plusDays(1), 1, loader()).get(0).version());
+        assertEquals(q, queries.get());
+    }
+
+    @Test
+    void getDays_shouldNotCacheResult_whenEvictedWhileLoading() {
+        BiFunction<LocalDateTime, LocalDateTime, List<ScheduleItemResponse>> racing = (from, to) -> {
+            queries.incrementAndGet();
+            // yükleme sürerken başka bir transaction commit etti
+            cache.evict(10L, MONDAY.atTime(9, 0));
+            return List.of();
+        };
+
+        cache.getDays(10L, MONDAY, 1, racing);
+        cache.getDays(10L, MONDAY, 1, loader());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void evictFrom_shouldDropDaysFromGivenDate() {
+        cache.getDays(10L, MONDAY, 7, loader());
+        cache.evictFrom(10L, MONDAY.plusDays(3));
+
+        cache.getDays(10L, MONDAY, 3, loader());
+        assertEquals(1, queries.get());
+        cache.getDays(10L, MONDAY, 7, loader());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void evictDoctor_shouldDropAllDaysOfThatDoctorOnly() {
+        cache.getDays(10L, MONDAY, 7, loader());
+        cache.getDays(20L, MONDAY, 7, loader());
+        cache.evictDoctor(10L);
+
+        cache.getDays(20L, MONDAY, 7, loader());
+        assertEquals(2, queries.get());
+        cache.getDays(10L, MONDAY.plusDays(6), 1, loader());
+        assertEquals(3, queries.get());
+    }
+
+    private BiFunction<LocalDateTime, LocalDateTime, List<ScheduleItemResponse>> loader() {
+        return (from, to) -> {
+            queries.incrementAndGet();
+            return db.stream()
+                    .filter(i -> !i.startTime().isBefore(from) && i.startTime().isBefore(to))
+                    .toList();
+        };
+    }
+
+    private static ScheduleItemResponse item(Long id, LocalDateTime start) {
+        return new ScheduleItemResponse(id, start, start.plusMinutes(30), AppointmentStatus.SCHEDULED, 1L, "Ali Veli");
+    }
+}
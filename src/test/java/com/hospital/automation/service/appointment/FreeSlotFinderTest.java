@@ -0,0 +1,88 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.domain.dto.response.FreeSlotResponse;
+import com.hospital.automation.repository.projection.DoctorBusySlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreeSlotFinderTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+    private static final Duration MIN_30 = Duration.ofMinutes(30);
+
+    private final FreeSlotFinder allDay = new FreeSlotFinder(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT);
+
+    @Test
+    void find_shouldReturnGapsBetweenBusySlots_andDropTooShortOnes() {
+        List<FreeSlotResponse> free = allDay.find(List.of(
+                busy(9, 0, 9, 30),
+                busy(9, 45, 10, 30),   // 9:30-9:45 arası 15 dk => elenir
+                busy(11, 0, 11, 30)
+        ), at(9, 0), at(12, 0), MIN_30);
+
+        assertEquals(List.of(slot(10, 30, 11, 0), slot(11, 30, 12, 0)), free);
+    }
+
+    @Test
+    void find_shouldMergeOverlappingAndNestedBusySlots() {
+        // eski veride çakışan kayıtlar: 9-11 içinde 9:30-10 ve 10:30-11:15
+        List<FreeSlotResponse> free = allDay.find(List.of(
+                busy(9, 0, 11, 0),
+                busy(9, 30, 10, 0),
+                busy(10, 30, 11, 15)
+        ), at(8, 0), at(12, 0), MIN_30);
+
+        assertEquals(List.of(slot(8, 0, 9, 0), slot(11, 15, 12, 0)), free);
+    }
+
+    @Test
+    void find_shouldClipToWindow_whenBusySlotsStickOut() {
+        List<FreeSlotResponse> free = allDay.find(List.of(
+                busy(7, 0, 9, 0),
+                busy(11, 30, 13, 0)
+        ), at(8, 0), at(12, 0), MIN_30);
+
+        assertEquals(List.of(slot(9, 0, 11, 30)), free);
+    }
+
+    @Test
+    void find_shouldSplitGapsByWorkingHours_acrossDays() {
+        FreeSlotFinder office = new FreeSlotFinder(LocalTime.of(8, 0), LocalTime.of(18, 0));
+
+        List<FreeSlotResponse> free = office.find(List.of(busy(8, 0, 17, 0)),
+                at(0, 0), DAY.plusDays(2), MIN_30);
+
+        assertEquals(List.of(
+                slot(17, 0, 18, 0),
+                new FreeSlotResponse(DAY.plusDays(1).withHour(8), DAY.plusDays(1).withHour(18))
+        ), free);
+    }
+
+    @Test
+    void find_shouldHandleOvernightShift() {
+        FreeSlotFinder night = new FreeSlotFinder(LocalTime.of(20, 0), LocalTime.of(6, 0));
+
+        List<FreeSlotResponse> free = night.find(List.of(), at(0, 0), at(23, 0), MIN_30);
+
+        // önceki gecenin vardiyası 00:00-06:00, bu gecenin 20:00-23:00 (pencere sonu)
+        assertEquals(List.of(slot(0, 0, 6, 0), slot(20, 0, 23, 0)), free);
+    }
+
+    private static DoctorBusySlot busy(int sh, int sm, int eh, int em) {
+        return new DoctorBusySlot(1L, at(sh, sm), at(eh, em));
+    }
+
+    private static FreeSlotResponse slot(int sh, int sm, int eh, int em) {
+        return new FreeSlotResponse(at(sh, sm), at(eh, em));
+    }
+
+    private static LocalDateTime at(int h, int m) {
+        return DAY.withHour(h).withMinute(m);
+    }
+}
@@ -0,0 +1,53 @@
+package com.hospital.automation.service.appointment;
+
+import com.hospital.automation.common.exception.BadRequestException;
+import com.hospital.automation.domain.enums.RecurrenceFrequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceExpanderTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2026, 1, 31, 9, 0);
+
+    @Test
+    void expand_weeklyWithInterval_shouldStopAtCount() {
+        List<LocalDateTime> out = RecurrenceExpander.expand(FIRST, RecurrenceFrequency.WEEKLY, 2, 3, null, 100);
+
+        assertEquals(List.of(FIRST, FIRST.plusWeeks(2), FIRST.plusWeeks(4)), out);
+    }
+
+    @Test
+    void expand_untilShouldBeInclusive_andWinOverLargerCount() {
+        List<LocalDateTime> out = RecurrenceExpander.expand(FIRST, RecurrenceFrequency.DAILY, 1, 10, FIRST.plusDays(2), 100);
+
+        assertEquals(3, out.size());
+        assertEquals(FIRST.plusDays(2), out.get(2));
+    }
+
+    @Test
+    void expand_monthly_shouldBeComputedFromFirstOccurrence() {
+        // 31 Ocak -> 28 Şubat -> 31 Mart (ayın sonuna kırpılan gün sonraki aylara taşınmaz)
+        List<LocalDateTime> out = RecurrenceExpander.expand(FIRST, RecurrenceFrequency.MONTHLY, 1, 3, null, 100);
+
+        assertEquals(LocalDateTime.of(2026, 2, 28, 9, 0), out.get(1));
+        assertEquals(LocalDateTime.of(2026, 3, 31, 9, 0), out.get(2));
+    }
+
+    @Test
+    void expand_shouldRejectMissingBound_andTooManyOccurrences() {
+        assertThrows(BadRequestException.class,
+                () -> RecurrenceExpander.expand(FIRST, RecurrenceFrequency.DAILY, 1, null, null, 100));
+        assertThrows(BadRequestException.class,
+                () -> RecurrenceExpander.expand(FIRST, RecurrenceFrequency.DAILY, 1, 5, null, 4));
+    }
+
+    @Test
+    void rrule_shouldRenderRfc5545Fields() {
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;COUNT=5;UNTIL=20260301T090000",
+                RecurrenceExpander.rrule(RecurrenceFrequency.WEEKLY, 2, 5, LocalDateTime.of(2026, 3, 1, 9, 0)));
+    }
+}
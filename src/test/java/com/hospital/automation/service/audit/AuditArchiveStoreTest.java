@@ -0,0 +1,103 @@
+package com.hospital.automation.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hospital.automation.config.AuditProperties;
+import com.hospital.automation.domain.dto.request.AuditLogFilter;
+import com.hospital.automation.domain.entity.AuditLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditArchiveStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private AuditArchiveStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AuditProperties props = new AuditProperties();
+        props.getPartitioning().setArchiveDir(dir.toString());
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        store = new AuditArchiveStore(props, mapper);
+
+        store.write(YearMonth.of(2024, 3), sink -> {
+            sink.accept(row(1L, "berfin", "CREATE", "Patient", LocalDateTime.of(2024, 3, 1, 9, 0)));
+            sink.accept(row(2L, "admin", "DELETE", "Patient", LocalDateTime.of(2024, 3, 5, 9, 0)));
+        });
+        store.write(YearMonth.of(2024, 4), sink ->
+                sink.accept(row(3L, "Berfin.K", "CREATE", "Visit", LocalDateTime.of(2024, 4, 2, 9, 0))));
+    }
+
+    @Test
+    void write_shouldListArchivedMonths_andLeaveNoTempFiles() throws Exception {
+        assertEquals(List.of(YearMonth.of(2024, 3), YearMonth.of(2024, 4)), store.archivedMonths());
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(p -> p.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void covers_shouldRequireLowerBoundReachingArchivedMonth() {
+        assertFalse(store.covers(filter(null, null, null, null)));
+        assertFalse(store.covers(filter(null, null, LocalDateTime.of(2024, 5, 1, 0, 0), null)));
+        assertFalse(store.covers(filter(null, null, LocalDateTime.of(2023, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 28, 0, 0))));
+        assertTrue(store.covers(filter(null, null, LocalDateTime.of(2024, 4, 30, 0, 0), null)));
+    }
+
+    @Test
+    void search_shouldApplySameFiltersAsDb_andSortByCreatedAtThenId() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        // username: contains + case-insensitive
+        AuditArchiveStore.Slice byUser = store.search(filter("berfin", null, from, null), true, 0, 10);
+        assertEquals(List.of(3L, 1L), ids(byUser));
+        assertEquals(2, byUser.total());
+
+        AuditArchiveStore.Slice byAction = store.search(filter(null, "CREATE", from, LocalDateTime.of(2024, 3, 31, 0, 0)), false, 0, 10);
+        assertEquals(List.of(1L), ids(byAction));
+
+        assertEquals(List.of(1L, 2L, 3L), ids(store.search(filter(null, null, from, null), false, 0, 10)));
+    }
+
+    @Test
+    void search_shouldReturnOnlyRequestedSlice_acrossMonths_withFullTotal() {
+        AuditLogFilter all = filter(null, null, LocalDateTime.of(2024, 1, 1, 0, 0), null);
+
+        AuditArchiveStore.Slice asc = store.search(all, false, 1, 2);
+        assertEquals(List.of(2L, 3L), ids(asc));
+        assertEquals(3, asc.total());
+
+        assertEquals(List.of(2L, 1L), ids(store.search(all, true, 1, 5)));
+        assertEquals(List.of(3L), ids(store.search(all, true, 0, 1)));
+
+        // limit 0: yalnızca toplam
+        AuditArchiveStore.Slice countOnly = store.search(all, true, 0, 0);
+        assertTrue(countOnly.rows().isEmpty());
+        assertEquals(3, countOnly.total());
+        assertTrue(store.search(all, false, 5, 2).rows().isEmpty());
+    }
+
+    private static List<Long> ids(AuditArchiveStore.Slice slice) {
+        return slice.rows().stream().map(AuditLog::getId).toList();
+    }
+
+    private static AuditLogFilter filter(String username, String action, LocalDateTime from, LocalDateTime to) {
+        return new AuditLogFilter(username, action, null, from, to, null);
+    }
+
+    private static AuditLog row(Long id, String username, String action, String entity, LocalDateTime at) {
+        return AuditLog.builder().id(id).username(username).action(action).entityName(entity).createdAt(at).build();
+    }
+}
@@ -0,0 +1,302 @@
+package com.hospital.automation.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.automation.config.AuditProperties;
+import com.hospital.automation.domain.entity.AuditLog;
+import com.hospital.automation.repository.AuditLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock private AuditLogRepository auditLogRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager txManager;
+    @Mock private AuditSpillStore spillStore;
+    @Mock private AuditActivityRollup activityRollup;
+
+    @TempDir private Path spillDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private AuditProperties props;
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        props = new AuditProperties();
+        props.setQueueCapacity(2);
+        props.setOfferTimeoutMillis(1);
+        props.setBatchSize(10);
+        // writer thread (start) çoğu testte çalışmıyor; flush() ile elle tetikliyoruz
+        props.setFlushIntervalMillis(60_000);
+        props.setSpillReplayIntervalMillis(Long.MAX_VALUE);
+        props.setSpillDir(spillDir.toString());
+        writer = new AuditLogWriter(props, auditLogRepository, jdbcTemplate, txManager, spillStore, activityRollup);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void submit_shouldSaveSynchronously_whenAsyncDisabled() {
+        props.setAsync(false);
+
+        AuditLog e = event("CREATE");
+        writer.submit(e);
+
+        verify(auditLogRepository).save(e);
+        verify(activityRollup).applyAfterCommit(List.of(e));
+        verifyNoInteractions(jdbcTemplate, spillStore);
+    }
+
+    @Test
+    void submit_shouldEnqueueOnlyAfterCommit_whenTransactionActive() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.submit(event("CREATE"));
+        assertEquals(0, writer.pendingCount(), "commit'ten önce kuyruğa girmemeli");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+        assertEquals(1, writer.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteQueuedEventsInOneJdbcBatch() {
+        writer.submit(event("CREATE"));
+        writer.submit(event("UPDATE"));
+
+        writer.flush();
+
+        ArgumentCaptor<Collection<AuditLog>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, captor.getValue().size());
+        assertEquals(0, writer.pendingCount());
+        // sayaçlar INSERT commit edildikten sonra aynı batch ile (ayrı transaction'da) güncellenir
+        InOrder order = inOrder(jdbcTemplate, activityRollup);
+        order.verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        order.verify(activityRollup).apply(argThat(batch -> batch.size() == 2));
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    @Test
+    void submit_shouldSpillToDisk_whenQueueIsFull() throws Exception {
+        writer.submit(event("A"));
+        writer.submit(event("B"));
+
+        AuditLog overflow = event("C");
+        writer.submit(overflow); // kapasite 2 => diske
+
+        verify(spillStore).append(List.of(overflow));
+        assertEquals(2, writer.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldSpillBatch_whenInsertFails() throws Exception {
+        writer.submit(event("CREATE"));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new RuntimeException("db down"));
+
+        writer.flush();
+
+        verify(spillStore).append(argThat(list -> list.size() == 1));
+        verifyNoInteractions(activityRollup);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stop_shouldFlushRemainingEvents_andSpillLateOnes() throws Exception {
+        writer.submit(event("CREATE"));
+        writer.start();
+        // canlı yazımlardan önce geçmiş satırlar sayılır
+        verify(activityRollup).backfill();
+
+        writer.stop();
+
+        assertFalse(writer.isRunning());
+        assertEquals(0, writer.pendingCount());
+        verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), eq(1), any(ParameterizedPreparedStatementSetter.class));
+
+        // kapanıştan sonra gelen event kaybolmaz, diske düşer
+        AuditLog late = event("LATE");
+        writer.submit(late);
+        verify(spillStore).append(List.of(late));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldNotWaitForWriterThreadGroupCommitWindow() {
+        writer.start();
+        try {
+            // writer 60 sn'lik group-commit penceresinde bekliyor; kilit tutmadığı için flush hemen yazar
+            writer.submit(event("CREATE"));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), writer::flush);
+
+            verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), eq(1), any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(0, writer.pendingCount());
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_shouldSkipEventsCommittedBefore_andCheckpointInSameTransaction() throws Exception {
+        Path pending = writePending("audit-spill-1.ndjson.pending", json(event("A")), json(event("B")), json(event("C")));
+        // önceki deneme ilk iki event'i commit edip çökmüş
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("audit-spill-1.ndjson.pending")))
+                .thenReturn(List.of(2L));
+
+        replayAll();
+
+        ArgumentCaptor<Collection<AuditLog>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals("C", captor.getValue().iterator().next().getAction());
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(contains("MERGE INTO audit_spill_checkpoints"), eq("audit-spill-1.ndjson.pending"), eq(3L));
+        order.verify(jdbcTemplate).update(contains("DELETE FROM audit_spill_checkpoints"), eq("audit-spill-1.ndjson.pending"));
+        assertFalse(Files.exists(pending));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_shouldStreamInBatches_andQuarantinePoisonRows() throws Exception {
+        props.setBatchSize(2);
+        Path pending = writePending("audit-spill-1.ndjson.pending",
+                json(event("A")), "{not json", json(event("BAD")), json(event("D")), json(event("E")));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString())).thenReturn(List.of());
+        // BAD satırı her denemede constraint ihlali
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    Collection<AuditLog> rows = inv.getArgument(1);
+                    if (rows.stream().anyMatch(r -> r.getAction().equals("BAD"))) {
+                        throw new DataIntegrityViolationException("check constraint");
+                    }
+                    return new int[0][];
+                });
+
+        replayAll();
+
+        // dilimler: [A, bozuk] satır satır; [BAD, D] satır satır; [E] tek batch
+        ArgumentCaptor<Collection<AuditLog>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(5)).batchUpdate(anyString(), captor.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of("A", "BAD", "BAD", "D", "E"),
+                captor.getAllValues().stream().map(c -> c.iterator().next().getAction()).toList());
+        verify(jdbcTemplate).update(contains("MERGE INTO audit_spill_checkpoints"), anyString(), eq(5L));
+
+        assertFalse(Files.exists(pending));
+        List<String> quarantined = Files.readAllLines(spillDir.resolve("audit-spill-1.ndjson.quarantine"));
+        assertEquals(2, quarantined.size());
+        assertEquals("{not json", quarantined.get(0));
+        assertTrue(quarantined.get(1).contains("\"BAD\""));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_shouldKeepDrainingLaterFiles_whenOneFileFails() throws Exception {
+        Path first = writePending("audit-spill-1.ndjson.pending", json(event("STUCK")));
+        Path second = writePending("audit-spill-2.ndjson.pending", json(event("OK")));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    Collection<AuditLog> rows = inv.getArgument(1);
+                    if (rows.iterator().next().getAction().equals("STUCK")) {
+                        throw new DataAccessResourceFailureException("connection reset");
+                    }
+                    return new int[0][];
+                });
+
+        replayAll();
+
+        assertTrue(Files.exists(first), "geçici hata: dosya bir sonraki tur için kalır");
+        assertFalse(Files.exists(second));
+        assertFalse(Files.exists(spillDir.resolve("audit-spill-1.ndjson.quarantine")));
+    }
+
+    // gerçek spill store ile writer thread'inin replay turları (ilk tur + takılan dosya için birkaç tekrar)
+    private void replayAll() throws Exception {
+        props.setFlushIntervalMillis(10);
+        props.setSpillReplayIntervalMillis(0); // her boşta kalışta
+        AuditSpillStore store = new AuditSpillStore(props, objectMapper);
+        AuditLogWriter replaying = new AuditLogWriter(props, auditLogRepository, jdbcTemplate, txManager, store, activityRollup);
+        replaying.start();
+        try {
+            verify(jdbcTemplate, timeout(5000).atLeastOnce()).queryForList(anyString(), eq(Long.class), anyString());
+            Thread.sleep(200);
+        } finally {
+            replaying.stop();
+        }
+    }
+
+    private Path writePending(String name, String... lines) throws Exception {
+        Path file = spillDir.resolve(name);
+        Files.write(file, List.of(lines));
+        return file;
+    }
+
+    private String json(AuditLog e) throws Exception {
+        return objectMapper.writeValueAsString(e);
+    }
+
+    @Test
+    void rollupAggregate_shouldCollapseBatchPerHourAndKey() {
+        LocalDateTime t = LocalDateTime.of(2026, 3, 1, 10, 15);
+        AuditLog a = event("CREATE");
+        a.setCreatedAt(t);
+        AuditLog b = event("CREATE");
+        b.setCreatedAt(t.plusMinutes(30));
+        AuditLog c = event("CREATE");
+        c.setCreatedAt(t.plusHours(1));
+        AuditLog d = event("DELETE");
+        d.setCreatedAt(t);
+
+        List<AuditActivityRollup.Increment> inc = AuditActivityRollup.aggregate(List.of(a, b, c, d));
+
+        assertEquals(3, inc.size());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 10, 0), inc.get(0).key().bucket());
+        assertEquals(2, inc.get(0).count());
+        assertEquals(1, inc.get(1).count());
+        assertEquals("DELETE", inc.get(2).key().action());
+    }
+
+    private AuditLog event(String action) {
+        return AuditLog.builder()
+                .username("tester")
+                .action(action)
+                .entityName("Appointment")
+                .entityId(1L)
+                .createdAt(LocalDateTime.now())
+                .details("d")
+                .build();
+    }
+}
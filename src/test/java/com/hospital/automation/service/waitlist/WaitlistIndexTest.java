@@ -0,0 +1,98 @@
+package com.hospital.automation.service.waitlist;
+
+import com.hospital.automation.repository.WaitlistEntryRepository;
+import com.hospital.automation.repository.projection.WaitlistCandidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class WaitlistIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 8, 0);
+    private static final LocalDateTime SLOT = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    WaitlistIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new WaitlistIndex(mock(WaitlistEntryRepository.class));
+    }
+
+    @Test
+    void match_shouldPickHighestPriority_thenOldest_acrossDoctorAndDepartment() {
+        index.reload(List.of(
+                doctorEntry(1L, 0, 30),
+                doctorEntry(2L, 5, 30),
+                deptEntry(3L, 5, 30),     // aynı öncelik, daha yeni
+                deptEntry(4L, 9, 90)));   // en yüksek öncelik ama 30 dk'ya sığmaz
+
+        assertEquals(2L, match(Set.of()).orElseThrow().id());
+        assertEquals(3L, match(Set.of(2L)).orElseThrow().id());
+        assertEquals(1L, match(Set.of(2L, 3L)).orElseThrow().id());
+    }
+
+    @Test
+    void match_shouldRespectPreferredWindow() {
+        // pencere 10:15'te başlıyor: 10:00 slotuna uymaz
+        index.reload(List.of(new WaitlistCandidate(1L, 10L, null, SLOT.plusMinutes(15), SLOT.plusHours(4), 30, 0)));
+
+        assertTrue(match(Set.of()).isEmpty());
+        assertTrue(index.match(10L, 3L, SLOT.plusMinutes(15), SLOT.plusMinutes(45), NOW, Set.of()).isPresent());
+    }
+
+    @Test
+    void match_shouldDropEntriesWhoseWindowHasPassed() {
+        index.reload(List.of(new WaitlistCandidate(1L, 10L, null, NOW.minusDays(2), NOW.minusDays(1), 30, 0)));
+
+        assertTrue(match(Set.of()).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void onWaiting_andOnLeft_shouldApplyImmediately_withoutTransaction() {
+        index.onWaiting(doctorEntry(1L, 0, 30));
+        assertEquals(1, index.size());
+
+        index.onLeft(1L);
+        assertEquals(0, index.size());
+        assertTrue(match(Set.of()).isEmpty());
+    }
+
+    @Test
+    void match_shouldStayFast_withThousandsOfWaitingEntries() {
+        // hepsi slota sığmayan uzun kayıtlar + en sonda tek uygun kayıt
+        List<WaitlistCandidate> many = new ArrayList<>();
+        for (long i = 1; i <= 5000; i++) {
+            many.add(deptEntry(i, 50, 120));
+        }
+        many.add(doctorEntry(10_000L, 1, 30));
+        index.reload(many);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(10_000L, match(Set.of()).orElseThrow().id());
+        }
+        // kaba üst sınır: ortalama < 5 ms (CI makinelerinde de rahat)
+        assertTrue((System.nanoTime() - started) / 100 < 5_000_000L);
+    }
+
+    private Optional<WaitlistCandidate> match(Set<Long> skip) {
+        return index.match(10L, 3L, SLOT, SLOT.plusMinutes(30), NOW, skip);
+    }
+
+    private static WaitlistCandidate doctorEntry(Long id, int priority, int minutes) {
+        return new WaitlistCandidate(id, 10L, null, SLOT.minusHours(2), SLOT.plusHours(4), minutes, priority);
+    }
+
+    private static WaitlistCandidate deptEntry(Long id, int priority, int minutes) {
+        return new WaitlistCandidate(id, null, 3L, SLOT.minusHours(2), SLOT.plusHours(4), minutes, priority);
+    }
+}